@@ -126,6 +126,14 @@ public abstract class MetricDescriptor {
      */
     GAUGE_DOUBLE,
 
+    /**
+     * An instantaneous measurement of a distribution value, such as the distribution of the values
+     * recorded in the past interval.
+     *
+     * @since 0.16
+     */
+    GAUGE_DISTRIBUTION,
+
     /**
      * An cumulative measurement of an int64 value.
      *
@@ -146,5 +154,12 @@ public abstract class MetricDescriptor {
      * @since 0.16
      */
     CUMULATIVE_DISTRIBUTION,
+
+    /**
+     * The count and sum of a population of values, and estimates of some of their quantiles.
+     *
+     * @since 0.16
+     */
+    SUMMARY,
   }
 }
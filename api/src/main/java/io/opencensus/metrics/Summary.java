@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.metrics;
+
+import com.google.auto.value.AutoValue;
+import io.opencensus.common.ExperimentalApi;
+import io.opencensus.internal.Utils;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * {@link Summary} contains the count and sum of a population of values, and estimates of some of
+ * their quantiles.
+ *
+ * @since 0.16
+ */
+@ExperimentalApi
+@AutoValue
+@Immutable
+public abstract class Summary {
+
+  Summary() {}
+
+  /**
+   * Creates a {@link Summary}.
+   *
+   * @param count count of the population values.
+   * @param sum sum of the population values.
+   * @param quantileValues the estimated value of each quantile, keyed by quantile between 0.0 and
+   *     1.0.
+   * @return a {@code Summary}.
+   * @since 0.16
+   */
+  public static Summary create(long count, double sum, Map<Double, Double> quantileValues) {
+    Utils.checkArgument(count >= 0, "count should be non-negative.");
+    Utils.checkNotNull(quantileValues, "quantileValues should not be null.");
+    Map<Double, Double> quantileValuesCopy = new TreeMap<Double, Double>(quantileValues);
+    for (Entry<Double, Double> entry : quantileValuesCopy.entrySet()) {
+      double quantile = entry.getKey();
+      Utils.checkArgument(
+          quantile >= 0.0 && quantile <= 1.0, "quantile should be between 0.0 and 1.0.");
+      Utils.checkNotNull(entry.getValue(), "quantile value should not be null.");
+    }
+    return new AutoValue_Summary(count, sum, Collections.unmodifiableMap(quantileValuesCopy));
+  }
+
+  /**
+   * Returns the aggregated count.
+   *
+   * @return the aggregated count.
+   * @since 0.16
+   */
+  public abstract long getCount();
+
+  /**
+   * Returns the aggregated sum.
+   *
+   * @return the aggregated sum.
+   * @since 0.16
+   */
+  public abstract double getSum();
+
+  /**
+   * Returns the estimated value of each quantile, keyed by quantile in ascending order.
+   *
+   * @return the estimated value of each quantile.
+   * @since 0.16
+   */
+  public abstract Map<Double, Double> getQuantileValues();
+}
@@ -24,15 +24,16 @@ import javax.annotation.concurrent.Immutable;
 /**
  * The actual point value for a {@link Point}.
  *
- * <p>Currently there are three types of {@link Value}:
+ * <p>Currently there are four types of {@link Value}:
  *
  * <ul>
  *   <li>{@code double}
  *   <li>{@code long}
  *   <li>{@link Distribution}
+ *   <li>{@link Summary}
  * </ul>
  *
- * <p>Each {@link Point} contains exactly one of the three {@link Value} types.
+ * <p>Each {@link Point} contains exactly one of the four {@link Value} types.
  *
  * @since 0.16
  */
@@ -75,6 +76,17 @@ public abstract class Value {
     return ValueDistribution.create(value);
   }
 
+  /**
+   * Returns a {@link Summary} {@link Value}.
+   *
+   * @param value value in {@link Summary}.
+   * @return a {@code Summary} {@code Value}.
+   * @since 0.16
+   */
+  public static Value summaryValue(Summary value) {
+    return ValueSummary.create(value);
+  }
+
   /**
    * Applies the given match function to the underlying data type.
    *
@@ -84,6 +96,7 @@ public abstract class Value {
       Function<? super Double, T> doubleFunction,
       Function<? super Long, T> longFunction,
       Function<? super Distribution, T> distributionFunction,
+      Function<? super Summary, T> summaryFunction,
       Function<? super Value, T> defaultFunction);
 
   /** A 64-bit double-precision floating-point {@link Value}. */
@@ -98,6 +111,7 @@ public abstract class Value {
         Function<? super Double, T> doubleFunction,
         Function<? super Long, T> longFunction,
         Function<? super Distribution, T> distributionFunction,
+        Function<? super Summary, T> summaryFunction,
         Function<? super Value, T> defaultFunction) {
       return doubleFunction.apply(getValue());
     }
@@ -132,6 +146,7 @@ public abstract class Value {
         Function<? super Double, T> doubleFunction,
         Function<? super Long, T> longFunction,
         Function<? super Distribution, T> distributionFunction,
+        Function<? super Summary, T> summaryFunction,
         Function<? super Value, T> defaultFunction) {
       return longFunction.apply(getValue());
     }
@@ -169,6 +184,7 @@ public abstract class Value {
         Function<? super Double, T> doubleFunction,
         Function<? super Long, T> longFunction,
         Function<? super Distribution, T> distributionFunction,
+        Function<? super Summary, T> summaryFunction,
         Function<? super Value, T> defaultFunction) {
       return distributionFunction.apply(getValue());
     }
@@ -191,6 +207,41 @@ public abstract class Value {
     abstract Distribution getValue();
   }
 
-  // TODO(songya): Add support for Summary type.
-  // This is an aggregation that produces percentiles directly.
+  /**
+   * {@link ValueSummary} contains the count and sum of a population of values, and estimates of
+   * some of their quantiles.
+   */
+  @AutoValue
+  @Immutable
+  abstract static class ValueSummary extends Value {
+
+    ValueSummary() {}
+
+    @Override
+    public final <T> T match(
+        Function<? super Double, T> doubleFunction,
+        Function<? super Long, T> longFunction,
+        Function<? super Distribution, T> distributionFunction,
+        Function<? super Summary, T> summaryFunction,
+        Function<? super Value, T> defaultFunction) {
+      return summaryFunction.apply(getValue());
+    }
+
+    /**
+     * Creates a {@link ValueSummary}.
+     *
+     * @param value the {@link Summary} value.
+     * @return a {@code ValueSummary}.
+     */
+    static ValueSummary create(Summary value) {
+      return new AutoValue_Value_ValueSummary(value);
+    }
+
+    /**
+     * Returns the {@link Summary} value.
+     *
+     * @return the {@code Summary} value.
+     */
+    abstract Summary getValue();
+  }
 }
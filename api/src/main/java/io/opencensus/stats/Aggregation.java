@@ -19,19 +19,24 @@ package io.opencensus.stats;
 import com.google.auto.value.AutoValue;
 import io.opencensus.common.Function;
 import io.opencensus.internal.Utils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
 import javax.annotation.concurrent.Immutable;
 
 /**
  * {@link Aggregation} is the process of combining a certain set of {@code MeasureValue}s for a
  * given {@code Measure} into an {@link AggregationData}.
  *
- * <p>{@link Aggregation} currently supports 4 types of basic aggregation:
+ * <p>{@link Aggregation} currently supports 5 types of basic aggregation:
  *
  * <ul>
  *   <li>Sum
  *   <li>Count
  *   <li>Distribution
  *   <li>LastValue
+ *   <li>Quantiles
  * </ul>
  *
  * <p>When creating a {@link View}, one {@link Aggregation} needs to be specified as how to
@@ -236,4 +241,98 @@ public abstract class Aggregation {
       return p3.apply(this);
     }
   }
+
+  /**
+   * Calculate estimates of the given quantiles of aggregated {@code MeasureValue}s, with the count
+   * and sum of the values.
+   *
+   * <p>Values are aggregated into a sketch of bounded size, which can be merged with the sketches
+   * of other intervals. Each estimate is within the relative accuracy of a value whose rank is the
+   * quantile, for example with a relative accuracy of 0.01 the estimate of a median of 100 is
+   * between 99 and 101.
+   *
+   * @since 0.16
+   */
+  @Immutable
+  @AutoValue
+  public abstract static class Quantiles extends Aggregation {
+
+    /**
+     * The relative accuracy of {@link #create(List)}.
+     *
+     * @since 0.16
+     */
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    Quantiles() {}
+
+    /**
+     * Construct a {@code Quantiles} with the {@link #DEFAULT_RELATIVE_ACCURACY}.
+     *
+     * @param quantiles the quantiles to estimate, each between 0.0 and 1.0 inclusive, e.g. 0.99 for
+     *     the 99th percentile.
+     * @return a new {@code Quantiles}.
+     * @throws IllegalArgumentException if a quantile is not between 0.0 and 1.0.
+     * @since 0.16
+     */
+    public static Quantiles create(List<Double> quantiles) {
+      return create(quantiles, DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * Construct a {@code Quantiles}.
+     *
+     * @param quantiles the quantiles to estimate, each between 0.0 and 1.0 inclusive, e.g. 0.99 for
+     *     the 99th percentile.
+     * @param relativeAccuracy the relative accuracy of the estimates, strictly between 0.0 and 1.0.
+     *     A lower relative accuracy needs more memory.
+     * @return a new {@code Quantiles}.
+     * @throws IllegalArgumentException if a quantile is not between 0.0 and 1.0, or if the relative
+     *     accuracy is not strictly between 0.0 and 1.0.
+     * @since 0.16
+     */
+    public static Quantiles create(List<Double> quantiles, double relativeAccuracy) {
+      Utils.checkNotNull(quantiles, "quantiles should not be null.");
+      Utils.checkArgument(!quantiles.isEmpty(), "quantiles should not be empty.");
+      // Sorted and deduplicated, so that equal aggregations have equal quantiles.
+      TreeSet<Double> sortedQuantiles = new TreeSet<Double>();
+      for (Double quantile : quantiles) {
+        Utils.checkNotNull(quantile, "quantile should not be null.");
+        Utils.checkArgument(
+            quantile >= 0.0 && quantile <= 1.0, "quantile should be between 0.0 and 1.0.");
+        sortedQuantiles.add(quantile);
+      }
+      Utils.checkArgument(
+          relativeAccuracy > 0.0 && relativeAccuracy < 1.0,
+          "relativeAccuracy should be between 0.0 and 1.0.");
+      return new AutoValue_Aggregation_Quantiles(
+          Collections.unmodifiableList(new ArrayList<Double>(sortedQuantiles)), relativeAccuracy);
+    }
+
+    /**
+     * Returns the quantiles to estimate, in ascending order.
+     *
+     * @return the quantiles to estimate.
+     * @since 0.16
+     */
+    public abstract List<Double> getQuantiles();
+
+    /**
+     * Returns the relative accuracy of the estimates.
+     *
+     * @return the relative accuracy of the estimates.
+     * @since 0.16
+     */
+    public abstract double getRelativeAccuracy();
+
+    @Override
+    public final <T> T match(
+        Function<? super Sum, T> p0,
+        Function<? super Count, T> p1,
+        Function<? super Distribution, T> p2,
+        Function<? super LastValue, T> p3,
+        Function<? super Aggregation, T> defaultFunction) {
+      return defaultFunction.apply(this);
+    }
+  }
 }
@@ -26,13 +26,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 import javax.annotation.concurrent.Immutable;
 
 /**
  * {@link AggregationData} is the result of applying a given {@link Aggregation} to a set of {@code
  * MeasureValue}s.
  *
- * <p>{@link AggregationData} currently supports 6 types of basic aggregation values:
+ * <p>{@link AggregationData} currently supports 7 types of basic aggregation values:
  *
  * <ul>
  *   <li>SumDataDouble
@@ -41,6 +42,7 @@ import javax.annotation.concurrent.Immutable;
  *   <li>DistributionData
  *   <li>LastValueDataDouble
  *   <li>LastValueDataLong
+ *   <li>QuantilesData
  * </ul>
  *
  * <p>{@link ViewData} will contain one {@link AggregationData}, corresponding to its {@link
@@ -552,4 +554,73 @@ public abstract class AggregationData {
       return p5.apply(this);
     }
   }
+
+  /**
+   * The estimated quantiles of aggregated {@code MeasureValue}s, with their count and sum.
+   *
+   * @since 0.16
+   */
+  @Immutable
+  @AutoValue
+  public abstract static class QuantilesData extends AggregationData {
+
+    QuantilesData() {}
+
+    /**
+     * Creates a {@code QuantilesData}.
+     *
+     * @param count the aggregated count.
+     * @param sum the aggregated sum.
+     * @param quantileValues the estimated value of each quantile, keyed by quantile.
+     * @return a {@code QuantilesData}.
+     * @since 0.16
+     */
+    public static QuantilesData create(long count, double sum, Map<Double, Double> quantileValues) {
+      Utils.checkNotNull(quantileValues, "quantileValues should not be null.");
+      Map<Double, Double> quantileValuesCopy =
+          Collections.unmodifiableMap(new TreeMap<Double, Double>(quantileValues));
+      for (Double value : quantileValuesCopy.values()) {
+        Utils.checkNotNull(value, "quantile value should not be null.");
+      }
+      return new AutoValue_AggregationData_QuantilesData(count, sum, quantileValuesCopy);
+    }
+
+    /**
+     * Returns the aggregated count.
+     *
+     * @return the aggregated count.
+     * @since 0.16
+     */
+    public abstract long getCount();
+
+    /**
+     * Returns the aggregated sum.
+     *
+     * @return the aggregated sum.
+     * @since 0.16
+     */
+    public abstract double getSum();
+
+    /**
+     * Returns the estimated value of each quantile, keyed by quantile in ascending order. The
+     * returned map is immutable, trying to update it will throw an {@code
+     * UnsupportedOperationException}. Estimates are {@code NaN} when the count is zero.
+     *
+     * @return the estimated value of each quantile.
+     * @since 0.16
+     */
+    public abstract Map<Double, Double> getQuantileValues();
+
+    @Override
+    public final <T> T match(
+        Function<? super SumDataDouble, T> p0,
+        Function<? super SumDataLong, T> p1,
+        Function<? super CountData, T> p2,
+        Function<? super DistributionData, T> p3,
+        Function<? super LastValueDataDouble, T> p4,
+        Function<? super LastValueDataLong, T> p5,
+        Function<? super AggregationData, T> defaultFunction) {
+      return defaultFunction.apply(this);
+    }
+  }
 }
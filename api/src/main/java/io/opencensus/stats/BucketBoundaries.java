@@ -21,6 +21,7 @@ import io.opencensus.internal.Utils;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 /**
@@ -53,7 +54,86 @@ public abstract class BucketBoundaries {
         lower = next;
       }
     }
-    return new AutoValue_BucketBoundaries(Collections.unmodifiableList(bucketBoundariesCopy));
+    return new AutoValue_BucketBoundaries(
+        Collections.unmodifiableList(bucketBoundariesCopy), null, null);
+  }
+
+  /**
+   * Returns a {@code BucketBoundaries} with {@code numFiniteBuckets + 1} boundaries {@code offset +
+   * width * i}, for {@code i} in {@code [0, numFiniteBuckets]}.
+   *
+   * <p>The returned {@code BucketBoundaries} remembers that its boundaries are linear, so that the
+   * bucket of a value can be computed in constant time and exporters can describe the buckets
+   * compactly. It is not equal to a {@code BucketBoundaries} created with {@link #create(List)},
+   * even if the boundaries are the same.
+   *
+   * @param offset the lower bound of the first finite bucket.
+   * @param width the width of each finite bucket.
+   * @param numFiniteBuckets the number of finite buckets.
+   * @return a new {@code BucketBoundaries} with linear boundaries.
+   * @throws IllegalArgumentException if {@code offset} is not finite, {@code width} is not positive
+   *     or {@code numFiniteBuckets} is not positive.
+   * @since 0.16
+   */
+  public static final BucketBoundaries linear(double offset, double width, int numFiniteBuckets) {
+    Utils.checkArgument(isFinite(offset), "offset should be finite.");
+    Utils.checkArgument(width > 0, "width should be positive.");
+    Utils.checkArgument(numFiniteBuckets > 0, "numFiniteBuckets should be positive.");
+    List<Double> boundaries = new ArrayList<Double>(numFiniteBuckets + 1);
+    for (int i = 0; i <= numFiniteBuckets; i++) {
+      boundaries.add(offset + i * width);
+    }
+    checkFiniteAndSorted(boundaries);
+    return new AutoValue_BucketBoundaries(
+        Collections.unmodifiableList(boundaries),
+        Linear.create(offset, width, numFiniteBuckets),
+        null);
+  }
+
+  /**
+   * Returns a {@code BucketBoundaries} with {@code numFiniteBuckets + 1} boundaries {@code scale *
+   * growthFactor^i}, for {@code i} in {@code [0, numFiniteBuckets]}.
+   *
+   * <p>The returned {@code BucketBoundaries} remembers that its boundaries are exponential, so that
+   * the bucket of a value can be computed in constant time and exporters can describe the buckets
+   * compactly. It is not equal to a {@code BucketBoundaries} created with {@link #create(List)},
+   * even if the boundaries are the same.
+   *
+   * @param scale the lower bound of the first finite bucket.
+   * @param growthFactor the ratio between the bounds of each finite bucket.
+   * @param numFiniteBuckets the number of finite buckets.
+   * @return a new {@code BucketBoundaries} with exponential boundaries.
+   * @throws IllegalArgumentException if {@code scale} is not positive and finite, {@code
+   *     growthFactor} is not greater than 1 or {@code numFiniteBuckets} is not positive.
+   * @since 0.16
+   */
+  public static final BucketBoundaries exponential(
+      double scale, double growthFactor, int numFiniteBuckets) {
+    Utils.checkArgument(scale > 0 && isFinite(scale), "scale should be positive and finite.");
+    Utils.checkArgument(growthFactor > 1, "growthFactor should be greater than 1.");
+    Utils.checkArgument(numFiniteBuckets > 0, "numFiniteBuckets should be positive.");
+    List<Double> boundaries = new ArrayList<Double>(numFiniteBuckets + 1);
+    for (int i = 0; i <= numFiniteBuckets; i++) {
+      boundaries.add(scale * Math.pow(growthFactor, i));
+    }
+    checkFiniteAndSorted(boundaries);
+    return new AutoValue_BucketBoundaries(
+        Collections.unmodifiableList(boundaries),
+        null,
+        Exponential.create(scale, growthFactor, numFiniteBuckets));
+  }
+
+  private static void checkFiniteAndSorted(List<Double> boundaries) {
+    double lower = Double.NEGATIVE_INFINITY;
+    for (double boundary : boundaries) {
+      Utils.checkArgument(isFinite(boundary), "Bucket boundaries should be finite.");
+      Utils.checkArgument(lower < boundary, "Bucket boundaries not sorted.");
+      lower = boundary;
+    }
+  }
+
+  private static boolean isFinite(double value) {
+    return !Double.isInfinite(value) && !Double.isNaN(value);
   }
 
   /**
@@ -63,4 +143,104 @@ public abstract class BucketBoundaries {
    * @since 0.8
    */
   public abstract List<Double> getBoundaries();
+
+  /**
+   * Returns the parameters of the linear boundaries, or {@code null} if this {@code
+   * BucketBoundaries} was not created with {@link #linear(double, double, int)}.
+   *
+   * @return the parameters of the linear boundaries.
+   * @since 0.16
+   */
+  @Nullable
+  public abstract Linear getLinear();
+
+  /**
+   * Returns the parameters of the exponential boundaries, or {@code null} if this {@code
+   * BucketBoundaries} was not created with {@link #exponential(double, double, int)}.
+   *
+   * @return the parameters of the exponential boundaries.
+   * @since 0.16
+   */
+  @Nullable
+  public abstract Exponential getExponential();
+
+  /**
+   * The parameters of linear bucket boundaries.
+   *
+   * @since 0.16
+   */
+  @Immutable
+  @AutoValue
+  public abstract static class Linear {
+
+    Linear() {}
+
+    private static Linear create(double offset, double width, int numFiniteBuckets) {
+      return new AutoValue_BucketBoundaries_Linear(offset, width, numFiniteBuckets);
+    }
+
+    /**
+     * Returns the lower bound of the first finite bucket.
+     *
+     * @return the lower bound of the first finite bucket.
+     * @since 0.16
+     */
+    public abstract double getOffset();
+
+    /**
+     * Returns the width of each finite bucket.
+     *
+     * @return the width of each finite bucket.
+     * @since 0.16
+     */
+    public abstract double getWidth();
+
+    /**
+     * Returns the number of finite buckets.
+     *
+     * @return the number of finite buckets.
+     * @since 0.16
+     */
+    public abstract int getNumFiniteBuckets();
+  }
+
+  /**
+   * The parameters of exponential bucket boundaries.
+   *
+   * @since 0.16
+   */
+  @Immutable
+  @AutoValue
+  public abstract static class Exponential {
+
+    Exponential() {}
+
+    private static Exponential create(double scale, double growthFactor, int numFiniteBuckets) {
+      return new AutoValue_BucketBoundaries_Exponential(scale, growthFactor, numFiniteBuckets);
+    }
+
+    /**
+     * Returns the lower bound of the first finite bucket.
+     *
+     * @return the lower bound of the first finite bucket.
+     * @since 0.16
+     */
+    public abstract double getScale();
+
+    /**
+     * Returns the ratio between the bounds of each finite bucket.
+     *
+     * @return the ratio between the bounds of each finite bucket.
+     * @since 0.16
+     */
+    public abstract double getGrowthFactor();
+
+    /**
+     * Returns the number of finite buckets.
+     *
+     * @return the number of finite buckets.
+     * @since 0.16
+     */
+    public abstract int getNumFiniteBuckets();
+  }
 }
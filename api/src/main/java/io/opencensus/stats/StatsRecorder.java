@@ -16,13 +16,16 @@
 
 package io.opencensus.stats;
 
+import io.opencensus.stats.Measure.MeasureDouble;
+import io.opencensus.stats.Measure.MeasureLong;
+import io.opencensus.tags.TagContext;
+
 /**
  * Provides methods to record stats against tags.
  *
  * @since 0.8
  */
 public abstract class StatsRecorder {
-  // TODO(sebright): Should we provide convenience methods for only recording one measure?
 
   /**
    * Returns an object for recording multiple measurements.
@@ -31,4 +34,32 @@ public abstract class StatsRecorder {
    * @since 0.8
    */
   public abstract MeasureMap newMeasureMap();
+
+  /**
+   * Records a single value of a {@link MeasureDouble} against the given tags. This is equivalent to
+   * {@code newMeasureMap().put(measure, value).record(tags)}, but implementations may record it
+   * without creating a {@link MeasureMap}.
+   *
+   * @param measure the measure of the value.
+   * @param value the value to record.
+   * @param tags the tags associated with the value.
+   * @since 0.16
+   */
+  public void record(MeasureDouble measure, double value, TagContext tags) {
+    newMeasureMap().put(measure, value).record(tags);
+  }
+
+  /**
+   * Records a single value of a {@link MeasureLong} against the given tags. This is equivalent to
+   * {@code newMeasureMap().put(measure, value).record(tags)}, but implementations may record it
+   * without creating a {@link MeasureMap}.
+   *
+   * @param measure the measure of the value.
+   * @param value the value to record.
+   * @param tags the tags associated with the value.
+   * @since 0.16
+   */
+  public void record(MeasureLong measure, long value, TagContext tags) {
+    newMeasureMap().put(measure, value).record(tags);
+  }
 }
@@ -268,6 +268,7 @@ public abstract class View {
     public abstract static class Interval extends AggregationWindow {
 
       private static final Duration ZERO = Duration.create(0, 0);
+      private static final int DEFAULT_NUM_BUCKETS = 4;
 
       Interval() {}
 
@@ -279,19 +280,52 @@ public abstract class View {
        */
       public abstract Duration getDuration();
 
+      /**
+       * Returns the number of buckets the {@code Duration} of this {@code Interval} is split into.
+       * The window slides by one bucket at a time, so more buckets make the window smoother.
+       *
+       * @return the number of buckets.
+       * @since 0.16
+       */
+      public abstract int getNumBuckets();
+
       /**
        * Constructs an interval {@code AggregationWindow} that has a finite explicit {@code
-       * Duration}.
+       * Duration}, split into {@value #DEFAULT_NUM_BUCKETS} buckets.
        *
        * <p>The {@code Duration} should be able to round to milliseconds. Currently interval window
        * cannot have smaller {@code Duration} such as microseconds or nanoseconds.
        *
        * @return an interval {@code AggregationWindow}.
+       * @throws IllegalArgumentException if the {@code Duration} is shorter than one millisecond
+       *     per bucket.
        * @since 0.8
        */
       public static Interval create(Duration duration) {
+        return create(duration, DEFAULT_NUM_BUCKETS);
+      }
+
+      /**
+       * Constructs an interval {@code AggregationWindow} that has a finite explicit {@code
+       * Duration}, split into the given number of buckets.
+       *
+       * <p>Buckets are a whole number of milliseconds long, so the window that is aggregated is the
+       * {@code Duration} rounded down to a multiple of {@code numBuckets} milliseconds.
+       *
+       * @param duration the {@code Duration} of the interval.
+       * @param numBuckets the number of buckets the interval is split into.
+       * @return an interval {@code AggregationWindow}.
+       * @throws IllegalArgumentException if {@code numBuckets} is not positive, or the {@code
+       *     Duration} is shorter than one millisecond per bucket.
+       * @since 0.16
+       */
+      public static Interval create(Duration duration, int numBuckets) {
         Utils.checkArgument(duration.compareTo(ZERO) > 0, "Duration must be positive");
-        return new AutoValue_View_AggregationWindow_Interval(duration);
+        Utils.checkArgument(numBuckets > 0, "Number of buckets must be positive");
+        Utils.checkArgument(
+            duration.toMillis() / numBuckets >= 1,
+            "Duration must be at least one millisecond per bucket");
+        return new AutoValue_View_AggregationWindow_Interval(duration, numBuckets);
       }
 
       @Override
@@ -323,6 +323,13 @@ public abstract class ViewData {
                   aggregationData);
               return null;
             }
+            if (arg instanceof Aggregation.Quantiles) {
+              throwIfAggregationMismatch(
+                  aggregationData instanceof AggregationData.QuantilesData,
+                  aggregation,
+                  aggregationData);
+              return null;
+            }
             throw new AssertionError();
           }
         });
@@ -96,6 +96,22 @@ public final class SpanId implements Comparable<SpanId> {
     return new SpanId(bytes);
   }
 
+  /**
+   * Returns a {@code SpanId} whose representation is the big-endian bytes of the given long.
+   *
+   * @param id the long representation of the {@code SpanId}.
+   * @return a {@code SpanId} built from the long.
+   * @since 0.16
+   */
+  public static SpanId fromLong(long id) {
+    byte[] bytes = new byte[SIZE];
+    for (int i = SIZE - 1; i >= 0; i--) {
+      bytes[i] = (byte) id;
+      id >>>= Byte.SIZE;
+    }
+    return new SpanId(bytes);
+  }
+
   /**
    * Returns a {@code SpanId} built from a lowercase base16 representation.
    *
@@ -97,6 +97,25 @@ public final class TraceId implements Comparable<TraceId> {
     return new TraceId(bytes);
   }
 
+  /**
+   * Returns a {@code TraceId} whose representation is the big-endian bytes of the two given longs.
+   *
+   * @param idHi the first 8 bytes of the {@code TraceId}.
+   * @param idLo the last 8 bytes of the {@code TraceId}.
+   * @return a {@code TraceId} built from the two longs.
+   * @since 0.16
+   */
+  public static TraceId fromLongs(long idHi, long idLo) {
+    byte[] bytes = new byte[SIZE];
+    for (int i = SIZE / 2 - 1; i >= 0; i--) {
+      bytes[i] = (byte) idHi;
+      idHi >>>= Byte.SIZE;
+      bytes[i + SIZE / 2] = (byte) idLo;
+      idLo >>>= Byte.SIZE;
+    }
+    return new TraceId(bytes);
+  }
+
   /**
    * Returns a {@code TraceId} built from a lowercase base16 representation.
    *
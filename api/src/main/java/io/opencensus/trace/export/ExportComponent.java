@@ -16,6 +16,8 @@
 
 package io.opencensus.trace.export;
 
+import io.opencensus.common.Duration;
+import io.opencensus.internal.Utils;
 import io.opencensus.trace.TraceOptions;
 
 /**
@@ -73,6 +75,20 @@ public abstract class ExportComponent {
    */
   public void shutdown() {}
 
+  /**
+   * Will shutdown this ExportComponent after processing and exporting the pending spans, waiting at
+   * most for the given timeout. Pending spans that are not exported by then are dropped.
+   *
+   * @param timeout the maximum time to wait for the pending spans.
+   * @return the number of pending items that were dropped because the timeout expired.
+   * @since 0.16
+   */
+  public long shutdown(Duration timeout) {
+    Utils.checkNotNull(timeout, "timeout");
+    shutdown();
+    return 0;
+  }
+
   private static final class NoopExportComponent extends ExportComponent {
     private final SampledSpanStore noopSampledSpanStore =
         SampledSpanStore.newNoopSampledSpanStore();
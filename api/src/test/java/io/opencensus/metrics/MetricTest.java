@@ -93,6 +93,24 @@ public class MetricTest {
         String.format("Type mismatch: %s, %s.", Type.CUMULATIVE_INT64, "ValueDouble"));
   }
 
+  @Test
+  public void typeMismatch_GaugeDistribution_Double() {
+    typeMismatch(
+        MetricDescriptor.create(
+            METRIC_NAME_1, DESCRIPTION, UNIT, Type.GAUGE_DISTRIBUTION, Arrays.asList(KEY_1, KEY_2)),
+        Arrays.asList(GAUGE_TIME_SERIES_1),
+        String.format("Type mismatch: %s, %s.", Type.GAUGE_DISTRIBUTION, "ValueDouble"));
+  }
+
+  @Test
+  public void typeMismatch_Summary_Double() {
+    typeMismatch(
+        MetricDescriptor.create(
+            METRIC_NAME_1, DESCRIPTION, UNIT, Type.SUMMARY, Arrays.asList(KEY_1, KEY_2)),
+        Arrays.asList(GAUGE_TIME_SERIES_1),
+        String.format("Type mismatch: %s, %s.", Type.SUMMARY, "ValueDouble"));
+  }
+
   private void typeMismatch(
       MetricDescriptor metricDescriptor, List<TimeSeries> timeSeriesList, String errorMessage) {
     thrown.expect(IllegalArgumentException.class);
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.metrics;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.testing.EqualsTester;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link Summary}. */
+@RunWith(JUnit4.class)
+public class SummaryTest {
+
+  @Rule public final ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void createAndGet_Summary() {
+    Map<Double, Double> quantileValues = new HashMap<Double, Double>();
+    quantileValues.put(0.99, 9.0);
+    quantileValues.put(0.5, 5.0);
+    Summary summary = Summary.create(10, 55.0, quantileValues);
+    assertThat(summary.getCount()).isEqualTo(10);
+    assertThat(summary.getSum()).isEqualTo(55.0);
+    assertThat(summary.getQuantileValues()).containsExactly(0.5, 5.0, 0.99, 9.0).inOrder();
+  }
+
+  @Test
+  public void createSummary_CopiesQuantileValues() {
+    Map<Double, Double> quantileValues = new HashMap<Double, Double>();
+    quantileValues.put(0.5, 5.0);
+    Summary summary = Summary.create(10, 55.0, quantileValues);
+    quantileValues.put(0.99, 9.0);
+    assertThat(summary.getQuantileValues()).containsExactly(0.5, 5.0);
+  }
+
+  @Test
+  public void createSummary_PreventNegativeCount() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("count should be non-negative.");
+    Summary.create(-1, 0.0, Collections.<Double, Double>emptyMap());
+  }
+
+  @Test
+  public void createSummary_PreventInvalidQuantile() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("quantile should be between 0.0 and 1.0.");
+    Summary.create(1, 1.0, Collections.singletonMap(1.5, 1.0));
+  }
+
+  @Test
+  public void createSummary_PreventNullQuantileValues() {
+    thrown.expect(NullPointerException.class);
+    thrown.expectMessage("quantileValues should not be null.");
+    Summary.create(1, 1.0, null);
+  }
+
+  @Test
+  public void testEquals() {
+    new EqualsTester()
+        .addEqualityGroup(
+            Summary.create(10, 55.0, Collections.singletonMap(0.5, 5.0)),
+            Summary.create(10, 55.0, Collections.singletonMap(0.5, 5.0)))
+        .addEqualityGroup(Summary.create(11, 55.0, Collections.singletonMap(0.5, 5.0)))
+        .addEqualityGroup(Summary.create(10, 55.0, Collections.<Double, Double>emptyMap()))
+        .testEquals();
+  }
+}
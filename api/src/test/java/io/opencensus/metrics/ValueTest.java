@@ -25,8 +25,10 @@ import io.opencensus.metrics.Distribution.Bucket;
 import io.opencensus.metrics.Value.ValueDistribution;
 import io.opencensus.metrics.Value.ValueDouble;
 import io.opencensus.metrics.Value.ValueLong;
+import io.opencensus.metrics.Value.ValueSummary;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -44,6 +46,9 @@ public class ValueTest {
           Arrays.asList(-5.0, 0.0, 5.0),
           Arrays.asList(Bucket.create(3), Bucket.create(1), Bucket.create(2), Bucket.create(4)));
 
+  private static final Summary SUMMARY =
+      Summary.create(10, 20.0, Collections.singletonMap(0.99, 5.0));
+
   @Test
   public void createAndGet_ValueDouble() {
     Value value = Value.doubleValue(-34.56);
@@ -65,6 +70,13 @@ public class ValueTest {
     assertThat(((ValueDistribution) value).getValue()).isEqualTo(DISTRIBUTION);
   }
 
+  @Test
+  public void createAndGet_ValueSummary() {
+    Value value = Value.summaryValue(SUMMARY);
+    assertThat(value).isInstanceOf(ValueSummary.class);
+    assertThat(((ValueSummary) value).getValue()).isEqualTo(SUMMARY);
+  }
+
   @Test
   public void testEquals() {
     new EqualsTester()
@@ -81,6 +93,7 @@ public class ValueTest {
                     Arrays.asList(-5.0, 0.0, 5.0),
                     Arrays.asList(
                         Bucket.create(3), Bucket.create(1), Bucket.create(2), Bucket.create(4)))))
+        .addEqualityGroup(Value.summaryValue(SUMMARY))
         .testEquals();
   }
 
@@ -88,9 +101,13 @@ public class ValueTest {
   public void testMatch() {
     List<Value> values =
         Arrays.asList(
-            ValueDouble.create(1.0), ValueLong.create(-1), ValueDistribution.create(DISTRIBUTION));
+            ValueDouble.create(1.0),
+            ValueLong.create(-1),
+            ValueDistribution.create(DISTRIBUTION),
+            ValueSummary.create(SUMMARY));
     List<Number> expected =
-        Arrays.<Number>asList(1.0, -1L, 10.0, 10L, 1.0, -5.0, 0.0, 5.0, 3L, 1L, 2L, 4L);
+        Arrays.<Number>asList(
+            1.0, -1L, 10.0, 10L, 1.0, -5.0, 0.0, 5.0, 3L, 1L, 2L, 4L, 10L, 20.0, 0.99, 5.0);
     final List<Number> actual = new ArrayList<Number>();
     for (Value value : values) {
       value.match(
@@ -121,6 +138,16 @@ public class ValueTest {
               return null;
             }
           },
+          new Function<Summary, Object>() {
+            @Override
+            public Object apply(Summary arg) {
+              actual.add(arg.getCount());
+              actual.add(arg.getSum());
+              actual.addAll(arg.getQuantileValues().keySet());
+              actual.addAll(arg.getQuantileValues().values());
+              return null;
+            }
+          },
           Functions.throwAssertionError());
     }
     assertThat(actual).containsExactlyElementsIn(expected).inOrder();
@@ -28,11 +28,13 @@ import io.opencensus.stats.AggregationData.DistributionData.Exemplar;
 import io.opencensus.stats.AggregationData.LastValueDataDouble;
 import io.opencensus.stats.AggregationData.LastValueDataLong;
 import io.opencensus.stats.AggregationData.MeanData;
+import io.opencensus.stats.AggregationData.QuantilesData;
 import io.opencensus.stats.AggregationData.SumDataDouble;
 import io.opencensus.stats.AggregationData.SumDataLong;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.junit.Rule;
@@ -141,6 +143,25 @@ public class AggregationDataTest {
     DistributionData.create(1, 1, 10, 1, 0, Arrays.asList(0L, 1L, 0L));
   }
 
+  @Test
+  public void testCreateQuantilesData() {
+    Map<Double, Double> quantileValues = new HashMap<Double, Double>();
+    quantileValues.put(0.99, 9.9);
+    quantileValues.put(0.5, 5.0);
+    QuantilesData quantilesData = QuantilesData.create(10, 55.0, quantileValues);
+    quantileValues.clear();
+    assertThat(quantilesData.getCount()).isEqualTo(10);
+    assertThat(quantilesData.getSum()).isWithin(TOLERANCE).of(55.0);
+    assertThat(quantilesData.getQuantileValues()).containsExactly(0.5, 5.0, 0.99, 9.9).inOrder();
+  }
+
+  @Test
+  public void preventNullQuantileValues() {
+    thrown.expect(NullPointerException.class);
+    thrown.expectMessage("quantileValues should not be null.");
+    QuantilesData.create(1, 1.0, null);
+  }
+
   @Test
   public void testEquals() {
     new EqualsTester()
@@ -162,6 +183,10 @@ public class AggregationDataTest {
         .addEqualityGroup(MeanData.create(-5.0, 1), MeanData.create(-5.0, 1))
         .addEqualityGroup(LastValueDataDouble.create(20.0), LastValueDataDouble.create(20.0))
         .addEqualityGroup(LastValueDataLong.create(20), LastValueDataLong.create(20))
+        .addEqualityGroup(
+            QuantilesData.create(2, 3.0, Collections.singletonMap(0.5, 1.0)),
+            QuantilesData.create(2, 3.0, Collections.singletonMap(0.5, 1.0)))
+        .addEqualityGroup(QuantilesData.create(2, 3.0, Collections.singletonMap(0.5, 2.0)))
         .testEquals();
   }
 
@@ -24,6 +24,7 @@ import io.opencensus.stats.Aggregation.Count;
 import io.opencensus.stats.Aggregation.Distribution;
 import io.opencensus.stats.Aggregation.LastValue;
 import io.opencensus.stats.Aggregation.Mean;
+import io.opencensus.stats.Aggregation.Quantiles;
 import io.opencensus.stats.Aggregation.Sum;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -54,6 +55,36 @@ public class AggregationTest {
     Distribution.create(null);
   }
 
+  @Test
+  public void testCreateQuantiles() {
+    Quantiles quantiles = Quantiles.create(Arrays.asList(0.99, 0.5, 0.99));
+    assertThat(quantiles.getQuantiles()).containsExactly(0.5, 0.99).inOrder();
+    assertThat(quantiles.getRelativeAccuracy()).isEqualTo(Quantiles.DEFAULT_RELATIVE_ACCURACY);
+    assertThat(Quantiles.create(Arrays.asList(0.0, 1.0), 0.05).getRelativeAccuracy())
+        .isEqualTo(0.05);
+  }
+
+  @Test
+  public void testQuantiles_PreventEmptyQuantiles() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("quantiles should not be empty.");
+    Quantiles.create(new ArrayList<Double>());
+  }
+
+  @Test
+  public void testQuantiles_PreventQuantileOutOfRange() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("quantile should be between 0.0 and 1.0.");
+    Quantiles.create(Arrays.asList(0.5, 1.5));
+  }
+
+  @Test
+  public void testQuantiles_PreventInvalidRelativeAccuracy() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("relativeAccuracy should be between 0.0 and 1.0.");
+    Quantiles.create(Arrays.asList(0.5), 0.0);
+  }
+
   @Test
   public void testEquals() {
     new EqualsTester()
@@ -67,6 +98,9 @@ public class AggregationTest {
             Distribution.create(BucketBoundaries.create(Arrays.asList(0.0, 1.0, 5.0))))
         .addEqualityGroup(Mean.create(), Mean.create())
         .addEqualityGroup(LastValue.create(), LastValue.create())
+        .addEqualityGroup(
+            Quantiles.create(Arrays.asList(0.5, 0.99)), Quantiles.create(Arrays.asList(0.99, 0.5)))
+        .addEqualityGroup(Quantiles.create(Arrays.asList(0.5, 0.99), 0.05))
         .testEquals();
   }
 
@@ -78,7 +112,8 @@ public class AggregationTest {
             Count.create(),
             Mean.create(),
             Distribution.create(BucketBoundaries.create(Arrays.asList(-10.0, 1.0, 5.0))),
-            LastValue.create());
+            LastValue.create(),
+            Quantiles.create(Arrays.asList(0.5)));
 
     List<String> actual = new ArrayList<String>();
     for (Aggregation aggregation : aggregations) {
@@ -92,6 +127,7 @@ public class AggregationTest {
     }
 
     assertThat(actual)
-        .isEqualTo(Arrays.asList("SUM", "COUNT", "UNKNOWN", "DISTRIBUTION", "LASTVALUE"));
+        .isEqualTo(
+            Arrays.asList("SUM", "COUNT", "UNKNOWN", "DISTRIBUTION", "LASTVALUE", "UNKNOWN"));
   }
 }
@@ -84,4 +84,87 @@ public class BucketBoundariesTest {
         .addEqualityGroup(BucketBoundaries.create(Arrays.asList(-1.0)))
         .testEquals();
   }
+
+  @Test
+  public void testLinearBoundaries() {
+    BucketBoundaries bucketBoundaries = BucketBoundaries.linear(-5.0, 2.5, 4);
+    assertThat(bucketBoundaries.getBoundaries())
+        .containsExactly(-5.0, -2.5, 0.0, 2.5, 5.0)
+        .inOrder();
+    assertThat(bucketBoundaries.getLinear().getOffset()).isEqualTo(-5.0);
+    assertThat(bucketBoundaries.getLinear().getWidth()).isEqualTo(2.5);
+    assertThat(bucketBoundaries.getLinear().getNumFiniteBuckets()).isEqualTo(4);
+    assertThat(bucketBoundaries.getExponential()).isNull();
+  }
+
+  @Test
+  public void testExponentialBoundaries() {
+    BucketBoundaries bucketBoundaries = BucketBoundaries.exponential(0.5, 2.0, 3);
+    assertThat(bucketBoundaries.getBoundaries()).containsExactly(0.5, 1.0, 2.0, 4.0).inOrder();
+    assertThat(bucketBoundaries.getExponential().getScale()).isEqualTo(0.5);
+    assertThat(bucketBoundaries.getExponential().getGrowthFactor()).isEqualTo(2.0);
+    assertThat(bucketBoundaries.getExponential().getNumFiniteBuckets()).isEqualTo(3);
+    assertThat(bucketBoundaries.getLinear()).isNull();
+  }
+
+  @Test
+  public void testExplicitBoundaries() {
+    BucketBoundaries bucketBoundaries = BucketBoundaries.create(Arrays.asList(0.0, 1.0, 2.0));
+    assertThat(bucketBoundaries.getLinear()).isNull();
+    assertThat(bucketBoundaries.getExponential()).isNull();
+  }
+
+  @Test
+  public void testLinearBoundaries_NonPositiveWidth() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("width should be positive.");
+    BucketBoundaries.linear(0.0, 0.0, 4);
+  }
+
+  @Test
+  public void testLinearBoundaries_NonFiniteOffset() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("offset should be finite.");
+    BucketBoundaries.linear(Double.NEGATIVE_INFINITY, 1.0, 4);
+  }
+
+  @Test
+  public void testLinearBoundaries_NonPositiveNumFiniteBuckets() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("numFiniteBuckets should be positive.");
+    BucketBoundaries.linear(0.0, 1.0, 0);
+  }
+
+  @Test
+  public void testExponentialBoundaries_NonPositiveScale() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("scale should be positive and finite.");
+    BucketBoundaries.exponential(0.0, 2.0, 4);
+  }
+
+  @Test
+  public void testExponentialBoundaries_GrowthFactorNotGreaterThanOne() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("growthFactor should be greater than 1.");
+    BucketBoundaries.exponential(1.0, 1.0, 4);
+  }
+
+  @Test
+  public void testExponentialBoundaries_Overflow() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Bucket boundaries should be finite.");
+    BucketBoundaries.exponential(1.0, 1e10, 100);
+  }
+
+  @Test
+  public void testLinearAndExponentialBoundariesEquals() {
+    new EqualsTester()
+        .addEqualityGroup(
+            BucketBoundaries.linear(0.0, 1.0, 2), BucketBoundaries.linear(0.0, 1.0, 2))
+        .addEqualityGroup(BucketBoundaries.create(Arrays.asList(0.0, 1.0, 2.0)))
+        .addEqualityGroup(
+            BucketBoundaries.exponential(1.0, 2.0, 2), BucketBoundaries.exponential(1.0, 2.0, 2))
+        .addEqualityGroup(BucketBoundaries.create(Arrays.asList(1.0, 2.0, 4.0)))
+        .testEquals();
+  }
 }
@@ -123,6 +123,20 @@ public final class NoopStatsTest {
     NoopStats.getNoopStatsRecorder().newMeasureMap().put(MEASURE, 6).record();
   }
 
+  // The NoopStatsRecorder should do nothing, so this test just checks that record doesn't throw an
+  // exception.
+  @Test
+  public void noopStatsRecorder_RecordSingleValue() {
+    NoopStats.getNoopStatsRecorder().record(MEASURE, 7, tagContext);
+  }
+
+  @Test
+  public void noopStatsRecorder_RecordSingleValue_DisallowNullTagContext() {
+    thrown.expect(NullPointerException.class);
+    thrown.expectMessage("tags");
+    NoopStats.getNoopStatsRecorder().record(MEASURE, 7, null);
+  }
+
   @Test
   public void noopStatsRecorder_Record_DisallowNullTagContext() {
     MeasureMap measureMap = NoopStats.getNoopStatsRecorder().newMeasureMap();
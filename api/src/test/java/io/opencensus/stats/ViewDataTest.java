@@ -29,6 +29,7 @@ import io.opencensus.stats.Aggregation.Count;
 import io.opencensus.stats.Aggregation.Distribution;
 import io.opencensus.stats.Aggregation.LastValue;
 import io.opencensus.stats.Aggregation.Mean;
+import io.opencensus.stats.Aggregation.Quantiles;
 import io.opencensus.stats.Aggregation.Sum;
 import io.opencensus.stats.AggregationData.CountData;
 import io.opencensus.stats.AggregationData.DistributionData;
@@ -239,6 +240,12 @@ public final class ViewDataTest {
             Arrays.asList(V1, V2), LastValueDataDouble.create(100)));
   }
 
+  @Test
+  public void preventAggregationAndAggregationDataMismatch_Quantiles_Distribution() {
+    aggregationAndAggregationDataMismatch(
+        createView(Quantiles.create(Arrays.asList(0.5, 0.99))), ENTRIES);
+  }
+
   private static View createView(Aggregation aggregation) {
     return createView(aggregation, MEASURE_DOUBLE);
   }
@@ -142,6 +142,40 @@ public final class ViewTest {
     Interval.create(NEG_TEN_SECONDS);
   }
 
+  @Test
+  public void preventNonPositiveIntervalNumBuckets() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Number of buckets must be positive");
+    Interval.create(MINUTE, 0);
+  }
+
+  @Test
+  public void preventIntervalBucketsShorterThanOneMillisecond() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Duration must be at least one millisecond per bucket");
+    Interval.create(Duration.create(1, 0), 2000);
+  }
+
+  @Test
+  public void testIntervalOneMillisecondBuckets() {
+    assertThat(Interval.create(Duration.create(1, 0), 1000).getNumBuckets()).isEqualTo(1000);
+  }
+
+  @Test
+  public void testIntervalNumBuckets() {
+    assertThat(Interval.create(MINUTE).getNumBuckets()).isEqualTo(4);
+    assertThat(Interval.create(MINUTE, 12).getNumBuckets()).isEqualTo(12);
+  }
+
+  @Test
+  public void testIntervalEquals() {
+    new EqualsTester()
+        .addEqualityGroup(Interval.create(MINUTE), Interval.create(MINUTE, 4))
+        .addEqualityGroup(Interval.create(MINUTE, 12))
+        .addEqualityGroup(Interval.create(TWO_MINUTES))
+        .testEquals();
+  }
+
   @Test
   public void testViewNameEquals() {
     new EqualsTester()
@@ -51,6 +51,13 @@ public class SpanIdTest {
     assertThat(SpanId.fromLowerBase16("ff00000000000041")).isEqualTo(second);
   }
 
+  @Test
+  public void fromLong() {
+    assertThat(SpanId.fromLong(0)).isEqualTo(SpanId.INVALID);
+    assertThat(SpanId.fromLong('a')).isEqualTo(first);
+    assertThat(SpanId.fromLong(0xFF00000000000041L)).isEqualTo(second);
+  }
+
   @Test
   public void toLowerBase16() {
     assertThat(SpanId.INVALID.toLowerBase16()).isEqualTo("0000000000000000");
@@ -60,6 +60,15 @@ public class TraceIdTest {
     assertThat(TraceId.fromLowerBase16("ff000000000000000000000000000041")).isEqualTo(second);
   }
 
+  @Test
+  public void fromLongs() {
+    assertThat(TraceId.fromLongs(0, 0)).isEqualTo(TraceId.INVALID);
+    assertThat(TraceId.fromLongs(0, 'a')).isEqualTo(first);
+    assertThat(TraceId.fromLongs(0xFF00000000000000L, 'A')).isEqualTo(second);
+    assertThat(TraceId.fromLongs(0x0102030405060708L, 0x090A0B0C0D0E0F10L).toLowerBase16())
+        .isEqualTo("0102030405060708090a0b0c0d0e0f10");
+  }
+
   @Test
   public void toLowerBase16() {
     assertThat(TraceId.INVALID.toLowerBase16()).isEqualTo("00000000000000000000000000000000");
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.benchmarks.stats;
+
+import io.opencensus.implcore.common.MillisClock;
+import io.opencensus.implcore.internal.SimpleEventQueue;
+import io.opencensus.implcore.stats.StatsComponentImplBase;
+import io.opencensus.implcore.stats.StatsOptions;
+import io.opencensus.implcore.tags.TagsComponentImplBase;
+import io.opencensus.stats.Aggregation;
+import io.opencensus.stats.Measure.MeasureLong;
+import io.opencensus.stats.StatsRecorder;
+import io.opencensus.stats.View;
+import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for recording a single value through a {@code MeasureMap} and through {@link
+ * StatsRecorder#record(MeasureLong, long, TagContext)}. The GC profiler reports the bytes allocated
+ * per recording of each.
+ */
+public class RecordSingleValueBenchmark {
+  private static final TagKey KEY = TagKey.create("MyKey");
+  private static final MeasureLong MEASURE =
+      MeasureLong.create("RecordSingleValueBenchmark/Requests", "", "1");
+
+  @State(Scope.Benchmark)
+  public static class Data {
+    @Param({"false", "true"})
+    boolean concurrentRecording;
+
+    private StatsRecorder statsRecorder;
+    private TagContext tagContext;
+
+    @Setup
+    public void setup() {
+      // Use a SimpleEventQueue so that the allocations of the whole recording are measured on the
+      // benchmark thread.
+      StatsComponentImplBase statsComponent =
+          new StatsComponentImplBase(
+              new SimpleEventQueue(),
+              MillisClock.getInstance(),
+              StatsOptions.builder().setConcurrentRecording(concurrentRecording).build());
+      statsRecorder = statsComponent.getStatsRecorder();
+      statsComponent
+          .getViewManager()
+          .registerView(
+              View.create(
+                  View.Name.create("RecordSingleValueBenchmark/Sum"),
+                  "",
+                  MEASURE,
+                  Aggregation.Sum.create(),
+                  Collections.singletonList(KEY)));
+      tagContext =
+          new TagsComponentImplBase()
+              .getTagger()
+              .emptyBuilder()
+              .put(KEY, TagValue.create("MyValue"))
+              .build();
+    }
+  }
+
+  /** Records a value with a {@code MeasureMap}. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public void recordMeasureMap(Data data) {
+    data.statsRecorder.newMeasureMap().put(MEASURE, 1).record(data.tagContext);
+  }
+
+  /** Records a value with {@code StatsRecorder.record}. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public void recordSingleValue(Data data) {
+    data.statsRecorder.record(MEASURE, 1, data.tagContext);
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.benchmarks.stats;
+
+import io.opencensus.implcore.common.MillisClock;
+import io.opencensus.implcore.internal.SimpleEventQueue;
+import io.opencensus.implcore.stats.StatsComponentImplBase;
+import io.opencensus.implcore.tags.TagsComponentImplBase;
+import io.opencensus.metrics.MetricProducer;
+import io.opencensus.metrics.Metrics;
+import io.opencensus.metrics.export.MetricProducerManager;
+import io.opencensus.stats.Aggregation;
+import io.opencensus.stats.BucketBoundaries;
+import io.opencensus.stats.Measure.MeasureDouble;
+import io.opencensus.stats.StatsRecorder;
+import io.opencensus.stats.View;
+import io.opencensus.stats.ViewManager;
+import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import io.opencensus.tags.Tagger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for recording stats from several threads while a concurrent reader keeps exporting all
+ * the views through the {@link MetricProducer}s of a {@code StatsComponent} created for each trial.
+ */
+public class RecordWhileExportingBenchmark {
+  private static final TagKey KEY = TagKey.create("MyKey");
+  private static final int NUM_TAG_VALUES = 100;
+
+  @State(Scope.Group)
+  public static class Data {
+    @Param({"1", "8"})
+    int numMeasures;
+
+    private StatsRecorder statsRecorder;
+    // The producers added by the StatsComponent of this trial. Producers of earlier trials stay in
+    // the global MetricProducerManager until they are removed, so they are not read from it.
+    private final Set<MetricProducer> metricProducers = new HashSet<MetricProducer>();
+    private MeasureDouble[] measures;
+    private TagContext[] tagContexts;
+    private final AtomicInteger nextThreadIndex = new AtomicInteger();
+
+    @Setup
+    public void setup() {
+      // Use a SimpleEventQueue so that stats are recorded on the benchmark threads, and the
+      // contention between recording and exporting is measured directly.
+      MetricProducerManager metricProducerManager =
+          Metrics.getExportComponent().getMetricProducerManager();
+      Set<MetricProducer> existingProducers = metricProducerManager.getAllMetricProducer();
+      StatsComponentImplBase statsComponent =
+          new StatsComponentImplBase(new SimpleEventQueue(), MillisClock.getInstance());
+      metricProducers.addAll(metricProducerManager.getAllMetricProducer());
+      metricProducers.removeAll(existingProducers);
+      statsRecorder = statsComponent.getStatsRecorder();
+      ViewManager viewManager = statsComponent.getViewManager();
+      measures = new MeasureDouble[numMeasures];
+      for (int i = 0; i < numMeasures; i++) {
+        measures[i] = MeasureDouble.create("RecordWhileExporting/Measure" + i, "", "ms");
+        viewManager.registerView(
+            View.create(
+                View.Name.create("RecordWhileExporting/Distribution" + i),
+                "",
+                measures[i],
+                Aggregation.Distribution.create(
+                    BucketBoundaries.create(Arrays.asList(0.0, 1.0, 5.0, 10.0, 50.0, 100.0))),
+                Collections.singletonList(KEY)));
+        viewManager.registerView(
+            View.create(
+                View.Name.create("RecordWhileExporting/Count" + i),
+                "",
+                measures[i],
+                Aggregation.Count.create(),
+                Collections.singletonList(KEY)));
+      }
+      Tagger tagger = new TagsComponentImplBase().getTagger();
+      tagContexts = new TagContext[NUM_TAG_VALUES];
+      for (int i = 0; i < NUM_TAG_VALUES; i++) {
+        tagContexts[i] = tagger.emptyBuilder().put(KEY, TagValue.create("Value" + i)).build();
+      }
+    }
+
+    @TearDown
+    public void tearDown() {
+      for (MetricProducer metricProducer : metricProducers) {
+        Metrics.getExportComponent().getMetricProducerManager().remove(metricProducer);
+      }
+      metricProducers.clear();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class RecorderData {
+    int threadIndex;
+    int iteration;
+
+    @Setup
+    public void setup(Data data) {
+      threadIndex = data.nextThreadIndex.getAndIncrement();
+    }
+  }
+
+  /** Records a value to one of the measures, each thread preferring its own measure. */
+  @Benchmark
+  @Group("recordWhileExporting")
+  @GroupThreads(4)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void record(Data data, RecorderData recorderData) {
+    int iteration = recorderData.iteration++;
+    data.statsRecorder
+        .newMeasureMap()
+        .put(data.measures[recorderData.threadIndex % data.numMeasures], iteration % 100)
+        .record(data.tagContexts[iteration % NUM_TAG_VALUES]);
+  }
+
+  /** Exports all the metrics, as a Prometheus scrape or a Stackdriver export would do. */
+  @Benchmark
+  @Group("recordWhileExporting")
+  @GroupThreads(1)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void getMetrics(Data data, Blackhole blackhole) {
+    for (MetricProducer metricProducer : data.metricProducers) {
+      blackhole.consume(metricProducer.getMetrics());
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.benchmarks.trace;
+
+import io.opencensus.impl.trace.internal.ThreadLocalRandomHandler;
+import io.opencensus.implcore.common.MillisClock;
+import io.opencensus.implcore.internal.SimpleEventQueue;
+import io.opencensus.implcore.trace.TraceComponentImplBase;
+import io.opencensus.implcore.trace.internal.RandomHandler;
+import io.opencensus.implcore.trace.internal.RandomHandler.PerThreadRandomHandler;
+import io.opencensus.implcore.trace.internal.RandomHandler.SecureRandomHandler;
+import io.opencensus.trace.Span;
+import io.opencensus.trace.Tracer;
+import io.opencensus.trace.samplers.Samplers;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Benchmarks for starting and ending root spans from several threads, which all generate trace and
+ * span ids with the same {@link RandomHandler}.
+ */
+public class StartEndSpanMultiThreadBenchmark {
+  private static final String SPAN_NAME = "MySpanName";
+
+  @State(Scope.Benchmark)
+  public static class Data {
+    @Param({"SecureRandom", "PerThread", "ThreadLocal"})
+    String randomHandler;
+
+    private Tracer tracer;
+
+    @Setup
+    public void setup() {
+      tracer =
+          new TraceComponentImplBase(
+                  MillisClock.getInstance(),
+                  createRandomHandler(randomHandler),
+                  new SimpleEventQueue(),
+                  /*supportInProcessStores=*/ false)
+              .getTracer();
+    }
+
+    private static RandomHandler createRandomHandler(String name) {
+      if (name.equals("SecureRandom")) {
+        return new SecureRandomHandler();
+      } else if (name.equals("PerThread")) {
+        return new PerThreadRandomHandler();
+      } else if (name.equals("ThreadLocal")) {
+        return new ThreadLocalRandomHandler();
+      } else {
+        throw new RuntimeException("Invalid random handler requested.");
+      }
+    }
+  }
+
+  /** Starts and ends a non-sampled root {@code Span}. */
+  @Benchmark
+  @Threads(4)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Span startEndNonSampledRootSpan(Data data) {
+    Span span =
+        data.tracer
+            .spanBuilderWithExplicitParent(SPAN_NAME, null)
+            .setSampler(Samplers.neverSample())
+            .startSpan();
+    span.end();
+    return span;
+  }
+
+  /** Starts and ends a sampled root {@code Span}. */
+  @Benchmark
+  @Threads(4)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Span startEndSampledRootSpan(Data data) {
+    Span span =
+        data.tracer
+            .spanBuilderWithExplicitParent(SPAN_NAME, null)
+            .setSampler(Samplers.alwaysSample())
+            .startSpan();
+    span.end();
+    return span;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.impl.internal;
+
+import io.opencensus.impl.internal.DisruptorEventQueue.OverflowPolicy;
+import io.opencensus.impl.internal.DisruptorEventQueue.WaitStrategy;
+import io.opencensus.implcore.internal.EventQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for the latency between enqueuing an entry on a {@link DisruptorEventQueue} and its
+ * processing by the background thread, with each {@link WaitStrategy}. This class is in the {@code
+ * io.opencensus.impl.internal} package to create queues that are not the singleton instance.
+ */
+public class DisruptorEventQueueBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Data {
+    @Param({"SLEEPING", "YIELDING", "BUSY_SPIN", "BLOCKING"})
+    WaitStrategy waitStrategy;
+
+    private DisruptorEventQueue eventQueue;
+    private final CountingEntry entry = new CountingEntry();
+    private long numEnqueued;
+
+    @Setup
+    public void setup() {
+      eventQueue = DisruptorEventQueue.create(1, 8192, waitStrategy, OverflowPolicy.BLOCK);
+    }
+
+    @TearDown
+    public void tearDown() {
+      eventQueue.shutdown();
+    }
+  }
+
+  // Entry that counts the number of times it was processed.
+  private static final class CountingEntry implements EventQueue.Entry {
+    private volatile long numProcessed;
+
+    @Override
+    public void process() {
+      // Only the background thread writes this field.
+      numProcessed = numProcessed + 1;
+    }
+  }
+
+  /** Enqueues an entry and waits until the background thread processed it. */
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public long enqueueToProcess(Data data) {
+    long expected = ++data.numEnqueued;
+    data.eventQueue.enqueue(data.entry);
+    while (data.entry.numProcessed < expected) {
+      // Spin, to not add the wake up latency of the benchmark thread to the measurement.
+    }
+    return expected;
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import io.opencensus.stats.BucketBoundaries;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for finding the histogram bucket of a value with {@link BucketIndex}, compared to a
+ * linear scan over the boxed boundaries. This class is in the {@code io.opencensus.implcore.stats}
+ * package because {@code BucketIndex} is package-private.
+ */
+public class BucketIndexBenchmark {
+  private static final int NUM_VALUES = 1024;
+
+  @State(Scope.Benchmark)
+  public static class Data {
+    @Param({"4", "16", "32", "64"})
+    int numBoundaries;
+
+    private final double[] values = new double[NUM_VALUES];
+    private List<Double> explicitBoundaries;
+    private BucketIndex explicitIndex;
+    private BucketIndex linearIndex;
+    private BucketIndex exponentialIndex;
+    private int next;
+
+    @Setup
+    public void setup() {
+      Random random = new Random(1234);
+      double[] explicit = new double[numBoundaries];
+      double[] linear = new double[numBoundaries];
+      double[] exponential = new double[numBoundaries];
+      explicitBoundaries = new ArrayList<Double>();
+      double boundary = 0;
+      for (int i = 0; i < numBoundaries; i++) {
+        boundary += 1 + random.nextInt(10);
+        explicit[i] = boundary;
+        explicitBoundaries.add(boundary);
+        linear[i] = 5.0 * i;
+        exponential[i] = Math.pow(1.25, i);
+      }
+      explicitIndex = BucketIndex.create(explicit);
+      linearIndex = BucketIndex.create(linear);
+      exponentialIndex = BucketIndex.create(exponential);
+      for (int i = 0; i < NUM_VALUES; i++) {
+        values[i] = random.nextDouble() * boundary * 1.1;
+      }
+    }
+
+    double nextValue() {
+      return values[next++ & (NUM_VALUES - 1)];
+    }
+  }
+
+  /** Linear scan over the boxed boundaries of {@link BucketBoundaries#getBoundaries()}. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public int linearScan(Data data) {
+    double value = data.nextValue();
+    List<Double> boundaries = data.explicitBoundaries;
+    int bucket = 0;
+    for (; bucket < boundaries.size(); bucket++) {
+      if (value < boundaries.get(bucket)) {
+        break;
+      }
+    }
+    return bucket;
+  }
+
+  /** Binary search over the primitive boundaries. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public int binarySearch(Data data) {
+    return data.explicitIndex.getBucket(data.nextValue());
+  }
+
+  /** Constant time index computation for linear boundaries. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public int linear(Data data) {
+    return data.linearIndex.getBucket(data.nextValue());
+  }
+
+  /** Constant time index computation for exponential boundaries. */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public int exponential(Data data) {
+    return data.exponentialIndex.getBucket(data.nextValue());
+  }
+}
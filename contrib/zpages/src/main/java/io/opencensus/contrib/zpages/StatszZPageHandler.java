@@ -108,6 +108,7 @@ final class StatszZPageHandler extends ZPageHandler {
   private static final String TABLE_HEADER_RANGE = "Range";
   private static final String TABLE_HEADER_BUCKET_SIZE = "Bucket Size";
   private static final String TABLE_HEADER_LAST_VALUE = "Last Value";
+  private static final String TABLE_HEADER_QUANTILE = "Quantile";
   private static final long MILLIS_PER_SECOND = 1000;
   private static final long NANOS_PER_MILLISECOND = 1000 * 1000;
   private static final Splitter PATH_SPLITTER = Splitter.on('/');
@@ -339,6 +340,9 @@ final class StatszZPageHandler extends ZPageHandler {
                     if (arg instanceof Aggregation.Mean) {
                       return "Mean";
                     }
+                    if (arg instanceof Aggregation.Quantiles) {
+                      return "Quantiles";
+                    }
                     throw new AssertionError();
                   }
                 });
@@ -436,6 +440,16 @@ final class StatszZPageHandler extends ZPageHandler {
                   formatter.format("<th class=\"borderL\">%s</th>", TABLE_HEADER_COUNT);
                   return null;
                 }
+                if (arg instanceof Aggregation.Quantiles) {
+                  formatter.format("<th>%s</th>", TABLE_HEADER_COUNT);
+                  formatter.format("<th class=\"borderL\">%s, %s</th>", TABLE_HEADER_SUM, unit);
+                  for (double quantile : ((Aggregation.Quantiles) arg).getQuantiles()) {
+                    formatter.format(
+                        "<th class=\"borderL\">%s %s, %s</th>",
+                        TABLE_HEADER_QUANTILE, quantile, unit);
+                  }
+                  return null;
+                }
                 throw new IllegalArgumentException("Unknown Aggregation.");
               }
             });
@@ -519,6 +533,15 @@ final class StatszZPageHandler extends ZPageHandler {
                   formatter.format("<td class=\"borderLL\">%d</td>", meanData.getCount());
                   return null;
                 }
+                if (arg instanceof AggregationData.QuantilesData) {
+                  AggregationData.QuantilesData quantilesData = (AggregationData.QuantilesData) arg;
+                  formatter.format("<td>%d</td>", quantilesData.getCount());
+                  formatter.format("<td class=\"borderLL\">%.3f</td>", quantilesData.getSum());
+                  for (double value : quantilesData.getQuantileValues().values()) {
+                    formatter.format("<td class=\"borderLL\">%.3f</td>", value);
+                  }
+                  return null;
+                }
                 throw new IllegalArgumentException("Unknown Aggregation.");
               }
             });
@@ -60,9 +60,9 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  *
  * <p>{@link Aggregation} will be converted to a corresponding Prometheus {@link Type}. {@link Sum}
  * will be {@link Type#UNTYPED}, {@link Count} will be {@link Type#COUNTER}, {@link
- * Aggregation.Mean} will be {@link Type#SUMMARY}, {@link Aggregation.LastValue} will be {@link
- * Type#GAUGE} and {@link Distribution} will be {@link Type#HISTOGRAM}. Please note we cannot set
- * bucket boundaries for custom {@link Type#HISTOGRAM}.
+ * Aggregation.Mean} and {@link Aggregation.Quantiles} will be {@link Type#SUMMARY}, {@link
+ * Aggregation.LastValue} will be {@link Type#GAUGE} and {@link Distribution} will be {@link
+ * Type#HISTOGRAM}. Please note we cannot set bucket boundaries for custom {@link Type#HISTOGRAM}.
  *
  * <p>Each OpenCensus {@link ViewData} will be converted to a Prometheus {@link
  * MetricFamilySamples}, and each {@code Row} of the {@link ViewData} will be converted to
@@ -72,7 +72,8 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * LastValueDataLong} and {@link CountData} will be converted to a single {@link Sample}. {@link
  * AggregationData.MeanData} will be converted to two {@link Sample}s sum and count. {@link
  * DistributionData} will be converted to a list of {@link Sample}s that have the sum, count and
- * histogram buckets.
+ * histogram buckets. {@link AggregationData.QuantilesData} will be converted to a list of {@link
+ * Sample}s that have the sum, count and one value per quantile.
  *
  * <p>{@link TagKey} and {@link TagValue} will be converted to Prometheus {@code LabelName} and
  * {@code LabelValue}. {@code Null} {@link TagValue} will be converted to an empty string.
@@ -87,6 +88,7 @@ final class PrometheusExportUtils {
   @VisibleForTesting static final String SAMPLE_SUFFIX_COUNT = "_count";
   @VisibleForTesting static final String SAMPLE_SUFFIX_SUM = "_sum";
   @VisibleForTesting static final String LABEL_NAME_BUCKET_BOUND = "le";
+  @VisibleForTesting static final String LABEL_NAME_QUANTILE = "quantile";
 
   private static final Function<Object, Type> TYPE_UNTYPED_FUNCTION =
       Functions.returnConstant(Type.UNTYPED);
@@ -124,6 +126,12 @@ final class PrometheusExportUtils {
               + "because it is a reserved label for bucket boundaries. "
               + "Please remove this tag key from your view.");
     }
+    if (containsDisallowedQuantileLabelForQuantiles(labelNames, view.getAggregation())) {
+      throw new IllegalStateException(
+          "Prometheus Summary cannot have a label named 'quantile', "
+              + "because it is a reserved label for quantiles. "
+              + "Please remove this tag key from your view.");
+    }
     return new MetricFamilySamples(
         name, type, view.getDescription(), Collections.<Sample>emptyList());
   }
@@ -141,7 +149,7 @@ final class PrometheusExportUtils {
         new Function<Aggregation, Type>() {
           @Override
           public Type apply(Aggregation arg) {
-            if (arg instanceof Aggregation.Mean) {
+            if (arg instanceof Aggregation.Mean || arg instanceof Aggregation.Quantiles) {
               return Type.SUMMARY;
             }
             return Type.UNTYPED;
@@ -262,6 +270,28 @@ final class PrometheusExportUtils {
                       meanData.getCount() * meanData.getMean()));
               return null;
             }
+            if (arg instanceof AggregationData.QuantilesData) {
+              AggregationData.QuantilesData quantilesData = (AggregationData.QuantilesData) arg;
+              List<String> labelNamesWithQuantile = new ArrayList<String>(labelNames);
+              labelNamesWithQuantile.add(LABEL_NAME_QUANTILE);
+              for (Entry<Double, Double> entry : quantilesData.getQuantileValues().entrySet()) {
+                List<String> labelValuesWithQuantile = new ArrayList<String>(labelValues);
+                labelValuesWithQuantile.add(doubleToGoString(entry.getKey()));
+                samples.add(
+                    new MetricFamilySamples.Sample(
+                        name, labelNamesWithQuantile, labelValuesWithQuantile, entry.getValue()));
+              }
+              samples.add(
+                  new MetricFamilySamples.Sample(
+                      name + SAMPLE_SUFFIX_COUNT,
+                      labelNames,
+                      labelValues,
+                      quantilesData.getCount()));
+              samples.add(
+                  new MetricFamilySamples.Sample(
+                      name + SAMPLE_SUFFIX_SUM, labelNames, labelValues, quantilesData.getSum()));
+              return null;
+            }
             throw new IllegalArgumentException("Unknown Aggregation.");
           }
         });
@@ -294,5 +324,20 @@ final class PrometheusExportUtils {
     return false;
   }
 
+  // Returns true if there is a "quantile" label name in the label names of a Quantiles view,
+  // returns false otherwise.
+  static boolean containsDisallowedQuantileLabelForQuantiles(
+      List<String> labelNames, Aggregation aggregation) {
+    if (!(aggregation instanceof Aggregation.Quantiles)) {
+      return false;
+    }
+    for (String label : labelNames) {
+      if (LABEL_NAME_QUANTILE.equals(label)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private PrometheusExportUtils() {}
 }
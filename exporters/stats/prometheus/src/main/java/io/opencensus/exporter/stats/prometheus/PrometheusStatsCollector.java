@@ -17,6 +17,7 @@
 package io.opencensus.exporter.stats.prometheus;
 
 import static io.opencensus.exporter.stats.prometheus.PrometheusExportUtils.containsDisallowedLeLabelForHistogram;
+import static io.opencensus.exporter.stats.prometheus.PrometheusExportUtils.containsDisallowedQuantileLabelForQuantiles;
 import static io.opencensus.exporter.stats.prometheus.PrometheusExportUtils.convertToLabelNames;
 import static io.opencensus.exporter.stats.prometheus.PrometheusExportUtils.getType;
 
@@ -109,6 +110,10 @@ public final class PrometheusStatsCollector extends Collector implements Collect
             getType(view.getAggregation(), view.getWindow()))) {
           continue; // silently skip Distribution views with "le" tag key
         }
+        if (containsDisallowedQuantileLabelForQuantiles(
+            convertToLabelNames(view.getColumns()), view.getAggregation())) {
+          continue; // silently skip Quantiles views with "quantile" tag key
+        }
         try {
           ViewData viewData = viewManager.getView(view.getName());
           if (viewData == null) {
@@ -18,6 +18,7 @@ package io.opencensus.exporter.stats.prometheus;
 
 import static com.google.common.truth.Truth.assertThat;
 import static io.opencensus.exporter.stats.prometheus.PrometheusExportUtils.LABEL_NAME_BUCKET_BOUND;
+import static io.opencensus.exporter.stats.prometheus.PrometheusExportUtils.LABEL_NAME_QUANTILE;
 import static io.opencensus.exporter.stats.prometheus.PrometheusExportUtils.SAMPLE_SUFFIX_BUCKET;
 import static io.opencensus.exporter.stats.prometheus.PrometheusExportUtils.SAMPLE_SUFFIX_COUNT;
 import static io.opencensus.exporter.stats.prometheus.PrometheusExportUtils.SAMPLE_SUFFIX_SUM;
@@ -30,12 +31,14 @@ import io.opencensus.stats.Aggregation.Count;
 import io.opencensus.stats.Aggregation.Distribution;
 import io.opencensus.stats.Aggregation.LastValue;
 import io.opencensus.stats.Aggregation.Mean;
+import io.opencensus.stats.Aggregation.Quantiles;
 import io.opencensus.stats.Aggregation.Sum;
 import io.opencensus.stats.AggregationData.CountData;
 import io.opencensus.stats.AggregationData.DistributionData;
 import io.opencensus.stats.AggregationData.LastValueDataDouble;
 import io.opencensus.stats.AggregationData.LastValueDataLong;
 import io.opencensus.stats.AggregationData.MeanData;
+import io.opencensus.stats.AggregationData.QuantilesData;
 import io.opencensus.stats.AggregationData.SumDataDouble;
 import io.opencensus.stats.AggregationData.SumDataLong;
 import io.opencensus.stats.BucketBoundaries;
@@ -75,6 +78,7 @@ public class PrometheusExportUtilsTest {
       BucketBoundaries.create(Arrays.asList(-5.0, 0.0, 5.0));
   private static final Distribution DISTRIBUTION = Distribution.create(BUCKET_BOUNDARIES);
   private static final LastValue LAST_VALUE = LastValue.create();
+  private static final Quantiles QUANTILES = Quantiles.create(Arrays.asList(0.5, 0.99));
   private static final View.Name VIEW_NAME_1 = View.Name.create("view1");
   private static final View.Name VIEW_NAME_2 = View.Name.create("view2");
   private static final View.Name VIEW_NAME_3 = View.Name.create("view-3");
@@ -86,6 +90,7 @@ public class PrometheusExportUtilsTest {
   private static final TagKey K2 = TagKey.create("k2");
   private static final TagKey K3 = TagKey.create("k-3");
   private static final TagKey TAG_KEY_LE = TagKey.create(LABEL_NAME_BUCKET_BOUND);
+  private static final TagKey TAG_KEY_QUANTILE = TagKey.create(LABEL_NAME_QUANTILE);
   private static final TagValue V1 = TagValue.create("v1");
   private static final TagValue V2 = TagValue.create("v2");
   private static final TagValue V3 = TagValue.create("v-3");
@@ -97,6 +102,8 @@ public class PrometheusExportUtilsTest {
       DistributionData.create(4.4, 5, -3.2, 15.7, 135.22, Arrays.asList(0L, 2L, 2L, 1L));
   private static final LastValueDataDouble LAST_VALUE_DATA_DOUBLE = LastValueDataDouble.create(7.9);
   private static final LastValueDataLong LAST_VALUE_DATA_LONG = LastValueDataLong.create(66666666);
+  private static final QuantilesData QUANTILES_DATA =
+      QuantilesData.create(5, 22.0, ImmutableMap.of(0.5, 4.4, 0.99, 15.7));
   private static final View VIEW1 =
       View.create(
           VIEW_NAME_1, DESCRIPTION, MEASURE_DOUBLE, COUNT, Arrays.asList(K1, K2), CUMULATIVE);
@@ -115,6 +122,14 @@ public class PrometheusExportUtilsTest {
           DISTRIBUTION,
           Arrays.asList(K1, TAG_KEY_LE),
           CUMULATIVE);
+  private static final View QUANTILES_VIEW_WITH_QUANTILE_KEY =
+      View.create(
+          VIEW_NAME_1,
+          DESCRIPTION,
+          MEASURE_DOUBLE,
+          QUANTILES,
+          Arrays.asList(K1, TAG_KEY_QUANTILE),
+          CUMULATIVE);
   private static final CumulativeData CUMULATIVE_DATA =
       CumulativeData.create(Timestamp.fromMillis(1000), Timestamp.fromMillis(2000));
   private static final IntervalData INTERVAL_DATA = IntervalData.create(Timestamp.fromMillis(1000));
@@ -126,6 +141,7 @@ public class PrometheusExportUtilsTest {
     assertThat(SAMPLE_SUFFIX_COUNT).isEqualTo("_count");
     assertThat(SAMPLE_SUFFIX_SUM).isEqualTo("_sum");
     assertThat(LABEL_NAME_BUCKET_BOUND).isEqualTo("le");
+    assertThat(LABEL_NAME_QUANTILE).isEqualTo("quantile");
   }
 
   @Test
@@ -136,6 +152,7 @@ public class PrometheusExportUtilsTest {
     assertThat(PrometheusExportUtils.getType(SUM, CUMULATIVE)).isEqualTo(Type.UNTYPED);
     assertThat(PrometheusExportUtils.getType(MEAN, CUMULATIVE)).isEqualTo(Type.SUMMARY);
     assertThat(PrometheusExportUtils.getType(LAST_VALUE, CUMULATIVE)).isEqualTo(Type.GAUGE);
+    assertThat(PrometheusExportUtils.getType(QUANTILES, CUMULATIVE)).isEqualTo(Type.SUMMARY);
   }
 
   @Test
@@ -217,6 +234,21 @@ public class PrometheusExportUtilsTest {
             new Sample(SAMPLE_NAME + "_count", Arrays.asList("k1"), Arrays.asList("v1"), 5),
             new Sample(SAMPLE_NAME + "_sum", Arrays.asList("k1"), Arrays.asList("v1"), 22.0))
         .inOrder();
+    assertThat(
+            PrometheusExportUtils.getSamples(
+                SAMPLE_NAME,
+                convertToLabelNames(Arrays.asList(K1)),
+                Arrays.asList(V1),
+                QUANTILES_DATA,
+                QUANTILES))
+        .containsExactly(
+            new Sample(
+                SAMPLE_NAME, Arrays.asList("k1", "quantile"), Arrays.asList("v1", "0.5"), 4.4),
+            new Sample(
+                SAMPLE_NAME, Arrays.asList("k1", "quantile"), Arrays.asList("v1", "0.99"), 15.7),
+            new Sample(SAMPLE_NAME + "_count", Arrays.asList("k1"), Arrays.asList("v1"), 5),
+            new Sample(SAMPLE_NAME + "_sum", Arrays.asList("k1"), Arrays.asList("v1"), 22.0))
+        .inOrder();
     assertThat(
             PrometheusExportUtils.getSamples(
                 SAMPLE_NAME,
@@ -259,6 +291,16 @@ public class PrometheusExportUtilsTest {
     PrometheusExportUtils.createDescribableMetricFamilySamples(DISTRIBUTION_VIEW_WITH_LE_KEY);
   }
 
+  @Test
+  public void createDescribableMetricFamilySamples_Summary_DisallowQuantileLabelName() {
+    thrown.expect(IllegalStateException.class);
+    thrown.expectMessage(
+        "Prometheus Summary cannot have a label named 'quantile', "
+            + "because it is a reserved label for quantiles. "
+            + "Please remove this tag key from your view.");
+    PrometheusExportUtils.createDescribableMetricFamilySamples(QUANTILES_VIEW_WITH_QUANTILE_KEY);
+  }
+
   @Test
   public void createMetricFamilySamples() {
     assertThat(
@@ -21,6 +21,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 import com.google.api.Distribution;
 import com.google.api.Distribution.BucketOptions;
 import com.google.api.Distribution.BucketOptions.Explicit;
+import com.google.api.Distribution.BucketOptions.Exponential;
+import com.google.api.Distribution.BucketOptions.Linear;
 import com.google.api.LabelDescriptor;
 import com.google.api.LabelDescriptor.ValueType;
 import com.google.api.Metric;
@@ -208,6 +210,10 @@ final class StackdriverExportUtils {
       // TODO(songya): Only Cumulative view will be exported to Stackdriver in this version.
       return null;
     }
+    if (view.getAggregation() instanceof Aggregation.Quantiles) {
+      // Stackdriver has no value type for quantiles, use a Distribution view instead.
+      return null;
+    }
 
     MetricDescriptor.Builder builder = MetricDescriptor.newBuilder();
     String viewName = view.getName().asString();
@@ -430,9 +436,30 @@ final class StackdriverExportUtils {
         .build();
   }
 
-  // Create BucketOptions from BucketBoundaries
+  // Create BucketOptions from BucketBoundaries. Linear and exponential boundaries are described by
+  // their parameters instead of the list of bounds.
   @VisibleForTesting
   static BucketOptions createBucketOptions(BucketBoundaries bucketBoundaries) {
+    BucketBoundaries.Linear linear = bucketBoundaries.getLinear();
+    if (linear != null) {
+      return BucketOptions.newBuilder()
+          .setLinearBuckets(
+              Linear.newBuilder()
+                  .setNumFiniteBuckets(linear.getNumFiniteBuckets())
+                  .setWidth(linear.getWidth())
+                  .setOffset(linear.getOffset()))
+          .build();
+    }
+    BucketBoundaries.Exponential exponential = bucketBoundaries.getExponential();
+    if (exponential != null) {
+      return BucketOptions.newBuilder()
+          .setExponentialBuckets(
+              Exponential.newBuilder()
+                  .setNumFiniteBuckets(exponential.getNumFiniteBuckets())
+                  .setGrowthFactor(exponential.getGrowthFactor())
+                  .setScale(exponential.getScale()))
+          .build();
+    }
     return BucketOptions.newBuilder()
         .setExplicitBuckets(Explicit.newBuilder().addAllBounds(bucketBoundaries.getBoundaries()))
         .build();
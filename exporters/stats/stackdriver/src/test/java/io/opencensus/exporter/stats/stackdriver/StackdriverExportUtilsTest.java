@@ -22,6 +22,8 @@ import static io.opencensus.exporter.stats.stackdriver.StackdriverExporterWorker
 
 import com.google.api.Distribution.BucketOptions;
 import com.google.api.Distribution.BucketOptions.Explicit;
+import com.google.api.Distribution.BucketOptions.Exponential;
+import com.google.api.Distribution.BucketOptions.Linear;
 import com.google.api.LabelDescriptor;
 import com.google.api.LabelDescriptor.ValueType;
 import com.google.api.Metric;
@@ -39,6 +41,7 @@ import io.opencensus.stats.Aggregation.Count;
 import io.opencensus.stats.Aggregation.Distribution;
 import io.opencensus.stats.Aggregation.LastValue;
 import io.opencensus.stats.Aggregation.Mean;
+import io.opencensus.stats.Aggregation.Quantiles;
 import io.opencensus.stats.Aggregation.Sum;
 import io.opencensus.stats.AggregationData.CountData;
 import io.opencensus.stats.AggregationData.DistributionData;
@@ -299,6 +302,30 @@ public class StackdriverExportUtilsTest {
                 .build());
   }
 
+  @Test
+  public void createBucketOptions_Linear() {
+    assertThat(StackdriverExportUtils.createBucketOptions(BucketBoundaries.linear(-1.0, 0.5, 10)))
+        .isEqualTo(
+            BucketOptions.newBuilder()
+                .setLinearBuckets(
+                    Linear.newBuilder().setNumFiniteBuckets(10).setWidth(0.5).setOffset(-1.0))
+                .build());
+  }
+
+  @Test
+  public void createBucketOptions_Exponential() {
+    assertThat(
+            StackdriverExportUtils.createBucketOptions(BucketBoundaries.exponential(0.1, 1.5, 40)))
+        .isEqualTo(
+            BucketOptions.newBuilder()
+                .setExponentialBuckets(
+                    Exponential.newBuilder()
+                        .setNumFiniteBuckets(40)
+                        .setGrowthFactor(1.5)
+                        .setScale(0.1))
+                .build());
+  }
+
   @Test
   public void createDistribution() {
     DistributionData distributionData =
@@ -460,6 +487,22 @@ public class StackdriverExportUtilsTest {
         .isNull();
   }
 
+  @Test
+  public void createMetricDescriptor_quantiles() {
+    View view =
+        View.create(
+            Name.create(VIEW_NAME),
+            VIEW_DESCRIPTION,
+            MEASURE_DOUBLE,
+            Quantiles.create(Arrays.asList(0.5, 0.99)),
+            Arrays.asList(KEY),
+            CUMULATIVE);
+    assertThat(
+            StackdriverExportUtils.createMetricDescriptor(
+                view, PROJECT_ID, CUSTOM_OPENCENSUS_DOMAIN, DEFAULT_DISPLAY_NAME_PREFIX))
+        .isNull();
+  }
+
   @Test
   public void createTimeSeriesList_cumulative() {
     View view =
@@ -16,15 +16,31 @@
 
 package io.opencensus.impl.internal;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
 import com.lmax.disruptor.EventFactory;
 import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.InsufficientCapacityException;
 import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
+import io.opencensus.common.Duration;
+import io.opencensus.common.ToLongFunction;
+import io.opencensus.implcore.common.MillisClock;
 import io.opencensus.implcore.internal.DaemonThreadFactory;
 import io.opencensus.implcore.internal.EventQueue;
+import io.opencensus.metrics.LabelKey;
+import io.opencensus.metrics.LabelValue;
+import io.opencensus.metrics.Metrics;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
@@ -85,59 +101,291 @@ import javax.annotation.concurrent.ThreadSafe;
  *   }
  * }
  * </pre>
+ *
+ * <p>The size of the queue and how the background thread waits for new entries are read from the
+ * {@link #BUFFER_SIZE_PROPERTY_NAME} and {@link #WAIT_STRATEGY_PROPERTY_NAME} system properties
+ * when the singleton is created.
+ *
+ * <p>By default all the entries are processed by a single background thread, in the order they were
+ * enqueued. The {@link #NUM_SHARDS_PROPERTY_NAME} system property splits the queue into several
+ * shards, each with its own ring buffer and background thread. {@link KeyedEntry}s with the same
+ * key, and other entries enqueued by the same thread, go to the same shard so they are still
+ * processed in order, but there is no ordering between shards, and their entries must be safe to
+ * process concurrently.
+ *
+ * <p>What happens when the queue is full depends on the {@link OverflowPolicy}, which is read from
+ * the {@link #OVERFLOW_POLICY_PROPERTY_NAME} system property. Entries that are dropped because of
+ * it are counted by type and exported as the cumulative {@code
+ * opencensus.io/event_queue/dropped_events} metric, with one time series per type.
+ *
+ * <p>The singleton also exports the remaining capacity and the number of in-flight entries of the
+ * queue as gauges, read from the ring buffers only when they are exported, and the distribution of
+ * the time the background threads take to process each entry. All these metrics are collected from
+ * the producers of the global {@link io.opencensus.metrics.export.MetricProducerManager}, which
+ * none of the exporters in this repository reads yet.
  */
 @ThreadSafe
 public final class DisruptorEventQueue implements EventQueue {
 
+  /**
+   * Name of the integer property that sets the number of entries that can be enqueued at any one
+   * time. It must be a power of two, other values are ignored. Defaults to 8192. The name is
+   * {@value}.
+   */
+  public static final String BUFFER_SIZE_PROPERTY_NAME =
+      "io.opencensus.impl.internal.DisruptorEventQueue.bufferSize";
+
+  /**
+   * Name of the integer property that sets the number of shards of the queue, each with its own
+   * background thread. Defaults to 1. The name is {@value}.
+   */
+  public static final String NUM_SHARDS_PROPERTY_NAME =
+      "io.opencensus.impl.internal.DisruptorEventQueue.numShards";
+
+  /**
+   * Name of the property that sets the {@link WaitStrategy} of the background thread, case
+   * insensitive. Defaults to {@link WaitStrategy#SLEEPING}. The name is {@value}.
+   */
+  public static final String WAIT_STRATEGY_PROPERTY_NAME =
+      "io.opencensus.impl.internal.DisruptorEventQueue.waitStrategy";
+
+  /**
+   * Name of the property that sets the {@link OverflowPolicy} of the queue, case insensitive.
+   * Defaults to {@link OverflowPolicy#BLOCK}. The name is {@value}.
+   */
+  public static final String OVERFLOW_POLICY_PROPERTY_NAME =
+      "io.opencensus.impl.internal.DisruptorEventQueue.overflowPolicy";
+
+  @VisibleForTesting
+  static final String REMAINING_CAPACITY_METRIC_NAME =
+      "opencensus.io/event_queue/remaining_capacity";
+
+  private static final String REMAINING_CAPACITY_METRIC_DESCRIPTION =
+      "Number of events that can be enqueued before the event queue is full.";
+
+  @VisibleForTesting
+  static final String IN_FLIGHT_METRIC_NAME = "opencensus.io/event_queue/in_flight";
+
+  private static final String IN_FLIGHT_METRIC_DESCRIPTION =
+      "Number of events that were enqueued but not processed yet.";
+
+  // Number of times SPIN_THEN_DROP retries to claim a slot before dropping an entry.
+  private static final int MAX_SPIN_RETRIES = 100;
+
+  // How often shutdown(Duration) checks whether a shard processed all its entries.
+  private static final long DRAIN_POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
   private static final Logger logger = Logger.getLogger(DisruptorEventQueue.class.getName());
 
-  // Number of events that can be enqueued at any one time. If more than this are enqueued,
-  // then subsequent attempts to enqueue new entries will block.
-  // TODO(aveitch): consider making this a parameter to the constructor, so the queue can be
-  // configured to a size appropriate to the system (smaller/less busy systems will not need as
-  // large a queue.
-  private static final int DISRUPTOR_BUFFER_SIZE = 8192;
+  // Default number of events that can be enqueued at any one time. If more than this are
+  // enqueued, then subsequent attempts to enqueue new entries will block or be dropped.
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
   // The single instance of the class.
-  private static final DisruptorEventQueue eventQueue = create();
+  private static final DisruptorEventQueue eventQueue = createInstance();
 
-  // The event queue is built on this {@link Disruptor}.
-  private final Disruptor<DisruptorEvent> disruptor;
-  // Ring Buffer for the {@link Disruptor} that underlies the queue.
-  private final RingBuffer<DisruptorEvent> ringBuffer;
+  // The event queue is built on these {@link Disruptor}s, one per shard.
+  private final Disruptor<DisruptorEvent>[] disruptors;
+  // Ring Buffers for the {@link Disruptor}s that underlie the queue.
+  private final RingBuffer<DisruptorEvent>[] ringBuffers;
+  private final DroppedEvents droppedEvents;
+  private final ProcessingLatency processingLatency;
 
   private volatile DisruptorEnqueuer enqueuer;
 
   // Creates a new EventQueue. Private to prevent creation of non-singleton instance.
   private DisruptorEventQueue(
-      Disruptor<DisruptorEvent> disruptor,
-      RingBuffer<DisruptorEvent> ringBuffer,
+      Disruptor<DisruptorEvent>[] disruptors,
+      RingBuffer<DisruptorEvent>[] ringBuffers,
+      DroppedEvents droppedEvents,
+      ProcessingLatency processingLatency,
       DisruptorEnqueuer enqueuer) {
-    this.disruptor = disruptor;
-    this.ringBuffer = ringBuffer;
+    this.disruptors = disruptors;
+    this.ringBuffers = ringBuffers;
+    this.droppedEvents = droppedEvents;
+    this.processingLatency = processingLatency;
     this.enqueuer = enqueuer;
   }
 
-  // Creates a new EventQueue. Private to prevent creation of non-singleton instance.
-  private static DisruptorEventQueue create() {
-    // Create new Disruptor for processing. Note that Disruptor creates a single thread per
-    // consumer (see https://github.com/LMAX-Exchange/disruptor/issues/121 for details);
-    // this ensures that the event handler can take unsynchronized actions whenever possible.
-    Disruptor<DisruptorEvent> disruptor =
-        new Disruptor<>(
-            DisruptorEventFactory.INSTANCE,
-            DISRUPTOR_BUFFER_SIZE,
-            new DaemonThreadFactory("OpenCensus.Disruptor"),
-            ProducerType.MULTI,
-            new SleepingWaitStrategy());
-    disruptor.handleEventsWith(new DisruptorEventHandler[] {DisruptorEventHandler.INSTANCE});
-    disruptor.start();
-    final RingBuffer<DisruptorEvent> ringBuffer = disruptor.getRingBuffer();
+  // Creates the singleton instance, configured with the system properties, and exports its
+  // metrics.
+  private static DisruptorEventQueue createInstance() {
+    DisruptorEventQueue eventQueue =
+        create(
+            loadNumShards(),
+            loadBufferSize(),
+            loadEnumProperty(
+                WAIT_STRATEGY_PROPERTY_NAME, WaitStrategy.class, WaitStrategy.SLEEPING),
+            loadEnumProperty(
+                OVERFLOW_POLICY_PROPERTY_NAME, OverflowPolicy.class, OverflowPolicy.BLOCK));
+    eventQueue.registerMetrics();
+    return eventQueue;
+  }
+
+  /** How the background thread waits for new entries when the queue is empty. */
+  public enum WaitStrategy {
+    /**
+     * Spins, then yields, then sleeps for a short time. Uses little CPU when idle, at the cost of
+     * some latency after idle periods.
+     */
+    SLEEPING {
+      @Override
+      com.lmax.disruptor.WaitStrategy create() {
+        return new SleepingWaitStrategy();
+      }
+    },
+
+    /**
+     * Spins, then yields. Low latency, but uses a core even when idle, so it is best used when
+     * there are spare cores.
+     */
+    YIELDING {
+      @Override
+      com.lmax.disruptor.WaitStrategy create() {
+        return new YieldingWaitStrategy();
+      }
+    },
+
+    /** Busy spins. Lowest latency, but always uses a whole core. */
+    BUSY_SPIN {
+      @Override
+      com.lmax.disruptor.WaitStrategy create() {
+        return new BusySpinWaitStrategy();
+      }
+    },
+
+    /**
+     * Waits on a lock and condition. Uses no CPU when idle, at the cost of waking up the thread on
+     * every enqueue that finds it waiting.
+     */
+    BLOCKING {
+      @Override
+      com.lmax.disruptor.WaitStrategy create() {
+        return new BlockingWaitStrategy();
+      }
+    };
+
+    abstract com.lmax.disruptor.WaitStrategy create();
+  }
+
+  /** What {@link DisruptorEventQueue#enqueue(Entry)} does when the queue is full. */
+  public enum OverflowPolicy {
+    /** Waits until the background thread frees a slot. This can block the caller indefinitely. */
+    BLOCK,
+
+    /** Drops the entry that is being enqueued without waiting. */
+    DROP_NEWEST,
+
+    /**
+     * Yields and retries a bounded number of times to give the background thread a chance to free a
+     * slot, then drops the entry that is being enqueued.
+     */
+    SPIN_THEN_DROP
+  }
+
+  private static int loadNumShards() {
+    Integer numShards = Integer.getInteger(NUM_SHARDS_PROPERTY_NAME);
+    if (numShards == null) {
+      return 1;
+    }
+    if (numShards <= 0) {
+      logger.log(
+          Level.WARNING,
+          NUM_SHARDS_PROPERTY_NAME + " should be positive: " + numShards + ", using 1.");
+      return 1;
+    }
+    return numShards;
+  }
+
+  private static int loadBufferSize() {
+    Integer bufferSize = Integer.getInteger(BUFFER_SIZE_PROPERTY_NAME);
+    if (bufferSize == null) {
+      return DEFAULT_BUFFER_SIZE;
+    }
+    if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+      logger.log(
+          Level.WARNING,
+          BUFFER_SIZE_PROPERTY_NAME
+              + " should be a power of two: "
+              + bufferSize
+              + ", using "
+              + DEFAULT_BUFFER_SIZE
+              + ".");
+      return DEFAULT_BUFFER_SIZE;
+    }
+    return bufferSize;
+  }
+
+  private static <E extends Enum<E>> E loadEnumProperty(
+      String propertyName, Class<E> type, E defaultValue) {
+    String value = System.getProperty(propertyName);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      logger.log(
+          Level.WARNING,
+          "Unknown value of " + propertyName + ": " + value + ", using " + defaultValue + ".");
+      return defaultValue;
+    }
+  }
+
+  // Creates a new EventQueue. Only used directly by tests, to not share the singleton instance.
+  @VisibleForTesting
+  static DisruptorEventQueue create(
+      int numShards,
+      int bufferSize,
+      WaitStrategy waitStrategy,
+      final OverflowPolicy overflowPolicy) {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Disruptor<DisruptorEvent>[] disruptors = new Disruptor[numShards];
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    final RingBuffer<DisruptorEvent>[] ringBuffers = new RingBuffer[numShards];
+    ProcessingLatency processingLatency = new ProcessingLatency(MillisClock.getInstance());
+    for (int i = 0; i < numShards; i++) {
+      // Create new Disruptor for processing. Note that Disruptor creates a single thread per
+      // consumer (see https://github.com/LMAX-Exchange/disruptor/issues/121 for details);
+      // this ensures that the event handler can take unsynchronized actions whenever possible.
+      disruptors[i] =
+          new Disruptor<>(
+              DisruptorEventFactory.INSTANCE,
+              bufferSize,
+              new DaemonThreadFactory(
+                  numShards == 1 ? "OpenCensus.Disruptor" : "OpenCensus.Disruptor-" + i),
+              ProducerType.MULTI,
+              waitStrategy.create());
+      // The default handler of the Disruptor stops the consumer thread on the first exception,
+      // after which the producers block or drop all the events of the shard.
+      disruptors[i].setDefaultExceptionHandler(LoggingExceptionHandler.INSTANCE);
+      disruptors[i].handleEventsWith(
+          new DisruptorEventHandler[] {new DisruptorEventHandler(processingLatency.newRecorder())});
+      disruptors[i].start();
+      ringBuffers[i] = disruptors[i].getRingBuffer();
+    }
+    final DroppedEvents droppedEvents = new DroppedEvents(MillisClock.getInstance());
 
     DisruptorEnqueuer enqueuer =
         new DisruptorEnqueuer() {
           @Override
           public void enqueue(Entry entry) {
-            long sequence = ringBuffer.next();
+            RingBuffer<DisruptorEvent> ringBuffer =
+                ringBuffers.length == 1
+                    ? ringBuffers[0]
+                    : ringBuffers[getShard(entry, ringBuffers.length)];
+            long sequence;
+            if (overflowPolicy == OverflowPolicy.BLOCK) {
+              sequence = ringBuffer.next();
+            } else {
+              sequence =
+                  tryNext(
+                      ringBuffer,
+                      overflowPolicy == OverflowPolicy.SPIN_THEN_DROP ? MAX_SPIN_RETRIES : 0);
+              if (sequence < 0) {
+                droppedEvents.add(entry);
+                return;
+              }
+            }
             try {
               DisruptorEvent event = ringBuffer.get(sequence);
               event.setEntry(entry);
@@ -146,7 +394,69 @@ public final class DisruptorEventQueue implements EventQueue {
             }
           }
         };
-    return new DisruptorEventQueue(disruptor, ringBuffer, enqueuer);
+    return new DisruptorEventQueue(
+        disruptors, ringBuffers, droppedEvents, processingLatency, enqueuer);
+  }
+
+  // Exports the remaining capacity, in-flight entries, processing latency and dropped entries of
+  // this queue.
+  private void registerMetrics() {
+    Metrics.getMetricRegistry()
+        .addLongGauge(
+            REMAINING_CAPACITY_METRIC_NAME,
+            REMAINING_CAPACITY_METRIC_DESCRIPTION,
+            "1",
+            new LinkedHashMap<LabelKey, LabelValue>(),
+            this,
+            new ToLongFunction<DisruptorEventQueue>() {
+              @Override
+              public long applyAsLong(DisruptorEventQueue eventQueue) {
+                return eventQueue.getRemainingCapacity();
+              }
+            });
+    Metrics.getMetricRegistry()
+        .addLongGauge(
+            IN_FLIGHT_METRIC_NAME,
+            IN_FLIGHT_METRIC_DESCRIPTION,
+            "1",
+            new LinkedHashMap<LabelKey, LabelValue>(),
+            this,
+            new ToLongFunction<DisruptorEventQueue>() {
+              @Override
+              public long applyAsLong(DisruptorEventQueue eventQueue) {
+                return eventQueue.getNumInFlight();
+              }
+            });
+    Metrics.getExportComponent().getMetricProducerManager().add(processingLatency);
+    Metrics.getExportComponent().getMetricProducerManager().add(droppedEvents);
+  }
+
+  // Returns the shard of an entry: the same for the entries with the same key, and for the
+  // entries without a key that are enqueued by the same thread.
+  @VisibleForTesting
+  static int getShard(Entry entry, int numShards) {
+    long key =
+        entry instanceof KeyedEntry
+            ? ((KeyedEntry) entry).getKey()
+            : Thread.currentThread().getId();
+    // Spreads the keys over 32 bits, then maps them to [0, numShards) without a division.
+    long hash = ((key * 0x9E3779B97F4A7C15L) >>> 32);
+    return (int) ((hash * numShards) >>> 32);
+  }
+
+  // Returns the next sequence of the ring buffer, or -1 if the ring buffer is still full after the
+  // given number of retries.
+  private static long tryNext(RingBuffer<DisruptorEvent> ringBuffer, int maxRetries) {
+    for (int retries = 0; ; retries++) {
+      try {
+        return ringBuffer.tryNext();
+      } catch (InsufficientCapacityException e) {
+        if (retries >= maxRetries) {
+          return -1;
+        }
+        Thread.yield();
+      }
+    }
   }
 
   /**
@@ -168,9 +478,59 @@ public final class DisruptorEventQueue implements EventQueue {
     enqueuer.enqueue(entry);
   }
 
-  /** Shuts down the underlying disruptor. */
+  /**
+   * Stops accepting new entries, waits for the background threads to process the enqueued entries,
+   * and shuts down the underlying disruptors.
+   */
   @Override
   public void shutdown() {
+    stopAccepting();
+    for (int i = 0; i < disruptors.length; i++) {
+      // Like Disruptor.shutdown(long, TimeUnit), Disruptor.shutdown() ignores the consumers whose
+      // thread did not start running yet, see shutdown(Duration).
+      RingBuffer<DisruptorEvent> ringBuffer = ringBuffers[i];
+      while (ringBuffer.remainingCapacity() < ringBuffer.getBufferSize()) {
+        LockSupport.parkNanos(DRAIN_POLL_INTERVAL_NANOS);
+      }
+      disruptors[i].halt();
+    }
+  }
+
+  /**
+   * Stops accepting new entries and waits at most for the given timeout for the background threads
+   * to process the enqueued entries. The shards drain concurrently. Shards that still have entries
+   * at the timeout are halted and their entries are dropped.
+   *
+   * @param timeout the maximum time to wait for the enqueued entries to be processed.
+   * @return the number of entries that were dropped because they were not processed in time.
+   */
+  @Override
+  public long shutdown(Duration timeout) {
+    stopAccepting();
+    long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout.toMillis());
+    long numDropped = 0;
+    for (int i = 0; i < disruptors.length; i++) {
+      // Disruptor.shutdown(long, TimeUnit) ignores the consumers whose thread did not start running
+      // yet, so it could halt a shard before it processed anything. The remaining capacity of the
+      // ring buffer accounts for all the consumers.
+      RingBuffer<DisruptorEvent> ringBuffer = ringBuffers[i];
+      while (ringBuffer.remainingCapacity() < ringBuffer.getBufferSize()
+          && System.nanoTime() - deadlineNanos < 0) {
+        LockSupport.parkNanos(DRAIN_POLL_INTERVAL_NANOS);
+      }
+      disruptors[i].halt();
+      numDropped += ringBuffer.getBufferSize() - ringBuffer.remainingCapacity();
+    }
+    if (numDropped > 0) {
+      logger.log(
+          Level.WARNING,
+          "Dropped " + numDropped + " events that were not processed before the shutdown timeout.");
+    }
+    return numDropped;
+  }
+
+  // Replaces the enqueuer with one that ignores the new entries.
+  private void stopAccepting() {
     enqueuer =
         new DisruptorEnqueuer() {
           final AtomicBoolean logged = new AtomicBoolean(false);
@@ -182,11 +542,49 @@ public final class DisruptorEventQueue implements EventQueue {
             }
           }
         };
+  }
+
+  // Returns the number of entries that can be enqueued before all the shards are full.
+  @VisibleForTesting
+  long getRemainingCapacity() {
+    long remainingCapacity = 0;
+    for (RingBuffer<DisruptorEvent> ringBuffer : ringBuffers) {
+      remainingCapacity += ringBuffer.remainingCapacity();
+    }
+    return remainingCapacity;
+  }
+
+  // Returns the number of entries that were enqueued but not processed yet.
+  @VisibleForTesting
+  long getNumInFlight() {
+    long numInFlight = 0;
+    for (RingBuffer<DisruptorEvent> ringBuffer : ringBuffers) {
+      numInFlight += ringBuffer.getBufferSize() - ringBuffer.remainingCapacity();
+    }
+    return numInFlight;
+  }
+
+  @VisibleForTesting
+  ProcessingLatency getProcessingLatency() {
+    return processingLatency;
+  }
 
-    disruptor.shutdown();
+  @VisibleForTesting
+  DroppedEvents getDroppedEvents() {
+    return droppedEvents;
+  }
+
+  /**
+   * Returns the number of entries of the given type that were dropped because the queue was full.
+   *
+   * @param type the class of the entries.
+   * @return the number of dropped entries of the given type.
+   */
+  @VisibleForTesting
+  long getNumDroppedEvents(Class<? extends Entry> type) {
+    return droppedEvents.get(type);
   }
 
-  // Allows this event queue to safely shutdown by not enqueuing events on the ring buffer
   private abstract static class DisruptorEnqueuer {
 
     public abstract void enqueue(Entry entry);
@@ -221,21 +619,85 @@ public final class DisruptorEventQueue implements EventQueue {
     }
   }
 
+  // Logs the exceptions thrown while processing an entry, and keeps processing the next entries.
+  private enum LoggingExceptionHandler implements ExceptionHandler<DisruptorEvent> {
+    INSTANCE;
+
+    @Override
+    public void handleEventException(Throwable ex, long sequence, DisruptorEvent event) {
+      logger.log(Level.WARNING, "Exception thrown while processing an event.", ex);
+    }
+
+    @Override
+    public void handleOnStartException(Throwable ex) {
+      logger.log(Level.WARNING, "Exception thrown while starting the event queue.", ex);
+    }
+
+    @Override
+    public void handleOnShutdownException(Throwable ex) {
+      logger.log(Level.WARNING, "Exception thrown while shutting down the event queue.", ex);
+    }
+  }
+
   /**
-   * Every event that gets added to {@link EventQueue} will get processed here. Just calls the
-   * underlying process() method.
+   * Every event that gets added to {@link EventQueue} will get processed here. Calls the underlying
+   * process() method, or processInBatch() for {@link BatchEntry}s, whose batch is ended when an
+   * entry of another batch is processed or when the Disruptor has no more available events. Records
+   * the time it takes to process each entry.
    */
-  private enum DisruptorEventHandler implements EventHandler<DisruptorEvent> {
-    INSTANCE;
+  private static final class DisruptorEventHandler implements EventHandler<DisruptorEvent> {
+
+    private final ProcessingLatency.Recorder processingLatency;
+
+    // The batch of the previous entries, only accessed by the consumer thread.
+    @Nullable private Batch currentBatch;
+
+    // Whether the previous event was not the last one of its Disruptor batch, in which case this
+    // event starts when the previous one ended, at endNanos. Saves a System.nanoTime() call per
+    // event while the consumer is busy.
+    private boolean inDisruptorBatch;
+    private long endNanos;
+
+    DisruptorEventHandler(ProcessingLatency.Recorder processingLatency) {
+      this.processingLatency = processingLatency;
+    }
 
     @Override
     public void onEvent(DisruptorEvent event, long sequence, boolean endOfBatch) {
-      Entry entry = event.getEntry();
-      if (entry != null) {
-        entry.process();
+      long startNanos = inDisruptorBatch ? endNanos : System.nanoTime();
+      try {
+        Entry entry = event.getEntry();
+        if (entry instanceof BatchEntry) {
+          BatchEntry batchEntry = (BatchEntry) entry;
+          Batch batch = batchEntry.getBatch();
+          if (batch != currentBatch) {
+            endCurrentBatch();
+            batch.begin();
+            currentBatch = batch;
+          }
+          batchEntry.processInBatch();
+        } else if (entry != null) {
+          endCurrentBatch();
+          entry.process();
+        }
+      } finally {
+        endNanos = System.nanoTime();
+        inDisruptorBatch = !endOfBatch;
+        processingLatency.record(endNanos - startNanos);
+        // Remove the reference to the previous entry to allow the memory to be gc'ed.
+        event.setEntry(null);
+        if (endOfBatch) {
+          endCurrentBatch();
+        }
+      }
+    }
+
+    private void endCurrentBatch() {
+      Batch batch = currentBatch;
+      if (batch != null) {
+        currentBatch = null;
+        batch.end();
       }
-      // Remove the reference to the previous entry to allow the memory to be gc'ed.
-      event.setEntry(null);
     }
   }
 }
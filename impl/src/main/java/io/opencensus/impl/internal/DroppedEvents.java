@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.impl.internal;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.opencensus.common.Clock;
+import io.opencensus.common.Timestamp;
+import io.opencensus.implcore.internal.EventQueue.Entry;
+import io.opencensus.metrics.LabelKey;
+import io.opencensus.metrics.LabelValue;
+import io.opencensus.metrics.Metric;
+import io.opencensus.metrics.MetricDescriptor;
+import io.opencensus.metrics.MetricDescriptor.Type;
+import io.opencensus.metrics.MetricProducer;
+import io.opencensus.metrics.Point;
+import io.opencensus.metrics.TimeSeries;
+import io.opencensus.metrics.Value;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The number of entries that an event queue dropped because it was full, counted by entry class and
+ * exported as a cumulative {@link Metric} with one time series per class.
+ *
+ * <p>The metric has no time series until the first entry is dropped.
+ */
+@ThreadSafe
+final class DroppedEvents extends MetricProducer {
+
+  @VisibleForTesting static final String METRIC_NAME = "opencensus.io/event_queue/dropped_events";
+
+  private static final LabelKey EVENT_TYPE =
+      LabelKey.create("event_type", "The type of the dropped events.");
+
+  private static final MetricDescriptor METRIC_DESCRIPTOR =
+      MetricDescriptor.create(
+          METRIC_NAME,
+          "Number of events that were dropped because the event queue was full.",
+          "1",
+          Type.CUMULATIVE_INT64,
+          Collections.singletonList(EVENT_TYPE));
+
+  private static final Logger logger = Logger.getLogger(DroppedEvents.class.getName());
+
+  private final Clock clock;
+  private final Timestamp startTime;
+  private final ConcurrentMap<Class<?>, AtomicLong> counts = new ConcurrentHashMap<>();
+
+  DroppedEvents(Clock clock) {
+    this.clock = clock;
+    this.startTime = clock.now();
+  }
+
+  /**
+   * Counts a dropped entry. Logs a warning the first time an entry of its class is dropped.
+   *
+   * @param entry the dropped entry.
+   */
+  void add(Entry entry) {
+    Class<?> type = entry.getClass();
+    AtomicLong count = counts.get(type);
+    if (count == null) {
+      AtomicLong newCount = new AtomicLong();
+      count = counts.putIfAbsent(type, newCount);
+      if (count == null) {
+        count = newCount;
+        logger.log(
+            Level.WARNING, "Event queue is full, dropping events of type " + type.getName() + ".");
+      }
+    }
+    count.incrementAndGet();
+  }
+
+  /**
+   * Returns the number of dropped entries of the given class.
+   *
+   * @param type the class of the entries.
+   * @return the number of dropped entries of the given class.
+   */
+  long get(Class<?> type) {
+    AtomicLong count = counts.get(type);
+    return count == null ? 0 : count.get();
+  }
+
+  @Override
+  public Collection<Metric> getMetrics() {
+    if (counts.isEmpty()) {
+      return Collections.emptyList();
+    }
+    Timestamp now = clock.now();
+    List<TimeSeries> timeSeriesList = new ArrayList<TimeSeries>(counts.size());
+    for (Map.Entry<Class<?>, AtomicLong> count : counts.entrySet()) {
+      timeSeriesList.add(
+          TimeSeries.create(
+              Collections.singletonList(LabelValue.create(count.getKey().getName())),
+              Collections.singletonList(Point.create(Value.longValue(count.getValue().get()), now)),
+              startTime));
+    }
+    return Collections.singletonList(Metric.create(METRIC_DESCRIPTOR, timeSeriesList));
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.impl.internal;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.opencensus.common.Clock;
+import io.opencensus.common.Timestamp;
+import io.opencensus.metrics.Distribution;
+import io.opencensus.metrics.LabelKey;
+import io.opencensus.metrics.LabelValue;
+import io.opencensus.metrics.Metric;
+import io.opencensus.metrics.MetricDescriptor;
+import io.opencensus.metrics.MetricDescriptor.Type;
+import io.opencensus.metrics.MetricProducer;
+import io.opencensus.metrics.Point;
+import io.opencensus.metrics.TimeSeries;
+import io.opencensus.metrics.Value;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The distribution of the time the background threads of an event queue take to process each entry,
+ * exported as a cumulative distribution {@link Metric} in milliseconds.
+ *
+ * <p>It is only updated by the background threads, never on the enqueue path. Each background
+ * thread records into its own {@link Recorder}, so that the threads do not contend on shared
+ * counters, and the recorders are merged when the metric is collected. The exported distribution is
+ * not an atomic snapshot when entries are processed concurrently.
+ */
+@ThreadSafe
+final class ProcessingLatency extends MetricProducer {
+
+  @VisibleForTesting
+  static final String METRIC_NAME = "opencensus.io/event_queue/processing_latency";
+
+  private static final MetricDescriptor METRIC_DESCRIPTOR =
+      MetricDescriptor.create(
+          METRIC_NAME,
+          "Time to process each event of the event queue.",
+          "ms",
+          Type.CUMULATIVE_DISTRIBUTION,
+          Collections.<LabelKey>emptyList());
+
+  private static final double NANOS_PER_MILLI = 1e6;
+
+  // Upper bounds of the buckets in nanoseconds, from 1us to 100ms.
+  private static final long[] BUCKET_BOUNDARIES_NANOS = {
+    1000, 2000, 5000, 10000, 20000, 50000, 100000, 200000, 500000, 1000000, 2000000, 5000000,
+    10000000, 20000000, 50000000, 100000000
+  };
+  private static final List<Double> BUCKET_BOUNDARIES_MILLIS = toMillis(BUCKET_BOUNDARIES_NANOS);
+
+  private final Clock clock;
+  private final Timestamp startTime;
+  private final List<Recorder> recorders = new CopyOnWriteArrayList<Recorder>();
+
+  ProcessingLatency(Clock clock) {
+    this.clock = clock;
+    this.startTime = clock.now();
+  }
+
+  /**
+   * Returns a new {@link Recorder} whose latencies are part of this distribution.
+   *
+   * @return a new {@code Recorder}.
+   */
+  Recorder newRecorder() {
+    Recorder recorder = new Recorder();
+    recorders.add(recorder);
+    return recorder;
+  }
+
+  /**
+   * Records the latencies of one background thread. Only that thread may call {@link
+   * #record(long)}, which publishes the counters with ordered writes instead of atomic updates.
+   */
+  static final class Recorder {
+    private final AtomicLongArray bucketCounts =
+        new AtomicLongArray(BUCKET_BOUNDARIES_NANOS.length + 1);
+    private final AtomicLong sumNanos = new AtomicLong();
+    // The raw bits of the sum of the squared latencies in nanoseconds, which can overflow a long.
+    private final AtomicLong sumOfSquaresBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+
+    private Recorder() {}
+
+    /**
+     * Records the time it took to process an entry.
+     *
+     * @param nanos the processing time in nanoseconds.
+     */
+    void record(long nanos) {
+      if (nanos < 0) {
+        // System.nanoTime() is not always monotonic across cores.
+        nanos = 0;
+      }
+      int bucket = 0;
+      while (bucket < BUCKET_BOUNDARIES_NANOS.length && nanos >= BUCKET_BOUNDARIES_NANOS[bucket]) {
+        bucket++;
+      }
+      bucketCounts.lazySet(bucket, bucketCounts.get(bucket) + 1);
+      sumNanos.lazySet(sumNanos.get() + nanos);
+      sumOfSquaresBits.lazySet(
+          Double.doubleToRawLongBits(
+              Double.longBitsToDouble(sumOfSquaresBits.get()) + (double) nanos * nanos));
+    }
+  }
+
+  @Override
+  public Collection<Metric> getMetrics() {
+    return Collections.singletonList(
+        Metric.create(
+            METRIC_DESCRIPTOR,
+            Collections.singletonList(
+                TimeSeries.create(
+                    Collections.<LabelValue>emptyList(),
+                    Collections.singletonList(
+                        Point.create(Value.distributionValue(getDistribution()), clock.now())),
+                    startTime))));
+  }
+
+  @VisibleForTesting
+  Distribution getDistribution() {
+    long[] bucketCounts = new long[BUCKET_BOUNDARIES_NANOS.length + 1];
+    double sum = 0;
+    double sumOfSquares = 0;
+    for (Recorder recorder : recorders) {
+      for (int i = 0; i < bucketCounts.length; i++) {
+        bucketCounts[i] += recorder.bucketCounts.get(i);
+      }
+      sum += recorder.sumNanos.get();
+      sumOfSquares += Double.longBitsToDouble(recorder.sumOfSquaresBits.get());
+    }
+    List<Distribution.Bucket> buckets = new ArrayList<Distribution.Bucket>(bucketCounts.length);
+    long count = 0;
+    for (long bucketCount : bucketCounts) {
+      buckets.add(Distribution.Bucket.create(bucketCount));
+      count += bucketCount;
+    }
+    if (count == 0) {
+      return Distribution.create(0, 0, 0, BUCKET_BOUNDARIES_MILLIS, buckets);
+    }
+    // Concurrent updates can make the sums briefly inconsistent with the count.
+    double sumOfSquaredDeviations = Math.max(0, sumOfSquares - sum * sum / count);
+    return Distribution.create(
+        sum / count / NANOS_PER_MILLI,
+        count,
+        sumOfSquaredDeviations / (NANOS_PER_MILLI * NANOS_PER_MILLI),
+        BUCKET_BOUNDARIES_MILLIS,
+        buckets);
+  }
+
+  private static List<Double> toMillis(long[] nanos) {
+    List<Double> millis = new ArrayList<Double>(nanos.length);
+    for (long value : nanos) {
+      millis.add(value / NANOS_PER_MILLI);
+    }
+    return Collections.unmodifiableList(millis);
+  }
+}
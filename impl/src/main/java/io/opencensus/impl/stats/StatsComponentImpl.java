@@ -16,16 +16,57 @@
 
 package io.opencensus.impl.stats;
 
+import io.opencensus.common.Duration;
 import io.opencensus.impl.internal.DisruptorEventQueue;
 import io.opencensus.implcore.common.MillisClock;
 import io.opencensus.implcore.stats.StatsComponentImplBase;
+import io.opencensus.implcore.stats.StatsOptions;
 import io.opencensus.stats.StatsComponent;
 
 /** Java 7 and 8 implementation of {@link StatsComponent}. */
 public final class StatsComponentImpl extends StatsComponentImplBase {
 
+  /**
+   * Name of the boolean property that enables recording stats of cumulative views with a Sum, Count
+   * or LastValue aggregation on the calling thread, instead of on the thread of the event queue.
+   * The name is {@value}.
+   */
+  public static final String CONCURRENT_RECORDING_PROPERTY_NAME =
+      "io.opencensus.impl.stats.StatsComponentImpl.concurrentRecording";
+
+  /**
+   * Name of the integer property that sets the maximum number of series of each view. Once a view
+   * has that many series, stats with new tag values are recorded to a single overflow series. Unset
+   * or non-positive values mean no limit. The name is {@value}.
+   */
+  public static final String MAX_SERIES_PER_VIEW_PROPERTY_NAME =
+      "io.opencensus.impl.stats.StatsComponentImpl.maxSeriesPerView";
+
+  /**
+   * Name of the long property that sets, in milliseconds, how long a series of a cumulative view
+   * can go without being recorded to before it is evicted on export. Unset or non-positive values
+   * mean series are never evicted. The name is {@value}.
+   */
+  public static final String SERIES_IDLE_TIMEOUT_MILLIS_PROPERTY_NAME =
+      "io.opencensus.impl.stats.StatsComponentImpl.seriesIdleTimeoutMillis";
+
   /** Public constructor to be used with reflection loading. */
   public StatsComponentImpl() {
-    super(DisruptorEventQueue.getInstance(), MillisClock.getInstance());
+    super(DisruptorEventQueue.getInstance(), MillisClock.getInstance(), loadOptions());
+  }
+
+  private static StatsOptions loadOptions() {
+    StatsOptions.Builder builder =
+        StatsOptions.builder()
+            .setConcurrentRecording(Boolean.getBoolean(CONCURRENT_RECORDING_PROPERTY_NAME));
+    Integer maxSeriesPerView = Integer.getInteger(MAX_SERIES_PER_VIEW_PROPERTY_NAME);
+    if (maxSeriesPerView != null && maxSeriesPerView > 0) {
+      builder.setMaxSeriesPerView(maxSeriesPerView);
+    }
+    Long seriesIdleTimeoutMillis = Long.getLong(SERIES_IDLE_TIMEOUT_MILLIS_PROPERTY_NAME);
+    if (seriesIdleTimeoutMillis != null && seriesIdleTimeoutMillis > 0) {
+      builder.setSeriesIdleTimeout(Duration.fromMillis(seriesIdleTimeoutMillis));
+    }
+    return builder.build();
   }
 }
@@ -17,8 +17,22 @@
 package io.opencensus.impl.internal;
 
 import static com.google.common.truth.Truth.assertThat;
+import static io.opencensus.impl.internal.DisruptorEventQueue.IN_FLIGHT_METRIC_NAME;
+import static io.opencensus.impl.internal.DisruptorEventQueue.REMAINING_CAPACITY_METRIC_NAME;
 
+import io.opencensus.common.Duration;
+import io.opencensus.impl.internal.DisruptorEventQueue.OverflowPolicy;
+import io.opencensus.impl.internal.DisruptorEventQueue.WaitStrategy;
 import io.opencensus.implcore.internal.EventQueue;
+import io.opencensus.metrics.LabelValue;
+import io.opencensus.metrics.Metric;
+import io.opencensus.metrics.MetricProducer;
+import io.opencensus.metrics.Metrics;
+import io.opencensus.metrics.TimeSeries;
+import io.opencensus.metrics.Value;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -71,6 +85,89 @@ public class DisruptorEventQueueTest {
     }
   }
 
+  // A Batch that checks that its entries are only processed between begin() and end().
+  private static class CountingBatch implements EventQueue.Batch {
+    private boolean inBatch;
+    private int numBatches;
+    private int numProcessed;
+    private int numProcessedOutsideBatch;
+
+    @Override
+    public void begin() {
+      assertThat(inBatch).isFalse();
+      inBatch = true;
+      numBatches++;
+    }
+
+    @Override
+    public void end() {
+      assertThat(inBatch).isTrue();
+      inBatch = false;
+    }
+
+    void onProcess() {
+      if (!inBatch) {
+        numProcessedOutsideBatch++;
+      }
+      numProcessed++;
+    }
+  }
+
+  // BatchEntry for counting the entries processed in a CountingBatch.
+  private static class CountingBatchEntry implements EventQueue.BatchEntry {
+    private final CountingBatch batch;
+
+    CountingBatchEntry(CountingBatch batch) {
+      this.batch = batch;
+    }
+
+    @Override
+    public EventQueue.Batch getBatch() {
+      return batch;
+    }
+
+    @Override
+    public void process() {
+      throw new AssertionError("BatchEntries should be processed in a batch.");
+    }
+
+    @Override
+    public void processInBatch() {
+      batch.onProcess();
+    }
+  }
+
+  // IncrementEvent with a key.
+  private static class KeyedIncrementEvent extends IncrementEvent implements EventQueue.KeyedEntry {
+    private final int key;
+
+    KeyedIncrementEvent(Counter counter, int key) {
+      super(counter);
+      this.key = key;
+    }
+
+    @Override
+    public int getKey() {
+      return key;
+    }
+  }
+
+  // Entry that blocks the background thread until it is released.
+  private static class BlockingEvent implements EventQueue.Entry {
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    @Override
+    public void process() {
+      started.countDown();
+      try {
+        released.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
   @Test
   public void incrementOnce() {
     Counter counter = new Counter();
@@ -101,4 +198,241 @@ public class DisruptorEventQueueTest {
     }
     counter.check(tenK);
   }
+
+  @Test
+  public void processBatchEntries() {
+    final int tenK = 10000;
+    CountingBatch batch = new CountingBatch();
+    Counter counter = new Counter();
+    for (int i = 0; i < tenK; i++) {
+      DisruptorEventQueue.getInstance().enqueue(new CountingBatchEntry(batch));
+      if (i % 1000 == 0) {
+        // Entries that are not BatchEntries end the current batch.
+        DisruptorEventQueue.getInstance().enqueue(new IncrementEvent(counter));
+      }
+    }
+    // Sleep briefly, to allow background operations to complete.
+    try {
+      Thread.sleep(500);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    counter.check(10);
+    assertThat(batch.numProcessed).isEqualTo(tenK);
+    assertThat(batch.numProcessedOutsideBatch).isEqualTo(0);
+    assertThat(batch.inBatch).isFalse();
+    assertThat(batch.numBatches).isAtLeast(10);
+  }
+
+  @Test
+  public void processEntries_AllWaitStrategies() {
+    final int tenK = 10000;
+    for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+      DisruptorEventQueue eventQueue =
+          DisruptorEventQueue.create(1, 1024, waitStrategy, OverflowPolicy.BLOCK);
+      Counter counter = new Counter();
+      for (int i = 0; i < tenK; i++) {
+        eventQueue.enqueue(new IncrementEvent(counter));
+      }
+      // Shutting down waits until all the enqueued entries are processed.
+      eventQueue.shutdown();
+      counter.check(tenK);
+    }
+  }
+
+  @Test
+  public void shardedQueue_ProcessesEntriesOfEachThreadInOrder() throws InterruptedException {
+    final int tenK = 10000;
+    final DisruptorEventQueue eventQueue =
+        DisruptorEventQueue.create(4, 1024, WaitStrategy.SLEEPING, OverflowPolicy.BLOCK);
+    // Each Counter checks that it is only incremented by one thread.
+    final Counter[] counters = new Counter[8];
+    Thread[] producers = new Thread[counters.length];
+    for (int i = 0; i < producers.length; i++) {
+      final Counter counter = counters[i] = new Counter();
+      producers[i] =
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  for (int j = 0; j < tenK; j++) {
+                    eventQueue.enqueue(new IncrementEvent(counter));
+                  }
+                }
+              });
+      producers[i].start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    eventQueue.shutdown();
+    for (Counter counter : counters) {
+      counter.check(tenK);
+    }
+  }
+
+  @Test
+  public void shardedQueue_ProcessesEntriesWithSameKeyInOrder() throws InterruptedException {
+    final int tenK = 10000;
+    final DisruptorEventQueue eventQueue =
+        DisruptorEventQueue.create(4, 1024, WaitStrategy.SLEEPING, OverflowPolicy.BLOCK);
+    final Counter counter = new Counter();
+    Thread[] producers = new Thread[4];
+    for (int i = 0; i < producers.length; i++) {
+      producers[i] =
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  for (int j = 0; j < tenK; j++) {
+                    eventQueue.enqueue(new KeyedIncrementEvent(counter, 42));
+                  }
+                }
+              });
+      producers[i].start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    eventQueue.shutdown();
+    counter.check(producers.length * tenK);
+  }
+
+  @Test
+  public void getShard() {
+    for (int key = -100; key < 100; key++) {
+      int shard = DisruptorEventQueue.getShard(new KeyedIncrementEvent(new Counter(), key), 3);
+      assertThat(shard).isAtLeast(0);
+      assertThat(shard).isLessThan(3);
+      assertThat(DisruptorEventQueue.getShard(new KeyedIncrementEvent(new Counter(), key), 3))
+          .isEqualTo(shard);
+    }
+  }
+
+  @Test
+  public void remainingCapacityAndInFlight() throws InterruptedException {
+    DisruptorEventQueue eventQueue =
+        DisruptorEventQueue.create(2, 16, WaitStrategy.SLEEPING, OverflowPolicy.BLOCK);
+    assertThat(eventQueue.getRemainingCapacity()).isEqualTo(32);
+    assertThat(eventQueue.getNumInFlight()).isEqualTo(0);
+    BlockingEvent blockingEvent = new BlockingEvent();
+    eventQueue.enqueue(blockingEvent);
+    blockingEvent.started.await();
+    Counter counter = new Counter();
+    for (int i = 0; i < 5; i++) {
+      eventQueue.enqueue(new IncrementEvent(counter));
+    }
+    // The entries of this thread all go to the shard that is blocked.
+    assertThat(eventQueue.getRemainingCapacity()).isEqualTo(32 - 6);
+    assertThat(eventQueue.getNumInFlight()).isEqualTo(6);
+    blockingEvent.released.countDown();
+    eventQueue.shutdown();
+    assertThat(eventQueue.getRemainingCapacity()).isEqualTo(32);
+    assertThat(eventQueue.getNumInFlight()).isEqualTo(0);
+    assertThat(eventQueue.getProcessingLatency().getDistribution().getCount()).isEqualTo(6);
+  }
+
+  @Test
+  public void keepsProcessingAfterException() {
+    DisruptorEventQueue eventQueue =
+        DisruptorEventQueue.create(1, 16, WaitStrategy.SLEEPING, OverflowPolicy.BLOCK);
+    eventQueue.enqueue(
+        new EventQueue.Entry() {
+          @Override
+          public void process() {
+            throw new IllegalStateException("Expected exception.");
+          }
+        });
+    Counter counter = new Counter();
+    eventQueue.enqueue(new IncrementEvent(counter));
+    eventQueue.shutdown();
+    counter.check(1);
+  }
+
+  @Test
+  public void shutdownWithTimeout_ProcessesEnqueuedEntries() {
+    DisruptorEventQueue eventQueue =
+        DisruptorEventQueue.create(2, 16, WaitStrategy.SLEEPING, OverflowPolicy.BLOCK);
+    Counter counter = new Counter();
+    for (int i = 0; i < 10; i++) {
+      eventQueue.enqueue(new IncrementEvent(counter));
+    }
+    assertThat(eventQueue.shutdown(Duration.create(10, 0))).isEqualTo(0);
+    counter.check(10);
+    // New entries are ignored after shutdown.
+    eventQueue.enqueue(new IncrementEvent(counter));
+    counter.check(10);
+  }
+
+  @Test
+  public void shutdownWithTimeout_DropsEntriesNotProcessedInTime() throws InterruptedException {
+    DisruptorEventQueue eventQueue =
+        DisruptorEventQueue.create(1, 16, WaitStrategy.SLEEPING, OverflowPolicy.BLOCK);
+    BlockingEvent blockingEvent = new BlockingEvent();
+    eventQueue.enqueue(blockingEvent);
+    blockingEvent.started.await();
+    Counter counter = new Counter();
+    for (int i = 0; i < 5; i++) {
+      eventQueue.enqueue(new IncrementEvent(counter));
+    }
+    // The blocking entry is still being processed, so it is counted with the enqueued ones.
+    assertThat(eventQueue.shutdown(Duration.fromMillis(50))).isEqualTo(6);
+    blockingEvent.released.countDown();
+  }
+
+  @Test
+  public void singletonExportsMetrics() {
+    DisruptorEventQueue.getInstance();
+    List<String> names = new ArrayList<String>();
+    for (Metric metric : Metrics.getMetricRegistry().getMetrics()) {
+      names.add(metric.getMetricDescriptor().getName());
+    }
+    assertThat(names).containsAllOf(REMAINING_CAPACITY_METRIC_NAME, IN_FLIGHT_METRIC_NAME);
+    List<String> producedNames = new ArrayList<String>();
+    for (MetricProducer producer :
+        Metrics.getExportComponent().getMetricProducerManager().getAllMetricProducer()) {
+      for (Metric metric : producer.getMetrics()) {
+        producedNames.add(metric.getMetricDescriptor().getName());
+      }
+    }
+    assertThat(producedNames).contains(ProcessingLatency.METRIC_NAME);
+  }
+
+  @Test
+  public void dropNewest_DropsEntriesWhenFull() throws InterruptedException {
+    fillAndCheckDropped(OverflowPolicy.DROP_NEWEST);
+  }
+
+  @Test
+  public void spinThenDrop_DropsEntriesWhenFull() throws InterruptedException {
+    fillAndCheckDropped(OverflowPolicy.SPIN_THEN_DROP);
+  }
+
+  private static void fillAndCheckDropped(OverflowPolicy overflowPolicy)
+      throws InterruptedException {
+    final int bufferSize = 16;
+    DisruptorEventQueue eventQueue =
+        DisruptorEventQueue.create(1, bufferSize, WaitStrategy.SLEEPING, overflowPolicy);
+    BlockingEvent blockingEvent = new BlockingEvent();
+    eventQueue.enqueue(blockingEvent);
+    blockingEvent.started.await();
+    // The slot of the blocking entry is only freed once it is processed.
+    Counter counter = new Counter();
+    for (int i = 0; i < bufferSize + 4; i++) {
+      eventQueue.enqueue(new IncrementEvent(counter));
+    }
+    assertThat(eventQueue.getNumDroppedEvents(IncrementEvent.class)).isEqualTo(5);
+    assertThat(eventQueue.getNumDroppedEvents(BlockingEvent.class)).isEqualTo(0);
+    blockingEvent.released.countDown();
+    eventQueue.shutdown();
+    counter.check(bufferSize - 1);
+    assertThat(eventQueue.getDroppedEvents().getMetrics()).hasSize(1);
+    Metric metric = eventQueue.getDroppedEvents().getMetrics().iterator().next();
+    assertThat(metric.getMetricDescriptor().getName()).isEqualTo(DroppedEvents.METRIC_NAME);
+    assertThat(metric.getTimeSeriesList()).hasSize(1);
+    TimeSeries timeSeries = metric.getTimeSeriesList().get(0);
+    assertThat(timeSeries.getLabelValues())
+        .containsExactly(LabelValue.create(IncrementEvent.class.getName()));
+    assertThat(timeSeries.getPoints().get(0).getValue()).isEqualTo(Value.longValue(5));
+  }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.impl.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.common.Timestamp;
+import io.opencensus.implcore.internal.EventQueue.Entry;
+import io.opencensus.metrics.LabelValue;
+import io.opencensus.metrics.Metric;
+import io.opencensus.metrics.MetricDescriptor.Type;
+import io.opencensus.metrics.Point;
+import io.opencensus.metrics.TimeSeries;
+import io.opencensus.metrics.Value;
+import io.opencensus.testing.common.TestClock;
+import java.util.Collection;
+import java.util.Collections;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link DroppedEvents}. */
+@RunWith(JUnit4.class)
+public class DroppedEventsTest {
+  private static final Timestamp START_TIME = Timestamp.create(10, 0);
+  private static final Timestamp NOW = Timestamp.create(20, 0);
+
+  private final TestClock clock = TestClock.create(START_TIME);
+
+  private static final class FirstEntry implements Entry {
+    @Override
+    public void process() {}
+  }
+
+  private static final class SecondEntry implements Entry {
+    @Override
+    public void process() {}
+  }
+
+  @Test
+  public void noMetricsWithoutDroppedEvents() {
+    DroppedEvents droppedEvents = new DroppedEvents(clock);
+    assertThat(droppedEvents.get(FirstEntry.class)).isEqualTo(0);
+    assertThat(droppedEvents.getMetrics()).isEmpty();
+  }
+
+  @Test
+  public void countsByEntryClass() {
+    DroppedEvents droppedEvents = new DroppedEvents(clock);
+    droppedEvents.add(new FirstEntry());
+    droppedEvents.add(new FirstEntry());
+    droppedEvents.add(new SecondEntry());
+    assertThat(droppedEvents.get(FirstEntry.class)).isEqualTo(2);
+    assertThat(droppedEvents.get(SecondEntry.class)).isEqualTo(1);
+  }
+
+  @Test
+  public void getMetrics() {
+    DroppedEvents droppedEvents = new DroppedEvents(clock);
+    droppedEvents.add(new FirstEntry());
+    droppedEvents.add(new FirstEntry());
+    droppedEvents.add(new SecondEntry());
+    clock.setTime(NOW);
+    Collection<Metric> metrics = droppedEvents.getMetrics();
+    assertThat(metrics).hasSize(1);
+    Metric metric = metrics.iterator().next();
+    assertThat(metric.getMetricDescriptor().getName()).isEqualTo(DroppedEvents.METRIC_NAME);
+    assertThat(metric.getMetricDescriptor().getType()).isEqualTo(Type.CUMULATIVE_INT64);
+    assertThat(metric.getMetricDescriptor().getLabelKeys()).hasSize(1);
+    assertThat(metric.getMetricDescriptor().getLabelKeys().get(0).getKey()).isEqualTo("event_type");
+    assertThat(metric.getTimeSeriesList())
+        .containsExactly(
+            TimeSeries.create(
+                Collections.singletonList(LabelValue.create(FirstEntry.class.getName())),
+                Collections.singletonList(Point.create(Value.longValue(2), NOW)),
+                START_TIME),
+            TimeSeries.create(
+                Collections.singletonList(LabelValue.create(SecondEntry.class.getName())),
+                Collections.singletonList(Point.create(Value.longValue(1), NOW)),
+                START_TIME));
+  }
+}
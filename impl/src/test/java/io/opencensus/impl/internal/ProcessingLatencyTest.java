@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.impl.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.common.Timestamp;
+import io.opencensus.metrics.Distribution;
+import io.opencensus.metrics.Metric;
+import io.opencensus.metrics.MetricDescriptor.Type;
+import io.opencensus.metrics.Point;
+import io.opencensus.metrics.TimeSeries;
+import io.opencensus.metrics.Value;
+import io.opencensus.testing.common.TestClock;
+import java.util.Arrays;
+import java.util.Collection;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link ProcessingLatency}. */
+@RunWith(JUnit4.class)
+public class ProcessingLatencyTest {
+  private static final double EPSILON = 1e-9;
+  private static final Timestamp START_TIME = Timestamp.create(10, 0);
+  private static final Timestamp NOW = Timestamp.create(20, 0);
+
+  private final TestClock clock = TestClock.create(START_TIME);
+
+  @Test
+  public void emptyDistribution() {
+    Distribution distribution = new ProcessingLatency(clock).getDistribution();
+    assertThat(distribution.getCount()).isEqualTo(0);
+    assertThat(distribution.getMean()).isEqualTo(0.0);
+    assertThat(distribution.getSumOfSquaredDeviations()).isEqualTo(0.0);
+    assertThat(distribution.getBuckets()).hasSize(distribution.getBucketBoundaries().size() + 1);
+  }
+
+  @Test
+  public void recordLatencies() {
+    ProcessingLatency processingLatency = new ProcessingLatency(clock);
+    ProcessingLatency.Recorder recorder = processingLatency.newRecorder();
+    // 0.5us, 1.5us and 2.5ms.
+    recorder.record(500);
+    recorder.record(1500);
+    recorder.record(2500000);
+    Distribution distribution = processingLatency.getDistribution();
+    assertThat(distribution.getCount()).isEqualTo(3);
+    assertThat(distribution.getMean()).isWithin(EPSILON).of((0.0005 + 0.0015 + 2.5) / 3);
+    double mean = distribution.getMean();
+    assertThat(distribution.getSumOfSquaredDeviations())
+        .isWithin(1e-6)
+        .of(
+            (0.0005 - mean) * (0.0005 - mean)
+                + (0.0015 - mean) * (0.0015 - mean)
+                + (2.5 - mean) * (2.5 - mean));
+    assertThat(distribution.getBucketBoundaries().subList(0, 2))
+        .containsExactly(0.001, 0.002)
+        .inOrder();
+    long[] counts = new long[distribution.getBuckets().size()];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = distribution.getBuckets().get(i).getCount();
+    }
+    // The 2.5ms latency goes to the [2ms, 5ms) bucket.
+    int twoMillisBucket = distribution.getBucketBoundaries().indexOf(2.0) + 1;
+    long[] expected = new long[counts.length];
+    expected[0] = 1;
+    expected[1] = 1;
+    expected[twoMillisBucket] = 1;
+    assertThat(Arrays.equals(counts, expected)).isTrue();
+  }
+
+  @Test
+  public void mergeRecorders() {
+    ProcessingLatency processingLatency = new ProcessingLatency(clock);
+    processingLatency.newRecorder().record(500);
+    ProcessingLatency.Recorder recorder = processingLatency.newRecorder();
+    recorder.record(1500);
+    recorder.record(2500);
+    Distribution distribution = processingLatency.getDistribution();
+    assertThat(distribution.getCount()).isEqualTo(3);
+    assertThat(distribution.getMean()).isWithin(EPSILON).of((0.0005 + 0.0015 + 0.0025) / 3);
+    assertThat(distribution.getSumOfSquaredDeviations()).isWithin(EPSILON).of(2e-6);
+    assertThat(distribution.getBuckets().get(0).getCount()).isEqualTo(1);
+    assertThat(distribution.getBuckets().get(1).getCount()).isEqualTo(1);
+    assertThat(distribution.getBuckets().get(2).getCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void recordNegativeLatency() {
+    ProcessingLatency processingLatency = new ProcessingLatency(clock);
+    ProcessingLatency.Recorder recorder = processingLatency.newRecorder();
+    recorder.record(-10);
+    Distribution distribution = processingLatency.getDistribution();
+    assertThat(distribution.getCount()).isEqualTo(1);
+    assertThat(distribution.getMean()).isEqualTo(0.0);
+    assertThat(distribution.getBuckets().get(0).getCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void recordLatencyAboveLastBoundary() {
+    ProcessingLatency processingLatency = new ProcessingLatency(clock);
+    ProcessingLatency.Recorder recorder = processingLatency.newRecorder();
+    recorder.record(1000000000);
+    Distribution distribution = processingLatency.getDistribution();
+    assertThat(distribution.getBuckets().get(distribution.getBuckets().size() - 1).getCount())
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void getMetrics() {
+    ProcessingLatency processingLatency = new ProcessingLatency(clock);
+    ProcessingLatency.Recorder recorder = processingLatency.newRecorder();
+    recorder.record(1500);
+    clock.setTime(NOW);
+    Collection<Metric> metrics = processingLatency.getMetrics();
+    assertThat(metrics).hasSize(1);
+    Metric metric = metrics.iterator().next();
+    assertThat(metric.getMetricDescriptor().getName()).isEqualTo(ProcessingLatency.METRIC_NAME);
+    assertThat(metric.getMetricDescriptor().getType()).isEqualTo(Type.CUMULATIVE_DISTRIBUTION);
+    assertThat(metric.getMetricDescriptor().getUnit()).isEqualTo("ms");
+    TimeSeries timeSeries = metric.getTimeSeriesList().get(0);
+    assertThat(timeSeries.getStartTimestamp()).isEqualTo(START_TIME);
+    assertThat(timeSeries.getPoints())
+        .containsExactly(
+            Point.create(Value.distributionValue(processingLatency.getDistribution()), NOW));
+  }
+}
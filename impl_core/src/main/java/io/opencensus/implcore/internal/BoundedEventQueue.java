@@ -0,0 +1,193 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.opencensus.common.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * An {@link EventQueue} that processes events on a single daemon thread, for runtimes where the
+ * {@code DisruptorEventQueue} is not available or too large.
+ *
+ * <p>Entries are stored in a bounded array that many threads can enqueue to without locking. The
+ * enqueue never blocks: entries that are enqueued while the array is full, or after {@link
+ * #shutdown()}, are dropped and counted. The background thread parks while the queue is empty and
+ * is only woken up by the enqueue that finds it parked.
+ */
+@ThreadSafe
+public final class BoundedEventQueue implements EventQueue {
+
+  private static final Logger logger = Logger.getLogger(BoundedEventQueue.class.getName());
+
+  // Set in tail by shutdown(), so that no producer can claim a slot once the background thread may
+  // have seen the last claimed slot.
+  private static final long CLOSED = 1L << 62;
+
+  private final AtomicReferenceArray<Entry> entries;
+  private final int mask;
+  // Index of the next entry to enqueue, claimed by the producers, with the CLOSED bit after the
+  // shutdown.
+  private final AtomicLong tail = new AtomicLong();
+  // Index of the next entry to process, only written by the background thread.
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong numDroppedEvents = new AtomicLong();
+  private final AtomicBoolean drainerParked = new AtomicBoolean();
+  private final Thread drainer;
+  private volatile boolean shutdown;
+  // Set when the enqueued entries were not processed before the shutdown timeout.
+  private volatile boolean halted;
+
+  /**
+   * Creates a new {@code BoundedEventQueue} and starts its background thread.
+   *
+   * @param capacity the maximum number of entries that can be enqueued at any one time, must be a
+   *     power of two.
+   * @throws IllegalArgumentException if {@code capacity} is not a power of two.
+   */
+  public BoundedEventQueue(int capacity) {
+    checkArgument(
+        capacity > 0 && Integer.bitCount(capacity) == 1, "capacity should be a power of two.");
+    this.entries = new AtomicReferenceArray<Entry>(capacity);
+    this.mask = capacity - 1;
+    this.drainer =
+        new DaemonThreadFactory("OpenCensus.EventQueue")
+            .newThread(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    drain();
+                  }
+                });
+    drainer.start();
+  }
+
+  @Override
+  public void enqueue(Entry entry) {
+    long index;
+    do {
+      index = tail.get();
+      if ((index & CLOSED) != 0 || index - head.get() >= entries.length()) {
+        numDroppedEvents.incrementAndGet();
+        return;
+      }
+    } while (!tail.compareAndSet(index, index + 1));
+    // A volatile write, so that it is ordered with the read of drainerParked below.
+    entries.set((int) index & mask, entry);
+    if (drainerParked.get() && drainerParked.compareAndSet(true, false)) {
+      LockSupport.unpark(drainer);
+    }
+  }
+
+  /**
+   * Stops accepting new entries. The background thread processes the entries that are already
+   * enqueued, then exits.
+   */
+  @Override
+  public void shutdown() {
+    long index;
+    do {
+      index = tail.get();
+    } while ((index & CLOSED) == 0 && !tail.compareAndSet(index, index | CLOSED));
+    shutdown = true;
+    LockSupport.unpark(drainer);
+  }
+
+  @Override
+  public long shutdown(Duration timeout) {
+    shutdown();
+    long timeoutMillis = timeout.toMillis();
+    try {
+      if (timeoutMillis > 0) {
+        drainer.join(timeoutMillis);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (!drainer.isAlive()) {
+      return 0;
+    }
+    halted = true;
+    LockSupport.unpark(drainer);
+    // The background thread stops after the entry it is processing, which may be counted here.
+    long numDropped = (tail.get() & ~CLOSED) - head.get();
+    numDroppedEvents.addAndGet(numDropped);
+    return numDropped;
+  }
+
+  /**
+   * Returns the number of entries that were dropped because the queue was full or shut down, or
+   * because they were not processed before the timeout of {@link #shutdown(Duration)}.
+   *
+   * @return the number of dropped entries.
+   */
+  public long getNumDroppedEvents() {
+    return numDroppedEvents.get();
+  }
+
+  @VisibleForTesting
+  Thread getDrainer() {
+    return drainer;
+  }
+
+  private void drain() {
+    long index = head.get();
+    while (!halted) {
+      int slot = (int) index & mask;
+      Entry entry = entries.get(slot);
+      if (entry == null) {
+        // Either the queue is empty, or a producer claimed the slot but did not store its entry.
+        // Once shutdown is set the tail is closed, so no producer can claim a slot after it.
+        if (shutdown && (tail.get() & ~CLOSED) == index) {
+          return;
+        }
+        park(slot);
+        continue;
+      }
+      entries.lazySet(slot, null);
+      // Frees the slot for the producers.
+      head.lazySet(++index);
+      try {
+        entry.process();
+      } catch (Throwable e) {
+        // Keeps the background thread alive, so that the queue does not fill up and drop all the
+        // following entries.
+        logger.log(Level.WARNING, "Exception thrown while processing an event.", e);
+      }
+    }
+  }
+
+  // Parks the background thread until an entry is stored in the given slot, or the queue is shut
+  // down.
+  private void park(int slot) {
+    drainerParked.set(true);
+    // Checks the slot again after announcing that the thread parks, so that an entry stored
+    // concurrently is either seen here or unparks the thread.
+    if (entries.get(slot) == null && !shutdown && !halted) {
+      LockSupport.park(this);
+    }
+    drainerParked.set(false);
+  }
+}
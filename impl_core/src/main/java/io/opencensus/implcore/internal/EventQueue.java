@@ -16,12 +16,23 @@
 
 package io.opencensus.implcore.internal;
 
+import io.opencensus.common.Duration;
+
 /** A queue that processes events. See {@code DisruptorEventQueue} for an example. */
 public interface EventQueue {
   void enqueue(Entry entry);
 
   void shutdown();
 
+  /**
+   * Stops accepting new entries, then processes the entries that are already enqueued, waiting at
+   * most for the given timeout. Entries that are not processed by then are dropped.
+   *
+   * @param timeout the maximum time to wait for the enqueued entries to be processed.
+   * @return the number of entries that were dropped because they were not processed in time.
+   */
+  long shutdown(Duration timeout);
+
   /**
    * Base interface to be used for all entries in {@link EventQueue}. For example usage, see {@code
    * DisruptorEventQueue}.
@@ -33,4 +44,53 @@ public interface EventQueue {
      */
     void process();
   }
+
+  /**
+   * An {@link Entry} with a key. A queue that processes entries on several threads processes the
+   * entries with the same key in the order they were enqueued, while other entries are only ordered
+   * with the entries enqueued by the same thread.
+   */
+  interface KeyedEntry extends Entry {
+    /**
+     * Returns the key of this entry.
+     *
+     * @return the key of this entry.
+     */
+    int getKey();
+  }
+
+  /**
+   * An {@link Entry} that can share some work, such as reading the clock, with the other entries of
+   * its {@link Batch} that are dequeued together with it.
+   *
+   * <p>A queue that dequeues entries in batches calls {@link Batch#begin()} before the first of
+   * consecutive entries of the same {@code Batch}, {@link #processInBatch()} instead of {@link
+   * #process()} for each of them, and {@link Batch#end()} after the last one. Other queues just
+   * call {@link #process()}.
+   */
+  interface BatchEntry extends Entry {
+    /**
+     * Returns the batch of this entry.
+     *
+     * @return the batch of this entry.
+     */
+    Batch getBatch();
+
+    /** Processes this entry between the {@link Batch#begin()} and {@link Batch#end()} calls. */
+    void processInBatch();
+  }
+
+  /**
+   * The work shared by consecutive {@link BatchEntry}s. Its methods are called by the thread that
+   * processes the entries. A queue that processes entries on several threads can call them on each
+   * of its threads concurrently, so the state kept between {@link #begin()} and {@link #end()}
+   * should be per thread.
+   */
+  interface Batch {
+    /** Called before processing the entries of a batch. */
+    void begin();
+
+    /** Called after processing the entries of a batch. */
+    void end();
+  }
 }
@@ -16,6 +16,8 @@
 
 package io.opencensus.implcore.internal;
 
+import io.opencensus.common.Duration;
+
 /**
  * An {@link EventQueue} that processes events in the current thread. This class can be used for
  * testing.
@@ -29,4 +31,10 @@ public class SimpleEventQueue implements EventQueue {
 
   @Override
   public void shutdown() {}
+
+  @Override
+  public long shutdown(Duration timeout) {
+    // Entries are processed when they are enqueued, so there is nothing left to process.
+    return 0;
+  }
 }
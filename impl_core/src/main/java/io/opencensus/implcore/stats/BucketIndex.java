@@ -0,0 +1,232 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.opencensus.stats.BucketBoundaries;
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Finds the histogram bucket of a value, for the given bucket boundaries.
+ *
+ * <p>For boundaries {@code b[0] < b[1] < ... < b[n - 1]} there are {@code n + 1} buckets: bucket
+ * {@code 0} is {@code (-infinity, b[0])}, bucket {@code i} is {@code [b[i - 1], b[i])} and bucket
+ * {@code n} is {@code [b[n - 1], +infinity)}. {@code NaN} values fall into the last bucket.
+ *
+ * <p>Boundaries are kept as a primitive {@code double[]} and searched with a binary search. When
+ * the boundaries were created with {@link BucketBoundaries#linear} or {@link
+ * BucketBoundaries#exponential}, or are exactly such a progression, the bucket is computed in
+ * constant time.
+ */
+@Immutable
+abstract class BucketIndex {
+
+  private final double[] boundaries;
+
+  private BucketIndex(double[] boundaries) {
+    this.boundaries = boundaries;
+  }
+
+  /**
+   * Returns a {@code BucketIndex} for the given {@link BucketBoundaries}.
+   *
+   * @param bucketBoundaries the bucket boundaries.
+   * @return a {@code BucketIndex} for the given {@code BucketBoundaries}.
+   */
+  static BucketIndex create(BucketBoundaries bucketBoundaries) {
+    checkNotNull(bucketBoundaries, "bucketBoundaries");
+    double[] boundaries = toArray(bucketBoundaries.getBoundaries());
+    BucketBoundaries.Linear linear = bucketBoundaries.getLinear();
+    if (linear != null) {
+      return new LinearBucketIndex(boundaries, linear.getOffset(), linear.getWidth());
+    }
+    BucketBoundaries.Exponential exponential = bucketBoundaries.getExponential();
+    if (exponential != null) {
+      return new ExponentialBucketIndex(
+          boundaries, exponential.getScale(), exponential.getGrowthFactor());
+    }
+    return create(boundaries);
+  }
+
+  @VisibleForTesting
+  static BucketIndex create(double[] boundaries) {
+    if (boundaries.length >= 2) {
+      double width = boundaries[1] - boundaries[0];
+      if (LinearBucketIndex.matches(boundaries, boundaries[0], width)) {
+        return new LinearBucketIndex(boundaries, boundaries[0], width);
+      }
+      double growthFactor = boundaries[1] / boundaries[0];
+      if (boundaries[0] > 0
+          && ExponentialBucketIndex.matches(boundaries, boundaries[0], growthFactor)) {
+        return new ExponentialBucketIndex(boundaries, boundaries[0], growthFactor);
+      }
+    }
+    return new BinarySearchBucketIndex(boundaries);
+  }
+
+  /**
+   * Returns the index of the bucket of the given value, in {@code [0, getNumBuckets())}.
+   *
+   * @param value the value.
+   * @return the index of the bucket of the given value.
+   */
+  abstract int getBucket(double value);
+
+  /**
+   * Returns the number of buckets, which is the number of boundaries plus one.
+   *
+   * @return the number of buckets.
+   */
+  final int getNumBuckets() {
+    return boundaries.length + 1;
+  }
+
+  // Returns the index of the bucket of value, with a binary search between the buckets low and
+  // high (inclusive).
+  final int binarySearch(double value, int low, int high) {
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      // NaN is never less than a boundary, so it falls into the last bucket.
+      if (value < boundaries[mid]) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  // Adjusts the estimated bucket of value, which may be off by one or two because of rounding
+  // errors, with the actual boundaries.
+  final int adjust(double value, double estimate) {
+    if (Double.isNaN(value)) {
+      return boundaries.length;
+    }
+    int bucket;
+    if (!(estimate > 0)) {
+      bucket = 0;
+    } else if (estimate >= boundaries.length) {
+      bucket = boundaries.length;
+    } else {
+      bucket = (int) estimate;
+    }
+    while (bucket > 0 && value < boundaries[bucket - 1]) {
+      bucket--;
+    }
+    while (bucket < boundaries.length && !(value < boundaries[bucket])) {
+      bucket++;
+    }
+    return bucket;
+  }
+
+  private static double[] toArray(List<Double> list) {
+    double[] array = new double[list.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = list.get(i);
+    }
+    return array;
+  }
+
+  @Immutable
+  @VisibleForTesting
+  static final class BinarySearchBucketIndex extends BucketIndex {
+
+    private BinarySearchBucketIndex(double[] boundaries) {
+      super(boundaries);
+    }
+
+    @Override
+    int getBucket(double value) {
+      return binarySearch(value, 0, getNumBuckets() - 1);
+    }
+  }
+
+  // Boundaries offset + i * width, for i in [0, n).
+  @Immutable
+  @VisibleForTesting
+  static final class LinearBucketIndex extends BucketIndex {
+
+    private final double offset;
+    private final double width;
+
+    private LinearBucketIndex(double[] boundaries, double offset, double width) {
+      super(boundaries);
+      this.offset = offset;
+      this.width = width;
+    }
+
+    private static boolean matches(double[] boundaries, double offset, double width) {
+      for (int i = 0; i < boundaries.length; i++) {
+        if (boundaries[i] != offset + i * width) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    int getBucket(double value) {
+      return adjust(value, Math.floor((value - offset) / width) + 1);
+    }
+  }
+
+  // Boundaries scale * growthFactor^i, for i in [0, n).
+  @Immutable
+  @VisibleForTesting
+  static final class ExponentialBucketIndex extends BucketIndex {
+
+    private final double scale;
+    private final double inverseLog2GrowthFactor;
+    private final double upperBoundary;
+
+    private ExponentialBucketIndex(double[] boundaries, double scale, double growthFactor) {
+      super(boundaries);
+      this.scale = scale;
+      this.inverseLog2GrowthFactor = Math.log(2) / Math.log(growthFactor);
+      this.upperBoundary = boundaries[boundaries.length - 1];
+    }
+
+    private static boolean matches(double[] boundaries, double scale, double growthFactor) {
+      for (int i = 0; i < boundaries.length; i++) {
+        if (boundaries[i] != scale * Math.pow(growthFactor, i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    int getBucket(double value) {
+      if (value < scale) {
+        return 0;
+      }
+      if (!(value < upperBoundary)) { // Also true if value is NaN.
+        return getNumBuckets() - 1;
+      }
+      // Approximates log2(value / scale) from the binary exponent and the mantissa, which avoids
+      // the cost of Math.log(). The approximation is never larger than the actual logarithm, and
+      // is less than 0.09 smaller.
+      double scaled = value / scale;
+      int exponent = Math.getExponent(scaled);
+      double log2 = exponent + Math.scalb(scaled, -exponent) - 1;
+      return adjust(value, Math.floor(log2 * inverseLog2GrowthFactor) + 1);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import io.opencensus.metrics.Metric;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The series that changed since a previous collection, returned by {@link
+ * ViewManagerImpl#getChangedMetrics(long)}.
+ */
+@Immutable
+public final class ChangedMetrics {
+
+  /** The cursor that selects all the series. */
+  public static final long INITIAL_CURSOR = 0;
+
+  private final List<Metric> metrics;
+  private final long cursor;
+
+  ChangedMetrics(List<Metric> metrics, long cursor) {
+    this.metrics = Collections.unmodifiableList(metrics);
+    this.cursor = cursor;
+  }
+
+  /**
+   * Returns the changed series, grouped by view.
+   *
+   * @return the changed series.
+   */
+  public List<Metric> getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns the cursor of this collection, to get the series that change after it.
+   *
+   * @return the cursor of this collection.
+   */
+  public long getCursor() {
+    return cursor;
+  }
+}
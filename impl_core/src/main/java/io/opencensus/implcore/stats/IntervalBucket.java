@@ -19,6 +19,7 @@ package io.opencensus.implcore.stats;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
 import io.opencensus.common.Duration;
 import io.opencensus.common.Timestamp;
@@ -37,19 +38,32 @@ final class IntervalBucket {
 
   private static final Duration ZERO = Duration.create(0, 0);
 
-  private final Timestamp start;
+  private Timestamp start;
   private final Duration duration;
   private final Aggregation aggregation;
   private final Measure measure;
+  @javax.annotation.Nullable private final BucketIndex bucketIndex;
   private final Map<List</*@Nullable*/ TagValue>, MutableAggregation> tagValueAggregationMap =
       Maps.newHashMap();
 
+  @VisibleForTesting
   IntervalBucket(Timestamp start, Duration duration, Aggregation aggregation, Measure measure) {
+    this(start, duration, aggregation, measure, RecordUtils.createBucketIndex(aggregation));
+  }
+
+  // The bucketIndex is the one of the view, see RecordUtils.createBucketIndex.
+  IntervalBucket(
+      Timestamp start,
+      Duration duration,
+      Aggregation aggregation,
+      Measure measure,
+      @javax.annotation.Nullable BucketIndex bucketIndex) {
     this.start = checkNotNull(start, "Start");
     this.duration = checkNotNull(duration, "Duration");
     checkArgument(duration.compareTo(ZERO) > 0, "Duration must be positive");
     this.aggregation = checkNotNull(aggregation, "Aggregation");
     this.measure = checkNotNull(measure, "measure");
+    this.bucketIndex = bucketIndex;
   }
 
   Map<List</*@Nullable*/ TagValue>, MutableAggregation> getTagValueAggregationMap() {
@@ -60,17 +74,19 @@ final class IntervalBucket {
     return start;
   }
 
-  // Puts a new value into the internal MutableAggregations, based on the TagValues.
+  // Puts a new value into the internal MutableAggregations, based on the TagValues. Doesn't keep a
+  // reference to tagValues.
   void record(
       List</*@Nullable*/ TagValue> tagValues,
       double value,
       Map<String, String> attachments,
       Timestamp timestamp) {
-    if (!tagValueAggregationMap.containsKey(tagValues)) {
-      tagValueAggregationMap.put(
-          tagValues, RecordUtils.createMutableAggregation(aggregation, measure));
+    MutableAggregation mutableAggregation = tagValueAggregationMap.get(tagValues);
+    if (mutableAggregation == null) {
+      mutableAggregation = RecordUtils.createMutableAggregation(aggregation, measure, bucketIndex);
+      tagValueAggregationMap.put(TagValueTuple.copyOf(tagValues), mutableAggregation);
     }
-    tagValueAggregationMap.get(tagValues).add(value, attachments, timestamp);
+    mutableAggregation.add(value, attachments, timestamp);
   }
 
   /*
@@ -92,4 +108,11 @@ final class IntervalBucket {
   void clearStats() {
     tagValueAggregationMap.clear();
   }
+
+  // Clears recorded stats and moves this IntervalBucket to the given start, so that it can be
+  // reused as a new bucket.
+  void reset(Timestamp start) {
+    this.start = checkNotNull(start, "Start");
+    tagValueAggregationMap.clear();
+  }
 }
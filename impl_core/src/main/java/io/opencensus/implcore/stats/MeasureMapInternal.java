@@ -20,17 +20,28 @@ import io.opencensus.stats.Measure;
 import io.opencensus.stats.Measure.MeasureDouble;
 import io.opencensus.stats.Measure.MeasureLong;
 import io.opencensus.stats.Measurement;
-import java.util.ArrayList;
+import io.opencensus.stats.Measurement.MeasurementDouble;
+import io.opencensus.stats.Measurement.MeasurementLong;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
 // TODO(songya): consider combining MeasureMapImpl and this class.
-/** A map from {@link Measure}'s to measured values. */
+/**
+ * A map from {@link Measure}'s to measured values.
+ *
+ * <p>The measures and their values are stored in parallel arrays, with the values of {@link
+ * MeasureDouble}s as their raw long bits, so that recording doesn't create a {@link Measurement}
+ * per value.
+ */
 final class MeasureMapInternal {
 
+  private static final Map<String, String> EMPTY_ATTACHMENTS = Collections.emptyMap();
+
   /** Returns a {@link Builder} for the {@link MeasureMapInternal} class. */
   static Builder builder() {
     return new Builder();
@@ -44,21 +55,61 @@ final class MeasureMapInternal {
     return new MeasureMapInternalIterator();
   }
 
+  // Returns the number of measures in this map.
+  int size() {
+    return measures.length;
+  }
+
+  // Returns the measure at the given index, between 0 and size() - 1.
+  Measure getMeasure(int index) {
+    return measures[index];
+  }
+
+  // Returns the value at the given index as a double, between 0 and size() - 1. Values of a
+  // MeasureLong above 2^53 in magnitude are rounded to the nearest double.
+  double getValue(int index) {
+    return measures[index] instanceof MeasureLong
+        ? (double) values[index]
+        : Double.longBitsToDouble(values[index]);
+  }
+
   // Returns the contextual information associated with an example value.
   Map<String, String> getAttachments() {
     return attachments;
   }
 
-  private final ArrayList<Measurement> measurements;
+  private final Measure[] measures;
+  private final long[] values;
   private final Map<String, String> attachments;
 
-  private MeasureMapInternal(ArrayList<Measurement> measurements, Map<String, String> attachments) {
-    this.measurements = measurements;
-    this.attachments = Collections.unmodifiableMap(new HashMap<String, String>(attachments));
+  private MeasureMapInternal(Measure[] measures, long[] values, Map<String, String> attachments) {
+    this.measures = measures;
+    this.values = values;
+    this.attachments = attachments;
   }
 
-  /** Builder for the {@link MeasureMapInternal} class. */
+  /**
+   * Builder for the {@link MeasureMapInternal} class.
+   *
+   * <p>A builder can be {@link #clear() cleared} and reused, e.g. by a thread that records in a
+   * loop, because the {@code MeasureMapInternal}s it builds don't share its state. It is not
+   * thread-safe.
+   */
   static class Builder {
+
+    // Above this number of measures, the index of each measure is looked up in a map instead of
+    // by scanning the measures.
+    private static final int MAX_SCANNED_MEASURES = 8;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private Measure[] measures = new Measure[INITIAL_CAPACITY];
+    private long[] values = new long[INITIAL_CAPACITY];
+    private int size = 0;
+    @javax.annotation.Nullable private IdentityHashMap<Measure, Integer> indices;
+    @javax.annotation.Nullable private HashMap<String, String> attachments;
+
+    private Builder() {}
+
     /**
      * Associates the {@link MeasureDouble} with the given value. Subsequent updates to the same
      * {@link MeasureDouble} will overwrite the previous value.
@@ -68,7 +119,9 @@ final class MeasureMapInternal {
      * @return this
      */
     Builder put(MeasureDouble measure, double value) {
-      measurements.add(Measurement.MeasurementDouble.create(measure, value));
+      // indexOf() may grow the arrays, so it must be called before reading the values field.
+      int index = indexOf(measure);
+      values[index] = Double.doubleToRawLongBits(value);
       return this;
     }
 
@@ -81,50 +134,95 @@ final class MeasureMapInternal {
      * @return this
      */
     Builder put(MeasureLong measure, long value) {
-      measurements.add(Measurement.MeasurementLong.create(measure, value));
+      int index = indexOf(measure);
+      values[index] = value;
       return this;
     }
 
     Builder putAttachment(String key, String value) {
-      this.attachments.put(key, value);
+      if (attachments == null) {
+        attachments = new HashMap<String, String>();
+      }
+      attachments.put(key, value);
+      return this;
+    }
+
+    /**
+     * Removes all the measurements and attachments, so that this builder can be reused.
+     *
+     * @return this
+     */
+    Builder clear() {
+      Arrays.fill(measures, 0, size, null);
+      size = 0;
+      if (indices != null) {
+        indices.clear();
+      }
+      if (attachments != null) {
+        attachments.clear();
+      }
       return this;
     }
 
     /** Constructs a {@link MeasureMapInternal} from the current measurements. */
     MeasureMapInternal build() {
-      // Note: this makes adding measurements quadratic but is fastest for the sizes of
-      // MeasureMapInternals that we should see. We may want to go to a strategy of sort/eliminate
-      // for larger MeasureMapInternals.
-      for (int i = measurements.size() - 1; i >= 0; i--) {
-        for (int j = i - 1; j >= 0; j--) {
-          if (measurements.get(i).getMeasure() == measurements.get(j).getMeasure()) {
-            measurements.remove(j);
-            j--;
+      return new MeasureMapInternal(
+          Arrays.copyOf(measures, size),
+          Arrays.copyOf(values, size),
+          attachments == null || attachments.isEmpty()
+              ? EMPTY_ATTACHMENTS
+              : Collections.unmodifiableMap(new HashMap<String, String>(attachments)));
+    }
+
+    // Returns the index of the given measure, adding it if it isn't there yet. Measures are
+    // deduplicated on put, so each put takes constant time.
+    private int indexOf(Measure measure) {
+      if (indices == null) {
+        for (int i = 0; i < size; i++) {
+          if (measures[i] == measure) {
+            return i;
           }
         }
+      } else {
+        Integer index = indices.get(measure);
+        if (index != null) {
+          return index;
+        }
+      }
+      if (size == measures.length) {
+        measures = Arrays.copyOf(measures, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+      measures[size] = measure;
+      if (indices != null) {
+        indices.put(measure, size);
+      } else if (size == MAX_SCANNED_MEASURES) {
+        indices = new IdentityHashMap<Measure, Integer>();
+        for (int i = 0; i <= size; i++) {
+          indices.put(measures[i], i);
+        }
       }
-      return new MeasureMapInternal(measurements, attachments);
+      return size++;
     }
-
-    private final ArrayList<Measurement> measurements = new ArrayList<Measurement>();
-    private final Map<String, String> attachments = new HashMap<String, String>();
-
-    private Builder() {}
   }
 
   // Provides an unmodifiable Iterator over this instance's measurements.
   private final class MeasureMapInternalIterator implements Iterator<Measurement> {
     @Override
     public boolean hasNext() {
-      return position < length;
+      return position < measures.length;
     }
 
     @Override
     public Measurement next() {
-      if (position >= measurements.size()) {
+      if (position >= measures.length) {
         throw new NoSuchElementException();
       }
-      return measurements.get(position++);
+      Measure measure = measures[position];
+      long value = values[position++];
+      return measure instanceof MeasureLong
+          ? MeasurementLong.create((MeasureLong) measure, value)
+          : MeasurementDouble.create((MeasureDouble) measure, Double.longBitsToDouble(value));
     }
 
     @Override
@@ -132,7 +230,6 @@ final class MeasureMapInternal {
       throw new UnsupportedOperationException();
     }
 
-    private final int length = measurements.size();
     private int position = 0;
   }
 }
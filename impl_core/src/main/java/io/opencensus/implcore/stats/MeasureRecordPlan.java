@@ -0,0 +1,206 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import io.opencensus.common.Clock;
+import io.opencensus.common.Timestamp;
+import io.opencensus.implcore.stats.MutableViewData.ConcurrentMutableViewData;
+import io.opencensus.stats.Measure;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.concurrent.Immutable;
+
+/*>>>
+import org.checkerframework.checker.nullness.qual.Nullable;
+*/
+
+/**
+ * An immutable plan for recording the values of one registered {@link Measure} to all the views of
+ * that measure.
+ *
+ * <p>The plan is compiled when a view is registered: it holds the union of the columns of all the
+ * views, and for every view the indices of its columns in that union, so that recording only looks
+ * up each {@link TagKey} once and doesn't need to search the columns of every view.
+ *
+ * <p>Views that support it can be recorded concurrently on the calling thread, the other views are
+ * recorded one at a time while holding the monitor of the view.
+ */
+@Immutable
+final class MeasureRecordPlan {
+
+  private final Measure measure;
+  // Union of the columns of all the views, in the order they were first seen.
+  private final TagKey[] tagKeys;
+  // Views that are recorded while holding their monitor, and for each of them the indices of the
+  // view's columns in tagKeys.
+  private final MutableViewData[] lockedViews;
+  private final int[][] lockedColumnIndices;
+  // Views that are recorded concurrently without any lock, and their column indices.
+  private final ConcurrentMutableViewData[] concurrentViews;
+  private final int[][] concurrentColumnIndices;
+
+  private MeasureRecordPlan(
+      Measure measure,
+      TagKey[] tagKeys,
+      MutableViewData[] lockedViews,
+      int[][] lockedColumnIndices,
+      ConcurrentMutableViewData[] concurrentViews,
+      int[][] concurrentColumnIndices) {
+    this.measure = measure;
+    this.tagKeys = tagKeys;
+    this.lockedViews = lockedViews;
+    this.lockedColumnIndices = lockedColumnIndices;
+    this.concurrentViews = concurrentViews;
+    this.concurrentColumnIndices = concurrentColumnIndices;
+  }
+
+  /**
+   * Creates a {@code MeasureRecordPlan} without any views.
+   *
+   * @param measure the registered {@code Measure}.
+   * @return a {@code MeasureRecordPlan} without any views.
+   */
+  static MeasureRecordPlan create(Measure measure) {
+    checkNotNull(measure, "measure");
+    return new MeasureRecordPlan(
+        measure,
+        new TagKey[0],
+        new MutableViewData[0],
+        new int[0][],
+        new ConcurrentMutableViewData[0],
+        new int[0][]);
+  }
+
+  /**
+   * Returns a new {@code MeasureRecordPlan} that records to the views of this plan and to the given
+   * view. A {@link ConcurrentMutableViewData} is recorded by {@link #recordConcurrently}, other
+   * views by {@link #record}.
+   *
+   * @param view the {@code MutableViewData} to add, must be a view of the measure of this plan.
+   * @return a new {@code MeasureRecordPlan}.
+   */
+  MeasureRecordPlan withView(MutableViewData view) {
+    List<TagKey> newTagKeys = new ArrayList<TagKey>(Arrays.asList(tagKeys));
+    List<TagKey> columns = view.getView().getColumns();
+    int[] newColumnIndices = new int[columns.size()];
+    for (int i = 0; i < columns.size(); i++) {
+      int index = newTagKeys.indexOf(columns.get(i));
+      if (index < 0) {
+        index = newTagKeys.size();
+        newTagKeys.add(columns.get(i));
+      }
+      newColumnIndices[i] = index;
+    }
+    TagKey[] newTagKeysArray = newTagKeys.toArray(new TagKey[0]);
+    if (view instanceof ConcurrentMutableViewData) {
+      return new MeasureRecordPlan(
+          measure,
+          newTagKeysArray,
+          lockedViews,
+          lockedColumnIndices,
+          append(concurrentViews, (ConcurrentMutableViewData) view),
+          append(concurrentColumnIndices, newColumnIndices));
+    } else {
+      return new MeasureRecordPlan(
+          measure,
+          newTagKeysArray,
+          append(lockedViews, view),
+          append(lockedColumnIndices, newColumnIndices),
+          concurrentViews,
+          concurrentColumnIndices);
+    }
+  }
+
+  private static <T> T[] append(T[] array, T element) {
+    T[] newArray = Arrays.copyOf(array, array.length + 1);
+    newArray[array.length] = element;
+    return newArray;
+  }
+
+  Measure getMeasure() {
+    return measure;
+  }
+
+  /**
+   * Returns whether {@link #record} has any view to record to.
+   *
+   * @return whether there are views that are recorded while holding their monitor.
+   */
+  boolean hasLockedViews() {
+    return lockedViews.length > 0;
+  }
+
+  /**
+   * Records the given value to all the views of this plan that are not recorded concurrently. Each
+   * view is locked while it records.
+   *
+   * @param tags the tags of the recording.
+   * @param value the value to record.
+   * @param timestamp the timestamp of the recording.
+   * @param attachments the contextual information for exemplars.
+   */
+  void record(
+      Map<? extends TagKey, ? extends TagValue> tags,
+      double value,
+      Timestamp timestamp,
+      Map<String, String> attachments) {
+    if (lockedViews.length == 0) {
+      return;
+    }
+    /*@Nullable*/ TagValue[] tagValues = getTagValues(tags);
+    for (int i = 0; i < lockedViews.length; i++) {
+      MutableViewData view = lockedViews[i];
+      synchronized (view) {
+        view.record(tagValues, lockedColumnIndices[i], value, timestamp, attachments);
+      }
+    }
+  }
+
+  /**
+   * Records the given value to all the views of this plan that are recorded concurrently, without
+   * taking any lock.
+   *
+   * @param tags the tags of the recording.
+   * @param value the value to record.
+   * @param clock the clock for the start time of new series.
+   */
+  void recordConcurrently(
+      Map<? extends TagKey, ? extends TagValue> tags, double value, Clock clock) {
+    if (concurrentViews.length == 0) {
+      return;
+    }
+    /*@Nullable*/ TagValue[] tagValues = getTagValues(tags);
+    for (int i = 0; i < concurrentViews.length; i++) {
+      concurrentViews[i].recordConcurrently(tagValues, concurrentColumnIndices[i], value, clock);
+    }
+  }
+
+  private /*@Nullable*/ TagValue[] getTagValues(Map<? extends TagKey, ? extends TagValue> tags) {
+    // Unknown tag values are null.
+    /*@Nullable*/ TagValue[] tagValues = new /*@Nullable*/ TagValue[tagKeys.length];
+    for (int i = 0; i < tagKeys.length; i++) {
+      tagValues[i] = tags.get(tagKeys[i]);
+    }
+    return tagValues;
+  }
+}
@@ -16,27 +16,28 @@
 
 package io.opencensus.implcore.stats;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
 import io.opencensus.common.Clock;
+import io.opencensus.common.Duration;
 import io.opencensus.common.Timestamp;
 import io.opencensus.implcore.internal.CurrentState.State;
+import io.opencensus.implcore.stats.MutableViewData.ConcurrentMutableViewData;
+import io.opencensus.implcore.stats.MutableViewData.DeltaMutableViewData;
 import io.opencensus.metrics.Metric;
 import io.opencensus.stats.Measure;
-import io.opencensus.stats.Measurement;
 import io.opencensus.stats.View;
 import io.opencensus.stats.ViewData;
 import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import javax.annotation.concurrent.GuardedBy;
 
@@ -44,34 +45,93 @@ import javax.annotation.concurrent.GuardedBy;
 import org.checkerframework.checker.nullness.qual.Nullable;
 */
 
-/** A class that stores a singleton map from {@code MeasureName}s to {@link MutableViewData}s. */
+/**
+ * A class that stores a singleton map from {@code MeasureName}s to {@link MutableViewData}s.
+ *
+ * <p>Registration is serialized on this object's monitor, and publishes an immutable {@link
+ * MeasureRecordPlan} for every registered measure. Recording, reading and exporting only read the
+ * published plans and lock each {@link MutableViewData} individually, so that an export of one view
+ * does not block recording to other views, and recording to one measure does not block recording to
+ * other measures.
+ */
 @SuppressWarnings("deprecation")
 final class MeasureToViewMap {
 
-  /*
-   * A synchronized singleton map that stores the one-to-many mapping from Measures
-   * to MutableViewDatas.
-   */
-  @GuardedBy("this")
-  private final Multimap<String, MutableViewData> mutableMap =
-      HashMultimap.<String, MutableViewData>create();
-
   @GuardedBy("this")
   private final Map<View.Name, View> registeredViews = new HashMap<View.Name, View>();
 
+  // Record plans indexed by measure name, replaced whenever a view is registered. Used on the
+  // recording path so that it doesn't need to hold the registration lock.
   // TODO(songya): consider adding a Measure.Name class
+  private volatile ImmutableMap<String, MeasureRecordPlan> recordPlans = ImmutableMap.of();
+
+  // Immutable mapping from View.Name to MutableViewData, replaced whenever a view is registered.
+  private volatile ImmutableMap<View.Name, MutableViewData> viewsByName = ImmutableMap.of();
+
+  // Twins of the cumulative views that accumulate deltas, empty until delta views are enabled. They
+  // are recorded like the other views, but only collected by getDeltaMetrics().
+  private volatile ImmutableList<DeltaMutableViewData> deltaViews = ImmutableList.of();
+
   @GuardedBy("this")
-  private final Map<String, Measure> registeredMeasures = Maps.newHashMap();
+  private boolean deltaViewsEnabled = false;
 
   // Cached set of exported views. It must be set to null whenever a view is registered or
   // unregistered.
   @javax.annotation.Nullable private volatile Set<View> exportedViews;
 
+  // Whether views that support it are recorded concurrently on the calling thread.
+  private final boolean concurrentRecording;
+
+  // The maximum number of series of each view, and the number of recordings folded into overflow
+  // series.
+  private final SeriesLimit seriesLimit;
+
+  // The same limit for delta views, whose overflow recordings are already counted by seriesLimit.
+  private final SeriesLimit deltaSeriesLimit;
+
+  // How long a series of a cumulative view can go without being recorded to before it is evicted,
+  // or null to never evict series.
+  @javax.annotation.Nullable private final Duration seriesIdleTimeout;
+
+  // Collections of the views are serialized on this lock, so that their generations are ordered
+  // like the collections themselves in every view.
+  private final Object collectionLock = new Object();
+
+  @GuardedBy("collectionLock")
+  private long collectionGeneration = 0;
+
+  MeasureToViewMap() {
+    this(StatsOptions.getDefault());
+  }
+
+  /**
+   * Creates a new {@code MeasureToViewMap}.
+   *
+   * @param options the options of the stats implementation. With {@link
+   *     StatsOptions#isConcurrentRecording concurrent recording}, cumulative Sum, Count and
+   *     LastValue views are recorded with {@link #recordConcurrently} instead of {@link #record}.
+   */
+  MeasureToViewMap(StatsOptions options) {
+    this.concurrentRecording = options.isConcurrentRecording();
+    this.seriesLimit = SeriesLimit.create(options.getMaxSeriesPerView());
+    this.deltaSeriesLimit = SeriesLimit.create(options.getMaxSeriesPerView());
+    Duration timeout = options.getSeriesIdleTimeout();
+    this.seriesIdleTimeout = timeout.getSeconds() == 0 && timeout.getNanos() == 0 ? null : timeout;
+  }
+
   /** Returns a {@link ViewData} corresponding to the given {@link View.Name}. */
   @javax.annotation.Nullable
-  synchronized ViewData getView(View.Name viewName, Clock clock, State state) {
-    MutableViewData view = getMutableViewData(viewName);
-    return view == null ? null : view.toViewData(clock.now(), state);
+  ViewData getView(View.Name viewName, Clock clock, State state) {
+    MutableViewData view = viewsByName.get(viewName);
+    if (view == null) {
+      return null;
+    }
+    synchronized (collectionLock) {
+      long generation = ++collectionGeneration;
+      synchronized (view) {
+        return view.toViewData(clock.now(), state, generation);
+      }
+    }
   }
 
   Set<View> getExportedViews() {
@@ -109,86 +169,214 @@ final class MeasureToViewMap {
       }
     }
     Measure measure = view.getMeasure();
-    Measure registeredMeasure = registeredMeasures.get(measure.getName());
-    if (registeredMeasure != null && !registeredMeasure.equals(measure)) {
+    MeasureRecordPlan recordPlan = recordPlans.get(measure.getName());
+    if (recordPlan != null && !recordPlan.getMeasure().equals(measure)) {
       throw new IllegalArgumentException(
-          "A different measure with the same name is already registered: " + registeredMeasure);
+          "A different measure with the same name is already registered: "
+              + recordPlan.getMeasure());
     }
     registeredViews.put(view.getName(), view);
-    if (registeredMeasure == null) {
-      registeredMeasures.put(measure.getName(), measure);
+    if (recordPlan == null) {
+      recordPlan = MeasureRecordPlan.create(measure);
     }
     Timestamp now = clock.now();
-    mutableMap.put(view.getMeasure().getName(), MutableViewData.create(view, now));
+    MutableViewData mutableViewData =
+        concurrentRecording
+            ? MutableViewData.createConcurrent(view, now, seriesLimit, seriesIdleTimeout)
+            : MutableViewData.create(view, now, seriesLimit, seriesIdleTimeout);
+    recordPlan = recordPlan.withView(mutableViewData);
+    if (deltaViewsEnabled && view.getWindow() instanceof View.AggregationWindow.Cumulative) {
+      recordPlan = withDeltaView(recordPlan, mutableViewData, now);
+    }
+    viewsByName =
+        ImmutableMap.<View.Name, MutableViewData>builder()
+            .putAll(viewsByName)
+            .put(view.getName(), mutableViewData)
+            .build();
+    publishRecordPlan(recordPlan);
   }
 
-  @javax.annotation.Nullable
-  private synchronized MutableViewData getMutableViewData(View.Name viewName) {
-    View view = registeredViews.get(viewName);
-    if (view == null) {
-      return null;
+  /**
+   * Starts accumulating the deltas of all the cumulative views, the ones that are already
+   * registered and the ones registered later, for {@link #getDeltaMetrics}. Deltas of the views
+   * that are already registered start now. Does nothing if delta views are already enabled.
+   */
+  synchronized void enableDeltaViews(Clock clock) {
+    if (deltaViewsEnabled) {
+      return;
     }
-    Collection<MutableViewData> views = mutableMap.get(view.getMeasure().getName());
-    for (MutableViewData viewData : views) {
-      if (viewData.getView().getName().equals(viewName)) {
-        return viewData;
+    deltaViewsEnabled = true;
+    Timestamp now = clock.now();
+    for (MutableViewData mutableViewData : viewsByName.values()) {
+      View view = mutableViewData.getView();
+      if (view.getWindow() instanceof View.AggregationWindow.Cumulative) {
+        publishRecordPlan(
+            withDeltaView(recordPlans.get(view.getMeasure().getName()), mutableViewData, now));
       }
     }
-    throw new AssertionError(
-        "Internal error: Not recording stats for view: \""
-            + viewName
-            + "\" registeredViews="
-            + registeredViews
-            + ", mutableMap="
-            + mutableMap);
+  }
+
+  // Returns the given plan with a new delta view of the given cumulative view. The delta of a view
+  // that is recorded concurrently is recorded concurrently as well.
+  @GuardedBy("this")
+  private MeasureRecordPlan withDeltaView(
+      MeasureRecordPlan recordPlan, MutableViewData cumulativeView, Timestamp now) {
+    View view = cumulativeView.getView();
+    DeltaMutableViewData deltaView =
+        cumulativeView instanceof ConcurrentMutableViewData
+            ? DeltaMutableViewData.createConcurrent(view, now, deltaSeriesLimit)
+            : DeltaMutableViewData.create(view, now, deltaSeriesLimit);
+    deltaViews =
+        ImmutableList.<DeltaMutableViewData>builder().addAll(deltaViews).add(deltaView).build();
+    return recordPlan.withView(deltaView);
+  }
+
+  // Replaces the published plan of the measure of the given plan.
+  @GuardedBy("this")
+  private void publishRecordPlan(MeasureRecordPlan recordPlan) {
+    Map<String, MeasureRecordPlan> newRecordPlans =
+        new HashMap<String, MeasureRecordPlan>(recordPlans);
+    newRecordPlans.put(recordPlan.getMeasure().getName(), recordPlan);
+    recordPlans = ImmutableMap.copyOf(newRecordPlans);
   }
 
   // Records stats with a set of tags.
-  synchronized void record(TagContext tags, MeasureMapInternal stats, Timestamp timestamp) {
-    Iterator<Measurement> iterator = stats.iterator();
+  void record(TagContext tags, MeasureMapInternal stats, Timestamp timestamp) {
     Map<String, String> attachments = stats.getAttachments();
-    while (iterator.hasNext()) {
-      Measurement measurement = iterator.next();
-      Measure measure = measurement.getMeasure();
-      if (!measure.equals(registeredMeasures.get(measure.getName()))) {
+    @javax.annotation.Nullable Map<TagKey, TagValue> tagMap = null;
+    for (int i = 0; i < stats.size(); i++) {
+      MeasureRecordPlan recordPlan = getRecordPlan(stats.getMeasure(i));
+      if (recordPlan == null) {
         // unregistered measures will be ignored.
         continue;
       }
-      Collection<MutableViewData> viewDataCollection = mutableMap.get(measure.getName());
-      for (MutableViewData viewData : viewDataCollection) {
-        viewData.record(
-            tags, RecordUtils.getDoubleValueFromMeasurement(measurement), timestamp, attachments);
+      if (tagMap == null) {
+        tagMap = RecordUtils.getTagMap(tags);
       }
+      recordPlan.record(tagMap, stats.getValue(i), timestamp, attachments);
     }
   }
 
-  synchronized List<Metric> getMetrics(Clock clock, State state) {
+  // Records stats with a set of tags to the views that are recorded concurrently, on the calling
+  // thread. Returns whether there are other views that still need the stats from record().
+  boolean recordConcurrently(TagContext tags, MeasureMapInternal stats, Clock clock) {
+    @javax.annotation.Nullable Map<TagKey, TagValue> tagMap = null;
+    boolean hasLockedViews = false;
+    for (int i = 0; i < stats.size(); i++) {
+      MeasureRecordPlan recordPlan = getRecordPlan(stats.getMeasure(i));
+      if (recordPlan == null) {
+        // unregistered measures will be ignored.
+        continue;
+      }
+      hasLockedViews |= recordPlan.hasLockedViews();
+      if (tagMap == null) {
+        tagMap = RecordUtils.getTagMap(tags);
+      }
+      recordPlan.recordConcurrently(tagMap, stats.getValue(i), clock);
+    }
+    return hasLockedViews;
+  }
+
+  // Records a single value with a set of tags, without attachments.
+  void record(TagContext tags, Measure measure, double value, Timestamp timestamp) {
+    MeasureRecordPlan recordPlan = getRecordPlan(measure);
+    if (recordPlan != null) {
+      recordPlan.record(
+          RecordUtils.getTagMap(tags), value, timestamp, Collections.<String, String>emptyMap());
+    }
+  }
+
+  // Records a single value with a set of tags to the views that are recorded concurrently, like
+  // recordConcurrently(TagContext, MeasureMapInternal, Clock).
+  boolean recordConcurrently(TagContext tags, Measure measure, double value, Clock clock) {
+    MeasureRecordPlan recordPlan = getRecordPlan(measure);
+    if (recordPlan == null) {
+      return false;
+    }
+    recordPlan.recordConcurrently(RecordUtils.getTagMap(tags), value, clock);
+    return recordPlan.hasLockedViews();
+  }
+
+  // Returns the record plan of the given measure, or null if the measure is not registered.
+  @javax.annotation.Nullable
+  private MeasureRecordPlan getRecordPlan(Measure measure) {
+    MeasureRecordPlan recordPlan = recordPlans.get(measure.getName());
+    return recordPlan == null || !measure.equals(recordPlan.getMeasure()) ? null : recordPlan;
+  }
+
+  List<Metric> getMetrics(Clock clock, State state) {
+    return getChangedMetrics(clock, state, ChangedMetrics.INITIAL_CURSOR).getMetrics();
+  }
+
+  // Returns the series that changed since the collection of the given cursor, and the cursor of
+  // this collection. Views without changed series are omitted, unless all the series are requested.
+  ChangedMetrics getChangedMetrics(Clock clock, State state, long cursor) {
     List<Metric> metrics = new ArrayList<Metric>();
-    Timestamp now = clock.now();
-    for (Entry<String, MutableViewData> entry : mutableMap.entries()) {
-      Metric metric = entry.getValue().toMetric(now, state);
-      if (metric != null) {
-        metrics.add(metric);
+    synchronized (collectionLock) {
+      long generation = ++collectionGeneration;
+      Timestamp now = clock.now();
+      for (MutableViewData viewData : viewsByName.values()) {
+        Metric metric;
+        synchronized (viewData) {
+          metric = viewData.toMetric(now, state, generation, cursor);
+        }
+        if (metric != null
+            && (cursor == ChangedMetrics.INITIAL_CURSOR || !metric.getTimeSeriesList().isEmpty())) {
+          metrics.add(metric);
+        }
+      }
+      return new ChangedMetrics(metrics, generation);
+    }
+  }
+
+  // Swaps out the deltas of the cumulative views, see enableDeltaViews(). Each series starts at the
+  // previous collection of its view, or when delta views were enabled for the first collection.
+  List<Metric> getDeltaMetrics(Clock clock, State state) {
+    List<Metric> metrics = new ArrayList<Metric>();
+    // Serialized with the other collections, so that the deltas of a view never overlap.
+    synchronized (collectionLock) {
+      Timestamp now = clock.now();
+      for (DeltaMutableViewData deltaView : deltaViews) {
+        Metric metric = deltaView.collectDelta(now, state);
+        if (metric != null) {
+          metrics.add(metric);
+        }
       }
     }
     return metrics;
   }
 
   // Clear stats for all the current MutableViewData
-  synchronized void clearStats() {
-    for (Entry<String, Collection<MutableViewData>> entry : mutableMap.asMap().entrySet()) {
-      for (MutableViewData mutableViewData : entry.getValue()) {
+  void clearStats() {
+    for (MutableViewData mutableViewData : viewsByName.values()) {
+      synchronized (mutableViewData) {
         mutableViewData.clearStats();
       }
     }
+    for (DeltaMutableViewData deltaView : deltaViews) {
+      synchronized (deltaView) {
+        deltaView.clearStats();
+      }
+    }
+  }
+
+  // Returns the number of recordings with new tag values that were folded into the overflow series
+  // of their view, because the view already had the maximum number of series.
+  long getNumOverflowRecordings() {
+    return seriesLimit.getNumOverflowRecordings();
   }
 
   // Resume stats collection for all MutableViewData.
-  synchronized void resumeStatsCollection(Timestamp now) {
-    for (Entry<String, Collection<MutableViewData>> entry : mutableMap.asMap().entrySet()) {
-      for (MutableViewData mutableViewData : entry.getValue()) {
+  void resumeStatsCollection(Timestamp now) {
+    for (MutableViewData mutableViewData : viewsByName.values()) {
+      synchronized (mutableViewData) {
         mutableViewData.resumeStatsCollection(now);
       }
     }
+    for (DeltaMutableViewData deltaView : deltaViews) {
+      synchronized (deltaView) {
+        deltaView.resumeStatsCollection(now);
+      }
+    }
   }
 }
@@ -39,24 +39,19 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 // Utils to convert Stats data models to Metric data models.
 final class MetricUtils {
 
-  @javax.annotation.Nullable
   static MetricDescriptor viewToMetricDescriptor(View view) {
-    if (view.getWindow() instanceof View.AggregationWindow.Interval) {
-      // Only creates Metric for cumulative stats.
-      return null;
-    }
     List<LabelKey> labelKeys = new ArrayList<LabelKey>();
     for (TagKey tagKey : view.getColumns()) {
       // TODO: add description
       labelKeys.add(LabelKey.create(tagKey.getName(), ""));
     }
     Measure measure = view.getMeasure();
+    Type type =
+        view.getWindow() instanceof View.AggregationWindow.Interval
+            ? getIntervalType(measure, view.getAggregation())
+            : getType(measure, view.getAggregation());
     return MetricDescriptor.create(
-        view.getName().asString(),
-        view.getDescription(),
-        measure.getUnit(),
-        getType(measure, view.getAggregation()),
-        labelKeys);
+        view.getName().asString(), view.getDescription(), measure.getUnit(), type, labelKeys);
   }
 
   @VisibleForTesting
@@ -77,6 +72,25 @@ final class MetricUtils {
         AGGREGATION_TYPE_DEFAULT_FUNCTION);
   }
 
+  // Stats of interval views are values over the past interval, which are exported as gauges.
+  @VisibleForTesting
+  static Type getIntervalType(Measure measure, Aggregation aggregation) {
+    return aggregation.match(
+        Functions.returnConstant(
+            measure.match(
+                TYPE_GAUGE_DOUBLE_FUNCTION, // Sum Double
+                TYPE_GAUGE_INT64_FUNCTION, // Sum Int64
+                TYPE_UNRECOGNIZED_FUNCTION)),
+        TYPE_GAUGE_INT64_FUNCTION, // Count
+        TYPE_GAUGE_DISTRIBUTION_FUNCTION, // Distribution
+        Functions.returnConstant(
+            measure.match(
+                TYPE_GAUGE_DOUBLE_FUNCTION, // LastValue Double
+                TYPE_GAUGE_INT64_FUNCTION, // LastValue Long
+                TYPE_UNRECOGNIZED_FUNCTION)),
+        INTERVAL_AGGREGATION_TYPE_DEFAULT_FUNCTION);
+  }
+
   static List<LabelValue> tagValuesToLabelValues(List</*@Nullable*/ TagValue> tagValues) {
     List<LabelValue> labelValues = new ArrayList<LabelValue>();
     for (/*@Nullable*/ TagValue tagValue : tagValues) {
@@ -100,6 +114,9 @@ final class MetricUtils {
   private static final Function<Object, Type> TYPE_GAUGE_INT64_FUNCTION =
       Functions.returnConstant(Type.GAUGE_INT64);
 
+  private static final Function<Object, Type> TYPE_GAUGE_DISTRIBUTION_FUNCTION =
+      Functions.returnConstant(Type.GAUGE_DISTRIBUTION);
+
   private static final Function<Object, Type> TYPE_UNRECOGNIZED_FUNCTION =
       Functions.<Type>throwAssertionError();
 
@@ -110,6 +127,23 @@ final class MetricUtils {
           if (arg instanceof Aggregation.Mean) {
             return Type.CUMULATIVE_DOUBLE; // Mean
           }
+          if (arg instanceof Aggregation.Quantiles) {
+            return Type.SUMMARY; // Quantiles
+          }
+          throw new AssertionError();
+        }
+      };
+
+  private static final Function<Aggregation, Type> INTERVAL_AGGREGATION_TYPE_DEFAULT_FUNCTION =
+      new Function<Aggregation, Type>() {
+        @Override
+        public Type apply(Aggregation arg) {
+          if (arg instanceof Aggregation.Mean) {
+            return Type.GAUGE_DOUBLE; // Mean
+          }
+          if (arg instanceof Aggregation.Quantiles) {
+            return Type.SUMMARY; // Quantiles
+          }
           throw new AssertionError();
         }
       };
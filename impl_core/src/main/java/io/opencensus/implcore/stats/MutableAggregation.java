@@ -20,18 +20,24 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.annotations.VisibleForTesting;
+import io.opencensus.common.Duration;
 import io.opencensus.common.Timestamp;
 import io.opencensus.metrics.Distribution;
 import io.opencensus.metrics.Point;
+import io.opencensus.metrics.Summary;
 import io.opencensus.metrics.Value;
 import io.opencensus.stats.Aggregation;
 import io.opencensus.stats.AggregationData;
 import io.opencensus.stats.AggregationData.DistributionData;
 import io.opencensus.stats.AggregationData.DistributionData.Exemplar;
+import io.opencensus.stats.AggregationData.QuantilesData;
 import io.opencensus.stats.BucketBoundaries;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /** Mutable version of {@link Aggregation} that supports adding values. */
 abstract class MutableAggregation {
@@ -41,6 +47,85 @@ abstract class MutableAggregation {
   // Tolerance for double comparison.
   private static final double TOLERANCE = 1e-6;
 
+  // Bookkeeping of the series of cumulative views, guarded by the monitor of the view, except for
+  // dirty which concurrent recordings set without holding it. A recording adds its value before it
+  // reads dirty, and a collection clears dirty before it reads the value, so a value that does not
+  // set dirty again is part of the collection that cleared it.
+  @javax.annotation.Nullable private Timestamp start;
+  @javax.annotation.Nullable private Timestamp lastActive;
+  private long changeGeneration;
+  private volatile boolean dirty;
+
+  /**
+   * Sets the start time of this series, when it doesn't start with its view.
+   *
+   * @param start the start {@code Timestamp} of the series.
+   */
+  final void startSeries(Timestamp start) {
+    this.start = start;
+  }
+
+  /**
+   * Returns the start {@code Timestamp} of this series, or {@code null} if it starts with its view.
+   *
+   * @return the start {@code Timestamp} of this series.
+   */
+  @javax.annotation.Nullable
+  final Timestamp getStart() {
+    return start;
+  }
+
+  /**
+   * Marks that a value was recorded to this series since the last {@link #collect}. Must be called
+   * after the value is added.
+   */
+  final void markDirty() {
+    // Only write when needed, so that concurrent recordings to a series don't contend on it.
+    if (!dirty) {
+      dirty = true;
+    }
+  }
+
+  /**
+   * Clears the dirty mark of this series. If it was set, the series was recorded to since the
+   * previous collection, so it is active at {@code now} and changed in the given generation. Must
+   * be called before the value of the series is read.
+   *
+   * @param now the time of the collection.
+   * @param generation the generation of the collection, greater than that of all the previous
+   *     collections.
+   */
+  final void collect(Timestamp now, long generation) {
+    if (dirty) {
+      dirty = false;
+      lastActive = now;
+      changeGeneration = generation;
+    }
+  }
+
+  /**
+   * Returns whether this series was not recorded to for at least the given timeout, as of the last
+   * {@link #collect}.
+   *
+   * @param now the current time.
+   * @param timeout the idle timeout.
+   * @return whether this series was idle for at least {@code timeout}.
+   */
+  final boolean isIdle(Timestamp now, Duration timeout) {
+    return lastActive != null && now.subtractTimestamp(lastActive).compareTo(timeout) >= 0;
+  }
+
+  /**
+   * Returns whether this series was recorded to since the collection of the given generation, as of
+   * the last {@link #collect}.
+   *
+   * @param generation the generation of a previous collection, or 0 for any change.
+   * @return whether this series changed after the collection of {@code generation}.
+   */
+  final boolean isChangedSince(long generation) {
+    return changeGeneration > generation;
+  }
+
   /**
    * Put a new value into the MutableAggregation.
    *
@@ -63,6 +148,9 @@ abstract class MutableAggregation {
    */
   abstract void combine(MutableAggregation other, double fraction);
 
+  /** Reset this MutableAggregation to its initial empty state, so that it can be reused. */
+  abstract void reset();
+
   abstract AggregationData toAggregationData();
 
   abstract Point toPoint(Timestamp timestamp);
@@ -94,6 +182,11 @@ abstract class MutableAggregation {
       this.sum += fraction * ((MutableSumDouble) other).sum;
     }
 
+    @Override
+    void reset() {
+      sum = 0.0;
+    }
+
     @Override
     AggregationData toAggregationData() {
       return AggregationData.SumDataDouble.create(sum);
@@ -163,6 +256,11 @@ abstract class MutableAggregation {
       this.count += Math.round(fraction * ((MutableCount) other).getCount());
     }
 
+    @Override
+    void reset() {
+      count = 0;
+    }
+
     @Override
     AggregationData toAggregationData() {
       return AggregationData.CountData.create(count);
@@ -214,6 +312,12 @@ abstract class MutableAggregation {
       this.sum += mutableMean.sum * fraction;
     }
 
+    @Override
+    void reset() {
+      sum = 0.0;
+      count = 0;
+    }
+
     @SuppressWarnings("deprecation")
     @Override
     AggregationData toAggregationData() {
@@ -262,16 +366,25 @@ abstract class MutableAggregation {
     private double max = Double.NEGATIVE_INFINITY;
 
     private final BucketBoundaries bucketBoundaries;
+    private final BucketIndex bucketIndex;
     private final long[] bucketCounts;
 
+    private static final long NANOS_PER_SECOND = 1000L * 1000 * 1000;
+
+    // Minimum time between two exemplars of the same bucket, so that recording with attachments
+    // doesn't create an exemplar on every recording.
+    @VisibleForTesting static final long EXEMPLAR_SAMPLING_INTERVAL_NANOS = NANOS_PER_SECOND;
+
     // If there's a histogram (i.e bucket boundaries are not empty) in this MutableDistribution,
     // exemplars will have the same size to bucketCounts; otherwise exemplars are null.
-    // Only the newest exemplar will be kept at each index.
+    // At most one exemplar is sampled per bucket per EXEMPLAR_SAMPLING_INTERVAL_NANOS, and only the
+    // newest sampled exemplar will be kept at each index.
     @javax.annotation.Nullable private final Exemplar[] exemplars;
 
-    private MutableDistribution(BucketBoundaries bucketBoundaries) {
+    private MutableDistribution(BucketBoundaries bucketBoundaries, BucketIndex bucketIndex) {
       this.bucketBoundaries = bucketBoundaries;
-      int buckets = bucketBoundaries.getBoundaries().size() + 1;
+      this.bucketIndex = bucketIndex;
+      int buckets = bucketIndex.getNumBuckets();
       this.bucketCounts = new long[buckets];
       // In the implementation, each histogram bucket can have up to one exemplar, and the exemplar
       // array is guaranteed to be in ascending order.
@@ -286,7 +399,21 @@ abstract class MutableAggregation {
      */
     static MutableDistribution create(BucketBoundaries bucketBoundaries) {
       checkNotNull(bucketBoundaries, "bucketBoundaries should not be null.");
-      return new MutableDistribution(bucketBoundaries);
+      return new MutableDistribution(bucketBoundaries, BucketIndex.create(bucketBoundaries));
+    }
+
+    /**
+     * Construct a {@code MutableDistribution} that shares the given {@code BucketIndex}, so that
+     * the series of a view don't each build their own.
+     *
+     * @param bucketBoundaries the bucket boundaries of the distribution.
+     * @param bucketIndex the {@code BucketIndex} of {@code bucketBoundaries}.
+     * @return an empty {@code MutableDistribution}.
+     */
+    static MutableDistribution create(BucketBoundaries bucketBoundaries, BucketIndex bucketIndex) {
+      checkNotNull(bucketBoundaries, "bucketBoundaries should not be null.");
+      checkNotNull(bucketIndex, "bucketIndex should not be null.");
+      return new MutableDistribution(bucketBoundaries, bucketIndex);
     }
 
     @Override
@@ -314,21 +441,34 @@ abstract class MutableAggregation {
         max = value;
       }
 
-      int bucket = 0;
-      for (; bucket < bucketBoundaries.getBoundaries().size(); bucket++) {
-        if (value < bucketBoundaries.getBoundaries().get(bucket)) {
-          break;
-        }
-      }
+      int bucket = bucketIndex.getBucket(value);
       bucketCounts[bucket]++;
 
       // No implicit recording for exemplars - if there are no attachments (contextual information),
-      // don't record exemplars.
-      if (!attachments.isEmpty() && exemplars != null) {
+      // don't record exemplars. The attachments are only copied when an exemplar is sampled.
+      if (exemplars != null
+          && !attachments.isEmpty()
+          && shouldSampleExemplar(exemplars[bucket], timestamp)) {
         exemplars[bucket] = Exemplar.create(value, timestamp, attachments);
       }
     }
 
+    // Returns whether an exemplar recorded at the given time should replace the current exemplar of
+    // a bucket, i.e. whether the current one is older by at least the sampling interval. It is
+    // also replaced if it is newer, in case the clock went backwards.
+    private static boolean shouldSampleExemplar(
+        @javax.annotation.Nullable Exemplar current, Timestamp timestamp) {
+      if (current == null) {
+        return true;
+      }
+      Timestamp previous = current.getTimestamp();
+      long elapsedNanos =
+          (timestamp.getSeconds() - previous.getSeconds()) * NANOS_PER_SECOND
+              + timestamp.getNanos()
+              - previous.getNanos();
+      return elapsedNanos >= EXEMPLAR_SAMPLING_INTERVAL_NANOS || elapsedNanos < 0;
+    }
+
     // We don't compute fractional MutableDistribution, it's either whole or none.
     @Override
     void combine(MutableAggregation other, double fraction) {
@@ -385,6 +525,20 @@ abstract class MutableAggregation {
       }
     }
 
+    @Override
+    void reset() {
+      sum = 0.0;
+      mean = 0.0;
+      count = 0;
+      sumOfSquaredDeviations = 0.0;
+      min = Double.POSITIVE_INFINITY;
+      max = Double.NEGATIVE_INFINITY;
+      Arrays.fill(bucketCounts, 0);
+      if (exemplars != null) {
+        Arrays.fill(exemplars, null);
+      }
+    }
+
     @Override
     AggregationData toAggregationData() {
       List<Long> boxedBucketCounts = new ArrayList<Long>();
@@ -469,6 +623,88 @@ abstract class MutableAggregation {
     }
   }
 
+  /** Calculate estimates of quantiles on aggregated {@code MeasureValue}s. */
+  static final class MutableQuantiles extends MutableAggregation {
+
+    private final List<Double> quantiles;
+    private final QuantileSketch sketch;
+    private long count = 0;
+    private double sum = 0.0;
+
+    private MutableQuantiles(List<Double> quantiles, double relativeAccuracy) {
+      this.quantiles = quantiles;
+      this.sketch = QuantileSketch.create(relativeAccuracy);
+    }
+
+    /**
+     * Construct a {@code MutableQuantiles}.
+     *
+     * @param quantiles the {@code Quantiles} aggregation.
+     * @return an empty {@code MutableQuantiles}.
+     */
+    static MutableQuantiles create(Aggregation.Quantiles quantiles) {
+      checkNotNull(quantiles, "quantiles should not be null.");
+      return new MutableQuantiles(quantiles.getQuantiles(), quantiles.getRelativeAccuracy());
+    }
+
+    @Override
+    void add(double value, Map<String, String> attachments, Timestamp timestamp) {
+      count++;
+      sum += value;
+      sketch.add(value);
+    }
+
+    // Like MutableDistribution, it's either whole or none. Sketches of the same accuracy merge
+    // without losing accuracy, so the combination of interval buckets is as accurate as each
+    // bucket.
+    @Override
+    void combine(MutableAggregation other, double fraction) {
+      checkArgument(other instanceof MutableQuantiles, "MutableQuantiles expected.");
+      if (Math.abs(1.0 - fraction) > TOLERANCE) {
+        return;
+      }
+      MutableQuantiles mutableQuantiles = (MutableQuantiles) other;
+      checkArgument(this.quantiles.equals(mutableQuantiles.quantiles), "Quantiles should match.");
+      this.count += mutableQuantiles.count;
+      this.sum += mutableQuantiles.sum;
+      this.sketch.merge(mutableQuantiles.sketch);
+    }
+
+    @Override
+    void reset() {
+      count = 0;
+      sum = 0.0;
+      sketch.reset();
+    }
+
+    @Override
+    AggregationData toAggregationData() {
+      return QuantilesData.create(count, sum, getQuantileValues());
+    }
+
+    @Override
+    Point toPoint(Timestamp timestamp) {
+      return Point.create(
+          Value.summaryValue(Summary.create(count, sum, getQuantileValues())), timestamp);
+    }
+
+    private Map<Double, Double> getQuantileValues() {
+      Map<Double, Double> quantileValues = new LinkedHashMap<Double, Double>();
+      for (Double quantile : quantiles) {
+        quantileValues.put(quantile, sketch.getValueAtQuantile(quantile));
+      }
+      return quantileValues;
+    }
+
+    long getCount() {
+      return count;
+    }
+
+    double getSum() {
+      return sum;
+    }
+  }
+
   /** Calculate double last value on aggregated {@code MeasureValue}s. */
   static class MutableLastValueDouble extends MutableAggregation {
 
@@ -506,6 +742,12 @@ abstract class MutableAggregation {
       this.lastValue = otherValue.initialized ? otherValue.getLastValue() : this.lastValue;
     }
 
+    @Override
+    void reset() {
+      lastValue = Double.NaN;
+      initialized = false;
+    }
+
     @Override
     AggregationData toAggregationData() {
       return AggregationData.LastValueDataDouble.create(lastValue);
@@ -547,4 +789,234 @@ abstract class MutableAggregation {
       return Point.create(Value.longValue(Math.round(getLastValue())), timestamp);
     }
   }
+
+  /**
+   * Base class of the {@code MutableAggregation}s whose values can be added concurrently by many
+   * threads without any lock. Reading, combining and resetting still need external synchronization,
+   * and may miss values that are added concurrently.
+   */
+  abstract static class ConcurrentMutableAggregation extends MutableAggregation {
+
+    private ConcurrentMutableAggregation() {}
+
+    /**
+     * Put a new value into the MutableAggregation. Can be called concurrently.
+     *
+     * @param value new value to be added to population
+     */
+    abstract void add(double value);
+
+    // Concurrent aggregations don't keep exemplars.
+    @Override
+    final void add(double value, Map<String, String> attachments, Timestamp timestamp) {
+      add(value);
+    }
+  }
+
+  /** Calculate sum of doubles concurrently on aggregated {@code MeasureValue}s. */
+  static class ConcurrentSumDouble extends ConcurrentMutableAggregation {
+
+    private final StripedAdder.OfDouble sum = new StripedAdder.OfDouble();
+
+    private ConcurrentSumDouble() {}
+
+    /**
+     * Construct a {@code ConcurrentSumDouble}.
+     *
+     * @return an empty {@code ConcurrentSumDouble}.
+     */
+    static ConcurrentSumDouble create() {
+      return new ConcurrentSumDouble();
+    }
+
+    @Override
+    void add(double value) {
+      sum.add(value);
+    }
+
+    @Override
+    void combine(MutableAggregation other, double fraction) {
+      checkArgument(other instanceof ConcurrentSumDouble, "ConcurrentSumDouble expected.");
+      sum.add(fraction * ((ConcurrentSumDouble) other).getSum());
+    }
+
+    @Override
+    void reset() {
+      sum.reset();
+    }
+
+    @Override
+    AggregationData toAggregationData() {
+      return AggregationData.SumDataDouble.create(getSum());
+    }
+
+    @Override
+    Point toPoint(Timestamp timestamp) {
+      return Point.create(Value.doubleValue(getSum()), timestamp);
+    }
+
+    double getSum() {
+      return sum.sum();
+    }
+  }
+
+  /** Calculate sum of longs concurrently on aggregated {@code MeasureValue}s. */
+  static final class ConcurrentSumLong extends ConcurrentSumDouble {
+    private ConcurrentSumLong() {
+      super();
+    }
+
+    /**
+     * Construct a {@code ConcurrentSumLong}.
+     *
+     * @return an empty {@code ConcurrentSumLong}.
+     */
+    static ConcurrentSumLong create() {
+      return new ConcurrentSumLong();
+    }
+
+    @Override
+    AggregationData toAggregationData() {
+      return AggregationData.SumDataLong.create(Math.round(getSum()));
+    }
+
+    @Override
+    Point toPoint(Timestamp timestamp) {
+      return Point.create(Value.longValue(Math.round(getSum())), timestamp);
+    }
+  }
+
+  /** Calculate count concurrently on aggregated {@code MeasureValue}s. */
+  static final class ConcurrentCount extends ConcurrentMutableAggregation {
+
+    private final StripedAdder.OfLong count = new StripedAdder.OfLong();
+
+    private ConcurrentCount() {}
+
+    /**
+     * Construct a {@code ConcurrentCount}.
+     *
+     * @return an empty {@code ConcurrentCount}.
+     */
+    static ConcurrentCount create() {
+      return new ConcurrentCount();
+    }
+
+    @Override
+    void add(double value) {
+      count.add(1);
+    }
+
+    @Override
+    void combine(MutableAggregation other, double fraction) {
+      checkArgument(other instanceof ConcurrentCount, "ConcurrentCount expected.");
+      count.add(Math.round(fraction * ((ConcurrentCount) other).getCount()));
+    }
+
+    @Override
+    void reset() {
+      count.reset();
+    }
+
+    @Override
+    AggregationData toAggregationData() {
+      return AggregationData.CountData.create(getCount());
+    }
+
+    @Override
+    Point toPoint(Timestamp timestamp) {
+      return Point.create(Value.longValue(getCount()), timestamp);
+    }
+
+    long getCount() {
+      return count.sum();
+    }
+  }
+
+  /** Calculate double last value concurrently on aggregated {@code MeasureValue}s. */
+  static class ConcurrentLastValueDouble extends ConcurrentMutableAggregation {
+
+    private static final long INITIAL_VALUE_BITS = Double.doubleToRawLongBits(Double.NaN);
+
+    // The raw long bits of the last value, there is no contention to reduce since the last writer
+    // wins.
+    private final AtomicLong lastValueBits = new AtomicLong(INITIAL_VALUE_BITS);
+    private volatile boolean initialized = false;
+
+    private ConcurrentLastValueDouble() {}
+
+    /**
+     * Construct a {@code ConcurrentLastValueDouble}.
+     *
+     * @return an empty {@code ConcurrentLastValueDouble}.
+     */
+    static ConcurrentLastValueDouble create() {
+      return new ConcurrentLastValueDouble();
+    }
+
+    @Override
+    void add(double value) {
+      lastValueBits.set(Double.doubleToRawLongBits(value));
+      if (!initialized) {
+        initialized = true;
+      }
+    }
+
+    @Override
+    void combine(MutableAggregation other, double fraction) {
+      checkArgument(
+          other instanceof ConcurrentLastValueDouble, "ConcurrentLastValueDouble expected.");
+      ConcurrentLastValueDouble otherValue = (ConcurrentLastValueDouble) other;
+      // Assume other is always newer than this.
+      if (otherValue.initialized) {
+        add(otherValue.getLastValue());
+      }
+    }
+
+    @Override
+    void reset() {
+      lastValueBits.set(INITIAL_VALUE_BITS);
+      initialized = false;
+    }
+
+    @Override
+    AggregationData toAggregationData() {
+      return AggregationData.LastValueDataDouble.create(getLastValue());
+    }
+
+    @Override
+    Point toPoint(Timestamp timestamp) {
+      return Point.create(Value.doubleValue(getLastValue()), timestamp);
+    }
+
+    double getLastValue() {
+      return Double.longBitsToDouble(lastValueBits.get());
+    }
+  }
+
+  /** Calculate last long value concurrently on aggregated {@code MeasureValue}s. */
+  static final class ConcurrentLastValueLong extends ConcurrentLastValueDouble {
+    private ConcurrentLastValueLong() {
+      super();
+    }
+
+    /**
+     * Construct a {@code ConcurrentLastValueLong}.
+     *
+     * @return an empty {@code ConcurrentLastValueLong}.
+     */
+    static ConcurrentLastValueLong create() {
+      return new ConcurrentLastValueLong();
+    }
+
+    @Override
+    AggregationData toAggregationData() {
+      return AggregationData.LastValueDataLong.create(Math.round(getLastValue()));
+    }
+
+    @Override
+    Point toPoint(Timestamp timestamp) {
+      return Point.create(Value.longValue(Math.round(getLastValue())), timestamp);
+    }
+  }
 }
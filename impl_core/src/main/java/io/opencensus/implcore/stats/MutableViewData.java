@@ -18,54 +18,91 @@ package io.opencensus.implcore.stats;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.opencensus.implcore.stats.RecordUtils.createAggregationMap;
-import static io.opencensus.implcore.stats.RecordUtils.createMutableAggregation;
-import static io.opencensus.implcore.stats.RecordUtils.getTagMap;
-import static io.opencensus.implcore.stats.RecordUtils.getTagValues;
+import static io.opencensus.implcore.stats.RecordUtils.createConcurrentMutableAggregation;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
+import io.opencensus.common.Clock;
 import io.opencensus.common.Duration;
 import io.opencensus.common.Function;
 import io.opencensus.common.Functions;
 import io.opencensus.common.Timestamp;
-import io.opencensus.implcore.internal.CheckerFrameworkUtils;
 import io.opencensus.implcore.internal.CurrentState.State;
+import io.opencensus.implcore.stats.MutableAggregation.ConcurrentMutableAggregation;
 import io.opencensus.metrics.LabelValue;
 import io.opencensus.metrics.Metric;
 import io.opencensus.metrics.MetricDescriptor;
 import io.opencensus.metrics.MetricDescriptor.Type;
 import io.opencensus.metrics.Point;
 import io.opencensus.metrics.TimeSeries;
-import io.opencensus.stats.Aggregation;
 import io.opencensus.stats.AggregationData;
-import io.opencensus.stats.Measure;
 import io.opencensus.stats.View;
 import io.opencensus.stats.ViewData;
-import io.opencensus.tags.TagContext;
 import io.opencensus.tags.TagValue;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /*>>>
 import org.checkerframework.checker.nullness.qual.Nullable;
 */
 
-/** A mutable version of {@link ViewData}, used for recording stats and start/end time. */
+/**
+ * A mutable version of {@link ViewData}, used for recording stats and start/end time.
+ *
+ * <p>Instances are not thread-safe, callers must hold the monitor of the instance.
+ */
 @SuppressWarnings("deprecation")
 abstract class MutableViewData {
 
   @VisibleForTesting static final Timestamp ZERO_TIMESTAMP = Timestamp.create(0, 0);
 
+  /**
+   * The value of every column of the overflow series, which holds the stats with new tag values
+   * once a view reached its {@link SeriesLimit}.
+   */
+  static final TagValue OVERFLOW_TAG_VALUE = TagValue.create("__overflow__");
+
   private final View view;
+  private final SeriesLimit seriesLimit;
+  private final TagValueTuple overflowTagValues;
+  // Shared by all the distributions of the view, null for other aggregations.
+  @javax.annotation.Nullable private final BucketIndex bucketIndex;
+  // Reused for looking up series without allocating a key, guarded by the monitor of this view.
+  private final TagValueTuple.Probe probe = new TagValueTuple.Probe();
+
+  // Reused by concurrent views for looking up series without allocating a key, one per recording
+  // thread.
+  private static final ThreadLocal<TagValueTuple.Probe> concurrentProbes =
+      new ThreadLocal<TagValueTuple.Probe>() {
+        @Override
+        protected TagValueTuple.Probe initialValue() {
+          return new TagValueTuple.Probe();
+        }
+      };
 
-  private MutableViewData(View view) {
+  private MutableViewData(View view, SeriesLimit seriesLimit) {
     this.view = view;
+    this.seriesLimit = seriesLimit;
+    this.overflowTagValues =
+        TagValueTuple.copyOf(Collections.nCopies(view.getColumns().size(), OVERFLOW_TAG_VALUE));
+    this.bucketIndex = RecordUtils.createBucketIndex(view.getAggregation());
+  }
+
+  /**
+   * Constructs a new {@link MutableViewData} without a limit on the number of series.
+   *
+   * @param view the {@code View} linked with this {@code MutableViewData}.
+   * @param start the start {@code Timestamp}.
+   * @return a {@code MutableViewData}.
+   */
+  static MutableViewData create(View view, Timestamp start) {
+    return create(view, start, SeriesLimit.unlimited(), null);
   }
 
   /**
@@ -73,30 +110,182 @@ abstract class MutableViewData {
    *
    * @param view the {@code View} linked with this {@code MutableViewData}.
    * @param start the start {@code Timestamp}.
+   * @param seriesLimit the maximum number of series of the view.
+   * @param seriesIdleTimeout how long a series of a cumulative view can go without being recorded
+   *     to before it is evicted, {@code null} to never evict series.
    * @return a {@code MutableViewData}.
    */
-  static MutableViewData create(final View view, final Timestamp start) {
+  static MutableViewData create(
+      final View view,
+      final Timestamp start,
+      final SeriesLimit seriesLimit,
+      @javax.annotation.Nullable final Duration seriesIdleTimeout) {
     return view.getWindow()
         .match(
-            new CreateCumulative(view, start),
-            new CreateInterval(view, start),
+            new CreateCumulative(view, start, seriesLimit, seriesIdleTimeout),
+            new CreateInterval(view, start, seriesLimit),
             Functions.<MutableViewData>throwAssertionError());
   }
 
+  /**
+   * Constructs a new {@link MutableViewData} that supports concurrent recording if possible. Views
+   * with a cumulative window and a {@link RecordUtils#isConcurrentAggregation concurrent
+   * aggregation} are {@link ConcurrentCumulativeMutableViewData}s, other views are the same as
+   * {@link #create}.
+   *
+   * @param view the {@code View} linked with this {@code MutableViewData}.
+   * @param start the start {@code Timestamp}.
+   * @param seriesLimit the maximum number of series of the view.
+   * @param seriesIdleTimeout how long a series of a cumulative view can go without being recorded
+   *     to before it is evicted, {@code null} to never evict series.
+   * @return a {@code MutableViewData}.
+   */
+  static MutableViewData createConcurrent(
+      View view,
+      Timestamp start,
+      SeriesLimit seriesLimit,
+      @javax.annotation.Nullable Duration seriesIdleTimeout) {
+    if (view.getWindow() instanceof View.AggregationWindow.Cumulative
+        && RecordUtils.isConcurrentAggregation(view.getAggregation())) {
+      return new ConcurrentCumulativeMutableViewData(view, start, seriesLimit, seriesIdleTimeout);
+    }
+    return create(view, start, seriesLimit, seriesIdleTimeout);
+  }
+
   /** The {@link View} associated with this {@link ViewData}. */
   View getView() {
     return view;
   }
 
+  /**
+   * Creates an empty {@link MutableAggregation} for a series of this view. Distributions share the
+   * {@link BucketIndex} of the view.
+   *
+   * @return an empty {@code MutableAggregation}.
+   */
+  final MutableAggregation createMutableAggregation() {
+    return RecordUtils.createMutableAggregation(
+        view.getAggregation(), view.getMeasure(), bucketIndex);
+  }
+
+  // Returns the BucketIndex shared by the distributions of this view, or null if the aggregation
+  // of the view is not a distribution.
   @javax.annotation.Nullable
-  abstract Metric toMetric(Timestamp now, State state);
+  final BucketIndex getBucketIndex() {
+    return bucketIndex;
+  }
+
+  /**
+   * Returns the tag values of the series that a recording with new tag values goes to, given the
+   * series that the view already has: the tag values themselves, or the tag values of the overflow
+   * series if the view reached its {@link SeriesLimit}.
+   *
+   * @param seriesMap the current series of the view.
+   * @param tagValues the tag values of the recording.
+   * @return the tag values of the series to record to.
+   */
+  final List</*@Nullable*/ TagValue> limitSeries(
+      Map<List</*@Nullable*/ TagValue>, MutableAggregation> seriesMap,
+      List</*@Nullable*/ TagValue> tagValues) {
+    if (!seriesLimit.isReached(seriesMap.size()) || seriesMap.containsKey(tagValues)) {
+      return tagValues;
+    }
+    seriesLimit.recordOverflow();
+    return overflowTagValues;
+  }
+
+  /**
+   * Returns the series of the given missing tag values in the given map, created by this thread or
+   * a concurrent one. The series limit is only checked against the size of the map when a series is
+   * missing, so that concurrent recordings of new series can exceed it by at most the number of
+   * threads.
+   *
+   * @param seriesMap the current series of the view.
+   * @param tagValues the tag values of the recording.
+   * @param timestamp the timestamp of the recording.
+   * @return the series to record to.
+   */
+  final ConcurrentMutableAggregation createConcurrentSeries(
+      ConcurrentMap<List</*@Nullable*/ TagValue>, MutableAggregation> seriesMap,
+      List</*@Nullable*/ TagValue> tagValues,
+      Timestamp timestamp) {
+    List</*@Nullable*/ TagValue> seriesTagValues = limitSeries(seriesMap, tagValues);
+    MutableAggregation mutableAggregation =
+        seriesTagValues == tagValues ? null : seriesMap.get(seriesTagValues);
+    if (mutableAggregation == null) {
+      MutableAggregation newAggregation =
+          createConcurrentMutableAggregation(view.getAggregation(), view.getMeasure());
+      startSeries(newAggregation, timestamp);
+      mutableAggregation =
+          seriesMap.putIfAbsent(TagValueTuple.copyOf(seriesTagValues), newAggregation);
+      if (mutableAggregation == null) {
+        mutableAggregation = newAggregation;
+      }
+    }
+    return (ConcurrentMutableAggregation) mutableAggregation;
+  }
 
-  /** Record stats with the given tags. */
+  // Called with every new series before it is added to the view, does nothing by default.
+  void startSeries(MutableAggregation mutableAggregation, Timestamp timestamp) {}
+
+  /**
+   * Converts the series of this view that changed since a previous collection to a {@link Metric}.
+   * Series of interval views are always considered changed, as their values depend on the time.
+   *
+   * @param now the time of the collection.
+   * @param state the current stats state.
+   * @param generation the generation of this collection, greater than that of all the previous
+   *     collections of this view.
+   * @param cursor the generation of a previous collection, or 0 for all the series.
+   * @return a {@code Metric}, or {@code null} if the stats state is {@code DISABLED}.
+   */
+  @javax.annotation.Nullable
+  abstract Metric toMetric(Timestamp now, State state, long generation, long cursor);
+
+  /**
+   * Record stats with the tag values at the given indices, which must be the values of the columns
+   * of the view. No key is allocated if the series already exists.
+   *
+   * @param tagValues the tag values, {@code null} elements are unknown tag values.
+   * @param columnIndices the index in {@code tagValues} of the value of each column of the view.
+   * @param value the value to record.
+   * @param timestamp the timestamp of the recording.
+   * @param attachments the contextual information for exemplars.
+   */
+  final void record(
+      /*@Nullable*/ TagValue[] tagValues,
+      int[] columnIndices,
+      double value,
+      Timestamp timestamp,
+      Map<String, String> attachments) {
+    record(probe.set(tagValues, columnIndices), value, timestamp, attachments);
+  }
+
+  /**
+   * Record stats with the given tag values. Implementations must not keep a reference to {@code
+   * tagValues}, use {@link TagValueTuple#copyOf(List)} for the key of a new series.
+   *
+   * @param tagValues the values of the columns of the view, in the order of the columns.
+   * @param value the value to record.
+   * @param timestamp the timestamp of the recording.
+   * @param attachments the contextual information for exemplars.
+   */
   abstract void record(
-      TagContext context, double value, Timestamp timestamp, Map<String, String> attachments);
+      List</*@Nullable*/ TagValue> tagValues,
+      double value,
+      Timestamp timestamp,
+      Map<String, String> attachments);
 
-  /** Convert this {@link MutableViewData} to {@link ViewData}. */
-  abstract ViewData toViewData(Timestamp now, State state);
+  /**
+   * Convert this {@link MutableViewData} to {@link ViewData}.
+   *
+   * @param now the time of the collection.
+   * @param state the current stats state.
+   * @param generation the generation of this collection, greater than that of all the previous
+   *     collections of this view.
+   * @return a {@code ViewData}.
+   */
+  abstract ViewData toViewData(Timestamp now, State state, long generation);
 
   // Clear recorded stats.
   abstract void clearStats();
@@ -105,65 +294,150 @@ abstract class MutableViewData {
   // bucket list (for InternalMutableViewData).
   abstract void resumeStatsCollection(Timestamp now);
 
-  private static final class CumulativeMutableViewData extends MutableViewData {
+  /** A view whose stats can also be recorded without holding the monitor of the instance. */
+  interface ConcurrentMutableViewData {
+
+    /**
+     * Record stats with the tag values at the given indices, which must be the values of the
+     * columns of the view. Can be called concurrently without holding the monitor of the instance.
+     *
+     * @param tagValues the tag values, {@code null} elements are unknown tag values.
+     * @param columnIndices the index in {@code tagValues} of the value of each column of the view.
+     * @param value the value to record.
+     * @param clock the clock for the start time of a new series.
+     */
+    void recordConcurrently(
+        /*@Nullable*/ TagValue[] tagValues, int[] columnIndices, double value, Clock clock);
+  }
+
+  private static class CumulativeMutableViewData extends MutableViewData {
 
     private Timestamp start;
-    private final Map<List</*@Nullable*/ TagValue>, MutableAggregation> tagValueAggregationMap =
-        Maps.newHashMap();
+    private final Map<List</*@Nullable*/ TagValue>, MutableAggregation> tagValueAggregationMap;
     // Cache a MetricDescriptor to avoid converting View to MetricDescriptor in the future.
     private final MetricDescriptor metricDescriptor;
+    // Series that are not recorded to for this long are evicted on export, if not null. Each series
+    // then has its own start time.
+    @javax.annotation.Nullable private final Duration seriesIdleTimeout;
 
-    private CumulativeMutableViewData(View view, Timestamp start) {
-      super(view);
+    private CumulativeMutableViewData(
+        View view,
+        Timestamp start,
+        SeriesLimit seriesLimit,
+        @javax.annotation.Nullable Duration seriesIdleTimeout) {
+      this(
+          view,
+          start,
+          seriesLimit,
+          seriesIdleTimeout,
+          Maps.<List</*@Nullable*/ TagValue>, MutableAggregation>newHashMap());
+    }
+
+    private CumulativeMutableViewData(
+        View view,
+        Timestamp start,
+        SeriesLimit seriesLimit,
+        @javax.annotation.Nullable Duration seriesIdleTimeout,
+        Map<List</*@Nullable*/ TagValue>, MutableAggregation> tagValueAggregationMap) {
+      super(view, seriesLimit);
       this.start = start;
-      MetricDescriptor metricDescriptor = MetricUtils.viewToMetricDescriptor(view);
-      if (metricDescriptor == null) {
-        throw new AssertionError(
-            "Cumulative view should be converted to a non-null MetricDescriptor.");
-      } else {
-        this.metricDescriptor = metricDescriptor;
-      }
+      this.seriesIdleTimeout = seriesIdleTimeout;
+      this.tagValueAggregationMap = tagValueAggregationMap;
+      this.metricDescriptor = MetricUtils.viewToMetricDescriptor(view);
     }
 
     @javax.annotation.Nullable
     @Override
-    Metric toMetric(Timestamp now, State state) {
+    Metric toMetric(Timestamp now, State state, long generation, long cursor) {
       if (state == State.DISABLED) {
         return null;
       }
       Type type = metricDescriptor.getType();
-      @javax.annotation.Nullable
-      Timestamp startTime = type == Type.GAUGE_INT64 || type == Type.GAUGE_DOUBLE ? null : start;
+      boolean isGauge = type == Type.GAUGE_INT64 || type == Type.GAUGE_DOUBLE;
       List<TimeSeries> timeSeriesList = new ArrayList<TimeSeries>();
-      for (Entry<List</*@Nullable*/ TagValue>, MutableAggregation> entry :
-          tagValueAggregationMap.entrySet()) {
+      // Idle series are evicted as they are visited, rather than in a separate pass.
+      Iterator<Entry<List</*@Nullable*/ TagValue>, MutableAggregation>> iterator =
+          tagValueAggregationMap.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Entry<List</*@Nullable*/ TagValue>, MutableAggregation> entry = iterator.next();
+        MutableAggregation mutableAggregation = entry.getValue();
+        mutableAggregation.collect(now, generation);
+        if (seriesIdleTimeout != null && mutableAggregation.isIdle(now, seriesIdleTimeout)) {
+          iterator.remove();
+          continue;
+        }
+        if (!mutableAggregation.isChangedSince(cursor)) {
+          continue;
+        }
         List<LabelValue> labelValues = MetricUtils.tagValuesToLabelValues(entry.getKey());
-        Point point = entry.getValue().toPoint(now);
+        Point point = mutableAggregation.toPoint(now);
         timeSeriesList.add(
-            TimeSeries.create(labelValues, Collections.singletonList(point), startTime));
+            TimeSeries.create(
+                labelValues,
+                Collections.singletonList(point),
+                isGauge ? null : getStart(mutableAggregation)));
       }
       return Metric.create(metricDescriptor, timeSeriesList);
     }
 
     @Override
     void record(
-        TagContext context, double value, Timestamp timestamp, Map<String, String> attachments) {
-      List</*@Nullable*/ TagValue> tagValues =
-          getTagValues(getTagMap(context), super.view.getColumns());
-      if (!tagValueAggregationMap.containsKey(tagValues)) {
-        tagValueAggregationMap.put(
-            tagValues,
-            createMutableAggregation(super.view.getAggregation(), super.getView().getMeasure()));
+        List</*@Nullable*/ TagValue> tagValues,
+        double value,
+        Timestamp timestamp,
+        Map<String, String> attachments) {
+      MutableAggregation mutableAggregation = tagValueAggregationMap.get(tagValues);
+      if (mutableAggregation == null) {
+        List</*@Nullable*/ TagValue> seriesTagValues =
+            limitSeries(tagValueAggregationMap, tagValues);
+        if (seriesTagValues != tagValues) {
+          mutableAggregation = tagValueAggregationMap.get(seriesTagValues);
+        }
+        if (mutableAggregation == null) {
+          mutableAggregation = createMutableAggregation();
+          startSeries(mutableAggregation, timestamp);
+          tagValueAggregationMap.put(TagValueTuple.copyOf(seriesTagValues), mutableAggregation);
+        }
+      }
+      mutableAggregation.add(value, attachments, timestamp);
+      mutableAggregation.markDirty();
+    }
+
+    // Series have their own start time when they can be evicted, as they may be evicted and
+    // recreated after the start of the view.
+    @Override
+    final void startSeries(MutableAggregation mutableAggregation, Timestamp timestamp) {
+      if (seriesIdleTimeout != null) {
+        mutableAggregation.startSeries(timestamp);
       }
-      tagValueAggregationMap.get(tagValues).add(value, attachments, timestamp);
+    }
+
+    private Timestamp getStart(MutableAggregation mutableAggregation) {
+      Timestamp seriesStart = mutableAggregation.getStart();
+      return seriesStart == null ? start : seriesStart;
     }
 
     @Override
-    ViewData toViewData(Timestamp now, State state) {
+    ViewData toViewData(Timestamp now, State state, long generation) {
       if (state == State.ENABLED) {
+        // ViewData has a single start time, so series that were evicted and recreated are reported
+        // with the start time of the view.
+        Map<List</*@Nullable*/ TagValue>, AggregationData> aggregationMap = Maps.newHashMap();
+        Iterator<Entry<List</*@Nullable*/ TagValue>, MutableAggregation>> iterator =
+            tagValueAggregationMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+          Entry<List</*@Nullable*/ TagValue>, MutableAggregation> entry = iterator.next();
+          MutableAggregation mutableAggregation = entry.getValue();
+          mutableAggregation.collect(now, generation);
+          if (seriesIdleTimeout != null && mutableAggregation.isIdle(now, seriesIdleTimeout)) {
+            iterator.remove();
+          } else {
+            aggregationMap.put(entry.getKey(), mutableAggregation.toAggregationData());
+          }
+        }
         return ViewData.create(
             super.view,
-            createAggregationMap(tagValueAggregationMap, super.view.getMeasure()),
+            aggregationMap,
             ViewData.AggregationWindowData.CumulativeData.create(start, now));
       } else {
         // If Stats state is DISABLED, return an empty ViewData.
@@ -185,6 +459,304 @@ abstract class MutableViewData {
     }
   }
 
+  /**
+   * A {@link CumulativeMutableViewData} whose stats can also be recorded with {@link
+   * #recordConcurrently} without holding the monitor of the instance. Each series is a {@link
+   * ConcurrentMutableAggregation}, so that recording threads only contend when they add the same
+   * series on the same cell.
+   */
+  static final class ConcurrentCumulativeMutableViewData extends CumulativeMutableViewData
+      implements ConcurrentMutableViewData {
+
+    private final ConcurrentMap<List</*@Nullable*/ TagValue>, MutableAggregation>
+        tagValueAggregationMap;
+
+    private ConcurrentCumulativeMutableViewData(
+        View view,
+        Timestamp start,
+        SeriesLimit seriesLimit,
+        @javax.annotation.Nullable Duration seriesIdleTimeout) {
+      this(
+          view,
+          start,
+          seriesLimit,
+          seriesIdleTimeout,
+          new ConcurrentHashMap<List</*@Nullable*/ TagValue>, MutableAggregation>());
+    }
+
+    private ConcurrentCumulativeMutableViewData(
+        View view,
+        Timestamp start,
+        SeriesLimit seriesLimit,
+        @javax.annotation.Nullable Duration seriesIdleTimeout,
+        ConcurrentMap<List</*@Nullable*/ TagValue>, MutableAggregation> tagValueAggregationMap) {
+      super(view, start, seriesLimit, seriesIdleTimeout, tagValueAggregationMap);
+      this.tagValueAggregationMap = tagValueAggregationMap;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>A value that is recorded while its series is evicted for being idle may be lost.
+     */
+    @Override
+    public void recordConcurrently(
+        /*@Nullable*/ TagValue[] tagValues, int[] columnIndices, double value, Clock clock) {
+      List</*@Nullable*/ TagValue> probe = concurrentProbes.get().set(tagValues, columnIndices);
+      ConcurrentMutableAggregation mutableAggregation =
+          (ConcurrentMutableAggregation) tagValueAggregationMap.get(probe);
+      if (mutableAggregation == null) {
+        mutableAggregation = createConcurrentSeries(tagValueAggregationMap, probe, clock.now());
+      }
+      mutableAggregation.add(value);
+      mutableAggregation.markDirty();
+    }
+
+    @Override
+    void record(
+        List</*@Nullable*/ TagValue> tagValues,
+        double value,
+        Timestamp timestamp,
+        Map<String, String> attachments) {
+      ConcurrentMutableAggregation mutableAggregation =
+          (ConcurrentMutableAggregation) tagValueAggregationMap.get(tagValues);
+      if (mutableAggregation == null) {
+        mutableAggregation = createConcurrentSeries(tagValueAggregationMap, tagValues, timestamp);
+      }
+      mutableAggregation.add(value);
+      mutableAggregation.markDirty();
+    }
+  }
+
+  /**
+   * A view that accumulates the stats of a cumulative {@link View} since the previous call to
+   * {@link #collectDelta}, which swaps out all the series of the view at once. Each series is
+   * exported with the time of the previous swap as its start time, so that backends that want
+   * deltas get them without keeping the previous cumulative values.
+   */
+  static class DeltaMutableViewData extends MutableViewData {
+
+    // Start of the current delta, which is the time of the previous swap.
+    private Timestamp start;
+    // Volatile so that concurrent recordings see the series of the current delta without holding
+    // the monitor.
+    private volatile Map<List</*@Nullable*/ TagValue>, MutableAggregation> tagValueAggregationMap;
+    // Cache a MetricDescriptor to avoid converting View to MetricDescriptor in the future.
+    private final MetricDescriptor metricDescriptor;
+
+    private DeltaMutableViewData(View view, Timestamp start, SeriesLimit seriesLimit) {
+      this(
+          view,
+          start,
+          seriesLimit,
+          Maps.<List</*@Nullable*/ TagValue>, MutableAggregation>newHashMap());
+    }
+
+    private DeltaMutableViewData(
+        View view,
+        Timestamp start,
+        SeriesLimit seriesLimit,
+        Map<List</*@Nullable*/ TagValue>, MutableAggregation> tagValueAggregationMap) {
+      super(view, seriesLimit);
+      this.start = start;
+      this.tagValueAggregationMap = tagValueAggregationMap;
+      this.metricDescriptor = MetricUtils.viewToMetricDescriptor(view);
+    }
+
+    /**
+     * Constructs a new {@link DeltaMutableViewData}.
+     *
+     * @param view the cumulative {@code View} linked with this {@code DeltaMutableViewData}.
+     * @param start the start {@code Timestamp} of the first delta.
+     * @param seriesLimit the maximum number of series of the view.
+     * @return a {@code DeltaMutableViewData}.
+     */
+    static DeltaMutableViewData create(View view, Timestamp start, SeriesLimit seriesLimit) {
+      checkArgument(
+          view.getWindow() instanceof View.AggregationWindow.Cumulative,
+          "Delta views need a cumulative view.");
+      return new DeltaMutableViewData(view, start, seriesLimit);
+    }
+
+    /**
+     * Constructs a new {@link DeltaMutableViewData} whose stats can also be recorded concurrently,
+     * for the delta of a {@link ConcurrentCumulativeMutableViewData}.
+     *
+     * @param view the cumulative {@code View} linked with this {@code DeltaMutableViewData}, with a
+     *     {@link RecordUtils#isConcurrentAggregation concurrent aggregation}.
+     * @param start the start {@code Timestamp} of the first delta.
+     * @param seriesLimit the maximum number of series of the view.
+     * @return a {@code DeltaMutableViewData} that is also a {@code ConcurrentMutableViewData}.
+     */
+    static DeltaMutableViewData createConcurrent(
+        View view, Timestamp start, SeriesLimit seriesLimit) {
+      checkArgument(
+          view.getWindow() instanceof View.AggregationWindow.Cumulative,
+          "Delta views need a cumulative view.");
+      checkArgument(
+          RecordUtils.isConcurrentAggregation(view.getAggregation()),
+          "Aggregation does not support concurrent recording.");
+      return new ConcurrentDeltaMutableViewData(view, start, seriesLimit);
+    }
+
+    // Returns an empty map for the series of the next delta.
+    Map<List</*@Nullable*/ TagValue>, MutableAggregation> newSeriesMap() {
+      return Maps.newHashMap();
+    }
+
+    /**
+     * Swaps out the series recorded since the previous call, and returns them as a {@link Metric}
+     * whose series start at the time of the previous call. Holds the monitor of the view only for
+     * the swap.
+     *
+     * @param now the end of the delta.
+     * @param state the current stats state.
+     * @return the delta {@code Metric}, or {@code null} if the stats state is {@code DISABLED}.
+     */
+    @javax.annotation.Nullable
+    Metric collectDelta(Timestamp now, State state) {
+      Map<List</*@Nullable*/ TagValue>, MutableAggregation> delta;
+      Timestamp deltaStart;
+      synchronized (this) {
+        delta = tagValueAggregationMap;
+        deltaStart = start;
+        tagValueAggregationMap = newSeriesMap();
+        start = now;
+      }
+      // Recordings only go to the new map, so the swapped out one can be read without the lock.
+      return state == State.DISABLED ? null : toMetric(delta, deltaStart, now);
+    }
+
+    @javax.annotation.Nullable
+    @Override
+    Metric toMetric(Timestamp now, State state, long generation, long cursor) {
+      // Returns the current delta without swapping it out.
+      return state == State.DISABLED ? null : toMetric(tagValueAggregationMap, start, now);
+    }
+
+    private Metric toMetric(
+        Map<List</*@Nullable*/ TagValue>, MutableAggregation> delta,
+        Timestamp deltaStart,
+        Timestamp now) {
+      Type type = metricDescriptor.getType();
+      boolean isGauge = type == Type.GAUGE_INT64 || type == Type.GAUGE_DOUBLE;
+      List<TimeSeries> timeSeriesList = new ArrayList<TimeSeries>(delta.size());
+      for (Entry<List</*@Nullable*/ TagValue>, MutableAggregation> entry : delta.entrySet()) {
+        List<LabelValue> labelValues = MetricUtils.tagValuesToLabelValues(entry.getKey());
+        Point point = entry.getValue().toPoint(now);
+        timeSeriesList.add(
+            TimeSeries.create(
+                labelValues, Collections.singletonList(point), isGauge ? null : deltaStart));
+      }
+      return Metric.create(metricDescriptor, timeSeriesList);
+    }
+
+    @Override
+    void record(
+        List</*@Nullable*/ TagValue> tagValues,
+        double value,
+        Timestamp timestamp,
+        Map<String, String> attachments) {
+      MutableAggregation mutableAggregation = tagValueAggregationMap.get(tagValues);
+      if (mutableAggregation == null) {
+        List</*@Nullable*/ TagValue> seriesTagValues =
+            limitSeries(tagValueAggregationMap, tagValues);
+        if (seriesTagValues != tagValues) {
+          mutableAggregation = tagValueAggregationMap.get(seriesTagValues);
+        }
+        if (mutableAggregation == null) {
+          mutableAggregation = createMutableAggregation();
+          tagValueAggregationMap.put(TagValueTuple.copyOf(seriesTagValues), mutableAggregation);
+        }
+      }
+      mutableAggregation.add(value, attachments, timestamp);
+    }
+
+    @Override
+    ViewData toViewData(Timestamp now, State state, long generation) {
+      if (state == State.ENABLED) {
+        return ViewData.create(
+            getView(),
+            createAggregationMap(tagValueAggregationMap, getView().getMeasure()),
+            ViewData.AggregationWindowData.CumulativeData.create(start, now));
+      } else {
+        return ViewData.create(
+            getView(),
+            Collections.<List</*@Nullable*/ TagValue>, AggregationData>emptyMap(),
+            ViewData.AggregationWindowData.CumulativeData.create(ZERO_TIMESTAMP, ZERO_TIMESTAMP));
+      }
+    }
+
+    @Override
+    void clearStats() {
+      tagValueAggregationMap.clear();
+    }
+
+    @Override
+    void resumeStatsCollection(Timestamp now) {
+      start = now;
+    }
+  }
+
+  /**
+   * A {@link DeltaMutableViewData} whose stats can also be recorded with {@link
+   * #recordConcurrently} without holding the monitor of the instance, so that the delta of a {@link
+   * ConcurrentCumulativeMutableViewData} doesn't send its recordings back through the event queue.
+   *
+   * <p>A value that is recorded concurrently while {@link #collectDelta} swaps out the series may
+   * be lost, if it is added to a series of the previous delta after that delta was converted.
+   */
+  static final class ConcurrentDeltaMutableViewData extends DeltaMutableViewData
+      implements ConcurrentMutableViewData {
+
+    private ConcurrentDeltaMutableViewData(View view, Timestamp start, SeriesLimit seriesLimit) {
+      super(
+          view,
+          start,
+          seriesLimit,
+          new ConcurrentHashMap<List</*@Nullable*/ TagValue>, MutableAggregation>());
+    }
+
+    @Override
+    public void recordConcurrently(
+        /*@Nullable*/ TagValue[] tagValues, int[] columnIndices, double value, Clock clock) {
+      List</*@Nullable*/ TagValue> probe = concurrentProbes.get().set(tagValues, columnIndices);
+      ConcurrentMap<List</*@Nullable*/ TagValue>, MutableAggregation> seriesMap = getSeriesMap();
+      ConcurrentMutableAggregation mutableAggregation =
+          (ConcurrentMutableAggregation) seriesMap.get(probe);
+      if (mutableAggregation == null) {
+        mutableAggregation = createConcurrentSeries(seriesMap, probe, clock.now());
+      }
+      mutableAggregation.add(value);
+    }
+
+    @Override
+    void record(
+        List</*@Nullable*/ TagValue> tagValues,
+        double value,
+        Timestamp timestamp,
+        Map<String, String> attachments) {
+      ConcurrentMap<List</*@Nullable*/ TagValue>, MutableAggregation> seriesMap = getSeriesMap();
+      ConcurrentMutableAggregation mutableAggregation =
+          (ConcurrentMutableAggregation) seriesMap.get(tagValues);
+      if (mutableAggregation == null) {
+        mutableAggregation = createConcurrentSeries(seriesMap, tagValues, timestamp);
+      }
+      mutableAggregation.add(value);
+    }
+
+    @Override
+    Map<List</*@Nullable*/ TagValue>, MutableAggregation> newSeriesMap() {
+      return new ConcurrentHashMap<List</*@Nullable*/ TagValue>, MutableAggregation>();
+    }
+
+    // Returns the series of the current delta, which may be swapped out at any time.
+    private ConcurrentMap<List</*@Nullable*/ TagValue>, MutableAggregation> getSeriesMap() {
+      return (ConcurrentMap<List</*@Nullable*/ TagValue>, MutableAggregation>)
+          super.tagValueAggregationMap;
+    }
+  }
+
   /*
    * For each IntervalView, we always keep a queue of N + 1 buckets (by default N is 4).
    * Each bucket has a duration which is interval duration / N.
@@ -220,51 +792,91 @@ abstract class MutableViewData {
    */
   private static final class IntervalMutableViewData extends MutableViewData {
 
-    // TODO(songya): allow customizable bucket size in the future.
-    private static final int N = 4; // IntervalView has N + 1 buckets
-
-    // TODO(sebright): Decide whether to use a different class instead of LinkedList.
-    @SuppressWarnings("JdkObsolete")
-    private final LinkedList<IntervalBucket> buckets = new LinkedList<IntervalBucket>();
+    // Ring of N + 1 reused buckets, the oldest bucket is at index head and the current one is right
+    // before it.
+    private final IntervalBucket[] buckets;
+    private int head = 0;
 
     private final Duration totalDuration; // Duration of the whole interval.
     private final Duration bucketDuration; // Duration of a single bucket (totalDuration / N)
 
-    private IntervalMutableViewData(View view, Timestamp start) {
-      super(view);
-      Duration totalDuration = ((View.AggregationWindow.Interval) view.getWindow()).getDuration();
-      this.totalDuration = totalDuration;
-      this.bucketDuration = Duration.fromMillis(totalDuration.toMillis() / N);
+    // Reused for combining the buckets on each query, keyed by the tag value lists present in any
+    // of the buckets.
+    private final Map<List</*@Nullable*/ TagValue>, MutableAggregation> combined =
+        Maps.newHashMap();
+    // Cache a MetricDescriptor to avoid converting View to MetricDescriptor in the future.
+    private final MetricDescriptor metricDescriptor;
+
+    private IntervalMutableViewData(View view, Timestamp start, SeriesLimit seriesLimit) {
+      super(view, seriesLimit);
+      View.AggregationWindow.Interval window = (View.AggregationWindow.Interval) view.getWindow();
+      int numBuckets = window.getNumBuckets();
+      this.totalDuration = window.getDuration();
+      this.bucketDuration = Duration.fromMillis(totalDuration.toMillis() / numBuckets);
+      this.metricDescriptor = MetricUtils.viewToMetricDescriptor(view);
 
       // When initializing. add N empty buckets prior to the start timestamp of this
       // IntervalMutableViewData, so that the last bucket will be the current one in effect.
-      shiftBucketList(N + 1, start);
+      buckets = new IntervalBucket[numBuckets + 1];
+      Timestamp startOfBucket = subtractDuration(start, totalDuration);
+      for (int i = 0; i < buckets.length; i++) {
+        buckets[i] =
+            new IntervalBucket(
+                startOfBucket,
+                bucketDuration,
+                view.getAggregation(),
+                view.getMeasure(),
+                getBucketIndex());
+        startOfBucket = startOfBucket.addDuration(bucketDuration);
+      }
     }
 
     @javax.annotation.Nullable
     @Override
-    Metric toMetric(Timestamp now, State state) {
-      return null;
+    Metric toMetric(Timestamp now, State state, long generation, long cursor) {
+      if (state == State.DISABLED) {
+        return null;
+      }
+      refreshBucketList(now);
+      combineBuckets(now);
+      // Values over the past interval are gauges, which don't have a start time.
+      List<TimeSeries> timeSeriesList = new ArrayList<TimeSeries>(combined.size());
+      for (Entry<List</*@Nullable*/ TagValue>, MutableAggregation> entry : combined.entrySet()) {
+        List<LabelValue> labelValues = MetricUtils.tagValuesToLabelValues(entry.getKey());
+        Point point = entry.getValue().toPoint(now);
+        timeSeriesList.add(TimeSeries.create(labelValues, Collections.singletonList(point), null));
+      }
+      return Metric.create(metricDescriptor, timeSeriesList);
     }
 
     @Override
     void record(
-        TagContext context, double value, Timestamp timestamp, Map<String, String> attachments) {
-      List</*@Nullable*/ TagValue> tagValues =
-          getTagValues(getTagMap(context), super.view.getColumns());
+        List</*@Nullable*/ TagValue> tagValues,
+        double value,
+        Timestamp timestamp,
+        Map<String, String> attachments) {
+      // The timestamp of a value can be before the newest bucket when the clock was read before a
+      // concurrent query or recording rolled the buckets forward, e.g. for a batch of events that
+      // share one timestamp. Such late values go to the newest bucket.
+      if (timestamp.compareTo(getTail().getStart()) < 0) {
+        timestamp = getTail().getStart();
+      }
       refreshBucketList(timestamp);
-      // It is always the last bucket that does the recording.
-      CheckerFrameworkUtils.castNonNull(buckets.peekLast())
-          .record(tagValues, value, attachments, timestamp);
+      // It is always the last bucket that does the recording. The series limit applies to each
+      // bucket.
+      IntervalBucket tail = getTail();
+      tail.record(
+          limitSeries(tail.getTagValueAggregationMap(), tagValues), value, attachments, timestamp);
     }
 
     @Override
-    ViewData toViewData(Timestamp now, State state) {
+    ViewData toViewData(Timestamp now, State state, long generation) {
       refreshBucketList(now);
       if (state == State.ENABLED) {
+        combineBuckets(now);
         return ViewData.create(
             super.view,
-            combineBucketsAndGetAggregationMap(now),
+            createAggregationMap(combined, super.view.getMeasure()),
             ViewData.AggregationWindowData.IntervalData.create(now));
       } else {
         // If Stats state is DISABLED, return an empty ViewData.
@@ -280,6 +892,7 @@ abstract class MutableViewData {
       for (IntervalBucket bucket : buckets) {
         bucket.clearStats();
       }
+      combined.clear();
     }
 
     @Override
@@ -289,144 +902,90 @@ abstract class MutableViewData {
       refreshBucketList(now);
     }
 
-    // Add new buckets and remove expired buckets by comparing the current timestamp with
-    // timestamp of the last bucket.
+    // Returns the current (newest) bucket.
+    private IntervalBucket getTail() {
+      return buckets[head == 0 ? buckets.length - 1 : head - 1];
+    }
+
+    // Reuse expired buckets as new ones by comparing the current timestamp with timestamp of the
+    // last bucket.
     private void refreshBucketList(Timestamp now) {
-      if (buckets.size() != N + 1) {
-        throw new AssertionError("Bucket list must have exactly " + (N + 1) + " buckets.");
-      }
-      Timestamp startOfLastBucket =
-          CheckerFrameworkUtils.castNonNull(buckets.peekLast()).getStart();
+      Timestamp startOfLastBucket = getTail().getStart();
       // TODO(songya): decide what to do when time goes backwards
       checkArgument(
           now.compareTo(startOfLastBucket) >= 0,
           "Current time must be within or after the last bucket.");
       long elapsedTimeMillis = now.subtractTimestamp(startOfLastBucket).toMillis();
       long numOfPadBuckets = elapsedTimeMillis / bucketDuration.toMillis();
-
-      shiftBucketList(numOfPadBuckets, now);
-    }
-
-    // Add specified number of new buckets, and remove expired buckets
-    private void shiftBucketList(long numOfPadBuckets, Timestamp now) {
-      Timestamp startOfNewBucket;
-
-      if (!buckets.isEmpty()) {
-        startOfNewBucket =
-            CheckerFrameworkUtils.castNonNull(buckets.peekLast())
-                .getStart()
-                .addDuration(bucketDuration);
-      } else {
-        // Initialize bucket list. Should only enter this block once.
-        startOfNewBucket = subtractDuration(now, totalDuration);
+      if (numOfPadBuckets == 0) {
+        return;
       }
 
-      if (numOfPadBuckets > N + 1) {
+      Timestamp startOfNewBucket = startOfLastBucket.addDuration(bucketDuration);
+      if (numOfPadBuckets > buckets.length) {
         // All current buckets expired, need to add N + 1 new buckets. The start time of the latest
         // bucket will be current time.
         startOfNewBucket = subtractDuration(now, totalDuration);
-        numOfPadBuckets = N + 1;
+        numOfPadBuckets = buckets.length;
       }
 
+      // The oldest bucket expires and becomes the newest one, each time the window slides.
       for (int i = 0; i < numOfPadBuckets; i++) {
-        buckets.add(
-            new IntervalBucket(
-                startOfNewBucket,
-                bucketDuration,
-                super.view.getAggregation(),
-                super.view.getMeasure()));
+        buckets[head].reset(startOfNewBucket);
+        head = head == buckets.length - 1 ? 0 : head + 1;
         startOfNewBucket = startOfNewBucket.addDuration(bucketDuration);
       }
+    }
 
-      // removed expired buckets
-      while (buckets.size() > N + 1) {
-        buckets.pollFirst();
+    // Combine stats within each bucket and aggregate stats by tag values into the combined map.
+    private void combineBuckets(Timestamp now) {
+      // Remove tag value lists that are gone from all buckets, and reset the others to empty.
+      Iterator<Entry<List</*@Nullable*/ TagValue>, MutableAggregation>> iterator =
+          combined.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Entry<List</*@Nullable*/ TagValue>, MutableAggregation> entry = iterator.next();
+        if (isInAnyBucket(entry.getKey())) {
+          entry.getValue().reset();
+        } else {
+          iterator.remove();
+        }
       }
-    }
 
-    // Combine stats within each bucket, aggregate stats by tag values, and return the mapping from
-    // tag values to aggregation data.
-    private Map<List</*@Nullable*/ TagValue>, AggregationData> combineBucketsAndGetAggregationMap(
-        Timestamp now) {
-      // Need to maintain the order of inserted MutableAggregations (inserted based on time order).
-      Multimap<List</*@Nullable*/ TagValue>, MutableAggregation> multimap =
-          LinkedHashMultimap.create();
-
-      // TODO(sebright): Decide whether to use a different class instead of LinkedList.
-      @SuppressWarnings("JdkObsolete")
-      LinkedList<IntervalBucket> shallowCopy = new LinkedList<IntervalBucket>(buckets);
-
-      Aggregation aggregation = super.view.getAggregation();
-      Measure measure = super.view.getMeasure();
-      putBucketsIntoMultiMap(shallowCopy, multimap, aggregation, measure, now);
-      Map<List</*@Nullable*/ TagValue>, MutableAggregation> singleMap =
-          aggregateOnEachTagValueList(multimap, aggregation, measure);
-      return createAggregationMap(singleMap, super.getView().getMeasure());
-    }
-
-    // Put stats within each bucket to a multimap. Each tag value list (map key) could have multiple
-    // mutable aggregations (map value) from different buckets.
-    private static void putBucketsIntoMultiMap(
-        LinkedList<IntervalBucket> buckets,
-        Multimap<List</*@Nullable*/ TagValue>, MutableAggregation> multimap,
-        Aggregation aggregation,
-        Measure measure,
-        Timestamp now) {
       // Put fractional stats of the head (oldest) bucket.
-      IntervalBucket head = CheckerFrameworkUtils.castNonNull(buckets.peekFirst());
-      IntervalBucket tail = CheckerFrameworkUtils.castNonNull(buckets.peekLast());
-      double fractionTail = tail.getFraction(now);
+      double fractionTail = getTail().getFraction(now);
       // TODO(songya): decide what to do when time goes backwards
       checkArgument(
           0.0 <= fractionTail && fractionTail <= 1.0,
           "Fraction " + fractionTail + " should be within [0.0, 1.0].");
-      double fractionHead = 1.0 - fractionTail;
-      putFractionalMutableAggregationsToMultiMap(
-          head.getTagValueAggregationMap(), multimap, aggregation, measure, fractionHead);
+      combineBucket(buckets[head], 1.0 - fractionTail);
 
-      // Put whole data of other buckets.
-      boolean shouldSkipFirst = true;
-      for (IntervalBucket bucket : buckets) {
-        if (shouldSkipFirst) {
-          shouldSkipFirst = false;
-          continue; // skip the first bucket
-        }
-        for (Entry<List</*@Nullable*/ TagValue>, MutableAggregation> entry :
-            bucket.getTagValueAggregationMap().entrySet()) {
-          multimap.put(entry.getKey(), entry.getValue());
-        }
+      // Put whole data of other buckets, in time order.
+      for (int i = 1; i < buckets.length; i++) {
+        combineBucket(buckets[(head + i) % buckets.length], 1.0);
       }
     }
 
-    // Put stats within one bucket into multimap, multiplied by a given fraction.
-    private static <T> void putFractionalMutableAggregationsToMultiMap(
-        Map<T, MutableAggregation> mutableAggrMap,
-        Multimap<T, MutableAggregation> multimap,
-        Aggregation aggregation,
-        Measure measure,
-        double fraction) {
-      for (Entry<T, MutableAggregation> entry : mutableAggrMap.entrySet()) {
-        // Initially empty MutableAggregations.
-        MutableAggregation fractionalMutableAgg = createMutableAggregation(aggregation, measure);
-        fractionalMutableAgg.combine(entry.getValue(), fraction);
-        multimap.put(entry.getKey(), fractionalMutableAgg);
+    private boolean isInAnyBucket(List</*@Nullable*/ TagValue> tagValues) {
+      for (IntervalBucket bucket : buckets) {
+        if (bucket.getTagValueAggregationMap().containsKey(tagValues)) {
+          return true;
+        }
       }
+      return false;
     }
 
-    // For each tag value list (key of AggregationMap), combine mutable aggregations into one
-    // mutable aggregation, thus convert the multimap into a single map.
-    private static <T> Map<T, MutableAggregation> aggregateOnEachTagValueList(
-        Multimap<T, MutableAggregation> multimap, Aggregation aggregation, Measure measure) {
-      Map<T, MutableAggregation> map = Maps.newHashMap();
-      for (T tagValues : multimap.keySet()) {
-        // Initially empty MutableAggregations.
-        MutableAggregation combinedAggregation = createMutableAggregation(aggregation, measure);
-        for (MutableAggregation mutableAggregation : multimap.get(tagValues)) {
-          combinedAggregation.combine(mutableAggregation, 1.0);
+    // Combine stats within one bucket into the combined stats, multiplied by a given fraction.
+    private void combineBucket(IntervalBucket bucket, double fraction) {
+      for (Entry<List</*@Nullable*/ TagValue>, MutableAggregation> entry :
+          bucket.getTagValueAggregationMap().entrySet()) {
+        MutableAggregation mutableAggregation = combined.get(entry.getKey());
+        if (mutableAggregation == null) {
+          // Initially empty MutableAggregation. The key is already an immutable copy.
+          mutableAggregation = createMutableAggregation();
+          combined.put(entry.getKey(), mutableAggregation);
         }
-        map.put(tagValues, combinedAggregation);
+        mutableAggregation.combine(entry.getValue(), fraction);
       }
-      return map;
     }
 
     // Subtract a Duration from a Timestamp, and return a new Timestamp.
@@ -439,15 +998,23 @@ abstract class MutableViewData {
       implements Function<View.AggregationWindow.Cumulative, MutableViewData> {
     @Override
     public MutableViewData apply(View.AggregationWindow.Cumulative arg) {
-      return new CumulativeMutableViewData(view, start);
+      return new CumulativeMutableViewData(view, start, seriesLimit, seriesIdleTimeout);
     }
 
     private final View view;
     private final Timestamp start;
+    private final SeriesLimit seriesLimit;
+    @javax.annotation.Nullable private final Duration seriesIdleTimeout;
 
-    private CreateCumulative(View view, Timestamp start) {
+    private CreateCumulative(
+        View view,
+        Timestamp start,
+        SeriesLimit seriesLimit,
+        @javax.annotation.Nullable Duration seriesIdleTimeout) {
       this.view = view;
       this.start = start;
+      this.seriesLimit = seriesLimit;
+      this.seriesIdleTimeout = seriesIdleTimeout;
     }
   }
 
@@ -455,15 +1022,17 @@ abstract class MutableViewData {
       implements Function<View.AggregationWindow.Interval, MutableViewData> {
     @Override
     public MutableViewData apply(View.AggregationWindow.Interval arg) {
-      return new IntervalMutableViewData(view, start);
+      return new IntervalMutableViewData(view, start, seriesLimit);
     }
 
     private final View view;
     private final Timestamp start;
+    private final SeriesLimit seriesLimit;
 
-    private CreateInterval(View view, Timestamp start) {
+    private CreateInterval(View view, Timestamp start, SeriesLimit seriesLimit) {
       this.view = view;
       this.start = start;
+      this.seriesLimit = seriesLimit;
     }
   }
 }
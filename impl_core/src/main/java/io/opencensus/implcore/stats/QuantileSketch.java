@@ -0,0 +1,287 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.Arrays;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A sketch of a population of values that estimates their quantiles within a relative accuracy, in
+ * bounded memory, and can be merged with other sketches of the same relative accuracy.
+ *
+ * <p>Values are counted in logarithmic bins, like in DDSketch: bin {@code i} holds the values in
+ * {@code (gamma^(i - 1), gamma^i]} where {@code gamma = (1 + a) / (1 - a)} for a relative accuracy
+ * {@code a}, and its values are estimated as {@code 2 * gamma^i / (gamma + 1)}, which is within
+ * {@code a} of any of them. Negative values are counted in bins of their absolute value, and values
+ * too close to zero to be indexed in a zero bin. Only the bins between the lowest and highest
+ * non-empty ones are allocated, and when there would be more than {@link #MAX_NUM_BINS} of them the
+ * lowest bins are collapsed, so that only the estimates of the values closest to zero lose
+ * accuracy.
+ *
+ * <p>Instances are not thread-safe.
+ */
+@NotThreadSafe
+final class QuantileSketch {
+
+  // Maximum number of bins for the positive values, and for the negative values. With a relative
+  // accuracy of 1% they cover values over 17 orders of magnitude.
+  @VisibleForTesting static final int MAX_NUM_BINS = 2048;
+
+  private final double relativeAccuracy;
+  private final double logGamma;
+  // Estimates of a bin are multiplied by this, so that they are in the middle of the bin.
+  private final double binValueMultiplier;
+  // Values with a lower absolute value are counted in the zero bin.
+  private final double minIndexableValue;
+  // Higher absolute values, including infinity, are counted in the bin of this one.
+  private final double maxIndexableValue;
+
+  private final Bins positiveBins = new Bins();
+  private final Bins negativeBins = new Bins();
+  private long zeroCount = 0;
+  private long count = 0;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  private QuantileSketch(double relativeAccuracy) {
+    this.relativeAccuracy = relativeAccuracy;
+    double gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+    this.logGamma = Math.log(gamma);
+    this.binValueMultiplier = 2 / (1 + gamma);
+    this.minIndexableValue = Double.MIN_NORMAL * gamma;
+    this.maxIndexableValue = Double.MAX_VALUE / gamma;
+  }
+
+  /**
+   * Constructs an empty {@code QuantileSketch}.
+   *
+   * @param relativeAccuracy the relative accuracy of the estimates, strictly between 0.0 and 1.0.
+   * @return an empty {@code QuantileSketch}.
+   */
+  static QuantileSketch create(double relativeAccuracy) {
+    checkArgument(
+        relativeAccuracy > 0.0 && relativeAccuracy < 1.0,
+        "relativeAccuracy should be between 0.0 and 1.0.");
+    return new QuantileSketch(relativeAccuracy);
+  }
+
+  /**
+   * Adds a value to this sketch. {@code NaN} values are ignored.
+   *
+   * @param value the value to add.
+   */
+  void add(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    if (value >= minIndexableValue) {
+      positiveBins.add(index(value), 1);
+    } else if (value <= -minIndexableValue) {
+      negativeBins.add(index(-value), 1);
+    } else {
+      zeroCount++;
+    }
+    count++;
+    if (value < min) {
+      min = value;
+    }
+    if (value > max) {
+      max = value;
+    }
+  }
+
+  /**
+   * Adds all the values of the given sketch to this sketch.
+   *
+   * @param other the other sketch, which must have the same relative accuracy.
+   */
+  void merge(QuantileSketch other) {
+    checkArgument(relativeAccuracy == other.relativeAccuracy, "Relative accuracies should match.");
+    positiveBins.merge(other.positiveBins);
+    negativeBins.merge(other.negativeBins);
+    zeroCount += other.zeroCount;
+    count += other.count;
+    if (other.min < min) {
+      min = other.min;
+    }
+    if (other.max > max) {
+      max = other.max;
+    }
+  }
+
+  /** Removes all the values of this sketch. */
+  void reset() {
+    positiveBins.reset();
+    negativeBins.reset();
+    zeroCount = 0;
+    count = 0;
+    min = Double.POSITIVE_INFINITY;
+    max = Double.NEGATIVE_INFINITY;
+  }
+
+  /**
+   * Returns the number of values of this sketch.
+   *
+   * @return the number of values of this sketch.
+   */
+  long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns an estimate of the value at the given quantile, i.e. of the value whose rank is {@code
+   * quantile * (count - 1)} in the sorted values. The minimum and maximum are exact.
+   *
+   * @param quantile the quantile, between 0.0 and 1.0.
+   * @return an estimate of the value at {@code quantile}, or {@code NaN} if the sketch is empty.
+   */
+  double getValueAtQuantile(double quantile) {
+    if (count == 0) {
+      return Double.NaN;
+    }
+    if (quantile <= 0.0) {
+      return min;
+    }
+    if (quantile >= 1.0) {
+      return max;
+    }
+    long rank = (long) (quantile * (count - 1));
+    double value;
+    if (rank < negativeBins.count) {
+      // The most negative values are in the highest bins.
+      value = -binValue(negativeBins.getIndexOfRank(negativeBins.count - 1 - rank));
+    } else if (rank < negativeBins.count + zeroCount) {
+      value = 0;
+    } else {
+      value = binValue(positiveBins.getIndexOfRank(rank - negativeBins.count - zeroCount));
+    }
+    // Estimates of the lowest and highest bins can be outside of the actual values.
+    return Math.max(min, Math.min(max, value));
+  }
+
+  private int index(double absoluteValue) {
+    return (int) Math.ceil(Math.log(Math.min(absoluteValue, maxIndexableValue)) / logGamma);
+  }
+
+  private double binValue(int index) {
+    return Math.exp(index * logGamma) * binValueMultiplier;
+  }
+
+  @VisibleForTesting
+  int getNumAllocatedBins() {
+    return positiveBins.counts.length + negativeBins.counts.length;
+  }
+
+  /**
+   * Counts of consecutive bins. Only the bins between the lowest and the highest non-empty ones are
+   * tracked, in an array that may have room for a few more, and the counts of all the other bins of
+   * the array are zero.
+   */
+  private static final class Bins {
+
+    private static final long[] EMPTY = new long[0];
+    private static final int MIN_LENGTH = 16;
+
+    // counts[i] is the count of bin offset + i.
+    private long[] counts = EMPTY;
+    private int offset = 0;
+    // Lowest and highest bins, only valid when count is positive.
+    private int minIndex = 0;
+    private int maxIndex = 0;
+    private long count = 0;
+
+    void add(int index, long binCount) {
+      if (count == 0) {
+        setRange(index, index);
+      } else if (index < minIndex || index > maxIndex) {
+        setRange(Math.min(index, minIndex), Math.max(index, maxIndex));
+      }
+      // The bin was collapsed if it is below the range.
+      counts[Math.max(index, minIndex) - offset] += binCount;
+      count += binCount;
+    }
+
+    void merge(Bins other) {
+      if (other.count == 0) {
+        return;
+      }
+      // Extend the range once, then add the bins.
+      add(other.maxIndex, 0);
+      for (int index = other.minIndex; index <= other.maxIndex; index++) {
+        long binCount = other.counts[index - other.offset];
+        if (binCount != 0) {
+          add(index, binCount);
+        }
+      }
+    }
+
+    void reset() {
+      Arrays.fill(counts, 0);
+      count = 0;
+    }
+
+    // Returns the bin of the value with the given 0-based rank.
+    int getIndexOfRank(long rank) {
+      long cumulativeCount = 0;
+      for (int index = minIndex; index < maxIndex; index++) {
+        cumulativeCount += counts[index - offset];
+        if (cumulativeCount > rank) {
+          return index;
+        }
+      }
+      return maxIndex;
+    }
+
+    // Makes [newMinIndex, newMaxIndex] the range of the tracked bins, which must contain the
+    // current range if there are values. When the range is too wide, its lowest bins are collapsed
+    // into the lowest remaining one.
+    private void setRange(int newMinIndex, int newMaxIndex) {
+      if (newMaxIndex - newMinIndex >= MAX_NUM_BINS) {
+        newMinIndex = newMaxIndex - MAX_NUM_BINS + 1;
+      }
+      long collapsedCount = 0;
+      if (count > 0) {
+        for (int index = minIndex; index < newMinIndex && index <= maxIndex; index++) {
+          collapsedCount += counts[index - offset];
+          counts[index - offset] = 0;
+        }
+      }
+      if (newMinIndex < offset || newMaxIndex >= offset + counts.length) {
+        int numBins = newMaxIndex - newMinIndex + 1;
+        // Leave room for more bins on both sides, so that the array is not copied on every new bin.
+        int length = Math.min(MAX_NUM_BINS, Math.max(MIN_LENGTH, numBins + numBins / 2));
+        long[] newCounts = new long[length];
+        int newOffset = newMinIndex - (length - numBins) / 2;
+        if (count > 0) {
+          int from = Math.max(minIndex, newMinIndex);
+          if (from <= maxIndex) {
+            System.arraycopy(
+                counts, from - offset, newCounts, from - newOffset, maxIndex - from + 1);
+          }
+        }
+        counts = newCounts;
+        offset = newOffset;
+      }
+      counts[newMinIndex - offset] += collapsedCount;
+      minIndex = newMinIndex;
+      maxIndex = newMaxIndex;
+    }
+  }
+}
@@ -20,11 +20,18 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
 import io.opencensus.common.Function;
 import io.opencensus.common.Functions;
+import io.opencensus.implcore.stats.MutableAggregation.ConcurrentCount;
+import io.opencensus.implcore.stats.MutableAggregation.ConcurrentLastValueDouble;
+import io.opencensus.implcore.stats.MutableAggregation.ConcurrentLastValueLong;
+import io.opencensus.implcore.stats.MutableAggregation.ConcurrentMutableAggregation;
+import io.opencensus.implcore.stats.MutableAggregation.ConcurrentSumDouble;
+import io.opencensus.implcore.stats.MutableAggregation.ConcurrentSumLong;
 import io.opencensus.implcore.stats.MutableAggregation.MutableCount;
 import io.opencensus.implcore.stats.MutableAggregation.MutableDistribution;
 import io.opencensus.implcore.stats.MutableAggregation.MutableLastValueDouble;
 import io.opencensus.implcore.stats.MutableAggregation.MutableLastValueLong;
 import io.opencensus.implcore.stats.MutableAggregation.MutableMean;
+import io.opencensus.implcore.stats.MutableAggregation.MutableQuantiles;
 import io.opencensus.implcore.stats.MutableAggregation.MutableSumDouble;
 import io.opencensus.implcore.stats.MutableAggregation.MutableSumLong;
 import io.opencensus.implcore.tags.TagContextImpl;
@@ -37,17 +44,12 @@ import io.opencensus.stats.AggregationData;
 import io.opencensus.stats.Measure;
 import io.opencensus.stats.Measure.MeasureDouble;
 import io.opencensus.stats.Measure.MeasureLong;
-import io.opencensus.stats.Measurement;
-import io.opencensus.stats.Measurement.MeasurementDouble;
-import io.opencensus.stats.Measurement.MeasurementLong;
 import io.opencensus.tags.InternalUtils;
 import io.opencensus.tags.Tag;
 import io.opencensus.tags.TagContext;
 import io.opencensus.tags.TagKey;
 import io.opencensus.tags.TagValue;
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -74,24 +76,6 @@ final class RecordUtils {
     }
   }
 
-  @VisibleForTesting
-  static List</*@Nullable*/ TagValue> getTagValues(
-      Map<? extends TagKey, ? extends TagValue> tags, List<? extends TagKey> columns) {
-    List</*@Nullable*/ TagValue> tagValues = new ArrayList</*@Nullable*/ TagValue>(columns.size());
-    // Record all the measures in a "Greedy" way.
-    // Every view aggregates every measure. This is similar to doing a GROUPBY view’s keys.
-    for (int i = 0; i < columns.size(); ++i) {
-      TagKey tagKey = columns.get(i);
-      if (!tags.containsKey(tagKey)) {
-        // replace not found key values by null.
-        tagValues.add(UNKNOWN_TAG_VALUE);
-      } else {
-        tagValues.add(tags.get(tagKey));
-      }
-    }
-    return tagValues;
-  }
-
   /**
    * Create an empty {@link MutableAggregation} based on the given {@link Aggregation}.
    *
@@ -125,6 +109,89 @@ final class RecordUtils {
         AggregationDefaultFunction.INSTANCE);
   }
 
+  /**
+   * Create an empty {@link MutableAggregation} based on the given {@link Aggregation}, like {@link
+   * #createMutableAggregation(Aggregation, Measure)}, but a {@link MutableDistribution} uses the
+   * given {@link BucketIndex} instead of building one.
+   *
+   * @param aggregation {@code Aggregation}.
+   * @param measure the {@code Measure} of the aggregated values.
+   * @param bucketIndex the {@code BucketIndex} returned by {@link #createBucketIndex} for the
+   *     {@code Aggregation}.
+   * @return an empty {@code MutableAggregation}.
+   */
+  static MutableAggregation createMutableAggregation(
+      Aggregation aggregation,
+      Measure measure,
+      @javax.annotation.Nullable BucketIndex bucketIndex) {
+    if (bucketIndex != null && aggregation instanceof Distribution) {
+      return MutableDistribution.create(
+          ((Distribution) aggregation).getBucketBoundaries(), bucketIndex);
+    }
+    return createMutableAggregation(aggregation, measure);
+  }
+
+  /**
+   * Returns the {@link BucketIndex} of the given {@link Aggregation}, to be shared by all the
+   * {@link MutableDistribution}s of a view.
+   *
+   * @param aggregation {@code Aggregation}.
+   * @return the {@code BucketIndex} of a {@code Distribution} aggregation, {@code null} for other
+   *     aggregations.
+   */
+  @javax.annotation.Nullable
+  static BucketIndex createBucketIndex(Aggregation aggregation) {
+    return aggregation instanceof Distribution
+        ? BucketIndex.create(((Distribution) aggregation).getBucketBoundaries())
+        : null;
+  }
+
+  /**
+   * Returns whether values of the given {@link Aggregation} can be added concurrently, see {@link
+   * ConcurrentMutableAggregation}.
+   *
+   * @param aggregation {@code Aggregation}.
+   * @return whether there is a {@code ConcurrentMutableAggregation} for the {@code Aggregation}.
+   */
+  static boolean isConcurrentAggregation(Aggregation aggregation) {
+    return aggregation instanceof Sum
+        || aggregation instanceof Count
+        || aggregation instanceof LastValue;
+  }
+
+  /**
+   * Create an empty {@link ConcurrentMutableAggregation} based on the given {@link Aggregation}.
+   *
+   * @param aggregation {@code Aggregation}, must be a concurrent aggregation.
+   * @return an empty {@code ConcurrentMutableAggregation}.
+   * @throws IllegalArgumentException if the {@code Aggregation} can't be added concurrently.
+   */
+  static ConcurrentMutableAggregation createConcurrentMutableAggregation(
+      Aggregation aggregation, final Measure measure) {
+    return aggregation.match(
+        new Function<Sum, ConcurrentMutableAggregation>() {
+          @Override
+          public ConcurrentMutableAggregation apply(Sum arg) {
+            return measure.match(
+                CreateConcurrentSumDouble.INSTANCE,
+                CreateConcurrentSumLong.INSTANCE,
+                Functions.<ConcurrentMutableAggregation>throwAssertionError());
+          }
+        },
+        CreateConcurrentCount.INSTANCE,
+        Functions.<ConcurrentMutableAggregation>throwIllegalArgumentException(),
+        new Function<LastValue, ConcurrentMutableAggregation>() {
+          @Override
+          public ConcurrentMutableAggregation apply(LastValue arg) {
+            return measure.match(
+                CreateConcurrentLastValueDouble.INSTANCE,
+                CreateConcurrentLastValueLong.INSTANCE,
+                Functions.<ConcurrentMutableAggregation>throwAssertionError());
+          }
+        },
+        Functions.<ConcurrentMutableAggregation>throwIllegalArgumentException());
+  }
+
   // Covert a mapping from TagValues to MutableAggregation, to a mapping from TagValues to
   // AggregationData.
   static <T> Map<T, AggregationData> createAggregationMap(
@@ -136,32 +203,8 @@ final class RecordUtils {
     return map;
   }
 
-  static double getDoubleValueFromMeasurement(Measurement measurement) {
-    return measurement.match(
-        GET_VALUE_FROM_MEASUREMENT_DOUBLE,
-        GET_VALUE_FROM_MEASUREMENT_LONG,
-        Functions.<Double>throwAssertionError());
-  }
-
   // static inner Function classes
 
-  private static final Function<MeasurementDouble, Double> GET_VALUE_FROM_MEASUREMENT_DOUBLE =
-      new Function<MeasurementDouble, Double>() {
-        @Override
-        public Double apply(MeasurementDouble arg) {
-          return arg.getValue();
-        }
-      };
-
-  private static final Function<MeasurementLong, Double> GET_VALUE_FROM_MEASUREMENT_LONG =
-      new Function<MeasurementLong, Double>() {
-        @Override
-        public Double apply(MeasurementLong arg) {
-          // TODO: consider checking truncation here.
-          return (double) arg.getValue();
-        }
-      };
-
   private static final class CreateMutableSumDouble
       implements Function<MeasureDouble, MutableAggregation> {
     @Override
@@ -201,6 +244,9 @@ final class RecordUtils {
       if (arg instanceof Aggregation.Mean) {
         return MutableMean.create();
       }
+      if (arg instanceof Aggregation.Quantiles) {
+        return MutableQuantiles.create((Aggregation.Quantiles) arg);
+      }
       throw new IllegalArgumentException("Unknown Aggregation.");
     }
 
@@ -237,5 +283,57 @@ final class RecordUtils {
     private static final CreateMutableLastValueLong INSTANCE = new CreateMutableLastValueLong();
   }
 
+  private static final class CreateConcurrentSumDouble
+      implements Function<MeasureDouble, ConcurrentMutableAggregation> {
+    @Override
+    public ConcurrentMutableAggregation apply(MeasureDouble arg) {
+      return ConcurrentSumDouble.create();
+    }
+
+    private static final CreateConcurrentSumDouble INSTANCE = new CreateConcurrentSumDouble();
+  }
+
+  private static final class CreateConcurrentSumLong
+      implements Function<MeasureLong, ConcurrentMutableAggregation> {
+    @Override
+    public ConcurrentMutableAggregation apply(MeasureLong arg) {
+      return ConcurrentSumLong.create();
+    }
+
+    private static final CreateConcurrentSumLong INSTANCE = new CreateConcurrentSumLong();
+  }
+
+  private static final class CreateConcurrentCount
+      implements Function<Count, ConcurrentMutableAggregation> {
+    @Override
+    public ConcurrentMutableAggregation apply(Count arg) {
+      return ConcurrentCount.create();
+    }
+
+    private static final CreateConcurrentCount INSTANCE = new CreateConcurrentCount();
+  }
+
+  private static final class CreateConcurrentLastValueDouble
+      implements Function<MeasureDouble, ConcurrentMutableAggregation> {
+    @Override
+    public ConcurrentMutableAggregation apply(MeasureDouble arg) {
+      return ConcurrentLastValueDouble.create();
+    }
+
+    private static final CreateConcurrentLastValueDouble INSTANCE =
+        new CreateConcurrentLastValueDouble();
+  }
+
+  private static final class CreateConcurrentLastValueLong
+      implements Function<MeasureLong, ConcurrentMutableAggregation> {
+    @Override
+    public ConcurrentMutableAggregation apply(MeasureLong arg) {
+      return ConcurrentLastValueLong.create();
+    }
+
+    private static final CreateConcurrentLastValueLong INSTANCE =
+        new CreateConcurrentLastValueLong();
+  }
+
   private RecordUtils() {}
 }
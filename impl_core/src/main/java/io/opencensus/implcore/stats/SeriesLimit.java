@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The maximum number of series of each view, shared by all the views of a {@link StatsManager}, and
+ * the number of recordings that were folded into an overflow series because of it.
+ */
+@ThreadSafe
+final class SeriesLimit {
+
+  private final int maxSeriesPerView;
+  private final AtomicLong numOverflowRecordings = new AtomicLong();
+
+  private SeriesLimit(int maxSeriesPerView) {
+    this.maxSeriesPerView = maxSeriesPerView;
+  }
+
+  /**
+   * Returns a new {@code SeriesLimit}.
+   *
+   * @param maxSeriesPerView the maximum number of series of each view, must be positive.
+   * @return a new {@code SeriesLimit}.
+   */
+  static SeriesLimit create(int maxSeriesPerView) {
+    checkArgument(maxSeriesPerView > 0, "maxSeriesPerView should be positive.");
+    return new SeriesLimit(maxSeriesPerView);
+  }
+
+  /**
+   * Returns a new {@code SeriesLimit} that never folds series.
+   *
+   * @return a new {@code SeriesLimit} that never folds series.
+   */
+  static SeriesLimit unlimited() {
+    return new SeriesLimit(Integer.MAX_VALUE);
+  }
+
+  int getMaxSeriesPerView() {
+    return maxSeriesPerView;
+  }
+
+  /**
+   * Returns whether a view with the given number of series can't have a new one.
+   *
+   * @param numSeries the current number of series of the view.
+   * @return whether the view already has the maximum number of series.
+   */
+  boolean isReached(int numSeries) {
+    return numSeries >= maxSeriesPerView;
+  }
+
+  /** Counts one recording that was folded into an overflow series. */
+  void recordOverflow() {
+    numOverflowRecordings.incrementAndGet();
+  }
+
+  /**
+   * Returns the number of recordings that were folded into an overflow series, because they had new
+   * tag values for a view that already had the maximum number of series.
+   *
+   * @return the number of recordings that were folded into an overflow series.
+   */
+  long getNumOverflowRecordings() {
+    return numOverflowRecordings.get();
+  }
+}
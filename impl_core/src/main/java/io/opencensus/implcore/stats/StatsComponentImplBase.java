@@ -16,26 +16,45 @@
 
 package io.opencensus.implcore.stats;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.opencensus.common.Clock;
+import io.opencensus.common.ToLongFunction;
 import io.opencensus.implcore.internal.CurrentState;
 import io.opencensus.implcore.internal.CurrentState.State;
 import io.opencensus.implcore.internal.EventQueue;
+import io.opencensus.metrics.LabelKey;
+import io.opencensus.metrics.LabelValue;
 import io.opencensus.metrics.MetricProducer;
 import io.opencensus.metrics.Metrics;
 import io.opencensus.stats.StatsCollectionState;
 import io.opencensus.stats.StatsComponent;
+import java.util.LinkedHashMap;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 
 /** Base implementation of {@link StatsComponent}. */
 public class StatsComponentImplBase extends StatsComponent {
   private static final State DEFAULT_STATE = State.ENABLED;
 
+  @VisibleForTesting
+  static final String OVERFLOW_RECORDINGS_METRIC_NAME = "opencensus.io/stats/overflow_recordings";
+
+  private static final String OVERFLOW_RECORDINGS_METRIC_DESCRIPTION =
+      "Number of recordings folded into the overflow series of a view, because they had new tag "
+          + "values and the view already had the maximum number of series";
+
   // The State shared between the StatsComponent, StatsRecorder and ViewManager.
   private final CurrentState currentState = new CurrentState(DEFAULT_STATE);
 
+  private final StatsManager statsManager;
   private final ViewManagerImpl viewManager;
   private final StatsRecorderImpl statsRecorder;
 
+  @GuardedBy("this")
+  @Nullable
+  private MetricProducer deltaMetricProducer;
+
   /**
    * Creates a new {@code StatsComponentImplBase}.
    *
@@ -43,7 +62,18 @@ public class StatsComponentImplBase extends StatsComponent {
    * @param clock the clock to use when recording stats.
    */
   public StatsComponentImplBase(EventQueue queue, Clock clock) {
-    StatsManager statsManager = new StatsManager(queue, clock, currentState);
+    this(queue, clock, StatsOptions.getDefault());
+  }
+
+  /**
+   * Creates a new {@code StatsComponentImplBase}.
+   *
+   * @param queue the queue implementation.
+   * @param clock the clock to use when recording stats.
+   * @param options the options of the stats implementation.
+   */
+  public StatsComponentImplBase(EventQueue queue, Clock clock, StatsOptions options) {
+    this.statsManager = new StatsManager(queue, clock, currentState, options);
     this.viewManager = new ViewManagerImpl(statsManager);
     this.statsRecorder = new StatsRecorderImpl(statsManager);
 
@@ -51,6 +81,23 @@ public class StatsComponentImplBase extends StatsComponent {
     // StatsComponentImplBase is initialized.
     MetricProducer metricProducer = new MetricProducerImpl(statsManager);
     Metrics.getExportComponent().getMetricProducerManager().add(metricProducer);
+
+    // Only report the overflow recordings when the number of series is limited.
+    if (options.getMaxSeriesPerView() != Integer.MAX_VALUE) {
+      Metrics.getMetricRegistry()
+          .addLongGauge(
+              OVERFLOW_RECORDINGS_METRIC_NAME,
+              OVERFLOW_RECORDINGS_METRIC_DESCRIPTION,
+              "1",
+              new LinkedHashMap<LabelKey, LabelValue>(),
+              statsManager,
+              new ToLongFunction<StatsManager>() {
+                @Override
+                public long applyAsLong(StatsManager manager) {
+                  return manager.getNumOverflowRecordings();
+                }
+              });
+    }
   }
 
   @Override
@@ -63,6 +110,33 @@ public class StatsComponentImplBase extends StatsComponent {
     return statsRecorder;
   }
 
+  /**
+   * Returns a {@link MetricProducer} of the deltas of all the cumulative views since its previous
+   * call to {@link MetricProducer#getMetrics()}. Each {@code TimeSeries} starts at the time of the
+   * previous call, or at the first call to this method for the first one, and its point is at the
+   * time of the current call. Views without any recordings during that interval have no series.
+   *
+   * <p>The deltas are swapped out of the views on every call, so there should be a single consumer
+   * of the producer. It is not added to the {@code MetricProducerManager}, which already has the
+   * cumulative metrics of the same views.
+   *
+   * <p>The views accumulate the deltas in addition to the cumulative stats from the first call to
+   * this method, which returns the same producer on every call. Each recording then updates both
+   * the cumulative and the delta series of a view. With concurrent recording, the deltas of the
+   * views that are recorded on the calling thread are recorded on the calling thread as well, and a
+   * value recorded while its delta is swapped out may be lost.
+   *
+   * @return the {@code MetricProducer} of the deltas of the cumulative views.
+   */
+  public synchronized MetricProducer getDeltaMetricProducer() {
+    MetricProducer producer = deltaMetricProducer;
+    if (producer == null) {
+      statsManager.enableDeltaMetrics();
+      deltaMetricProducer = producer = new DeltaMetricProducerImpl(statsManager);
+    }
+    return producer;
+  }
+
   @Override
   public StatsCollectionState getState() {
     return stateToStatsState(currentState.get());
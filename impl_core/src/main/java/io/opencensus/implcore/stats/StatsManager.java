@@ -19,10 +19,12 @@ package io.opencensus.implcore.stats;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import io.opencensus.common.Clock;
+import io.opencensus.common.Timestamp;
 import io.opencensus.implcore.internal.CurrentState;
 import io.opencensus.implcore.internal.CurrentState.State;
 import io.opencensus.implcore.internal.EventQueue;
 import io.opencensus.metrics.Metric;
+import io.opencensus.stats.Measure;
 import io.opencensus.stats.View;
 import io.opencensus.stats.ViewData;
 import io.opencensus.tags.TagContext;
@@ -39,15 +41,25 @@ final class StatsManager {
   private final Clock clock;
 
   private final CurrentState state;
-  private final MeasureToViewMap measureToViewMap = new MeasureToViewMap();
+  private final MeasureToViewMap measureToViewMap;
+  private final boolean concurrentRecording;
+  private final RecordingBatch batch;
 
   StatsManager(EventQueue queue, Clock clock, CurrentState state) {
+    this(queue, clock, state, StatsOptions.getDefault());
+  }
+
+  StatsManager(EventQueue queue, Clock clock, CurrentState state, StatsOptions options) {
     checkNotNull(queue, "EventQueue");
     checkNotNull(clock, "Clock");
     checkNotNull(state, "state");
+    checkNotNull(options, "options");
     this.queue = queue;
     this.clock = clock;
     this.state = state;
+    this.concurrentRecording = options.isConcurrentRecording();
+    this.measureToViewMap = new MeasureToViewMap(options);
+    this.batch = new RecordingBatch(clock);
   }
 
   void registerView(View view) {
@@ -67,7 +79,22 @@ final class StatsManager {
     // TODO(songya): consider exposing No-op MeasureMap and use it when stats state is DISABLED, so
     // that we don't need to create actual MeasureMapImpl.
     if (state.getInternal() == State.ENABLED) {
-      queue.enqueue(new StatsEvent(this, tags, measurementValues));
+      // With concurrent recording, only the stats of views that need ordering go through the
+      // queue.
+      if (!concurrentRecording
+          || measureToViewMap.recordConcurrently(tags, measurementValues, clock)) {
+        queue.enqueue(new StatsEvent(this, tags, measurementValues));
+      }
+    }
+  }
+
+  // Records a single value, without creating a MeasureMapInternal.
+  void record(TagContext tags, Measure measure, double value) {
+    if (state.getInternal() == State.ENABLED) {
+      if (!concurrentRecording
+          || measureToViewMap.recordConcurrently(tags, measure, value, clock)) {
+        queue.enqueue(new MeasurementEvent(this, tags, measure, value));
+      }
     }
   }
 
@@ -75,6 +102,22 @@ final class StatsManager {
     return measureToViewMap.getMetrics(clock, state.getInternal());
   }
 
+  void enableDeltaMetrics() {
+    measureToViewMap.enableDeltaViews(clock);
+  }
+
+  Collection<Metric> getDeltaMetrics() {
+    return measureToViewMap.getDeltaMetrics(clock, state.getInternal());
+  }
+
+  ChangedMetrics getChangedMetrics(long cursor) {
+    return measureToViewMap.getChangedMetrics(clock, state.getInternal(), cursor);
+  }
+
+  long getNumOverflowRecordings() {
+    return measureToViewMap.getNumOverflowRecordings();
+  }
+
   void clearStats() {
     measureToViewMap.clearStats();
   }
@@ -83,8 +126,35 @@ final class StatsManager {
     measureToViewMap.resumeStatsCollection(clock.now());
   }
 
+  // The batch of the events of this StatsManager, which share one timestamp when the EventQueue
+  // processes them in batches. The timestamp is per thread because the queue can process batches
+  // on several threads.
+  private static final class RecordingBatch implements EventQueue.Batch {
+    private final Clock clock;
+    private final ThreadLocal<Timestamp> timestamp = new ThreadLocal<Timestamp>();
+
+    RecordingBatch(Clock clock) {
+      this.clock = clock;
+    }
+
+    @Override
+    public void begin() {
+      timestamp.set(clock.now());
+    }
+
+    @Override
+    public void end() {
+      timestamp.set(null);
+    }
+
+    Timestamp getTimestamp() {
+      Timestamp timestamp = this.timestamp.get();
+      return timestamp == null ? clock.now() : timestamp;
+    }
+  }
+
   // An EventQueue entry that records the stats from one call to StatsManager.record(...).
-  private static final class StatsEvent implements EventQueue.Entry {
+  private static final class StatsEvent implements EventQueue.BatchEntry {
     private final TagContext tags;
     private final MeasureMapInternal stats;
     private final StatsManager statsManager;
@@ -100,5 +170,45 @@ final class StatsManager {
       // Add Timestamp to value after it went through the DisruptorQueue.
       statsManager.measureToViewMap.record(tags, stats, statsManager.clock.now());
     }
+
+    @Override
+    public EventQueue.Batch getBatch() {
+      return statsManager.batch;
+    }
+
+    @Override
+    public void processInBatch() {
+      statsManager.measureToViewMap.record(tags, stats, statsManager.batch.getTimestamp());
+    }
+  }
+
+  // An EventQueue entry that records the single value from one call to StatsManager.record(...).
+  private static final class MeasurementEvent implements EventQueue.BatchEntry {
+    private final TagContext tags;
+    private final Measure measure;
+    private final double value;
+    private final StatsManager statsManager;
+
+    MeasurementEvent(StatsManager statsManager, TagContext tags, Measure measure, double value) {
+      this.statsManager = statsManager;
+      this.tags = tags;
+      this.measure = measure;
+      this.value = value;
+    }
+
+    @Override
+    public void process() {
+      statsManager.measureToViewMap.record(tags, measure, value, statsManager.clock.now());
+    }
+
+    @Override
+    public EventQueue.Batch getBatch() {
+      return statsManager.batch;
+    }
+
+    @Override
+    public void processInBatch() {
+      statsManager.measureToViewMap.record(tags, measure, value, statsManager.batch.getTimestamp());
+    }
   }
 }
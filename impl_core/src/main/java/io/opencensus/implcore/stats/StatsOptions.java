@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import io.opencensus.common.Duration;
+import javax.annotation.concurrent.Immutable;
+
+/** Options of the stats implementation, used when constructing a {@link StatsComponentImplBase}. */
+@Immutable
+public final class StatsOptions {
+
+  private static final Duration ZERO = Duration.create(0, 0);
+  private static final StatsOptions DEFAULT = builder().build();
+
+  private final boolean concurrentRecording;
+  private final int maxSeriesPerView;
+  private final Duration seriesIdleTimeout;
+
+  private StatsOptions(Builder builder) {
+    this.concurrentRecording = builder.concurrentRecording;
+    this.maxSeriesPerView = builder.maxSeriesPerView;
+    this.seriesIdleTimeout = builder.seriesIdleTimeout;
+  }
+
+  /**
+   * Returns the default {@code StatsOptions}.
+   *
+   * @return the default {@code StatsOptions}.
+   */
+  public static StatsOptions getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Returns a new {@link Builder} with the default options.
+   *
+   * @return a new {@code Builder}.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns whether stats of cumulative views with a Sum, Count or LastValue aggregation are
+   * recorded on the calling thread without going through the event queue. Defaults to {@code
+   * false}.
+   *
+   * @return whether concurrent recording is enabled.
+   */
+  public boolean isConcurrentRecording() {
+    return concurrentRecording;
+  }
+
+  /**
+   * Returns the maximum number of series, i.e. distinct tag value lists, of each view. Once a view
+   * reaches it, values with new tag values are recorded to a single overflow series whose tag
+   * values are all {@link MutableViewData#OVERFLOW_TAG_VALUE}. Defaults to {@link
+   * Integer#MAX_VALUE}, which means no limit.
+   *
+   * @return the maximum number of series of each view.
+   */
+  public int getMaxSeriesPerView() {
+    return maxSeriesPerView;
+  }
+
+  /**
+   * Returns how long a series of a cumulative view can go without being recorded to before it is
+   * evicted. Idle series are evicted when their view is exported, and a series that is recorded to
+   * again after being evicted starts from zero, with a new start time. Defaults to zero, which
+   * means series are never evicted.
+   *
+   * @return the idle timeout of the series of cumulative views.
+   */
+  public Duration getSeriesIdleTimeout() {
+    return seriesIdleTimeout;
+  }
+
+  /** A builder of {@link StatsOptions}. */
+  public static final class Builder {
+    private boolean concurrentRecording = false;
+    private int maxSeriesPerView = Integer.MAX_VALUE;
+    private Duration seriesIdleTimeout = ZERO;
+
+    private Builder() {}
+
+    /**
+     * Sets whether stats of cumulative views with a Sum, Count or LastValue aggregation are
+     * recorded on the calling thread without going through the event queue.
+     *
+     * @param concurrentRecording whether concurrent recording is enabled.
+     * @return this.
+     */
+    public Builder setConcurrentRecording(boolean concurrentRecording) {
+      this.concurrentRecording = concurrentRecording;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of series of each view.
+     *
+     * @param maxSeriesPerView the maximum number of series of each view, must be positive.
+     * @return this.
+     * @throws IllegalArgumentException if {@code maxSeriesPerView} is not positive.
+     */
+    public Builder setMaxSeriesPerView(int maxSeriesPerView) {
+      checkArgument(maxSeriesPerView > 0, "maxSeriesPerView should be positive.");
+      this.maxSeriesPerView = maxSeriesPerView;
+      return this;
+    }
+
+    /**
+     * Sets how long a series of a cumulative view can go without being recorded to before it is
+     * evicted.
+     *
+     * @param seriesIdleTimeout the idle timeout, zero to never evict series.
+     * @return this.
+     * @throws IllegalArgumentException if {@code seriesIdleTimeout} is negative.
+     */
+    public Builder setSeriesIdleTimeout(Duration seriesIdleTimeout) {
+      checkNotNull(seriesIdleTimeout, "seriesIdleTimeout");
+      checkArgument(
+          seriesIdleTimeout.compareTo(ZERO) >= 0, "seriesIdleTimeout should not be negative.");
+      this.seriesIdleTimeout = seriesIdleTimeout;
+      return this;
+    }
+
+    /**
+     * Builds a {@link StatsOptions}.
+     *
+     * @return a new {@code StatsOptions}.
+     */
+    public StatsOptions build() {
+      return new StatsOptions(this);
+    }
+  }
+}
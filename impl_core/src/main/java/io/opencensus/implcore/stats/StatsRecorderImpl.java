@@ -18,7 +18,10 @@ package io.opencensus.implcore.stats;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import io.opencensus.stats.Measure.MeasureDouble;
+import io.opencensus.stats.Measure.MeasureLong;
 import io.opencensus.stats.StatsRecorder;
+import io.opencensus.tags.TagContext;
 
 /** Implementation of {@link StatsRecorder}. */
 public final class StatsRecorderImpl extends StatsRecorder {
@@ -33,4 +36,19 @@ public final class StatsRecorderImpl extends StatsRecorder {
   public MeasureMapImpl newMeasureMap() {
     return MeasureMapImpl.create(statsManager);
   }
+
+  @Override
+  public void record(MeasureDouble measure, double value, TagContext tags) {
+    checkNotNull(measure, "measure");
+    checkNotNull(tags, "tags");
+    statsManager.record(tags, measure, value);
+  }
+
+  @Override
+  public void record(MeasureLong measure, long value, TagContext tags) {
+    checkNotNull(measure, "measure");
+    checkNotNull(tags, "tags");
+    // Values are aggregated as doubles, values above 2^53 in magnitude are rounded.
+    statsManager.record(tags, measure, (double) value);
+  }
 }
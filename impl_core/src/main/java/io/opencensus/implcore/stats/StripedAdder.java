@@ -0,0 +1,186 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A sum that many threads can add to with little contention, similar to {@code LongAdder} and
+ * {@code DoubleAdder} which are not available in Java 6.
+ *
+ * <p>Updates go to a single base value until two threads race on it, then the adder is striped:
+ * each thread updates one of several cells picked by its id, so that threads on different cores
+ * rarely write to the same cache line. The sum is not an atomic snapshot when there are concurrent
+ * updates.
+ *
+ * <p>An adder that was never contended only holds its base value. The first race adds two cells,
+ * and every later race on a cell doubles the number of cells, up to the smallest power of two that
+ * is at least the number of processors (at most 64). Each cell takes about 80 bytes, so an adder
+ * that stays contended on a machine with 64 or more processors takes about 5KB. {@link #reset}
+ * drops the cells.
+ */
+@ThreadSafe
+abstract class StripedAdder {
+
+  // Number of longs of each cell, only the first one is used, so that the values of two cells are
+  // not on the same 64 bytes cache line.
+  private static final int CELL_SIZE = 8;
+  private static final int MAX_CELLS = maxCells(Runtime.getRuntime().availableProcessors());
+  private static final int INITIAL_CELLS = Math.min(2, MAX_CELLS);
+  private static final long[] EMPTY_CELLS = new long[0];
+
+  private final AtomicLong base = new AtomicLong();
+  // Only grows until the next reset, so that updates of a cell are never lost when cells are added.
+  @javax.annotation.Nullable private volatile AtomicLongArray[] cells;
+
+  private StripedAdder() {}
+
+  // Returns the bits of current + x.
+  abstract long accumulate(long current, long x);
+
+  final void update(long x) {
+    AtomicLongArray[] cells = this.cells;
+    if (cells == null) {
+      long current = base.get();
+      if (base.compareAndSet(current, accumulate(current, x))) {
+        return;
+      }
+      cells = grow(null);
+    }
+    long threadId = Thread.currentThread().getId();
+    AtomicLongArray cell = cells[cellIndex(threadId, cells.length)];
+    long current = cell.get(0);
+    if (cell.compareAndSet(0, current, accumulate(current, x))) {
+      return;
+    }
+    if (cells.length < MAX_CELLS) {
+      // Another thread updates the same cell, spread the threads over more cells.
+      cells = grow(cells);
+      cell = cells[cellIndex(threadId, cells.length)];
+    }
+    do {
+      current = cell.get(0);
+    } while (!cell.compareAndSet(0, current, accumulate(current, x)));
+  }
+
+  // Adds the first cells if there are none, or doubles the number of cells, unless another thread
+  // already replaced the expected cells. Returns the current cells.
+  private synchronized AtomicLongArray[] grow(
+      @javax.annotation.Nullable AtomicLongArray[] expected) {
+    AtomicLongArray[] cells = this.cells;
+    if (cells == null || cells == expected) {
+      int oldLength = cells == null ? 0 : cells.length;
+      AtomicLongArray[] newCells =
+          new AtomicLongArray[cells == null ? INITIAL_CELLS : Math.min(oldLength * 2, MAX_CELLS)];
+      if (cells != null) {
+        System.arraycopy(cells, 0, newCells, 0, oldLength);
+      }
+      for (int i = oldLength; i < newCells.length; i++) {
+        // Zero bits are also 0.0, so new cells are empty for both longs and doubles.
+        newCells[i] = new AtomicLongArray(CELL_SIZE);
+      }
+      this.cells = cells = newCells;
+    }
+    return cells;
+  }
+
+  // Spreads consecutive thread ids over the given power of two number of cells.
+  private static int cellIndex(long threadId, int numCells) {
+    int hash = (int) ((threadId * 0x9E3779B97F4A7C15L) >>> 32);
+    return hash & (numCells - 1);
+  }
+
+  // Returns the smallest power of two that is at least the number of processors, at most 64.
+  private static int maxCells(int processors) {
+    int maxCells = 1;
+    while (maxCells < processors && maxCells < 64) {
+      maxCells <<= 1;
+    }
+    return maxCells;
+  }
+
+  final long getBase() {
+    return base.get();
+  }
+
+  // Returns a snapshot of the values of the cells, empty if the adder was never contended.
+  final long[] getCells() {
+    AtomicLongArray[] cells = this.cells;
+    if (cells == null) {
+      return EMPTY_CELLS;
+    }
+    long[] values = new long[cells.length];
+    for (int i = 0; i < cells.length; i++) {
+      values[i] = cells[i].get(0);
+    }
+    return values;
+  }
+
+  /**
+   * Resets the sum to zero, and drops the cells until the adder is contended again. Updates that
+   * run concurrently with the reset may be lost.
+   */
+  final void reset() {
+    cells = null;
+    base.set(0);
+  }
+
+  /** A {@link StripedAdder} of longs. */
+  static final class OfLong extends StripedAdder {
+
+    @Override
+    long accumulate(long current, long x) {
+      return current + x;
+    }
+
+    void add(long x) {
+      update(x);
+    }
+
+    long sum() {
+      long sum = getBase();
+      for (long cell : getCells()) {
+        sum += cell;
+      }
+      return sum;
+    }
+  }
+
+  /** A {@link StripedAdder} of doubles, stored as their raw long bits. */
+  static final class OfDouble extends StripedAdder {
+
+    @Override
+    long accumulate(long current, long x) {
+      return Double.doubleToRawLongBits(
+          Double.longBitsToDouble(current) + Double.longBitsToDouble(x));
+    }
+
+    void add(double x) {
+      update(Double.doubleToRawLongBits(x));
+    }
+
+    double sum() {
+      double sum = Double.longBitsToDouble(getBase());
+      for (long cell : getCells()) {
+        sum += Double.longBitsToDouble(cell);
+      }
+      return sum;
+    }
+  }
+}
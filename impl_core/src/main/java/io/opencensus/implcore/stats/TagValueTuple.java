@@ -0,0 +1,169 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import io.opencensus.tags.TagValue;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/*>>>
+import org.checkerframework.checker.nullness.qual.Nullable;
+*/
+
+/**
+ * An immutable list of {@link TagValue}s with a cached hash code, used as the key of the
+ * aggregation maps of views.
+ *
+ * <p>It follows the {@link List} contract for {@link #equals(Object)} and {@link #hashCode()}, so
+ * it can be looked up with any other {@code List} of the same tag values, and in particular with a
+ * reusable {@link Probe} that doesn't allocate a new key for every recording.
+ */
+@Immutable
+final class TagValueTuple extends AbstractList</*@Nullable*/ TagValue> implements RandomAccess {
+
+  private final /*@Nullable*/ TagValue[] tagValues;
+  private final int hashCode;
+
+  private TagValueTuple(/*@Nullable*/ TagValue[] tagValues, int hashCode) {
+    this.tagValues = tagValues;
+    this.hashCode = hashCode;
+  }
+
+  /**
+   * Returns a {@code TagValueTuple} with the given tag values, or the given list itself if it is
+   * already a {@code TagValueTuple}.
+   *
+   * @param tagValues the tag values, {@code null} elements are unknown tag values.
+   * @return a {@code TagValueTuple} with the given tag values.
+   */
+  static TagValueTuple copyOf(List</*@Nullable*/ TagValue> tagValues) {
+    if (tagValues instanceof TagValueTuple) {
+      return (TagValueTuple) tagValues;
+    }
+    /*@Nullable*/ TagValue[] copy = new /*@Nullable*/ TagValue[tagValues.size()];
+    for (int i = 0; i < copy.length; i++) {
+      copy[i] = tagValues.get(i);
+    }
+    return new TagValueTuple(copy, tagValues.hashCode());
+  }
+
+  @Override
+  @javax.annotation.Nullable
+  public TagValue get(int index) {
+    return tagValues[index];
+  }
+
+  @Override
+  public int size() {
+    return tagValues.length;
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(/*@Nullable*/ Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj instanceof TagValueTuple) {
+      TagValueTuple that = (TagValueTuple) obj;
+      return hashCode == that.hashCode && Arrays.equals(tagValues, that.tagValues);
+    }
+    return super.equals(obj);
+  }
+
+  // Computes the hash code of a List of the given tag values, as specified by List.hashCode().
+  private static int hashCode(/*@Nullable*/ TagValue[] tagValues, int[] indices) {
+    int hashCode = 1;
+    for (int index : indices) {
+      TagValue tagValue = tagValues[index];
+      hashCode = 31 * hashCode + (tagValue == null ? 0 : tagValue.hashCode());
+    }
+    return hashCode;
+  }
+
+  /**
+   * A reusable list of the tag values at some indices of an array, used to look up {@code
+   * TagValueTuple}s without allocating a new key. It is only valid until it is set again, so it
+   * must never be stored as a key, use {@link TagValueTuple#copyOf(List)} instead.
+   */
+  @NotThreadSafe
+  static final class Probe extends AbstractList</*@Nullable*/ TagValue> implements RandomAccess {
+
+    private static final /*@Nullable*/ TagValue[] EMPTY_TAG_VALUES = new TagValue[0];
+    private static final int[] EMPTY_INDICES = new int[0];
+
+    private /*@Nullable*/ TagValue[] tagValues = EMPTY_TAG_VALUES;
+    private int[] indices = EMPTY_INDICES;
+    private int hashCode = 1;
+
+    /**
+     * Sets this probe to the tag values of {@code tagValues} at the given indices.
+     *
+     * @param tagValues the tag values.
+     * @param indices the indices of the tag values of this probe in {@code tagValues}.
+     * @return this probe.
+     */
+    Probe set(/*@Nullable*/ TagValue[] tagValues, int[] indices) {
+      this.tagValues = tagValues;
+      this.indices = indices;
+      this.hashCode = TagValueTuple.hashCode(tagValues, indices);
+      return this;
+    }
+
+    @Override
+    @javax.annotation.Nullable
+    public TagValue get(int index) {
+      return tagValues[indices[index]];
+    }
+
+    @Override
+    public int size() {
+      return indices.length;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(/*@Nullable*/ Object obj) {
+      if (obj instanceof TagValueTuple) {
+        TagValueTuple that = (TagValueTuple) obj;
+        if (hashCode != that.hashCode || indices.length != that.tagValues.length) {
+          return false;
+        }
+        for (int i = 0; i < indices.length; i++) {
+          TagValue tagValue = tagValues[indices[i]];
+          if (tagValue == null ? that.tagValues[i] != null : !tagValue.equals(that.tagValues[i])) {
+            return false;
+          }
+        }
+        return true;
+      }
+      return super.equals(obj);
+    }
+  }
+}
@@ -16,6 +16,7 @@
 
 package io.opencensus.implcore.stats;
 
+import io.opencensus.metrics.Metric;
 import io.opencensus.stats.View;
 import io.opencensus.stats.ViewData;
 import io.opencensus.stats.ViewManager;
@@ -46,6 +47,19 @@ public final class ViewManagerImpl extends ViewManager {
     return statsManager.getExportedViews();
   }
 
+  /**
+   * Returns the series of all the views that were recorded to since a previous call, as {@link
+   * Metric}s, so that exporters can skip the series that didn't change. Series of interval views
+   * are always returned, as their values depend on the time.
+   *
+   * @param cursor the {@link ChangedMetrics#getCursor() cursor} returned by a previous call, or
+   *     {@link ChangedMetrics#INITIAL_CURSOR} for all the series.
+   * @return the changed series, and the cursor for the next call.
+   */
+  public ChangedMetrics getChangedMetrics(long cursor) {
+    return statsManager.getChangedMetrics(cursor);
+  }
+
   void clearStats() {
     statsManager.clearStats();
   }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.trace;
+
+import com.google.common.base.Preconditions;
+import io.opencensus.implcore.internal.TimestampConverter;
+import io.opencensus.trace.Annotation;
+import io.opencensus.trace.AttributeValue;
+import io.opencensus.trace.EndSpanOptions;
+import io.opencensus.trace.Link;
+import io.opencensus.trace.MessageEvent;
+import io.opencensus.trace.Span;
+import io.opencensus.trace.SpanContext;
+import io.opencensus.trace.Status;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Implementation for the {@link Span} class that does not record anything, used for spans that are
+ * neither sampled nor have the {@link Options#RECORD_EVENTS} option. It only carries the {@link
+ * SpanContext}, so that children and remote processes continue the trace, and all the operations
+ * are no-op.
+ */
+@Immutable
+final class NoRecordEventsSpanImpl extends Span {
+  // The time converter of the parent, if any, passed to the children that record events so that
+  // their events are in the same time base as the other spans of the trace.
+  @Nullable private final TimestampConverter timestampConverter;
+
+  private NoRecordEventsSpanImpl(
+      SpanContext context, @Nullable TimestampConverter timestampConverter) {
+    super(context, null);
+    this.timestampConverter = timestampConverter;
+  }
+
+  /**
+   * Creates a new {@code NoRecordEventsSpanImpl}.
+   *
+   * @param context the {@code SpanContext}, which must not be sampled.
+   * @param timestampConverter the {@code TimestampConverter} of the parent, if any.
+   * @return a new {@code NoRecordEventsSpanImpl}.
+   * @throws IllegalArgumentException if the {@code context} is sampled.
+   */
+  static NoRecordEventsSpanImpl create(
+      SpanContext context, @Nullable TimestampConverter timestampConverter) {
+    Preconditions.checkArgument(
+        !context.getTraceOptions().isSampled(), "Span is sampled, but does not record events.");
+    return new NoRecordEventsSpanImpl(context, timestampConverter);
+  }
+
+  /**
+   * Returns the {@code TimestampConverter} of the parent of this span, if any.
+   *
+   * @return the {@code TimestampConverter} of the parent of this span, if any.
+   */
+  @Nullable
+  TimestampConverter getTimestampConverter() {
+    return timestampConverter;
+  }
+
+  @Override
+  public void putAttribute(String key, AttributeValue value) {
+    Preconditions.checkNotNull(key, "key");
+    Preconditions.checkNotNull(value, "value");
+  }
+
+  @Override
+  public void putAttributes(Map<String, AttributeValue> attributes) {
+    Preconditions.checkNotNull(attributes, "attributes");
+  }
+
+  @Override
+  public void addAnnotation(String description, Map<String, AttributeValue> attributes) {
+    Preconditions.checkNotNull(description, "description");
+    Preconditions.checkNotNull(attributes, "attribute");
+  }
+
+  @Override
+  public void addAnnotation(Annotation annotation) {
+    Preconditions.checkNotNull(annotation, "annotation");
+  }
+
+  @Override
+  @SuppressWarnings("deprecation")
+  public void addNetworkEvent(io.opencensus.trace.NetworkEvent networkEvent) {
+    Preconditions.checkNotNull(networkEvent, "networkEvent");
+  }
+
+  @Override
+  public void addMessageEvent(MessageEvent messageEvent) {
+    Preconditions.checkNotNull(messageEvent, "messageEvent");
+  }
+
+  @Override
+  public void addLink(Link link) {
+    Preconditions.checkNotNull(link, "link");
+  }
+
+  @Override
+  public void setStatus(Status status) {
+    Preconditions.checkNotNull(status, "status");
+  }
+
+  @Override
+  public void end(EndSpanOptions options) {
+    Preconditions.checkNotNull(options, "options");
+  }
+}
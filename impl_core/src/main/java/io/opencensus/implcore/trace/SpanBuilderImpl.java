@@ -37,12 +37,14 @@ import io.opencensus.trace.config.TraceParams;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
-import java.util.Random;
 import javax.annotation.Nullable;
 
 /** Implementation of the {@link SpanBuilder}. */
 final class SpanBuilderImpl extends SpanBuilder {
   private static final Tracestate TRACESTATE_DEFAULT = Tracestate.builder().build();
+  // Copied by each span, so it is never modified.
+  private static final EnumSet<Span.Options> RECORD_EVENTS_SPAN_OPTIONS =
+      EnumSet.of(Span.Options.RECORD_EVENTS);
 
   private final Options options;
   private final String name;
@@ -53,7 +55,7 @@ final class SpanBuilderImpl extends SpanBuilder {
   @Nullable private Boolean recordEvents;
   @Nullable private Kind kind;
 
-  private SpanImpl startSpanInternal(
+  private Span startSpanInternal(
       @Nullable SpanContext parent,
       @Nullable Boolean hasRemoteParent,
       String name,
@@ -63,27 +65,26 @@ final class SpanBuilderImpl extends SpanBuilder {
       @Nullable Kind kind,
       @Nullable TimestampConverter timestampConverter) {
     TraceParams activeTraceParams = options.traceConfig.getActiveTraceParams();
-    Random random = options.randomHandler.current();
     TraceId traceId;
-    SpanId spanId = SpanId.generateRandomId(random);
+    SpanId spanId = options.randomHandler.generateSpanId();
     SpanId parentSpanId = null;
-    TraceOptions.Builder traceOptionsBuilder;
+    TraceOptions parentTraceOptions;
     // TODO(bdrutu): Handle tracestate correctly not just propagate.
     Tracestate tracestate = TRACESTATE_DEFAULT;
     if (parent == null || !parent.isValid()) {
       // New root span.
-      traceId = TraceId.generateRandomId(random);
-      traceOptionsBuilder = TraceOptions.builder();
+      traceId = options.randomHandler.generateTraceId();
+      parentTraceOptions = TraceOptions.DEFAULT;
       // This is a root span so no remote or local parent.
       hasRemoteParent = null;
     } else {
       // New child span.
       traceId = parent.getTraceId();
       parentSpanId = parent.getSpanId();
-      traceOptionsBuilder = TraceOptions.builder(parent.getTraceOptions());
+      parentTraceOptions = parent.getTraceOptions();
       tracestate = parent.getTracestate();
     }
-    traceOptionsBuilder.setIsSampled(
+    boolean sampled =
         makeSamplingDecision(
             parent,
             hasRemoteParent,
@@ -92,16 +93,24 @@ final class SpanBuilderImpl extends SpanBuilder {
             parentLinks,
             traceId,
             spanId,
-            activeTraceParams));
-    TraceOptions traceOptions = traceOptionsBuilder.build();
-    EnumSet<Span.Options> spanOptions = EnumSet.noneOf(Span.Options.class);
-    if (traceOptions.isSampled() || Boolean.TRUE.equals(recordEvents)) {
-      spanOptions.add(Span.Options.RECORD_EVENTS);
+            activeTraceParams);
+    // Reuses the options of the parent when the sampling decision does not change them, which is
+    // always the case for root spans that are not sampled.
+    TraceOptions traceOptions =
+        sampled == parentTraceOptions.isSampled()
+            ? parentTraceOptions
+            : TraceOptions.builder(parentTraceOptions).setIsSampled(sampled).build();
+    SpanContext spanContext = SpanContext.create(traceId, spanId, traceOptions, tracestate);
+    if (!sampled && !Boolean.TRUE.equals(recordEvents)) {
+      // Nothing is recorded for this span, so it only needs to carry its context.
+      Span span = NoRecordEventsSpanImpl.create(spanContext, timestampConverter);
+      linkSpans(span, parentLinks);
+      return span;
     }
     SpanImpl span =
         SpanImpl.startSpan(
-            SpanContext.create(traceId, spanId, traceOptions, tracestate),
-            spanOptions,
+            spanContext,
+            RECORD_EVENTS_SPAN_OPTIONS,
             name,
             kind,
             parentSpanId,
@@ -178,7 +187,7 @@ final class SpanBuilderImpl extends SpanBuilder {
   }
 
   @Override
-  public SpanImpl startSpan() {
+  public Span startSpan() {
     SpanContext parentContext = remoteParentSpanContext;
     Boolean hasRemoteParent = Boolean.TRUE;
     TimestampConverter timestampConverter = null;
@@ -193,6 +202,8 @@ final class SpanBuilderImpl extends SpanBuilder {
         // the right order. Implementation uses System.nanoTime() which is monotonically increasing.
         if (parent instanceof SpanImpl) {
           timestampConverter = ((SpanImpl) parent).getTimestampConverter();
+        } else if (parent instanceof NoRecordEventsSpanImpl) {
+          timestampConverter = ((NoRecordEventsSpanImpl) parent).getTimestampConverter();
         }
       } else {
         hasRemoteParent = null;
@@ -75,8 +75,9 @@ public final class StartEndHandlerImpl implements StartEndHandler {
     }
   }
 
-  // An EventQueue entry that records the start of the span event.
-  private static final class SpanStartEvent implements EventQueue.Entry {
+  // An EventQueue entry that records the start of the span event. Keyed by span, so that it is
+  // processed before the SpanEndEvent of the same span.
+  private static final class SpanStartEvent implements EventQueue.KeyedEntry {
     private final SpanImpl span;
     @Nullable private final RunningSpanStoreImpl activeSpansExporter;
 
@@ -85,6 +86,11 @@ public final class StartEndHandlerImpl implements StartEndHandler {
       this.activeSpansExporter = activeSpansExporter;
     }
 
+    @Override
+    public int getKey() {
+      return span.getContext().getSpanId().hashCode();
+    }
+
     @Override
     public void process() {
       if (activeSpansExporter != null) {
@@ -94,7 +100,7 @@ public final class StartEndHandlerImpl implements StartEndHandler {
   }
 
   // An EventQueue entry that records the end of the span event.
-  private static final class SpanEndEvent implements EventQueue.Entry {
+  private static final class SpanEndEvent implements EventQueue.KeyedEntry {
     private final SpanImpl span;
     @Nullable private final RunningSpanStoreImpl runningSpanStore;
     private final SpanExporterImpl spanExporter;
@@ -111,6 +117,11 @@ public final class StartEndHandlerImpl implements StartEndHandler {
       this.sampledSpanStore = sampledSpanStore;
     }
 
+    @Override
+    public int getKey() {
+      return span.getContext().getSpanId().hashCode();
+    }
+
     @Override
     public void process() {
       if (span.getContext().getTraceOptions().isSampled()) {
@@ -52,12 +52,28 @@ public final class TraceComponentImplBase {
    * @param eventQueue the queue implementation.
    */
   public TraceComponentImplBase(Clock clock, RandomHandler randomHandler, EventQueue eventQueue) {
+    this(clock, randomHandler, eventQueue, !(eventQueue instanceof SimpleEventQueue));
+  }
+
+  /**
+   * Creates a new {@code TraceComponentImplBase}.
+   *
+   * @param clock the clock to use throughout tracing.
+   * @param randomHandler the random number generator for generating trace and span IDs.
+   * @param eventQueue the queue implementation.
+   * @param supportInProcessStores {@code true} to keep the running and sampled spans in memory, for
+   *     the in-process stores.
+   */
+  public TraceComponentImplBase(
+      Clock clock,
+      RandomHandler randomHandler,
+      EventQueue eventQueue,
+      boolean supportInProcessStores) {
     this.clock = clock;
-    // TODO(bdrutu): Add a config/argument for supportInProcessStores.
-    if (eventQueue instanceof SimpleEventQueue) {
-      exportComponent = ExportComponentImpl.createWithoutInProcessStores(eventQueue);
-    } else {
+    if (supportInProcessStores) {
       exportComponent = ExportComponentImpl.createWithInProcessStores(eventQueue);
+    } else {
+      exportComponent = ExportComponentImpl.createWithoutInProcessStores(eventQueue);
     }
     StartEndHandler startEndHandler =
         new StartEndHandlerImpl(
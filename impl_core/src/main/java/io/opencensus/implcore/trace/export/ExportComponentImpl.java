@@ -21,9 +21,14 @@ import io.opencensus.implcore.internal.EventQueue;
 import io.opencensus.trace.export.ExportComponent;
 import io.opencensus.trace.export.RunningSpanStore;
 import io.opencensus.trace.export.SampledSpanStore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /** Implementation of the {@link ExportComponent}. */
 public final class ExportComponentImpl extends ExportComponent {
+  private static final Logger logger = Logger.getLogger(ExportComponentImpl.class.getName());
+
   private static final int EXPORTER_BUFFER_SIZE = 32;
   // Enforces that trace export exports data at least once every 5 seconds.
   private static final Duration EXPORTER_SCHEDULE_DELAY = Duration.create(5, 0);
@@ -31,6 +36,7 @@ public final class ExportComponentImpl extends ExportComponent {
   private final SpanExporterImpl spanExporter;
   private final RunningSpanStoreImpl runningSpanStore;
   private final SampledSpanStoreImpl sampledSpanStore;
+  private final EventQueue eventQueue;
 
   @Override
   public SpanExporterImpl getSpanExporter() {
@@ -53,6 +59,31 @@ public final class ExportComponentImpl extends ExportComponent {
     spanExporter.shutdown();
   }
 
+  /**
+   * Stops the event queue and processes the pending span events first, so that the spans that
+   * already ended reach the exporter, then exports the buffered spans to all the handlers in
+   * parallel. Waits at most for the given timeout in total.
+   *
+   * @param timeout the maximum time to wait for the pending events and spans.
+   * @return the number of events and spans that were dropped because the timeout expired.
+   */
+  @Override
+  public long shutdown(Duration timeout) {
+    long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout.toMillis());
+    long numDropped = eventQueue.shutdown(timeout);
+    long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+    numDropped += spanExporter.shutdown(Duration.fromMillis(Math.max(0, remainingMillis)));
+    if (numDropped > 0) {
+      logger.log(
+          Level.WARNING,
+          "Dropped "
+              + numDropped
+              + " events and spans that were not processed or exported before the shutdown "
+              + "timeout.");
+    }
+    return numDropped;
+  }
+
   /**
    * Returns a new {@code ExportComponentImpl} that has valid instances for {@link RunningSpanStore}
    * and {@link SampledSpanStore}.
@@ -81,6 +112,7 @@ public final class ExportComponentImpl extends ExportComponent {
    */
   private ExportComponentImpl(boolean supportInProcessStores, EventQueue eventQueue) {
     this.spanExporter = SpanExporterImpl.create(EXPORTER_BUFFER_SIZE, EXPORTER_SCHEDULE_DELAY);
+    this.eventQueue = eventQueue;
     this.runningSpanStore =
         supportInProcessStores
             ? new InProcessRunningSpanStoreImpl()
@@ -28,6 +28,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.concurrent.GuardedBy;
@@ -79,8 +81,28 @@ public final class SpanExporterImpl extends SpanExporter {
   }
 
   void shutdown() {
+    worker.stop();
     flush();
-    workerThread.interrupt();
+  }
+
+  // Stops the worker thread and waits for the batch it is exporting, if any, then exports the
+  // buffered spans to all the handlers in parallel, waiting at most for the timeout in total.
+  // Returns the number of spans that were not exported by all the handlers in time.
+  long shutdown(Duration timeout) {
+    long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout.toMillis());
+    // The worker is not interrupted, so that a handler in the middle of an export can still do
+    // blocking I/O on its thread.
+    worker.stop();
+    long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+    try {
+      if (remainingMillis > 0) {
+        workerThread.join(remainingMillis);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    long numDropped = workerThread.isAlive() ? worker.getInFlightBatchSize() : 0;
+    return numDropped + worker.flushInParallel(deadlineNanos);
   }
 
   private SpanExporterImpl(Worker worker) {
@@ -110,6 +132,14 @@ public final class SpanExporterImpl extends SpanExporter {
     @GuardedBy("monitor")
     private final List<SpanImpl> spans;
 
+    // Set when the exporter shuts down, after which the worker exits instead of waiting for the
+    // next batch, and leaves the buffered spans to the shutdown.
+    @GuardedBy("monitor")
+    private boolean stopped = false;
+
+    // Number of spans of the batch that the worker is exporting, or zero.
+    private volatile int inFlightBatchSize = 0;
+
     private final Map<String, Handler> serviceHandlers = new ConcurrentHashMap<String, Handler>();
     private final int bufferSize;
     private final long scheduleDelayMillis;
@@ -142,12 +172,16 @@ public final class SpanExporterImpl extends SpanExporter {
       // upon construction of the iterator, and may (but is not guaranteed to) reflect any
       // modifications subsequent to construction.
       for (Map.Entry<String, Handler> it : serviceHandlers.entrySet()) {
-        // In case of any exception thrown by the service handlers continue to run.
-        try {
-          it.getValue().export(spanDataList);
-        } catch (Throwable e) {
-          logger.log(Level.WARNING, "Exception thrown by the service export " + it.getKey(), e);
-        }
+        export(it.getKey(), it.getValue(), spanDataList);
+      }
+    }
+
+    private static void export(String name, Handler handler, List<SpanData> spanDataList) {
+      // In case of any exception thrown by the service handlers continue to run.
+      try {
+        handler.export(spanDataList);
+      } catch (Throwable e) {
+        logger.log(Level.WARNING, "Exception thrown by the service export " + name, e);
       }
     }
 
@@ -174,6 +208,9 @@ public final class SpanExporterImpl extends SpanExporter {
         // avoid blocking the producer thread.
         List<SpanImpl> spansCopy;
         synchronized (monitor) {
+          if (stopped) {
+            return;
+          }
           if (spans.size() < bufferSize) {
             do {
               // In the case of a spurious wakeup we export only if we have at least one span in
@@ -185,19 +222,36 @@ public final class SpanExporterImpl extends SpanExporter {
                 Thread.currentThread().interrupt();
                 return;
               }
+              if (stopped) {
+                return;
+              }
             } while (spans.isEmpty());
           }
           spansCopy = new ArrayList<SpanImpl>(spans);
           spans.clear();
+          inFlightBatchSize = spansCopy.size();
         }
         // Execute the batch export outside the synchronized to not block all producers.
         final List<SpanData> spanDataList = fromSpanImplToSpanData(spansCopy);
         if (!spanDataList.isEmpty()) {
           onBatchExport(spanDataList);
         }
+        inFlightBatchSize = 0;
       }
     }
 
+    // Makes the worker exit once it exported its current batch, if any.
+    void stop() {
+      synchronized (monitor) {
+        stopped = true;
+        monitor.notifyAll();
+      }
+    }
+
+    int getInFlightBatchSize() {
+      return inFlightBatchSize;
+    }
+
     void flush() {
       List<SpanImpl> spansCopy;
       synchronized (monitor) {
@@ -210,5 +264,47 @@ public final class SpanExporterImpl extends SpanExporter {
         onBatchExport(spanDataList);
       }
     }
+
+    // Exports the buffered spans to each handler on its own thread, so that a slow handler does not
+    // delay the others, and waits for them until the deadline. Returns the number of spans if a
+    // handler did not finish exporting them in time, zero otherwise.
+    long flushInParallel(long deadlineNanos) {
+      List<SpanImpl> spansCopy;
+      synchronized (monitor) {
+        spansCopy = new ArrayList<SpanImpl>(spans);
+        spans.clear();
+      }
+      final List<SpanData> spanDataList = fromSpanImplToSpanData(spansCopy);
+      if (spanDataList.isEmpty()) {
+        return 0;
+      }
+      ThreadFactory threadFactory = new DaemonThreadFactory("ExportComponent.ShutdownThread");
+      List<Thread> exportThreads = new ArrayList<Thread>();
+      for (final Map.Entry<String, Handler> it : serviceHandlers.entrySet()) {
+        Thread exportThread =
+            threadFactory.newThread(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    export(it.getKey(), it.getValue(), spanDataList);
+                  }
+                });
+        exportThread.start();
+        exportThreads.add(exportThread);
+      }
+      boolean timedOut = false;
+      for (Thread exportThread : exportThreads) {
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        try {
+          if (remainingMillis > 0) {
+            exportThread.join(remainingMillis);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        timedOut |= exportThread.isAlive();
+      }
+      return timedOut ? spanDataList.size() : 0;
+    }
   }
 }
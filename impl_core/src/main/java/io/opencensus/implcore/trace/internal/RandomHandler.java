@@ -16,6 +16,8 @@
 
 package io.opencensus.implcore.trace.internal;
 
+import io.opencensus.trace.SpanId;
+import io.opencensus.trace.TraceId;
 import java.security.SecureRandom;
 import java.util.Random;
 import javax.annotation.concurrent.ThreadSafe;
@@ -34,6 +36,36 @@ public abstract class RandomHandler {
    */
   public abstract Random current();
 
+  /**
+   * Generates a new random {@link TraceId} from two longs of the current {@link Random}.
+   *
+   * @return a new valid {@code TraceId}.
+   */
+  public TraceId generateTraceId() {
+    Random random = current();
+    long idHi;
+    long idLo;
+    do {
+      idHi = random.nextLong();
+      idLo = random.nextLong();
+    } while (idHi == 0 && idLo == 0);
+    return TraceId.fromLongs(idHi, idLo);
+  }
+
+  /**
+   * Generates a new random {@link SpanId} from a long of the current {@link Random}.
+   *
+   * @return a new valid {@code SpanId}.
+   */
+  public SpanId generateSpanId() {
+    Random random = current();
+    long id;
+    do {
+      id = random.nextLong();
+    } while (id == 0);
+    return SpanId.fromLong(id);
+  }
+
   /** Implementation of the {@link RandomHandler} using {@link SecureRandom}. */
   @ThreadSafe
   public static final class SecureRandomHandler extends RandomHandler {
@@ -47,4 +79,66 @@ public abstract class RandomHandler {
       return random;
     }
   }
+
+  /**
+   * Implementation of the {@link RandomHandler} that gives each thread its own {@link Random}, so
+   * that threads don't contend on a single generator. Each generator is seeded from a {@link
+   * SecureRandom}, but the ids generated by a thread can be predicted from its earlier ids.
+   */
+  @ThreadSafe
+  public static final class PerThreadRandomHandler extends RandomHandler {
+    private final SecureRandom seeds = new SecureRandom();
+    private final ThreadLocal<Random> random =
+        new ThreadLocal<Random>() {
+          @Override
+          protected Random initialValue() {
+            long seed;
+            synchronized (seeds) {
+              seed = seeds.nextLong();
+            }
+            return new SplitMix64Random(seed);
+          }
+        };
+
+    /** Constructs a new {@link PerThreadRandomHandler}. */
+    public PerThreadRandomHandler() {}
+
+    @Override
+    public Random current() {
+      return random.get();
+    }
+  }
+
+  // The generator behind java.util.SplittableRandom, which is not available in Java 6. It is not
+  // thread safe, unlike java.util.Random, so it is only used by a single thread and does not pay
+  // for an atomic update of its state on every call.
+  private static final class SplitMix64Random extends Random {
+    private static final long serialVersionUID = 0L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    SplitMix64Random(long seed) {
+      // Random(long) sets the state through setSeed(long).
+      super(seed);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+      this.state = seed;
+    }
+
+    @Override
+    protected int next(int bits) {
+      return (int) (nextLong() >>> (Long.SIZE - bits));
+    }
+
+    @Override
+    public long nextLong() {
+      long z = (state += GOLDEN_GAMMA);
+      z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+      z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+      return z ^ (z >>> 31);
+    }
+  }
 }
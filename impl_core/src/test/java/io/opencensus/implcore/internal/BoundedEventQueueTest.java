@@ -0,0 +1,274 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.common.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link BoundedEventQueue}. */
+@RunWith(JUnit4.class)
+public class BoundedEventQueueTest {
+  @Rule public final ExpectedException thrown = ExpectedException.none();
+
+  // Entry that adds its value to a list, only from the background thread.
+  private static final class AddEvent implements EventQueue.Entry {
+    private final List<Integer> values;
+    private final int value;
+
+    AddEvent(List<Integer> values, int value) {
+      this.values = values;
+      this.value = value;
+    }
+
+    @Override
+    public void process() {
+      values.add(value);
+    }
+  }
+
+  // Entry that blocks the background thread until it is released.
+  private static final class BlockingEvent implements EventQueue.Entry {
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    @Override
+    public void process() {
+      started.countDown();
+      try {
+        released.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Test
+  public void capacityMustBePowerOfTwo() {
+    thrown.expect(IllegalArgumentException.class);
+    new BoundedEventQueue(100);
+  }
+
+  @Test
+  public void processesEntriesInOrderOnBackgroundThread() throws InterruptedException {
+    BoundedEventQueue eventQueue = new BoundedEventQueue(16);
+    final List<Integer> values = new ArrayList<Integer>();
+    final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+    for (int i = 0; i < 1000; i++) {
+      eventQueue.enqueue(new AddEvent(values, i));
+      if (i % 10 == 0) {
+        eventQueue.enqueue(
+            new EventQueue.Entry() {
+              @Override
+              public void process() {
+                threads.add(Thread.currentThread());
+              }
+            });
+      }
+      // Waits for the background thread before the queue is full.
+      if (i % 8 == 0) {
+        waitUntilEmpty(eventQueue);
+      }
+    }
+    eventQueue.shutdown();
+    eventQueue.getDrainer().join(TimeUnit.SECONDS.toMillis(10));
+    assertThat(eventQueue.getDrainer().isAlive()).isFalse();
+    assertThat(eventQueue.getNumDroppedEvents()).isEqualTo(0);
+    assertThat(values).hasSize(1000);
+    for (int i = 0; i < values.size(); i++) {
+      assertThat(values.get(i)).isEqualTo(i);
+    }
+    assertThat(threads).doesNotContain(Thread.currentThread());
+    assertThat(new HashSet<Thread>(threads)).containsExactly(eventQueue.getDrainer());
+  }
+
+  @Test
+  public void enqueueFromManyThreads() throws InterruptedException {
+    final BoundedEventQueue eventQueue = new BoundedEventQueue(1024);
+    final List<Integer> values = new ArrayList<Integer>();
+    Thread[] producers = new Thread[4];
+    for (int i = 0; i < producers.length; i++) {
+      producers[i] =
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  for (int j = 0; j < 10000; j++) {
+                    eventQueue.enqueue(new AddEvent(values, j));
+                  }
+                }
+              });
+      producers[i].start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    eventQueue.shutdown();
+    eventQueue.getDrainer().join(TimeUnit.SECONDS.toMillis(10));
+    // Every entry was either processed or dropped.
+    assertThat(values.size() + eventQueue.getNumDroppedEvents()).isEqualTo(4 * 10000);
+  }
+
+  @Test
+  public void dropsEntriesWhenFull() throws InterruptedException {
+    BoundedEventQueue eventQueue = new BoundedEventQueue(4);
+    BlockingEvent blockingEvent = new BlockingEvent();
+    eventQueue.enqueue(blockingEvent);
+    blockingEvent.started.await();
+    // The slot of the blocking entry is freed before it is processed.
+    List<Integer> values = new ArrayList<Integer>();
+    for (int i = 0; i < 6; i++) {
+      eventQueue.enqueue(new AddEvent(values, i));
+    }
+    assertThat(eventQueue.getNumDroppedEvents()).isEqualTo(2);
+    blockingEvent.released.countDown();
+    eventQueue.shutdown();
+    eventQueue.getDrainer().join(TimeUnit.SECONDS.toMillis(10));
+    assertThat(values).containsExactly(0, 1, 2, 3).inOrder();
+  }
+
+  @Test
+  public void dropsEntriesAfterShutdown() throws InterruptedException {
+    BoundedEventQueue eventQueue = new BoundedEventQueue(4);
+    eventQueue.shutdown();
+    List<Integer> values = new ArrayList<Integer>();
+    eventQueue.enqueue(new AddEvent(values, 1));
+    eventQueue.getDrainer().join(TimeUnit.SECONDS.toMillis(10));
+    assertThat(eventQueue.getDrainer().isAlive()).isFalse();
+    assertThat(values).isEmpty();
+    assertThat(eventQueue.getNumDroppedEvents()).isEqualTo(1);
+  }
+
+  @Test
+  public void enqueueConcurrentlyWithShutdown() throws InterruptedException {
+    for (int run = 0; run < 20; run++) {
+      final BoundedEventQueue eventQueue = new BoundedEventQueue(1024);
+      final List<Integer> values = new ArrayList<Integer>();
+      final CountDownLatch started = new CountDownLatch(4);
+      Thread[] producers = new Thread[4];
+      for (int i = 0; i < producers.length; i++) {
+        producers[i] =
+            new Thread(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    started.countDown();
+                    for (int j = 0; j < 1000; j++) {
+                      eventQueue.enqueue(new AddEvent(values, j));
+                    }
+                  }
+                });
+        producers[i].start();
+      }
+      started.await();
+      assertThat(eventQueue.shutdown(Duration.create(10, 0))).isEqualTo(0);
+      for (Thread producer : producers) {
+        producer.join();
+      }
+      // Every entry was either processed before the shutdown returned, or dropped.
+      assertThat(values.size() + eventQueue.getNumDroppedEvents()).isEqualTo(4 * 1000);
+    }
+  }
+
+  @Test
+  public void shutdownWithTimeout_ProcessesEnqueuedEntries() {
+    BoundedEventQueue eventQueue = new BoundedEventQueue(16);
+    List<Integer> values = new ArrayList<Integer>();
+    for (int i = 0; i < 10; i++) {
+      eventQueue.enqueue(new AddEvent(values, i));
+    }
+    assertThat(eventQueue.shutdown(Duration.create(10, 0))).isEqualTo(0);
+    assertThat(eventQueue.getDrainer().isAlive()).isFalse();
+    assertThat(values).hasSize(10);
+    assertThat(eventQueue.getNumDroppedEvents()).isEqualTo(0);
+  }
+
+  @Test
+  public void shutdownWithTimeout_DropsEntriesNotProcessedInTime() throws InterruptedException {
+    BoundedEventQueue eventQueue = new BoundedEventQueue(16);
+    BlockingEvent blockingEvent = new BlockingEvent();
+    eventQueue.enqueue(blockingEvent);
+    blockingEvent.started.await();
+    List<Integer> values = new ArrayList<Integer>();
+    for (int i = 0; i < 5; i++) {
+      eventQueue.enqueue(new AddEvent(values, i));
+    }
+    assertThat(eventQueue.shutdown(Duration.fromMillis(50))).isEqualTo(5);
+    assertThat(eventQueue.getNumDroppedEvents()).isEqualTo(5);
+    blockingEvent.released.countDown();
+    eventQueue.getDrainer().join(TimeUnit.SECONDS.toMillis(10));
+    assertThat(eventQueue.getDrainer().isAlive()).isFalse();
+    assertThat(values).isEmpty();
+  }
+
+  @Test
+  public void keepsProcessingAfterException() throws InterruptedException {
+    BoundedEventQueue eventQueue = new BoundedEventQueue(4);
+    eventQueue.enqueue(
+        new EventQueue.Entry() {
+          @Override
+          public void process() {
+            throw new IllegalStateException("Expected exception.");
+          }
+        });
+    List<Integer> values = new ArrayList<Integer>();
+    eventQueue.enqueue(new AddEvent(values, 1));
+    eventQueue.shutdown();
+    eventQueue.getDrainer().join(TimeUnit.SECONDS.toMillis(10));
+    assertThat(values).containsExactly(1);
+  }
+
+  @Test
+  public void keepsProcessingAfterError() throws InterruptedException {
+    BoundedEventQueue eventQueue = new BoundedEventQueue(4);
+    eventQueue.enqueue(
+        new EventQueue.Entry() {
+          @Override
+          public void process() {
+            throw new AssertionError("Expected error.");
+          }
+        });
+    List<Integer> values = new ArrayList<Integer>();
+    eventQueue.enqueue(new AddEvent(values, 1));
+    eventQueue.shutdown();
+    eventQueue.getDrainer().join(TimeUnit.SECONDS.toMillis(10));
+    assertThat(values).containsExactly(1);
+  }
+
+  private static void waitUntilEmpty(BoundedEventQueue eventQueue) throws InterruptedException {
+    final CountDownLatch processed = new CountDownLatch(1);
+    eventQueue.enqueue(
+        new EventQueue.Entry() {
+          @Override
+          public void process() {
+            processed.countDown();
+          }
+        });
+    processed.await();
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.implcore.stats.BucketIndex.BinarySearchBucketIndex;
+import io.opencensus.implcore.stats.BucketIndex.ExponentialBucketIndex;
+import io.opencensus.implcore.stats.BucketIndex.LinearBucketIndex;
+import io.opencensus.stats.BucketBoundaries;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link BucketIndex}. */
+@RunWith(JUnit4.class)
+public class BucketIndexTest {
+
+  @Test
+  public void create_Empty() {
+    BucketIndex bucketIndex =
+        BucketIndex.create(BucketBoundaries.create(Collections.<Double>emptyList()));
+    assertThat(bucketIndex.getNumBuckets()).isEqualTo(1);
+    assertThat(bucketIndex.getBucket(-1.0)).isEqualTo(0);
+    assertThat(bucketIndex.getBucket(1.0)).isEqualTo(0);
+    assertThat(bucketIndex.getBucket(Double.NaN)).isEqualTo(0);
+  }
+
+  @Test
+  public void create_DetectsProgressions() {
+    assertThat(BucketIndex.create(BucketBoundaries.create(Arrays.asList(-5.0, 0.0, 5.0, 10.0))))
+        .isInstanceOf(LinearBucketIndex.class);
+    assertThat(BucketIndex.create(BucketBoundaries.create(Arrays.asList(1.0, 2.0, 4.0, 8.0))))
+        .isInstanceOf(ExponentialBucketIndex.class);
+    assertThat(BucketIndex.create(BucketBoundaries.create(Arrays.asList(0.0, 1.0, 4.0, 8.0))))
+        .isInstanceOf(BinarySearchBucketIndex.class);
+    assertThat(BucketIndex.create(BucketBoundaries.create(Arrays.asList(-1.0, 2.0, 5.0, 20.0))))
+        .isInstanceOf(BinarySearchBucketIndex.class);
+  }
+
+  @Test
+  public void create_DeclaredLinearAndExponential() {
+    assertThat(BucketIndex.create(BucketBoundaries.linear(0.0, 0.1, 30)))
+        .isInstanceOf(LinearBucketIndex.class);
+    assertThat(BucketIndex.create(BucketBoundaries.exponential(0.1, 1.1, 60)))
+        .isInstanceOf(ExponentialBucketIndex.class);
+  }
+
+  @Test
+  public void getBucket_DeclaredLinearAndExponential() {
+    for (BucketBoundaries bucketBoundaries :
+        Arrays.asList(
+            BucketBoundaries.linear(-1.0, 0.1, 30),
+            BucketBoundaries.linear(1e6, 3.3, 7),
+            BucketBoundaries.exponential(0.1, 1.1, 60),
+            BucketBoundaries.exponential(3.0, 10.0, 5))) {
+      List<Double> boundaryList = bucketBoundaries.getBoundaries();
+      double[] boundaries = new double[boundaryList.size()];
+      for (int i = 0; i < boundaries.length; i++) {
+        boundaries[i] = boundaryList.get(i);
+      }
+      assertMatchesLinearScan(BucketIndex.create(bucketBoundaries), boundaries);
+    }
+  }
+
+  @Test
+  public void getBucket_Explicit() {
+    assertMatchesLinearScan(new double[] {-10.0, 0.0, 0.5, 3.0, 7.0, 100.0, 1000.0});
+  }
+
+  @Test
+  public void getBucket_Linear() {
+    double[] boundaries = new double[50];
+    for (int i = 0; i < boundaries.length; i++) {
+      boundaries[i] = -2.5 + i * 0.25;
+    }
+    assertThat(BucketIndex.create(boundaries)).isInstanceOf(LinearBucketIndex.class);
+    assertMatchesLinearScan(boundaries);
+  }
+
+  @Test
+  public void getBucket_NearlyLinear() {
+    // The width can't be represented exactly, so the boundaries are searched.
+    double[] boundaries = new double[50];
+    for (int i = 0; i < boundaries.length; i++) {
+      boundaries[i] = -2.5 + i * 0.1;
+    }
+    assertMatchesLinearScan(boundaries);
+  }
+
+  @Test
+  public void getBucket_Exponential() {
+    double[] boundaries = new double[40];
+    for (int i = 0; i < boundaries.length; i++) {
+      boundaries[i] = 0.25 * Math.pow(1.5, i);
+    }
+    assertThat(BucketIndex.create(boundaries)).isInstanceOf(ExponentialBucketIndex.class);
+    assertMatchesLinearScan(boundaries);
+  }
+
+  // Checks that the bucket of the boundaries, values around them and special values is the same
+  // as the bucket found by a linear scan.
+  private static void assertMatchesLinearScan(double[] boundaries) {
+    assertMatchesLinearScan(BucketIndex.create(boundaries), boundaries);
+  }
+
+  private static void assertMatchesLinearScan(BucketIndex bucketIndex, double[] boundaries) {
+    assertThat(bucketIndex.getNumBuckets()).isEqualTo(boundaries.length + 1);
+    for (double boundary : boundaries) {
+      for (double value :
+          new double[] {
+            boundary, Math.nextUp(boundary), Math.nextAfter(boundary, Double.NEGATIVE_INFINITY)
+          }) {
+        assertThat(bucketIndex.getBucket(value)).isEqualTo(linearScan(boundaries, value));
+      }
+    }
+    for (double value :
+        new double[] {
+          Double.NEGATIVE_INFINITY,
+          -Double.MAX_VALUE,
+          -1e10,
+          -1.0,
+          0.0,
+          1e-300,
+          1.0,
+          3.14,
+          1e10,
+          Double.MAX_VALUE,
+          Double.POSITIVE_INFINITY
+        }) {
+      assertThat(bucketIndex.getBucket(value)).isEqualTo(linearScan(boundaries, value));
+    }
+    assertThat(bucketIndex.getBucket(Double.NaN)).isEqualTo(boundaries.length);
+  }
+
+  private static int linearScan(double[] boundaries, double value) {
+    int bucket = 0;
+    for (; bucket < boundaries.length; bucket++) {
+      if (value < boundaries[bucket]) {
+        break;
+      }
+    }
+    return bucket;
+  }
+}
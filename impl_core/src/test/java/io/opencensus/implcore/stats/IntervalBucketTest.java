@@ -105,6 +105,21 @@ public class IntervalBucketTest {
     assertThat(mutableMean2.getCount()).isEqualTo(1);
   }
 
+  @Test
+  public void testReset() {
+    IntervalBucket bucket = new IntervalBucket(START, MINUTE, MEAN, MEASURE_DOUBLE);
+    bucket.record(
+        Arrays.<TagValue>asList(TagValue.create("VALUE1")),
+        5.0,
+        Collections.<String, String>emptyMap(),
+        START);
+    Timestamp newStart = Timestamp.create(120, 0);
+    bucket.reset(newStart);
+    assertThat(bucket.getStart()).isEqualTo(newStart);
+    assertThat(bucket.getTagValueAggregationMap()).isEmpty();
+    assertThat(bucket.getFraction(Timestamp.create(150, 0))).isWithin(TOLERANCE).of(0.5);
+  }
+
   @Test
   public void testGetFraction() {
     Timestamp thirtySecondsAfterStart = Timestamp.create(90, 0);
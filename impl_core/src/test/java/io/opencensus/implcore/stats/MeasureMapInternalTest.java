@@ -140,6 +140,50 @@ public class MeasureMapInternalTest {
         MeasurementLong.create(M3, 100L));
   }
 
+  @Test
+  public void testDuplicateMeasures_ManyMeasures() {
+    MeasureMapInternal.Builder builder = MeasureMapInternal.builder();
+    ArrayList<Measurement> expected = new ArrayList<Measurement>();
+    for (int i = 1; i <= 20; i++) {
+      MeasureLong measure = makeSimpleMeasureLong("m" + i);
+      builder.put(measure, i).put(M1, i * 1.5).put(measure, i * 10L);
+      expected.add(MeasurementLong.create(measure, i * 10L));
+    }
+    expected.add(MeasurementDouble.create(M1, 30.0));
+    assertContains(builder.build(), expected.toArray(new Measurement[expected.size()]));
+  }
+
+  @Test
+  public void testEmptyAttachmentsAreShared() {
+    assertThat(MeasureMapInternal.builder().put(M1, 1.0).build().getAttachments())
+        .isSameAs(MeasureMapInternal.builder().put(M3, 1L).build().getAttachments());
+  }
+
+  @Test
+  public void testClearAndReuseBuilder() {
+    MeasureMapInternal.Builder builder = MeasureMapInternal.builder();
+    MeasureMapInternal metrics1 = builder.put(M1, 1.0).putAttachment("k1", "v1").build();
+    MeasureMapInternal metrics2 = builder.clear().put(M3, 3L).build();
+    builder.clear().put(M2, 2.0);
+
+    // Maps built before a clear() are not affected by later updates of the builder.
+    assertContains(metrics1, MeasurementDouble.create(M1, 1.0));
+    assertThat(metrics1.getAttachments()).containsExactly("k1", "v1");
+    assertContains(metrics2, MeasurementLong.create(M3, 3L));
+    assertThat(metrics2.getAttachments()).isEmpty();
+    assertContains(builder.build(), MeasurementDouble.create(M2, 2.0));
+  }
+
+  @Test
+  public void testGetMeasureAndValue() {
+    MeasureMapInternal metrics = MeasureMapInternal.builder().put(M1, 44.4).put(M3, 9999L).build();
+    assertThat(metrics.size()).isEqualTo(2);
+    assertThat(metrics.getMeasure(0)).isEqualTo(M1);
+    assertThat(metrics.getValue(0)).isEqualTo(44.4);
+    assertThat(metrics.getMeasure(1)).isEqualTo(M3);
+    assertThat(metrics.getValue(1)).isEqualTo(9999.0);
+  }
+
   private static final MeasureDouble M1 = makeSimpleMeasureDouble("m1");
   private static final MeasureDouble M2 = makeSimpleMeasureDouble("m2");
   private static final MeasureLong M3 = makeSimpleMeasureLong("m3");
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import io.opencensus.common.Timestamp;
+import io.opencensus.implcore.internal.CurrentState.State;
+import io.opencensus.stats.Aggregation.Count;
+import io.opencensus.stats.AggregationData.CountData;
+import io.opencensus.stats.Measure.MeasureDouble;
+import io.opencensus.stats.View;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import io.opencensus.testing.common.TestClock;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link MeasureRecordPlan}. */
+@RunWith(JUnit4.class)
+public class MeasureRecordPlanTest {
+
+  private static final MeasureDouble MEASURE = MeasureDouble.create("measure", "description", "1");
+  private static final TagKey KEY_1 = TagKey.create("key1");
+  private static final TagKey KEY_2 = TagKey.create("key2");
+  private static final TagKey KEY_3 = TagKey.create("key3");
+  private static final TagValue VALUE_1 = TagValue.create("value1");
+  private static final TagValue VALUE_2 = TagValue.create("value2");
+  private static final Timestamp START = Timestamp.create(10, 0);
+
+  @Test
+  public void createWithoutViews() {
+    MeasureRecordPlan plan = MeasureRecordPlan.create(MEASURE);
+    assertThat(plan.getMeasure()).isEqualTo(MEASURE);
+    assertThat(plan.hasLockedViews()).isFalse();
+  }
+
+  @Test
+  public void withView_DoesNotModifyOriginalPlan() {
+    MeasureRecordPlan plan = MeasureRecordPlan.create(MEASURE);
+    MutableViewData view = createView("view", KEY_1);
+    MeasureRecordPlan newPlan = plan.withView(view);
+    assertThat(plan.hasLockedViews()).isFalse();
+    assertThat(newPlan.hasLockedViews()).isTrue();
+    plan.record(
+        ImmutableMap.of(KEY_1, VALUE_1), 1.0, START, Collections.<String, String>emptyMap());
+    assertThat(view.toViewData(START, State.ENABLED, 1).getAggregationMap()).isEmpty();
+    newPlan.record(
+        ImmutableMap.of(KEY_1, VALUE_1), 1.0, START, Collections.<String, String>emptyMap());
+    assertThat(view.toViewData(START, State.ENABLED, 1).getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE_1), CountData.create(1));
+  }
+
+  @Test
+  public void record_ProjectsColumnsOfEachView() {
+    MutableViewData view1 = createView("view1", KEY_2);
+    MutableViewData view2 = createView("view2", KEY_3, KEY_1);
+    MutableViewData view3 = createView("view3");
+    MeasureRecordPlan plan =
+        MeasureRecordPlan.create(MEASURE).withView(view1).withView(view2).withView(view3);
+    plan.record(
+        ImmutableMap.of(KEY_1, VALUE_1, KEY_2, VALUE_2),
+        1.0,
+        START,
+        Collections.<String, String>emptyMap());
+    assertThat(view1.toViewData(START, State.ENABLED, 1).getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE_2), CountData.create(1));
+    assertThat(view2.toViewData(START, State.ENABLED, 1).getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE_1, null), CountData.create(1));
+    assertThat(view3.toViewData(START, State.ENABLED, 1).getAggregationMap())
+        .containsExactly(Collections.emptyList(), CountData.create(1));
+  }
+
+  @Test
+  public void recordConcurrently_OnlyRecordsConcurrentViews() {
+    MutableViewData lockedView = createView("locked", KEY_1);
+    MutableViewData concurrentView =
+        MutableViewData.createConcurrent(
+            View.create(
+                View.Name.create("concurrent"), "", MEASURE, Count.create(), Arrays.asList(KEY_2)),
+            START,
+            SeriesLimit.unlimited(),
+            null);
+    assertThat(concurrentView)
+        .isInstanceOf(MutableViewData.ConcurrentCumulativeMutableViewData.class);
+    MeasureRecordPlan plan =
+        MeasureRecordPlan.create(MEASURE).withView(concurrentView).withView(lockedView);
+    assertThat(plan.hasLockedViews()).isTrue();
+    assertThat(MeasureRecordPlan.create(MEASURE).withView(concurrentView).hasLockedViews())
+        .isFalse();
+
+    plan.recordConcurrently(
+        ImmutableMap.of(KEY_1, VALUE_1, KEY_2, VALUE_2), 1.0, TestClock.create(START));
+    assertThat(lockedView.toViewData(START, State.ENABLED, 1).getAggregationMap()).isEmpty();
+    assertThat(concurrentView.toViewData(START, State.ENABLED, 1).getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE_2), CountData.create(1));
+
+    plan.record(
+        ImmutableMap.of(KEY_1, VALUE_1, KEY_2, VALUE_2),
+        1.0,
+        START,
+        Collections.<String, String>emptyMap());
+    assertThat(lockedView.toViewData(START, State.ENABLED, 1).getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE_1), CountData.create(1));
+    assertThat(concurrentView.toViewData(START, State.ENABLED, 1).getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE_2), CountData.create(1));
+  }
+
+  private static MutableViewData createView(String name, TagKey... columns) {
+    return MutableViewData.create(
+        View.create(View.Name.create(name), "", MEASURE, Count.create(), Arrays.asList(columns)),
+        START);
+  }
+}
@@ -18,16 +18,35 @@ package io.opencensus.implcore.stats;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import com.google.common.collect.Iterables;
+import io.opencensus.common.Duration;
 import io.opencensus.common.Timestamp;
 import io.opencensus.implcore.internal.CurrentState.State;
+import io.opencensus.implcore.stats.StatsTestUtil.SimpleTagContext;
+import io.opencensus.metrics.LabelKey;
+import io.opencensus.metrics.LabelValue;
+import io.opencensus.metrics.Metric;
+import io.opencensus.metrics.MetricDescriptor;
+import io.opencensus.metrics.MetricDescriptor.Type;
+import io.opencensus.metrics.Point;
+import io.opencensus.metrics.TimeSeries;
+import io.opencensus.metrics.Value;
+import io.opencensus.stats.Aggregation.Count;
 import io.opencensus.stats.Aggregation.Mean;
+import io.opencensus.stats.Aggregation.Sum;
+import io.opencensus.stats.AggregationData.CountData;
+import io.opencensus.stats.AggregationData.SumDataDouble;
 import io.opencensus.stats.Measure;
 import io.opencensus.stats.View;
 import io.opencensus.stats.View.AggregationWindow.Cumulative;
+import io.opencensus.stats.View.AggregationWindow.Interval;
 import io.opencensus.stats.View.Name;
 import io.opencensus.stats.ViewData;
 import io.opencensus.stats.ViewData.AggregationWindowData.CumulativeData;
+import io.opencensus.tags.Tag;
+import io.opencensus.tags.TagContext;
 import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
 import io.opencensus.testing.common.TestClock;
 import java.util.Arrays;
 import org.junit.Test;
@@ -38,20 +57,30 @@ import org.junit.runners.JUnit4;
 @RunWith(JUnit4.class)
 public class MeasureToViewMapTest {
 
-  private static final Measure MEASURE =
+  private static final Measure.MeasureDouble MEASURE =
       Measure.MeasureDouble.create("my measurement", "measurement description", "By");
 
   private static final Name VIEW_NAME = View.Name.create("my view");
 
+  private static final Name COUNT_VIEW_NAME = View.Name.create("my count view");
+
+  private static final TagKey KEY = TagKey.create("my key");
+
+  private static final TagValue VALUE = TagValue.create("my value");
+
   private static final Cumulative CUMULATIVE = Cumulative.create();
 
   private static final View VIEW =
       View.create(
-          VIEW_NAME,
-          "view description",
+          VIEW_NAME, "view description", MEASURE, Mean.create(), Arrays.asList(KEY), CUMULATIVE);
+
+  private static final View COUNT_VIEW =
+      View.create(
+          COUNT_VIEW_NAME,
+          "count view description",
           MEASURE,
-          Mean.create(),
-          Arrays.asList(TagKey.create("my key")),
+          Count.create(),
+          Arrays.asList(KEY),
           CUMULATIVE);
 
   @Test
@@ -66,4 +95,217 @@ public class MeasureToViewMapTest {
         .isEqualTo(CumulativeData.create(Timestamp.create(10, 20), Timestamp.create(30, 40)));
     assertThat(viewData.getAggregationMap()).isEmpty();
   }
+
+  @Test
+  public void testGetView_Unregistered() {
+    MeasureToViewMap measureToViewMap = new MeasureToViewMap();
+    TestClock clock = TestClock.create(Timestamp.create(10, 20));
+    assertThat(measureToViewMap.getView(VIEW_NAME, clock, State.ENABLED)).isNull();
+  }
+
+  @Test
+  public void testRecordAndGetMetrics() {
+    MeasureToViewMap measureToViewMap = new MeasureToViewMap();
+    TestClock clock = TestClock.create(Timestamp.create(10, 20));
+    measureToViewMap.registerView(VIEW, clock);
+    measureToViewMap.registerView(COUNT_VIEW, clock);
+    TagContext tags = new SimpleTagContext(Tag.create(KEY, VALUE));
+    measureToViewMap.record(
+        tags, MeasureMapInternal.builder().put(MEASURE, 5.0).build(), clock.now());
+    // A measure with the same name but a different description is not registered.
+    measureToViewMap.record(
+        tags,
+        MeasureMapInternal.builder()
+            .put(
+                Measure.MeasureDouble.create(
+                    "my measurement", "other measurement description", "By"),
+                1.0)
+            .build(),
+        clock.now());
+    assertThat(measureToViewMap.getMetrics(clock, State.ENABLED)).hasSize(2);
+    assertThat(
+            measureToViewMap
+                .getView(COUNT_VIEW_NAME, clock, State.ENABLED)
+                .getAggregationMap()
+                .get(Arrays.asList(VALUE)))
+        .isEqualTo(CountData.create(1));
+  }
+
+  @Test
+  public void record_IntervalView_TimestampBeforeNewestBucket() {
+    MeasureToViewMap measureToViewMap = new MeasureToViewMap();
+    TestClock clock = TestClock.create(Timestamp.create(10, 0));
+    View intervalView =
+        View.create(
+            VIEW_NAME,
+            "view description",
+            MEASURE,
+            Sum.create(),
+            Arrays.asList(KEY),
+            Interval.create(Duration.create(10, 0)));
+    measureToViewMap.registerView(intervalView, clock);
+    // A query rolls the buckets forward, after a batch of events read its timestamp.
+    clock.setTime(Timestamp.create(15, 1000000));
+    measureToViewMap.getView(VIEW_NAME, clock, State.ENABLED);
+    TagContext tags = new SimpleTagContext(Tag.create(KEY, VALUE));
+    measureToViewMap.record(
+        tags,
+        MeasureMapInternal.builder().put(MEASURE, 5.0).build(),
+        Timestamp.create(14, 999000000));
+    ViewData viewData = measureToViewMap.getView(VIEW_NAME, clock, State.ENABLED);
+    assertThat(viewData.getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE), SumDataDouble.create(5.0));
+  }
+
+  @Test
+  public void testGetMetrics_IntervalView() {
+    MeasureToViewMap measureToViewMap = new MeasureToViewMap();
+    TestClock clock = TestClock.create(Timestamp.create(10, 0));
+    View intervalView =
+        View.create(
+            VIEW_NAME,
+            "view description",
+            MEASURE,
+            Sum.create(),
+            Arrays.asList(KEY),
+            Interval.create(Duration.create(10, 0)));
+    measureToViewMap.registerView(intervalView, clock);
+    TagContext tags = new SimpleTagContext(Tag.create(KEY, VALUE));
+    clock.setTime(Timestamp.create(11, 0));
+    measureToViewMap.record(
+        tags, MeasureMapInternal.builder().put(MEASURE, 5.0).build(), clock.now());
+    clock.setTime(Timestamp.create(15, 0));
+    assertThat(measureToViewMap.getMetrics(clock, State.ENABLED))
+        .containsExactly(
+            Metric.create(
+                MetricDescriptor.create(
+                    VIEW_NAME.asString(),
+                    "view description",
+                    "By",
+                    Type.GAUGE_DOUBLE,
+                    Arrays.asList(LabelKey.create(KEY.getName(), ""))),
+                Arrays.asList(
+                    TimeSeries.create(
+                        Arrays.asList(LabelValue.create(VALUE.asString())),
+                        Arrays.asList(Point.create(Value.doubleValue(5.0), clock.now())),
+                        null))));
+    assertThat(measureToViewMap.getMetrics(clock, State.DISABLED)).isEmpty();
+
+    // All values have expired after the interval.
+    clock.setTime(Timestamp.create(30, 0));
+    assertThat(
+            Iterables.getOnlyElement(measureToViewMap.getMetrics(clock, State.ENABLED))
+                .getTimeSeriesList())
+        .isEmpty();
+  }
+
+  @Test
+  public void testGetChangedMetrics() {
+    MeasureToViewMap measureToViewMap = new MeasureToViewMap();
+    TestClock clock = TestClock.create(Timestamp.create(10, 20));
+    measureToViewMap.registerView(VIEW, clock);
+    measureToViewMap.registerView(COUNT_VIEW, clock);
+    TagContext tags = new SimpleTagContext(Tag.create(KEY, VALUE));
+    measureToViewMap.record(
+        tags, MeasureMapInternal.builder().put(MEASURE, 5.0).build(), clock.now());
+    ChangedMetrics changedMetrics =
+        measureToViewMap.getChangedMetrics(clock, State.ENABLED, ChangedMetrics.INITIAL_CURSOR);
+    assertThat(changedMetrics.getMetrics()).hasSize(2);
+
+    // Views without changed series are omitted.
+    long cursor = changedMetrics.getCursor();
+    changedMetrics = measureToViewMap.getChangedMetrics(clock, State.ENABLED, cursor);
+    assertThat(changedMetrics.getMetrics()).isEmpty();
+    assertThat(changedMetrics.getCursor()).isGreaterThan(cursor);
+
+    // Collecting the views, for example with getView, doesn't hide the change from the cursor.
+    measureToViewMap.record(
+        tags, MeasureMapInternal.builder().put(MEASURE, 1.0).build(), clock.now());
+    assertThat(measureToViewMap.getView(VIEW_NAME, clock, State.ENABLED)).isNotNull();
+    changedMetrics =
+        measureToViewMap.getChangedMetrics(clock, State.ENABLED, changedMetrics.getCursor());
+    assertThat(changedMetrics.getMetrics()).hasSize(2);
+    assertThat(
+            measureToViewMap
+                .getChangedMetrics(clock, State.ENABLED, changedMetrics.getCursor())
+                .getMetrics())
+        .isEmpty();
+  }
+
+  @Test
+  public void testGetDeltaMetrics() {
+    MeasureToViewMap measureToViewMap = new MeasureToViewMap();
+    TestClock clock = TestClock.create(Timestamp.create(10, 20));
+    measureToViewMap.registerView(COUNT_VIEW, clock);
+    TagContext tags = new SimpleTagContext(Tag.create(KEY, VALUE));
+    // Recordings before delta views are enabled are not in any delta.
+    measureToViewMap.record(
+        tags, MeasureMapInternal.builder().put(MEASURE, 5.0).build(), clock.now());
+    assertThat(measureToViewMap.getDeltaMetrics(clock, State.ENABLED)).isEmpty();
+
+    Timestamp enabled = Timestamp.create(20, 0);
+    clock.setTime(enabled);
+    measureToViewMap.enableDeltaViews(clock);
+    // Views registered after delta views are enabled also have deltas.
+    measureToViewMap.registerView(VIEW, clock);
+    measureToViewMap.record(
+        tags, MeasureMapInternal.builder().put(MEASURE, 1.0).build(), clock.now());
+    Timestamp collected = Timestamp.create(30, 0);
+    clock.setTime(collected);
+    assertThat(measureToViewMap.getDeltaMetrics(clock, State.ENABLED)).hasSize(2);
+    for (Metric metric : measureToViewMap.getDeltaMetrics(clock, State.ENABLED)) {
+      assertThat(metric.getTimeSeriesList()).isEmpty();
+    }
+    measureToViewMap.record(
+        tags, MeasureMapInternal.builder().put(MEASURE, 1.0).build(), clock.now());
+    clock.setTime(Timestamp.create(40, 0));
+    Metric countMetric = measureToViewMap.getDeltaMetrics(clock, State.ENABLED).get(0);
+    TimeSeries timeSeries = Iterables.getOnlyElement(countMetric.getTimeSeriesList());
+    assertThat(timeSeries.getStartTimestamp()).isEqualTo(collected);
+    assertThat(timeSeries.getPoints())
+        .containsExactly(Point.create(Value.longValue(1), Timestamp.create(40, 0)));
+
+    // The cumulative metrics still have all the recordings, and no delta views.
+    assertThat(measureToViewMap.getMetrics(clock, State.ENABLED)).hasSize(2);
+    assertThat(measureToViewMap.getView(COUNT_VIEW_NAME, clock, State.ENABLED).getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE), CountData.create(3));
+  }
+
+  @Test
+  public void testGetDeltaMetrics_ConcurrentRecording() {
+    MeasureToViewMap measureToViewMap =
+        new MeasureToViewMap(StatsOptions.builder().setConcurrentRecording(true).build());
+    TestClock clock = TestClock.create(Timestamp.create(10, 20));
+    measureToViewMap.registerView(COUNT_VIEW, clock);
+    measureToViewMap.enableDeltaViews(clock);
+    TagContext tags = new SimpleTagContext(Tag.create(KEY, VALUE));
+    // The delta of a view that is recorded concurrently doesn't need the event queue either.
+    assertThat(
+            measureToViewMap.recordConcurrently(
+                tags, MeasureMapInternal.builder().put(MEASURE, 1.0).build(), clock))
+        .isFalse();
+    clock.setTime(Timestamp.create(20, 0));
+    Metric countMetric =
+        Iterables.getOnlyElement(measureToViewMap.getDeltaMetrics(clock, State.ENABLED));
+    TimeSeries timeSeries = Iterables.getOnlyElement(countMetric.getTimeSeriesList());
+    assertThat(timeSeries.getStartTimestamp()).isEqualTo(Timestamp.create(10, 20));
+    assertThat(timeSeries.getPoints())
+        .containsExactly(Point.create(Value.longValue(1), Timestamp.create(20, 0)));
+    assertThat(measureToViewMap.getView(COUNT_VIEW_NAME, clock, State.ENABLED).getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE), CountData.create(1));
+  }
+
+  @Test
+  public void testClearStats() {
+    MeasureToViewMap measureToViewMap = new MeasureToViewMap();
+    TestClock clock = TestClock.create(Timestamp.create(10, 20));
+    measureToViewMap.registerView(COUNT_VIEW, clock);
+    measureToViewMap.record(
+        new SimpleTagContext(Tag.create(KEY, VALUE)),
+        MeasureMapInternal.builder().put(MEASURE, 5.0).build(),
+        clock.now());
+    measureToViewMap.clearStats();
+    assertThat(measureToViewMap.getView(COUNT_VIEW_NAME, clock, State.ENABLED).getAggregationMap())
+        .isEmpty();
+  }
 }
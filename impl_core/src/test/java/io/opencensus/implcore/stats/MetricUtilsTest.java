@@ -28,6 +28,7 @@ import io.opencensus.stats.Aggregation.Count;
 import io.opencensus.stats.Aggregation.Distribution;
 import io.opencensus.stats.Aggregation.LastValue;
 import io.opencensus.stats.Aggregation.Mean;
+import io.opencensus.stats.Aggregation.Quantiles;
 import io.opencensus.stats.Aggregation.Sum;
 import io.opencensus.stats.BucketBoundaries;
 import io.opencensus.stats.Measure.MeasureDouble;
@@ -71,6 +72,7 @@ public class MetricUtilsTest {
   private static final Mean MEAN = Mean.create();
   private static final Distribution DISTRIBUTION = Distribution.create(BUCKET_BOUNDARIES);
   private static final LastValue LAST_VALUE = LastValue.create();
+  private static final Quantiles QUANTILES = Quantiles.create(Arrays.asList(0.5, 0.99));
   private static final View VIEW_1 =
       View.create(
           VIEW_NAME, VIEW_DESCRIPTION, MEASURE_DOUBLE, LAST_VALUE, Collections.singletonList(KEY));
@@ -96,9 +98,11 @@ public class MetricUtilsTest {
   }
 
   @Test
-  public void viewToMetricDescriptor_NoIntervalViews() {
+  public void viewToMetricDescriptor_IntervalViews() {
     MetricDescriptor metricDescriptor = MetricUtils.viewToMetricDescriptor(VIEW_2);
-    assertThat(metricDescriptor).isNull();
+    assertThat(metricDescriptor.getName()).isEqualTo(VIEW_NAME_2.asString());
+    assertThat(metricDescriptor.getType()).isEqualTo(Type.GAUGE_DOUBLE);
+    assertThat(metricDescriptor.getLabelKeys()).containsExactly(LabelKey.create(KEY.getName(), ""));
   }
 
   @Test
@@ -115,6 +119,26 @@ public class MetricUtilsTest {
         .isEqualTo(Type.CUMULATIVE_DISTRIBUTION);
     assertThat(MetricUtils.getType(MEASURE_LONG, DISTRIBUTION))
         .isEqualTo(Type.CUMULATIVE_DISTRIBUTION);
+    assertThat(MetricUtils.getType(MEASURE_DOUBLE, QUANTILES)).isEqualTo(Type.SUMMARY);
+    assertThat(MetricUtils.getType(MEASURE_LONG, QUANTILES)).isEqualTo(Type.SUMMARY);
+  }
+
+  @Test
+  public void getIntervalType() {
+    assertThat(MetricUtils.getIntervalType(MEASURE_DOUBLE, LAST_VALUE))
+        .isEqualTo(Type.GAUGE_DOUBLE);
+    assertThat(MetricUtils.getIntervalType(MEASURE_LONG, LAST_VALUE)).isEqualTo(Type.GAUGE_INT64);
+    assertThat(MetricUtils.getIntervalType(MEASURE_DOUBLE, SUM)).isEqualTo(Type.GAUGE_DOUBLE);
+    assertThat(MetricUtils.getIntervalType(MEASURE_LONG, SUM)).isEqualTo(Type.GAUGE_INT64);
+    assertThat(MetricUtils.getIntervalType(MEASURE_DOUBLE, MEAN)).isEqualTo(Type.GAUGE_DOUBLE);
+    assertThat(MetricUtils.getIntervalType(MEASURE_LONG, MEAN)).isEqualTo(Type.GAUGE_DOUBLE);
+    assertThat(MetricUtils.getIntervalType(MEASURE_DOUBLE, COUNT)).isEqualTo(Type.GAUGE_INT64);
+    assertThat(MetricUtils.getIntervalType(MEASURE_LONG, COUNT)).isEqualTo(Type.GAUGE_INT64);
+    assertThat(MetricUtils.getIntervalType(MEASURE_DOUBLE, DISTRIBUTION))
+        .isEqualTo(Type.GAUGE_DISTRIBUTION);
+    assertThat(MetricUtils.getIntervalType(MEASURE_LONG, DISTRIBUTION))
+        .isEqualTo(Type.GAUGE_DISTRIBUTION);
+    assertThat(MetricUtils.getIntervalType(MEASURE_DOUBLE, QUANTILES)).isEqualTo(Type.SUMMARY);
   }
 
   @Test
@@ -17,20 +17,30 @@
 package io.opencensus.implcore.stats;
 
 import static com.google.common.truth.Truth.assertThat;
+import static io.opencensus.implcore.stats.MutableAggregation.MutableDistribution.EXEMPLAR_SAMPLING_INTERVAL_NANOS;
 import static io.opencensus.implcore.stats.StatsTestUtil.assertAggregationDataEquals;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.opencensus.common.Timestamp;
+import io.opencensus.implcore.stats.MutableAggregation.ConcurrentCount;
+import io.opencensus.implcore.stats.MutableAggregation.ConcurrentLastValueDouble;
+import io.opencensus.implcore.stats.MutableAggregation.ConcurrentLastValueLong;
+import io.opencensus.implcore.stats.MutableAggregation.ConcurrentSumDouble;
+import io.opencensus.implcore.stats.MutableAggregation.ConcurrentSumLong;
 import io.opencensus.implcore.stats.MutableAggregation.MutableCount;
 import io.opencensus.implcore.stats.MutableAggregation.MutableDistribution;
 import io.opencensus.implcore.stats.MutableAggregation.MutableLastValueDouble;
 import io.opencensus.implcore.stats.MutableAggregation.MutableLastValueLong;
 import io.opencensus.implcore.stats.MutableAggregation.MutableMean;
+import io.opencensus.implcore.stats.MutableAggregation.MutableQuantiles;
 import io.opencensus.implcore.stats.MutableAggregation.MutableSumDouble;
 import io.opencensus.implcore.stats.MutableAggregation.MutableSumLong;
 import io.opencensus.metrics.Distribution.Bucket;
 import io.opencensus.metrics.Point;
+import io.opencensus.metrics.Summary;
 import io.opencensus.metrics.Value;
+import io.opencensus.stats.Aggregation.Quantiles;
 import io.opencensus.stats.AggregationData;
 import io.opencensus.stats.AggregationData.CountData;
 import io.opencensus.stats.AggregationData.DistributionData;
@@ -38,6 +48,7 @@ import io.opencensus.stats.AggregationData.DistributionData.Exemplar;
 import io.opencensus.stats.AggregationData.LastValueDataDouble;
 import io.opencensus.stats.AggregationData.LastValueDataLong;
 import io.opencensus.stats.AggregationData.MeanData;
+import io.opencensus.stats.AggregationData.QuantilesData;
 import io.opencensus.stats.AggregationData.SumDataDouble;
 import io.opencensus.stats.AggregationData.SumDataLong;
 import io.opencensus.stats.BucketBoundaries;
@@ -63,6 +74,7 @@ public class MutableAggregationTest {
   private static final BucketBoundaries BUCKET_BOUNDARIES_EMPTY =
       BucketBoundaries.create(Collections.<Double>emptyList());
   private static final Timestamp TIMESTAMP = Timestamp.create(60, 0);
+  private static final Quantiles QUANTILES = Quantiles.create(Arrays.asList(0.0, 0.5, 1.0));
 
   @Test
   public void testCreateEmpty() {
@@ -190,6 +202,31 @@ public class MutableAggregationTest {
     assertThat(mutableDistributionNoHistogram.getExemplars()).isNull();
   }
 
+  @Test
+  public void testAdd_DistributionSamplesExemplarsAtMostOncePerSecond() {
+    MutableDistribution mutableDistribution = MutableDistribution.create(BUCKET_BOUNDARIES);
+    Map<String, String> attachments1 = Collections.singletonMap("k1", "v1");
+    Map<String, String> attachments2 = Collections.singletonMap("k2", "v2");
+    Map<String, String> attachments3 = Collections.singletonMap("k3", "v3");
+    Timestamp timestamp1 = Timestamp.fromMillis(1000);
+    Timestamp timestamp2 = timestamp1.addNanos(EXEMPLAR_SAMPLING_INTERVAL_NANOS - 1);
+    Timestamp timestamp3 = timestamp1.addNanos(EXEMPLAR_SAMPLING_INTERVAL_NANOS);
+
+    // All the values are in the 3rd bucket [0.0, 10.0).
+    mutableDistribution.add(1.0, attachments1, timestamp1);
+    mutableDistribution.add(2.0, attachments2, timestamp2); // Too soon, not sampled.
+    assertThat(mutableDistribution.getExemplars()[2])
+        .isEqualTo(Exemplar.create(1.0, timestamp1, attachments1));
+    mutableDistribution.add(3.0, attachments3, timestamp3);
+    assertThat(mutableDistribution.getExemplars()[2])
+        .isEqualTo(Exemplar.create(3.0, timestamp3, attachments3));
+    // An exemplar from the past replaces the current one, in case the clock went backwards.
+    mutableDistribution.add(2.0, attachments2, timestamp2);
+    assertThat(mutableDistribution.getExemplars()[2])
+        .isEqualTo(Exemplar.create(2.0, timestamp2, attachments2));
+    assertThat(mutableDistribution.getBucketCounts()).isEqualTo(new long[] {0, 0, 4, 0});
+  }
+
   @Test
   public void testCombine_SumCountMean() {
     // combine() for Mutable Sum, Count and Mean will pick up fractional stats
@@ -265,6 +302,133 @@ public class MutableAggregationTest {
     verifyMutableDistribution(combined, 0, 8, -20, 20, 1500.0, new long[] {2, 2, 1, 3}, TOLERANCE);
   }
 
+  @Test
+  public void testAdd_Quantiles() {
+    MutableQuantiles quantiles = MutableQuantiles.create(QUANTILES);
+    for (double value : Arrays.asList(-1.0, 1.0, -5.0, 20.0, 5.0)) {
+      quantiles.add(value, Collections.<String, String>emptyMap(), TIMESTAMP);
+    }
+    assertThat(quantiles.getCount()).isEqualTo(5);
+    assertThat(quantiles.getSum()).isWithin(TOLERANCE).of(20.0);
+    Map<Double, Double> quantileValues =
+        ((QuantilesData) quantiles.toAggregationData()).getQuantileValues();
+    assertThat(quantileValues.keySet()).containsExactly(0.0, 0.5, 1.0).inOrder();
+    assertThat(quantileValues.get(0.0)).isWithin(TOLERANCE).of(-5.0);
+    assertThat(quantileValues.get(0.5)).isWithin(Quantiles.DEFAULT_RELATIVE_ACCURACY).of(1.0);
+    assertThat(quantileValues.get(1.0)).isWithin(TOLERANCE).of(20.0);
+  }
+
+  @Test
+  public void testCombine_Quantiles() {
+    // Like Distribution, combine() for MutableQuantiles ignores fractional stats.
+    MutableQuantiles quantiles1 = MutableQuantiles.create(QUANTILES);
+    MutableQuantiles quantiles2 = MutableQuantiles.create(QUANTILES);
+    quantiles1.add(5.0, Collections.<String, String>emptyMap(), TIMESTAMP);
+    quantiles2.add(-10.0, Collections.<String, String>emptyMap(), TIMESTAMP);
+    quantiles2.add(30.0, Collections.<String, String>emptyMap(), TIMESTAMP);
+
+    MutableQuantiles combined = MutableQuantiles.create(QUANTILES);
+    combined.combine(quantiles1, 1.0); // quantiles1 will be combined
+    combined.combine(quantiles2, 0.6); // quantiles2 will be ignored
+    assertThat(combined.toAggregationData())
+        .isEqualTo(QuantilesData.create(1, 5.0, ImmutableMap.of(0.0, 5.0, 0.5, 5.0, 1.0, 5.0)));
+
+    combined.combine(quantiles2, 1.0); // quantiles2 will be combined
+    assertThat(combined.getCount()).isEqualTo(3);
+    assertThat(combined.getSum()).isWithin(TOLERANCE).of(25.0);
+    Map<Double, Double> quantileValues =
+        ((QuantilesData) combined.toAggregationData()).getQuantileValues();
+    assertThat(quantileValues.get(0.0)).isWithin(TOLERANCE).of(-10.0);
+    assertThat(quantileValues.get(0.5)).isWithin(5.0 * Quantiles.DEFAULT_RELATIVE_ACCURACY).of(5.0);
+    assertThat(quantileValues.get(1.0)).isWithin(TOLERANCE).of(30.0);
+  }
+
+  @Test
+  public void testCombine_QuantilesMismatch() {
+    MutableQuantiles quantiles = MutableQuantiles.create(QUANTILES);
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Quantiles should match.");
+    quantiles.combine(
+        MutableQuantiles.create(Quantiles.create(Collections.singletonList(0.5))), 1.0);
+  }
+
+  @Test
+  public void testReset() {
+    MutableDistribution distribution = MutableDistribution.create(BUCKET_BOUNDARIES);
+    List<MutableAggregation> aggregations =
+        Arrays.asList(
+            MutableSumDouble.create(),
+            MutableSumLong.create(),
+            MutableCount.create(),
+            MutableMean.create(),
+            distribution,
+            MutableLastValueDouble.create(),
+            MutableLastValueLong.create());
+    for (MutableAggregation aggregation : aggregations) {
+      aggregation.add(5.0, Collections.singletonMap("k", "v"), TIMESTAMP);
+      aggregation.reset();
+    }
+
+    assertThat(((MutableSumDouble) aggregations.get(0)).getSum()).isWithin(TOLERANCE).of(0);
+    assertThat(((MutableSumLong) aggregations.get(1)).getSum()).isWithin(TOLERANCE).of(0);
+    assertThat(((MutableCount) aggregations.get(2)).getCount()).isEqualTo(0);
+    assertThat(((MutableMean) aggregations.get(3)).getCount()).isEqualTo(0);
+    assertThat(((MutableMean) aggregations.get(3)).getSum()).isWithin(TOLERANCE).of(0);
+    assertThat(distribution.getMin()).isPositiveInfinity();
+    assertThat(distribution.getMax()).isNegativeInfinity();
+    assertThat(distribution.getExemplars()).isEqualTo(new Exemplar[4]);
+    assertThat(distribution.getCount()).isEqualTo(0);
+    assertThat(distribution.getMean()).isWithin(TOLERANCE).of(0);
+    assertThat(distribution.getSumOfSquaredDeviations()).isWithin(TOLERANCE).of(0);
+    assertThat(distribution.getBucketCounts()).isEqualTo(new long[4]);
+    assertThat(((MutableLastValueDouble) aggregations.get(5)).getLastValue()).isNaN();
+    assertThat(((MutableLastValueLong) aggregations.get(6)).getLastValue()).isNaN();
+
+    MutableQuantiles quantiles = MutableQuantiles.create(QUANTILES);
+    quantiles.add(5.0, Collections.<String, String>emptyMap(), TIMESTAMP);
+    quantiles.reset();
+    assertThat(quantiles.getCount()).isEqualTo(0);
+    assertThat(quantiles.getSum()).isWithin(TOLERANCE).of(0);
+    assertThat(((QuantilesData) quantiles.toAggregationData()).getQuantileValues().get(0.5))
+        .isNaN();
+
+    // A reset LastValue doesn't overwrite the value it is combined into.
+    MutableLastValueDouble combined = MutableLastValueDouble.create();
+    combined.add(1.0, Collections.<String, String>emptyMap(), TIMESTAMP);
+    combined.combine(aggregations.get(5), 1.0);
+    assertThat(combined.getLastValue()).isWithin(TOLERANCE).of(1.0);
+  }
+
+  @Test
+  public void concurrentAggregations() {
+    List<MutableAggregation> aggregations =
+        Arrays.<MutableAggregation>asList(
+            ConcurrentSumDouble.create(),
+            ConcurrentSumLong.create(),
+            ConcurrentCount.create(),
+            ConcurrentLastValueDouble.create(),
+            ConcurrentLastValueLong.create());
+    for (double value : Arrays.asList(-1.0, 5.5, 3.0)) {
+      for (MutableAggregation aggregation : aggregations) {
+        aggregation.add(value, Collections.<String, String>emptyMap(), TIMESTAMP);
+      }
+    }
+    assertThat(aggregations.get(0).toAggregationData()).isEqualTo(SumDataDouble.create(7.5));
+    assertThat(aggregations.get(1).toAggregationData()).isEqualTo(SumDataLong.create(8));
+    assertThat(aggregations.get(2).toAggregationData()).isEqualTo(CountData.create(3));
+    assertThat(aggregations.get(3).toAggregationData()).isEqualTo(LastValueDataDouble.create(3.0));
+    assertThat(aggregations.get(4).toAggregationData()).isEqualTo(LastValueDataLong.create(3));
+    assertThat(aggregations.get(2).toPoint(TIMESTAMP))
+        .isEqualTo(Point.create(Value.longValue(3), TIMESTAMP));
+
+    for (MutableAggregation aggregation : aggregations) {
+      aggregation.reset();
+    }
+    assertThat(aggregations.get(0).toAggregationData()).isEqualTo(SumDataDouble.create(0));
+    assertThat(aggregations.get(2).toAggregationData()).isEqualTo(CountData.create(0));
+    assertThat(((ConcurrentLastValueDouble) aggregations.get(3)).getLastValue()).isNaN();
+  }
+
   @Test
   public void mutableAggregation_ToAggregationData() {
     assertThat(MutableSumDouble.create().toAggregationData()).isEqualTo(SumDataDouble.create(0));
@@ -284,6 +448,10 @@ public class MutableAggregationTest {
         .isEqualTo(LastValueDataDouble.create(Double.NaN));
     assertThat(MutableLastValueLong.create().toAggregationData())
         .isEqualTo(LastValueDataLong.create(0));
+    assertThat(MutableQuantiles.create(QUANTILES).toAggregationData())
+        .isEqualTo(
+            QuantilesData.create(
+                0, 0, ImmutableMap.of(0.0, Double.NaN, 0.5, Double.NaN, 1.0, Double.NaN)));
   }
 
   @Test
@@ -315,6 +483,14 @@ public class MutableAggregationTest {
         .isEqualTo(Point.create(Value.doubleValue(Double.NaN), TIMESTAMP));
     assertThat(MutableLastValueLong.create().toPoint(TIMESTAMP))
         .isEqualTo(Point.create(Value.longValue(0), TIMESTAMP));
+    MutableQuantiles quantiles = MutableQuantiles.create(QUANTILES);
+    quantiles.add(2.0, Collections.<String, String>emptyMap(), TIMESTAMP);
+    assertThat(quantiles.toPoint(TIMESTAMP))
+        .isEqualTo(
+            Point.create(
+                Value.summaryValue(
+                    Summary.create(1, 2.0, ImmutableMap.of(0.0, 2.0, 0.5, 2.0, 1.0, 2.0))),
+                TIMESTAMP));
   }
 
   private static void verifyMutableDistribution(
@@ -18,8 +18,34 @@ package io.opencensus.implcore.stats;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import io.opencensus.common.Duration;
 import io.opencensus.common.Timestamp;
+import io.opencensus.implcore.internal.CurrentState.State;
+import io.opencensus.implcore.stats.MutableViewData.DeltaMutableViewData;
+import io.opencensus.metrics.LabelValue;
+import io.opencensus.metrics.Metric;
+import io.opencensus.metrics.TimeSeries;
+import io.opencensus.metrics.Value;
+import io.opencensus.stats.Aggregation.Count;
+import io.opencensus.stats.Aggregation.Distribution;
+import io.opencensus.stats.AggregationData.CountData;
+import io.opencensus.stats.BucketBoundaries;
+import io.opencensus.stats.Measure.MeasureDouble;
+import io.opencensus.stats.View;
+import io.opencensus.stats.View.AggregationWindow.Cumulative;
+import io.opencensus.stats.View.AggregationWindow.Interval;
+import io.opencensus.stats.ViewData;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import io.opencensus.testing.common.TestClock;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
@@ -27,8 +53,327 @@ import org.junit.runners.JUnit4;
 @RunWith(JUnit4.class)
 public class MutableViewDataTest {
 
+  private static final MeasureDouble MEASURE = MeasureDouble.create("measure", "", "1");
+  private static final TagKey KEY = TagKey.create("KEY");
+  private static final TagValue VALUE_1 = TagValue.create("VALUE_1");
+  private static final TagValue VALUE_2 = TagValue.create("VALUE_2");
+  private static final TagValue VALUE_3 = TagValue.create("VALUE_3");
+  private static final Timestamp START = Timestamp.create(10, 0);
+  private static final Duration IDLE_TIMEOUT = Duration.create(10, 0);
+  private static final List<TagValue> OVERFLOW =
+      Collections.singletonList(MutableViewData.OVERFLOW_TAG_VALUE);
+
+  @Rule public final ExpectedException thrown = ExpectedException.none();
+
+  private long generation = 0;
+
   @Test
   public void testConstants() {
     assertThat(MutableViewData.ZERO_TIMESTAMP).isEqualTo(Timestamp.create(0, 0));
   }
+
+  @Test
+  public void cumulativeView_FoldsNewSeriesIntoOverflowSeries() {
+    SeriesLimit seriesLimit = SeriesLimit.create(2);
+    MutableViewData view =
+        MutableViewData.create(createView(Cumulative.create()), START, seriesLimit, null);
+    testFoldsNewSeriesIntoOverflowSeries(view, seriesLimit);
+  }
+
+  @Test
+  public void concurrentCumulativeView_FoldsNewSeriesIntoOverflowSeries() {
+    SeriesLimit seriesLimit = SeriesLimit.create(2);
+    MutableViewData view =
+        MutableViewData.createConcurrent(createView(Cumulative.create()), START, seriesLimit, null);
+    assertThat(view).isInstanceOf(MutableViewData.ConcurrentCumulativeMutableViewData.class);
+    testFoldsNewSeriesIntoOverflowSeries(view, seriesLimit);
+  }
+
+  @Test
+  public void intervalView_FoldsNewSeriesIntoOverflowSeries() {
+    SeriesLimit seriesLimit = SeriesLimit.create(2);
+    MutableViewData view =
+        MutableViewData.create(
+            createView(Interval.create(Duration.create(60, 0))), START, seriesLimit, null);
+    testFoldsNewSeriesIntoOverflowSeries(view, seriesLimit);
+  }
+
+  @Test
+  public void unlimitedView_KeepsAllSeries() {
+    MutableViewData view = MutableViewData.create(createView(Cumulative.create()), START);
+    record(view, VALUE_1, VALUE_2, VALUE_3);
+    assertThat(toViewData(view, START).getAggregationMap())
+        .containsExactly(
+            Arrays.asList(VALUE_1), CountData.create(1),
+            Arrays.asList(VALUE_2), CountData.create(1),
+            Arrays.asList(VALUE_3), CountData.create(1));
+  }
+
+  @Test
+  public void cumulativeView_EvictsIdleSeries() {
+    MutableViewData view =
+        MutableViewData.create(
+            createView(Cumulative.create()), START, SeriesLimit.unlimited(), IDLE_TIMEOUT);
+    testEvictsIdleSeries(view);
+  }
+
+  @Test
+  public void concurrentCumulativeView_EvictsIdleSeries() {
+    MutableViewData view =
+        MutableViewData.createConcurrent(
+            createView(Cumulative.create()), START, SeriesLimit.unlimited(), IDLE_TIMEOUT);
+    assertThat(view).isInstanceOf(MutableViewData.ConcurrentCumulativeMutableViewData.class);
+    testEvictsIdleSeries(view);
+  }
+
+  @Test
+  public void concurrentCumulativeView_RecordConcurrentlyStartsNewSeriesAtClockTime() {
+    MutableViewData.ConcurrentCumulativeMutableViewData view =
+        (MutableViewData.ConcurrentCumulativeMutableViewData)
+            MutableViewData.createConcurrent(
+                createView(Cumulative.create()), START, SeriesLimit.unlimited(), IDLE_TIMEOUT);
+    Timestamp seriesStart = START.addDuration(Duration.create(5, 0));
+    view.recordConcurrently(
+        new TagValue[] {VALUE_1}, new int[] {0}, 1.0, TestClock.create(seriesStart));
+    assertThat(getStartTimestamps(toMetric(view, seriesStart)))
+        .containsExactly(Arrays.asList(LabelValue.create("VALUE_1")), seriesStart);
+  }
+
+  @Test
+  public void cumulativeView_WithoutIdleTimeout_KeepsIdleSeries() {
+    MutableViewData view = MutableViewData.create(createView(Cumulative.create()), START);
+    record(view, VALUE_1);
+    Timestamp later = START.addDuration(Duration.create(3600, 0));
+    assertThat(getStartTimestamps(toMetric(view, later))).hasSize(1);
+    assertThat(getStartTimestamps(toMetric(view, later.addDuration(IDLE_TIMEOUT))))
+        .containsExactly(Arrays.asList(LabelValue.create("VALUE_1")), START);
+  }
+
+  private void testEvictsIdleSeries(MutableViewData view) {
+    List<LabelValue> series1 = Arrays.asList(LabelValue.create("VALUE_1"));
+    List<LabelValue> series2 = Arrays.asList(LabelValue.create("VALUE_2"));
+    Timestamp time1 = START.addDuration(Duration.create(1, 0));
+    record(view, time1, VALUE_1, VALUE_2);
+    assertThat(getStartTimestamps(toMetric(view, time1)))
+        .containsExactly(series1, time1, series2, time1);
+
+    // Only VALUE_2 is recorded to within the timeout.
+    Timestamp time2 = time1.addDuration(Duration.create(5, 0));
+    record(view, time2, VALUE_2);
+    assertThat(getStartTimestamps(toMetric(view, time2)))
+        .containsExactly(series1, time1, series2, time1);
+    Timestamp time3 = time1.addDuration(IDLE_TIMEOUT);
+    assertThat(getStartTimestamps(toMetric(view, time3))).containsExactly(series2, time1);
+    assertThat(toViewData(view, time3).getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE_2), CountData.create(2));
+
+    // VALUE_1 comes back as a new series, and VALUE_2 is idle since time2.
+    Timestamp time4 = time2.addDuration(IDLE_TIMEOUT);
+    record(view, time4, VALUE_1);
+    assertThat(getStartTimestamps(toMetric(view, time4))).containsExactly(series1, time4);
+    assertThat(toViewData(view, time4).getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE_1), CountData.create(1));
+  }
+
+  @Test
+  public void cumulativeView_ToMetricReturnsChangedSeries() {
+    testToMetricReturnsChangedSeries(
+        MutableViewData.create(createView(Cumulative.create()), START));
+  }
+
+  @Test
+  public void concurrentCumulativeView_ToMetricReturnsChangedSeries() {
+    testToMetricReturnsChangedSeries(
+        MutableViewData.createConcurrent(
+            createView(Cumulative.create()), START, SeriesLimit.unlimited(), null));
+  }
+
+  @Test
+  public void intervalView_ToMetricReturnsAllSeries() {
+    MutableViewData view =
+        MutableViewData.create(createView(Interval.create(Duration.create(60, 0))), START);
+    record(view, VALUE_1);
+    long cursor = ++generation;
+    assertThat(view.toMetric(START, State.ENABLED, cursor, 0).getTimeSeriesList()).hasSize(1);
+    assertThat(view.toMetric(START, State.ENABLED, ++generation, cursor).getTimeSeriesList())
+        .hasSize(1);
+  }
+
+  @Test
+  public void deltaView_CollectDeltaSwapsOutSeries() {
+    DeltaMutableViewData view =
+        DeltaMutableViewData.create(
+            createView(Cumulative.create()), START, SeriesLimit.unlimited());
+    List<LabelValue> series1 = Arrays.asList(LabelValue.create("VALUE_1"));
+    List<LabelValue> series2 = Arrays.asList(LabelValue.create("VALUE_2"));
+    record(view, VALUE_1, VALUE_2, VALUE_2);
+    Timestamp time1 = START.addDuration(Duration.create(5, 0));
+    Metric metric = view.collectDelta(time1, State.ENABLED);
+    assertThat(getStartTimestamps(metric)).containsExactly(series1, START, series2, START);
+    assertThat(getPointValues(metric))
+        .containsExactly(series1, Value.longValue(1), series2, Value.longValue(2));
+    assertThat(metric.getTimeSeriesList().get(0).getPoints().get(0).getTimestamp())
+        .isEqualTo(time1);
+
+    // The next delta starts at the previous collection, and only has the new recordings.
+    record(view, time1, VALUE_2);
+    Timestamp time2 = time1.addDuration(Duration.create(5, 0));
+    metric = view.collectDelta(time2, State.ENABLED);
+    assertThat(getStartTimestamps(metric)).containsExactly(series2, time1);
+    assertThat(getPointValues(metric)).containsExactly(series2, Value.longValue(1));
+    assertThat(getStartTimestamps(view.collectDelta(time2, State.ENABLED))).isEmpty();
+  }
+
+  @Test
+  public void concurrentDeltaView_RecordConcurrently() {
+    DeltaMutableViewData view =
+        DeltaMutableViewData.createConcurrent(
+            createView(Cumulative.create()), START, SeriesLimit.unlimited());
+    assertThat(view).isInstanceOf(MutableViewData.ConcurrentMutableViewData.class);
+    List<LabelValue> series1 = Arrays.asList(LabelValue.create("VALUE_1"));
+    TestClock clock = TestClock.create(START);
+    ((MutableViewData.ConcurrentMutableViewData) view)
+        .recordConcurrently(new TagValue[] {VALUE_1}, new int[] {0}, 1.0, clock);
+    ((MutableViewData.ConcurrentMutableViewData) view)
+        .recordConcurrently(new TagValue[] {VALUE_1}, new int[] {0}, 1.0, clock);
+    Timestamp time1 = START.addDuration(Duration.create(5, 0));
+    Metric metric = view.collectDelta(time1, State.ENABLED);
+    assertThat(getStartTimestamps(metric)).containsExactly(series1, START);
+    assertThat(getPointValues(metric)).containsExactly(series1, Value.longValue(2));
+
+    // The series of the next delta are recorded concurrently as well.
+    ((MutableViewData.ConcurrentMutableViewData) view)
+        .recordConcurrently(new TagValue[] {VALUE_1}, new int[] {0}, 1.0, clock);
+    metric = view.collectDelta(time1.addDuration(Duration.create(5, 0)), State.ENABLED);
+    assertThat(getStartTimestamps(metric)).containsExactly(series1, time1);
+    assertThat(getPointValues(metric)).containsExactly(series1, Value.longValue(1));
+  }
+
+  @Test
+  public void concurrentDeltaView_RequiresConcurrentAggregation() {
+    thrown.expect(IllegalArgumentException.class);
+    DeltaMutableViewData.createConcurrent(
+        View.create(
+            View.Name.create("distribution view"),
+            "",
+            MEASURE,
+            Distribution.create(BucketBoundaries.create(Arrays.asList(1.0))),
+            Arrays.asList(KEY),
+            Cumulative.create()),
+        START,
+        SeriesLimit.unlimited());
+  }
+
+  @Test
+  public void deltaView_CollectDeltaWhenDisabled() {
+    DeltaMutableViewData view =
+        DeltaMutableViewData.create(
+            createView(Cumulative.create()), START, SeriesLimit.unlimited());
+    record(view, VALUE_1);
+    assertThat(view.collectDelta(START, State.DISABLED)).isNull();
+  }
+
+  @Test
+  public void deltaView_FoldsNewSeriesIntoOverflowSeries() {
+    SeriesLimit seriesLimit = SeriesLimit.create(2);
+    testFoldsNewSeriesIntoOverflowSeries(
+        DeltaMutableViewData.create(createView(Cumulative.create()), START, seriesLimit),
+        seriesLimit);
+  }
+
+  @Test
+  public void deltaView_RequiresCumulativeView() {
+    thrown.expect(IllegalArgumentException.class);
+    DeltaMutableViewData.create(
+        createView(Interval.create(Duration.create(60, 0))), START, SeriesLimit.unlimited());
+  }
+
+  private void testToMetricReturnsChangedSeries(MutableViewData view) {
+    List<LabelValue> series1 = Arrays.asList(LabelValue.create("VALUE_1"));
+    List<LabelValue> series2 = Arrays.asList(LabelValue.create("VALUE_2"));
+    record(view, VALUE_1, VALUE_2);
+    long cursor1 = ++generation;
+    assertThat(getStartTimestamps(view.toMetric(START, State.ENABLED, cursor1, 0)).keySet())
+        .containsExactly(series1, series2);
+
+    record(view, VALUE_2);
+    // A collection for another consumer doesn't hide the change from the first one.
+    long cursor2 = ++generation;
+    assertThat(getStartTimestamps(view.toMetric(START, State.ENABLED, cursor2, 0)).keySet())
+        .containsExactly(series1, series2);
+    long cursor3 = ++generation;
+    assertThat(getStartTimestamps(view.toMetric(START, State.ENABLED, cursor3, cursor1)).keySet())
+        .containsExactly(series2);
+    assertThat(getStartTimestamps(view.toMetric(START, State.ENABLED, ++generation, cursor3)))
+        .isEmpty();
+  }
+
+  private Metric toMetric(MutableViewData view, Timestamp now) {
+    Metric metric = view.toMetric(now, State.ENABLED, ++generation, ChangedMetrics.INITIAL_CURSOR);
+    assertThat(metric).isNotNull();
+    return metric;
+  }
+
+  private ViewData toViewData(MutableViewData view, Timestamp now) {
+    return view.toViewData(now, State.ENABLED, ++generation);
+  }
+
+  private static Map<List<LabelValue>, Timestamp> getStartTimestamps(
+      @javax.annotation.Nullable Metric metric) {
+    assertThat(metric).isNotNull();
+    Map<List<LabelValue>, Timestamp> startTimestamps = new HashMap<List<LabelValue>, Timestamp>();
+    for (TimeSeries timeSeries : metric.getTimeSeriesList()) {
+      startTimestamps.put(timeSeries.getLabelValues(), timeSeries.getStartTimestamp());
+    }
+    return startTimestamps;
+  }
+
+  private static Map<List<LabelValue>, Value> getPointValues(
+      @javax.annotation.Nullable Metric metric) {
+    assertThat(metric).isNotNull();
+    Map<List<LabelValue>, Value> values = new HashMap<List<LabelValue>, Value>();
+    for (TimeSeries timeSeries : metric.getTimeSeriesList()) {
+      values.put(timeSeries.getLabelValues(), timeSeries.getPoints().get(0).getValue());
+    }
+    return values;
+  }
+
+  private void testFoldsNewSeriesIntoOverflowSeries(MutableViewData view, SeriesLimit seriesLimit) {
+    record(view, VALUE_1, VALUE_2, VALUE_1);
+    assertThat(seriesLimit.getNumOverflowRecordings()).isEqualTo(0);
+    record(view, VALUE_3, VALUE_2, VALUE_3);
+    assertThat(seriesLimit.getNumOverflowRecordings()).isEqualTo(2);
+    assertThat(toViewData(view, START).getAggregationMap())
+        .containsExactly(
+            Arrays.asList(VALUE_1),
+            CountData.create(2),
+            Arrays.asList(VALUE_2),
+            CountData.create(2),
+            OVERFLOW,
+            CountData.create(2));
+  }
+
+  private static void record(MutableViewData view, TagValue... tagValues) {
+    record(view, START, tagValues);
+  }
+
+  private static void record(MutableViewData view, Timestamp timestamp, TagValue... tagValues) {
+    for (TagValue tagValue : tagValues) {
+      view.record(
+          Collections.singletonList(tagValue),
+          1.0,
+          timestamp,
+          Collections.<String, String>emptyMap());
+    }
+  }
+
+  private static View createView(View.AggregationWindow window) {
+    return View.create(
+        View.Name.create("view"),
+        "",
+        MEASURE,
+        Count.create(),
+        Collections.singletonList(KEY),
+        window);
+  }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link QuantileSketch}. */
+@RunWith(JUnit4.class)
+public class QuantileSketchTest {
+
+  private static final double RELATIVE_ACCURACY = 0.01;
+
+  @Rule public final ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void preventInvalidRelativeAccuracy() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("relativeAccuracy should be between 0.0 and 1.0.");
+    QuantileSketch.create(1.0);
+  }
+
+  @Test
+  public void emptySketch() {
+    QuantileSketch sketch = QuantileSketch.create(RELATIVE_ACCURACY);
+    assertThat(sketch.getCount()).isEqualTo(0);
+    assertThat(sketch.getValueAtQuantile(0.5)).isNaN();
+  }
+
+  @Test
+  public void estimatesAreWithinRelativeAccuracy() {
+    QuantileSketch sketch = QuantileSketch.create(RELATIVE_ACCURACY);
+    for (int i = 1; i <= 10000; i++) {
+      sketch.add(i);
+    }
+    assertThat(sketch.getCount()).isEqualTo(10000);
+    assertThat(sketch.getValueAtQuantile(0.0)).isEqualTo(1.0);
+    assertThat(sketch.getValueAtQuantile(1.0)).isEqualTo(10000.0);
+    assertWithinRelativeAccuracy(sketch.getValueAtQuantile(0.5), 5000);
+    assertWithinRelativeAccuracy(sketch.getValueAtQuantile(0.9), 9000);
+    assertWithinRelativeAccuracy(sketch.getValueAtQuantile(0.99), 9900);
+  }
+
+  @Test
+  public void negativeValuesAndZeros() {
+    QuantileSketch sketch = QuantileSketch.create(RELATIVE_ACCURACY);
+    for (double value : new double[] {-100, -10, 0, 0, 10, 100, Double.NaN}) {
+      sketch.add(value);
+    }
+    assertThat(sketch.getCount()).isEqualTo(6);
+    assertThat(sketch.getValueAtQuantile(0.0)).isEqualTo(-100.0);
+    assertWithinRelativeAccuracy(sketch.getValueAtQuantile(0.2), -10);
+    assertThat(sketch.getValueAtQuantile(0.4)).isEqualTo(0.0);
+    assertWithinRelativeAccuracy(sketch.getValueAtQuantile(0.8), 10);
+    assertThat(sketch.getValueAtQuantile(1.0)).isEqualTo(100.0);
+  }
+
+  @Test
+  public void merge() {
+    QuantileSketch sketch1 = QuantileSketch.create(RELATIVE_ACCURACY);
+    QuantileSketch sketch2 = QuantileSketch.create(RELATIVE_ACCURACY);
+    for (int i = 1; i <= 1000; i++) {
+      sketch1.add(i);
+      sketch2.add(1000 + i);
+    }
+    sketch1.merge(sketch2);
+    assertThat(sketch1.getCount()).isEqualTo(2000);
+    assertThat(sketch1.getValueAtQuantile(0.0)).isEqualTo(1.0);
+    assertThat(sketch1.getValueAtQuantile(1.0)).isEqualTo(2000.0);
+    assertWithinRelativeAccuracy(sketch1.getValueAtQuantile(0.25), 500);
+    assertWithinRelativeAccuracy(sketch1.getValueAtQuantile(0.75), 1500);
+  }
+
+  @Test
+  public void preventMergeWithDifferentRelativeAccuracy() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Relative accuracies should match.");
+    QuantileSketch.create(RELATIVE_ACCURACY).merge(QuantileSketch.create(0.05));
+  }
+
+  @Test
+  public void reset() {
+    QuantileSketch sketch = QuantileSketch.create(RELATIVE_ACCURACY);
+    sketch.add(5);
+    sketch.reset();
+    assertThat(sketch.getCount()).isEqualTo(0);
+    assertThat(sketch.getValueAtQuantile(0.5)).isNaN();
+    sketch.add(7);
+    assertThat(sketch.getValueAtQuantile(0.5)).isEqualTo(7.0);
+  }
+
+  @Test
+  public void numBinsIsBounded() {
+    QuantileSketch sketch = QuantileSketch.create(RELATIVE_ACCURACY);
+    for (double value = 1e-300; value < 1e300; value *= 1.001) {
+      sketch.add(value);
+    }
+    assertThat(sketch.getNumAllocatedBins()).isAtMost(QuantileSketch.MAX_NUM_BINS);
+    // Only the lowest bins are collapsed, so high quantiles keep their accuracy. The value at the
+    // quantile is itself only about 1e294, hence the wider tolerance.
+    assertThat(sketch.getValueAtQuantile(0.99)).isWithin(1e294 * 2 * RELATIVE_ACCURACY).of(1e294);
+  }
+
+  private static void assertWithinRelativeAccuracy(double actual, double expected) {
+    assertThat(actual).isWithin(Math.abs(expected) * RELATIVE_ACCURACY).of(expected);
+  }
+}
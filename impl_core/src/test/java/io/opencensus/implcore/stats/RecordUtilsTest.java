@@ -18,7 +18,7 @@ package io.opencensus.implcore.stats;
 
 import static com.google.common.truth.Truth.assertThat;
 
-import com.google.common.collect.ImmutableMap;
+import io.opencensus.common.Timestamp;
 import io.opencensus.implcore.stats.MutableAggregation.MutableDistribution;
 import io.opencensus.stats.Aggregation.Count;
 import io.opencensus.stats.Aggregation.Distribution;
@@ -34,11 +34,8 @@ import io.opencensus.stats.AggregationData.SumDataLong;
 import io.opencensus.stats.BucketBoundaries;
 import io.opencensus.stats.Measure.MeasureDouble;
 import io.opencensus.stats.Measure.MeasureLong;
-import io.opencensus.tags.TagKey;
-import io.opencensus.tags.TagValue;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
+import java.util.Collections;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -52,27 +49,12 @@ public class RecordUtilsTest {
       MeasureDouble.create("measure1", "description", "1");
   private static final MeasureLong MEASURE_LONG =
       MeasureLong.create("measure2", "description", "1");
-  private static final TagKey ORIGINATOR = TagKey.create("originator");
-  private static final TagKey CALLER = TagKey.create("caller");
-  private static final TagKey METHOD = TagKey.create("method");
-  private static final TagValue CALLER_V = TagValue.create("some caller");
-  private static final TagValue METHOD_V = TagValue.create("some method");
 
   @Test
   public void testConstants() {
     assertThat(RecordUtils.UNKNOWN_TAG_VALUE).isNull();
   }
 
-  @Test
-  public void testGetTagValues() {
-    List<TagKey> columns = Arrays.asList(CALLER, METHOD, ORIGINATOR);
-    Map<TagKey, TagValue> tags = ImmutableMap.of(CALLER, CALLER_V, METHOD, METHOD_V);
-
-    assertThat(RecordUtils.getTagValues(tags, columns))
-        .containsExactly(CALLER_V, METHOD_V, RecordUtils.UNKNOWN_TAG_VALUE)
-        .inOrder();
-  }
-
   @Test
   public void createMutableAggregation() {
     BucketBoundaries bucketBoundaries = BucketBoundaries.create(Arrays.asList(-1.0, 0.0, 1.0));
@@ -113,4 +95,32 @@ public class RecordUtilsTest {
     assertThat(mutableDistribution.getSumOfSquaredDeviations()).isWithin(EPSILON).of(0);
     assertThat(mutableDistribution.getBucketCounts()).isEqualTo(new long[4]);
   }
+
+  @Test
+  public void createBucketIndex() {
+    assertThat(RecordUtils.createBucketIndex(Sum.create())).isNull();
+    BucketIndex bucketIndex =
+        RecordUtils.createBucketIndex(
+            Distribution.create(BucketBoundaries.create(Arrays.asList(-1.0, 0.0, 1.0))));
+    assertThat(bucketIndex).isNotNull();
+    assertThat(bucketIndex.getNumBuckets()).isEqualTo(4);
+  }
+
+  @Test
+  public void createMutableAggregation_SharedBucketIndex() {
+    BucketBoundaries bucketBoundaries = BucketBoundaries.create(Arrays.asList(-1.0, 0.0, 1.0));
+    Distribution distribution = Distribution.create(bucketBoundaries);
+    BucketIndex bucketIndex = RecordUtils.createBucketIndex(distribution);
+
+    MutableDistribution mutableDistribution =
+        (MutableDistribution)
+            RecordUtils.createMutableAggregation(distribution, MEASURE_DOUBLE, bucketIndex);
+    mutableDistribution.add(0.5, Collections.<String, String>emptyMap(), Timestamp.create(1, 0));
+    assertThat(mutableDistribution.getBucketBoundaries()).isEqualTo(bucketBoundaries);
+    assertThat(mutableDistribution.getBucketCounts()).isEqualTo(new long[] {0, 0, 1, 0});
+    assertThat(
+            RecordUtils.createMutableAggregation(Sum.create(), MEASURE_DOUBLE, null)
+                .toAggregationData())
+        .isEqualTo(SumDataDouble.create(0));
+  }
 }
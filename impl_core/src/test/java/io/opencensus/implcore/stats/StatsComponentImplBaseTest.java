@@ -19,6 +19,7 @@ package io.opencensus.implcore.stats;
 import static com.google.common.truth.Truth.assertThat;
 
 import io.opencensus.implcore.internal.SimpleEventQueue;
+import io.opencensus.metrics.MetricProducer;
 import io.opencensus.stats.StatsCollectionState;
 import io.opencensus.stats.StatsComponent;
 import io.opencensus.testing.common.TestClock;
@@ -57,6 +58,15 @@ public final class StatsComponentImplBaseTest {
     assertThat(statsComponent.getState()).isEqualTo(StatsCollectionState.ENABLED);
   }
 
+  @Test
+  public void getDeltaMetricProducer_ReturnsSameProducer() {
+    StatsComponentImplBase statsComponentImpl = (StatsComponentImplBase) statsComponent;
+    MetricProducer producer = statsComponentImpl.getDeltaMetricProducer();
+    assertThat(producer).isInstanceOf(DeltaMetricProducerImpl.class);
+    assertThat(statsComponentImpl.getDeltaMetricProducer()).isSameAs(producer);
+    assertThat(producer.getMetrics()).isEmpty();
+  }
+
   @Test
   @SuppressWarnings("deprecation")
   public void setState_DisallowsNull() {
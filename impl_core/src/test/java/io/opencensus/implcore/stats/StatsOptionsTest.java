@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.common.Duration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link StatsOptions}. */
+@RunWith(JUnit4.class)
+public final class StatsOptionsTest {
+
+  @Rule public final ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void defaultOptions() {
+    StatsOptions options = StatsOptions.getDefault();
+    assertThat(options.isConcurrentRecording()).isFalse();
+    assertThat(options.getMaxSeriesPerView()).isEqualTo(Integer.MAX_VALUE);
+    assertThat(options.getSeriesIdleTimeout()).isEqualTo(Duration.create(0, 0));
+  }
+
+  @Test
+  public void setOptions() {
+    StatsOptions options =
+        StatsOptions.builder()
+            .setConcurrentRecording(true)
+            .setMaxSeriesPerView(100)
+            .setSeriesIdleTimeout(Duration.create(60, 0))
+            .build();
+    assertThat(options.isConcurrentRecording()).isTrue();
+    assertThat(options.getMaxSeriesPerView()).isEqualTo(100);
+    assertThat(options.getSeriesIdleTimeout()).isEqualTo(Duration.create(60, 0));
+  }
+
+  @Test
+  public void preventNonPositiveMaxSeriesPerView() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("maxSeriesPerView should be positive.");
+    StatsOptions.builder().setMaxSeriesPerView(0);
+  }
+
+  @Test
+  public void preventNegativeSeriesIdleTimeout() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("seriesIdleTimeout should not be negative.");
+    StatsOptions.builder().setSeriesIdleTimeout(Duration.create(-1, 0));
+  }
+}
@@ -24,6 +24,7 @@ import com.google.common.collect.ImmutableMap;
 import io.grpc.Context;
 import io.opencensus.common.Duration;
 import io.opencensus.common.Timestamp;
+import io.opencensus.implcore.internal.EventQueue;
 import io.opencensus.implcore.internal.SimpleEventQueue;
 import io.opencensus.implcore.stats.StatsTestUtil.SimpleTagContext;
 import io.opencensus.stats.Aggregation.Count;
@@ -32,8 +33,10 @@ import io.opencensus.stats.Aggregation.Sum;
 import io.opencensus.stats.AggregationData.CountData;
 import io.opencensus.stats.AggregationData.DistributionData;
 import io.opencensus.stats.AggregationData.DistributionData.Exemplar;
+import io.opencensus.stats.AggregationData.SumDataLong;
 import io.opencensus.stats.BucketBoundaries;
 import io.opencensus.stats.Measure.MeasureDouble;
+import io.opencensus.stats.Measure.MeasureLong;
 import io.opencensus.stats.MeasureMap;
 import io.opencensus.stats.StatsCollectionState;
 import io.opencensus.stats.StatsComponent;
@@ -49,16 +52,21 @@ import io.opencensus.tags.TagKey;
 import io.opencensus.tags.TagValue;
 import io.opencensus.tags.unsafe.ContextUtils;
 import io.opencensus.testing.common.TestClock;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 /** Tests for {@link StatsRecorderImpl}. */
 @RunWith(JUnit4.class)
 public final class StatsRecorderImplTest {
+  @Rule public final ExpectedException thrown = ExpectedException.none();
+
   private static final TagKey KEY = TagKey.create("KEY");
   private static final TagValue VALUE = TagValue.create("VALUE");
   private static final TagValue VALUE_2 = TagValue.create("VALUE_2");
@@ -84,6 +92,67 @@ public final class StatsRecorderImplTest {
   private final ViewManager viewManager = statsComponent.getViewManager();
   private final StatsRecorder statsRecorder = statsComponent.getStatsRecorder();
 
+  @Test
+  public void record_ConcurrentRecording() {
+    CountingEventQueue queue = new CountingEventQueue();
+    StatsComponent concurrentStatsComponent =
+        new StatsComponentImplBase(
+            queue, testClock, StatsOptions.builder().setConcurrentRecording(true).build());
+    View countView =
+        View.create(
+            VIEW_NAME,
+            "description",
+            MEASURE_DOUBLE,
+            Count.create(),
+            Arrays.asList(KEY),
+            Cumulative.create());
+    concurrentStatsComponent.getViewManager().registerView(countView);
+    TagContext tags = new SimpleTagContext(Tag.create(KEY, VALUE));
+    concurrentStatsComponent
+        .getStatsRecorder()
+        .newMeasureMap()
+        .put(MEASURE_DOUBLE, 1.0)
+        .record(tags);
+    concurrentStatsComponent
+        .getStatsRecorder()
+        .newMeasureMap()
+        .put(MEASURE_DOUBLE_NO_VIEW_1, 1.0)
+        .record(tags);
+
+    // Count is recorded on the calling thread, and unregistered measures are dropped.
+    assertThat(queue.numEntries).isEqualTo(0);
+    assertThat(concurrentStatsComponent.getViewManager().getView(VIEW_NAME).getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE), CountData.create(1));
+
+    // Distribution still needs the queue.
+    View.Name distributionViewName = View.Name.create("my distribution view");
+    concurrentStatsComponent
+        .getViewManager()
+        .registerView(
+            View.create(
+                distributionViewName,
+                "description",
+                MEASURE_DOUBLE,
+                DISTRIBUTION,
+                Arrays.asList(KEY),
+                Cumulative.create()));
+    concurrentStatsComponent
+        .getStatsRecorder()
+        .newMeasureMap()
+        .put(MEASURE_DOUBLE, 2.0)
+        .record(tags);
+    assertThat(queue.numEntries).isEqualTo(1);
+    assertThat(concurrentStatsComponent.getViewManager().getView(VIEW_NAME).getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE), CountData.create(2));
+    assertThat(
+            concurrentStatsComponent
+                .getViewManager()
+                .getView(distributionViewName)
+                .getAggregationMap()
+                .get(Arrays.asList(VALUE)))
+        .isEqualTo(StatsTestUtil.createAggregationData(DISTRIBUTION, MEASURE_DOUBLE, 2.0));
+  }
+
   @Test
   public void record_CurrentContextNotSet() {
     View view =
@@ -290,6 +359,74 @@ public final class StatsRecorderImplTest {
         1e-6);
   }
 
+  @Test
+  public void recordSingleValue() {
+    MeasureLong measureLong = MeasureLong.create("my long measurement", "description", "1");
+    View.Name longViewName = View.Name.create("my long view");
+    viewManager.registerView(
+        View.create(
+            VIEW_NAME,
+            "description",
+            MEASURE_DOUBLE,
+            Sum.create(),
+            Arrays.asList(KEY),
+            Cumulative.create()));
+    viewManager.registerView(
+        View.create(
+            longViewName,
+            "description",
+            measureLong,
+            Sum.create(),
+            Arrays.asList(KEY),
+            Cumulative.create()));
+    TagContext tags = new SimpleTagContext(Tag.create(KEY, VALUE));
+    statsRecorder.record(MEASURE_DOUBLE, 1.5, tags);
+    statsRecorder.record(MEASURE_DOUBLE, 2.0, tags);
+    statsRecorder.record(measureLong, 3L, tags);
+    statsRecorder.record(MEASURE_DOUBLE_NO_VIEW_1, 4.0, tags);
+
+    StatsTestUtil.assertAggregationMapEquals(
+        viewManager.getView(VIEW_NAME).getAggregationMap(),
+        ImmutableMap.of(
+            Arrays.asList(VALUE),
+            StatsTestUtil.createAggregationData(Sum.create(), MEASURE_DOUBLE, 1.5, 2.0)),
+        1e-6);
+    assertThat(viewManager.getView(longViewName).getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE), SumDataLong.create(3));
+  }
+
+  @Test
+  public void recordSingleValue_ConcurrentRecording() {
+    CountingEventQueue queue = new CountingEventQueue();
+    StatsComponent concurrentStatsComponent =
+        new StatsComponentImplBase(
+            queue, testClock, StatsOptions.builder().setConcurrentRecording(true).build());
+    concurrentStatsComponent
+        .getViewManager()
+        .registerView(
+            View.create(
+                VIEW_NAME,
+                "description",
+                MEASURE_DOUBLE,
+                Count.create(),
+                Arrays.asList(KEY),
+                Cumulative.create()));
+    concurrentStatsComponent
+        .getStatsRecorder()
+        .record(MEASURE_DOUBLE, 1.0, new SimpleTagContext(Tag.create(KEY, VALUE)));
+
+    assertThat(queue.numEntries).isEqualTo(0);
+    assertThat(concurrentStatsComponent.getViewManager().getView(VIEW_NAME).getAggregationMap())
+        .containsExactly(Arrays.asList(VALUE), CountData.create(1));
+  }
+
+  @Test
+  public void recordSingleValue_DisallowNullTagContext() {
+    thrown.expect(NullPointerException.class);
+    thrown.expectMessage("tags");
+    statsRecorder.record(MEASURE_DOUBLE, 1.0, null);
+  }
+
   @Test
   @SuppressWarnings("deprecation")
   public void record_StatsDisabled() {
@@ -346,4 +483,95 @@ public final class StatsRecorderImplTest {
             StatsTestUtil.createAggregationData(Sum.create(), MEASURE_DOUBLE, 4.0)),
         1e-6);
   }
+
+  @Test
+  public void record_BatchSharesTimestamp() {
+    testClock.setTime(START_TIME);
+    BatchingEventQueue queue = new BatchingEventQueue();
+    StatsComponent batchingStatsComponent = new StatsComponentImplBase(queue, testClock);
+    batchingStatsComponent
+        .getViewManager()
+        .registerView(
+            View.create(
+                VIEW_NAME, "description", MEASURE_DOUBLE, DISTRIBUTION, Arrays.asList(KEY)));
+    TagContext tags = new SimpleTagContext(Tag.create(KEY, VALUE));
+    testClock.setTime(Timestamp.create(1, 0));
+    batchingStatsComponent
+        .getStatsRecorder()
+        .newMeasureMap()
+        .put(MEASURE_DOUBLE, -1.0)
+        .putAttachment("k1", "v1")
+        .record(tags);
+    testClock.setTime(Timestamp.create(2, 0));
+    batchingStatsComponent
+        .getStatsRecorder()
+        .newMeasureMap()
+        .put(MEASURE_DOUBLE, 1.0)
+        .putAttachment("k2", "v2")
+        .record(tags);
+    testClock.setTime(Timestamp.create(3, 0));
+    queue.processBatch();
+
+    // Both values are recorded with the time of the beginning of the batch.
+    DistributionData distributionData =
+        (DistributionData)
+            batchingStatsComponent
+                .getViewManager()
+                .getView(VIEW_NAME)
+                .getAggregationMap()
+                .get(Collections.singletonList(VALUE));
+    assertThat(distributionData.getExemplars())
+        .containsExactly(
+            Exemplar.create(-1.0, Timestamp.create(3, 0), Collections.singletonMap("k1", "v1")),
+            Exemplar.create(1.0, Timestamp.create(3, 0), Collections.singletonMap("k2", "v2")))
+        .inOrder();
+  }
+
+  // An EventQueue that processes entries synchronously and counts them.
+  private static final class CountingEventQueue implements EventQueue {
+    private int numEntries;
+
+    @Override
+    public void enqueue(Entry entry) {
+      numEntries++;
+      entry.process();
+    }
+
+    @Override
+    public void shutdown() {}
+
+    @Override
+    public long shutdown(Duration timeout) {
+      return 0;
+    }
+  }
+
+  // An EventQueue that keeps the entries until processBatch() processes them in one batch.
+  private static final class BatchingEventQueue implements EventQueue {
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    @Override
+    public void enqueue(Entry entry) {
+      entries.add(entry);
+    }
+
+    void processBatch() {
+      Batch batch = ((BatchEntry) entries.get(0)).getBatch();
+      batch.begin();
+      for (Entry entry : entries) {
+        assertThat(((BatchEntry) entry).getBatch()).isSameAs(batch);
+        ((BatchEntry) entry).processInBatch();
+      }
+      batch.end();
+      entries.clear();
+    }
+
+    @Override
+    public void shutdown() {}
+
+    @Override
+    public long shutdown(Duration timeout) {
+      return 0;
+    }
+  }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link StripedAdder}. */
+@RunWith(JUnit4.class)
+public class StripedAdderTest {
+
+  private static final int NUM_THREADS = 8;
+  private static final int NUM_ADDS = 10000;
+
+  @Test
+  public void ofLong_AddAndReset() {
+    StripedAdder.OfLong adder = new StripedAdder.OfLong();
+    assertThat(adder.sum()).isEqualTo(0);
+    adder.add(5);
+    adder.add(-2);
+    assertThat(adder.sum()).isEqualTo(3);
+    // An adder that was never contended has no cells.
+    assertThat(adder.getCells()).isEmpty();
+    adder.reset();
+    assertThat(adder.sum()).isEqualTo(0);
+  }
+
+  @Test
+  public void ofDouble_AddAndReset() {
+    StripedAdder.OfDouble adder = new StripedAdder.OfDouble();
+    assertThat(adder.sum()).isEqualTo(0.0);
+    adder.add(1.5);
+    adder.add(-0.25);
+    assertThat(adder.sum()).isEqualTo(1.25);
+    adder.reset();
+    assertThat(adder.sum()).isEqualTo(0.0);
+  }
+
+  @Test
+  public void concurrentAdds() throws InterruptedException {
+    final StripedAdder.OfLong longAdder = new StripedAdder.OfLong();
+    final StripedAdder.OfDouble doubleAdder = new StripedAdder.OfDouble();
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < NUM_THREADS; i++) {
+      Thread thread =
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  try {
+                    start.await();
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                  }
+                  for (int j = 0; j < NUM_ADDS; j++) {
+                    longAdder.add(1);
+                    doubleAdder.add(0.5);
+                  }
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(longAdder.sum()).isEqualTo(NUM_THREADS * NUM_ADDS);
+    assertThat(doubleAdder.sum()).isEqualTo(NUM_THREADS * NUM_ADDS * 0.5);
+    assertThat(longAdder.getCells().length).isAtMost(64);
+    longAdder.reset();
+    assertThat(longAdder.getCells()).isEmpty();
+    assertThat(longAdder.sum()).isEqualTo(0);
+  }
+}
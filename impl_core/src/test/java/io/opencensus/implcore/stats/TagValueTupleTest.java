@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.stats;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.testing.EqualsTester;
+import io.opencensus.tags.TagValue;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link TagValueTuple}. */
+@RunWith(JUnit4.class)
+public class TagValueTupleTest {
+
+  private static final TagValue VALUE_1 = TagValue.create("value1");
+  private static final TagValue VALUE_2 = TagValue.create("value2");
+
+  @Test
+  public void copyOf() {
+    List<TagValue> tagValues = Arrays.asList(VALUE_1, null, VALUE_2);
+    TagValueTuple tuple = TagValueTuple.copyOf(tagValues);
+    assertThat(tuple).containsExactly(VALUE_1, null, VALUE_2).inOrder();
+    assertThat(TagValueTuple.copyOf(tuple)).isSameAs(tuple);
+  }
+
+  @Test
+  public void copyOf_IsNotAffectedByChangesToTheOriginal() {
+    TagValue[] tagValues = {VALUE_1, VALUE_2};
+    TagValueTuple tuple = TagValueTuple.copyOf(Arrays.asList(tagValues));
+    tagValues[0] = VALUE_2;
+    assertThat(tuple).containsExactly(VALUE_1, VALUE_2).inOrder();
+  }
+
+  @Test
+  public void testEquals() {
+    new EqualsTester()
+        .addEqualityGroup(
+            TagValueTuple.copyOf(Arrays.asList(VALUE_1, VALUE_2)),
+            TagValueTuple.copyOf(Arrays.asList(VALUE_1, VALUE_2)),
+            Arrays.asList(VALUE_1, VALUE_2))
+        .addEqualityGroup(
+            TagValueTuple.copyOf(Arrays.asList(VALUE_2, VALUE_1)), Arrays.asList(VALUE_2, VALUE_1))
+        .addEqualityGroup(
+            TagValueTuple.copyOf(Arrays.<TagValue>asList(VALUE_1, null)),
+            Arrays.<TagValue>asList(VALUE_1, null))
+        .addEqualityGroup(
+            TagValueTuple.copyOf(Collections.<TagValue>emptyList()),
+            Collections.<TagValue>emptyList())
+        .testEquals();
+  }
+
+  @Test
+  public void probe_EqualsTupleWithSameTagValues() {
+    TagValue[] tagValues = {VALUE_2, null, VALUE_1};
+    TagValueTuple.Probe probe = new TagValueTuple.Probe().set(tagValues, new int[] {2, 1});
+    TagValueTuple tuple = TagValueTuple.copyOf(Arrays.<TagValue>asList(VALUE_1, null));
+    assertThat(probe).containsExactly(VALUE_1, null).inOrder();
+    assertThat(probe.hashCode()).isEqualTo(tuple.hashCode());
+    assertThat(probe.equals(tuple)).isTrue();
+    assertThat(tuple.equals(probe)).isTrue();
+    assertThat(probe.equals(TagValueTuple.copyOf(Arrays.asList(VALUE_1, VALUE_2)))).isFalse();
+    assertThat(probe.equals(TagValueTuple.copyOf(Arrays.<TagValue>asList(VALUE_1)))).isFalse();
+  }
+
+  @Test
+  public void probe_LooksUpMapWithoutNewKey() {
+    Map<List<TagValue>, String> map = new HashMap<List<TagValue>, String>();
+    map.put(TagValueTuple.copyOf(Arrays.asList(VALUE_1, VALUE_2)), "series");
+    TagValue[] tagValues = {VALUE_1, VALUE_2};
+    TagValueTuple.Probe probe = new TagValueTuple.Probe();
+    assertThat(map.get(probe.set(tagValues, new int[] {0, 1}))).isEqualTo("series");
+    assertThat(map.get(probe.set(tagValues, new int[] {1, 0}))).isNull();
+  }
+}
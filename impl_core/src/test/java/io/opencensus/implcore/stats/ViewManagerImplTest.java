@@ -612,6 +612,47 @@ public class ViewManagerImplTest {
     assertThat(viewData4.getAggregationMap()).isEmpty();
   }
 
+  @Test
+  public void testRecordIntervalWithCustomNumBuckets() {
+    // The interval is 10 seconds split into 10 buckets, so the window slides by 1 second.
+    View view =
+        View.create(
+            VIEW_NAME,
+            VIEW_DESCRIPTION,
+            MEASURE_DOUBLE,
+            SUM,
+            Arrays.asList(KEY),
+            Interval.create(TEN_SECONDS, 10));
+    clock.setTime(Timestamp.create(10, 0)); // Start at 10s
+    viewManager.registerView(view);
+    TagContext tags = tagger.emptyBuilder().put(KEY, VALUE).build();
+
+    // record at 11s, falls into bucket [11, 12)
+    clock.setTime(Timestamp.fromMillis(11 * MILLIS_PER_SECOND));
+    statsRecorder.newMeasureMap().put(MEASURE_DOUBLE, 1.0).record(tags);
+    // record at 12.5s, falls into bucket [12, 13)
+    clock.setTime(Timestamp.fromMillis(12500));
+    statsRecorder.newMeasureMap().put(MEASURE_DOUBLE, 2.0).record(tags);
+
+    // get ViewData at 21.5s, 50% of the values in bucket [11, 12) should have expired.
+    clock.setTime(Timestamp.fromMillis(21500));
+    StatsTestUtil.assertAggregationMapEquals(
+        viewManager.getView(VIEW_NAME).getAggregationMap(),
+        ImmutableMap.of(Arrays.asList(VALUE), SumDataDouble.create(2.5)),
+        EPSILON);
+
+    // get ViewData at 22.5s, 50% of the values in bucket [12, 13) should have expired.
+    clock.setTime(Timestamp.fromMillis(22500));
+    StatsTestUtil.assertAggregationMapEquals(
+        viewManager.getView(VIEW_NAME).getAggregationMap(),
+        ImmutableMap.of(Arrays.asList(VALUE), SumDataDouble.create(1.0)),
+        EPSILON);
+
+    // get ViewData at 23s, all values should have expired.
+    clock.setTime(Timestamp.fromMillis(23 * MILLIS_PER_SECOND));
+    assertThat(viewManager.getView(VIEW_NAME).getAggregationMap()).isEmpty();
+  }
+
   // This test checks that MeasureMaper.record(...) does not throw an exception when no views are
   // registered.
   @Test
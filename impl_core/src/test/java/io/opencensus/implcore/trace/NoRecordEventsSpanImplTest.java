@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.trace;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.trace.Annotation;
+import io.opencensus.trace.AttributeValue;
+import io.opencensus.trace.EndSpanOptions;
+import io.opencensus.trace.Link;
+import io.opencensus.trace.MessageEvent;
+import io.opencensus.trace.SpanContext;
+import io.opencensus.trace.SpanId;
+import io.opencensus.trace.Status;
+import io.opencensus.trace.TraceId;
+import io.opencensus.trace.TraceOptions;
+import io.opencensus.trace.Tracestate;
+import java.util.Collections;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link NoRecordEventsSpanImpl}. */
+@RunWith(JUnit4.class)
+public class NoRecordEventsSpanImplTest {
+  private final Random random = new Random(1234);
+  private final SpanContext spanContext =
+      SpanContext.create(
+          TraceId.generateRandomId(random),
+          SpanId.generateRandomId(random),
+          TraceOptions.DEFAULT,
+          Tracestate.builder().build());
+  private final NoRecordEventsSpanImpl noRecordEventsSpan =
+      NoRecordEventsSpanImpl.create(spanContext, null);
+
+  @Rule public final ExpectedException exception = ExpectedException.none();
+
+  @Test
+  public void carriesSpanContext() {
+    assertThat(noRecordEventsSpan.getContext()).isSameAs(spanContext);
+    assertThat(noRecordEventsSpan.getOptions()).isEmpty();
+    assertThat(noRecordEventsSpan.getTimestampConverter()).isNull();
+  }
+
+  @Test
+  public void doNotCrash() {
+    noRecordEventsSpan.putAttribute("MyKey", AttributeValue.stringAttributeValue("MyValue"));
+    noRecordEventsSpan.putAttributes(
+        Collections.singletonMap("MyKey", AttributeValue.booleanAttributeValue(true)));
+    noRecordEventsSpan.addAnnotation("MyAnnotation");
+    noRecordEventsSpan.addAnnotation(Annotation.fromDescription("MyAnnotation"));
+    noRecordEventsSpan.addMessageEvent(MessageEvent.builder(MessageEvent.Type.SENT, 1L).build());
+    noRecordEventsSpan.addLink(Link.fromSpanContext(spanContext, Link.Type.CHILD_LINKED_SPAN));
+    noRecordEventsSpan.setStatus(Status.OK);
+    noRecordEventsSpan.end(EndSpanOptions.DEFAULT);
+    noRecordEventsSpan.end();
+  }
+
+  @Test
+  public void putAttribute_NullKey() {
+    exception.expect(NullPointerException.class);
+    noRecordEventsSpan.putAttribute(null, AttributeValue.stringAttributeValue("MyValue"));
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  public void addNetworkEvent_Null() {
+    exception.expect(NullPointerException.class);
+    noRecordEventsSpan.addNetworkEvent(null);
+  }
+
+  @Test
+  public void end_NullOptions() {
+    exception.expect(NullPointerException.class);
+    noRecordEventsSpan.end(null);
+  }
+
+  @Test
+  public void create_SampledContext() {
+    exception.expect(IllegalArgumentException.class);
+    NoRecordEventsSpanImpl.create(
+        SpanContext.create(
+            TraceId.generateRandomId(random),
+            SpanId.generateRandomId(random),
+            TraceOptions.builder().setIsSampled(true).build()),
+        null);
+  }
+}
@@ -22,6 +22,8 @@ import static org.mockito.Mockito.when;
 import io.opencensus.implcore.trace.SpanImpl.StartEndHandler;
 import io.opencensus.implcore.trace.internal.RandomHandler;
 import io.opencensus.testing.common.TestClock;
+import io.opencensus.trace.Link;
+import io.opencensus.trace.Link.Type;
 import io.opencensus.trace.Span;
 import io.opencensus.trace.Span.Kind;
 import io.opencensus.trace.Span.Options;
@@ -65,9 +67,10 @@ public class SpanBuilderImplTest {
   @Test
   public void setSpanKind_NotNull() {
     SpanImpl span =
-        SpanBuilderImpl.createWithParent(SPAN_NAME, null, spanBuilderOptions)
-            .setSpanKind(Kind.CLIENT)
-            .startSpan();
+        (SpanImpl)
+            SpanBuilderImpl.createWithParent(SPAN_NAME, null, spanBuilderOptions)
+                .setSpanKind(Kind.CLIENT)
+                .startSpan();
     assertThat(span.getKind()).isEqualTo(Kind.CLIENT);
     assertThat(span.toSpanData().getKind()).isEqualTo(Kind.CLIENT);
   }
@@ -75,7 +78,8 @@ public class SpanBuilderImplTest {
   @Test
   public void setSpanKind_DefaultNull() {
     SpanImpl span =
-        SpanBuilderImpl.createWithParent(SPAN_NAME, null, spanBuilderOptions).startSpan();
+        (SpanImpl)
+            SpanBuilderImpl.createWithParent(SPAN_NAME, null, spanBuilderOptions).startSpan();
     assertThat(span.getKind()).isNull();
     assertThat(span.toSpanData().getKind()).isNull();
   }
@@ -83,7 +87,8 @@ public class SpanBuilderImplTest {
   @Test
   public void startSpanNullParent() {
     SpanImpl span =
-        SpanBuilderImpl.createWithParent(SPAN_NAME, null, spanBuilderOptions).startSpan();
+        (SpanImpl)
+            SpanBuilderImpl.createWithParent(SPAN_NAME, null, spanBuilderOptions).startSpan();
     assertThat(span.getContext().isValid()).isTrue();
     assertThat(span.getOptions().contains(Options.RECORD_EVENTS)).isTrue();
     assertThat(span.getContext().getTraceOptions().isSampled()).isTrue();
@@ -97,10 +102,11 @@ public class SpanBuilderImplTest {
   @Test
   public void startSpanNullParentWithRecordEvents() {
     SpanImpl span =
-        SpanBuilderImpl.createWithParent(SPAN_NAME, null, spanBuilderOptions)
-            .setSampler(Samplers.neverSample())
-            .setRecordEvents(true)
-            .startSpan();
+        (SpanImpl)
+            SpanBuilderImpl.createWithParent(SPAN_NAME, null, spanBuilderOptions)
+                .setSampler(Samplers.neverSample())
+                .setRecordEvents(true)
+                .startSpan();
     assertThat(span.getContext().isValid()).isTrue();
     assertThat(span.getOptions().contains(Options.RECORD_EVENTS)).isTrue();
     assertThat(span.getContext().getTraceOptions().isSampled()).isFalse();
@@ -120,6 +126,65 @@ public class SpanBuilderImplTest {
     assertThat(span.getContext().getTraceOptions().isSampled()).isFalse();
   }
 
+  @Test
+  public void startSpanNullParentNoRecordOptions_DoesNotAllocateSpanImpl() {
+    Span span =
+        SpanBuilderImpl.createWithParent(SPAN_NAME, null, spanBuilderOptions)
+            .setSampler(Samplers.neverSample())
+            .startSpan();
+    assertThat(span).isInstanceOf(NoRecordEventsSpanImpl.class);
+    assertThat(span.getContext().getTraceOptions()).isEqualTo(TraceOptions.DEFAULT);
+  }
+
+  @Test
+  public void startChildSpan_NotSampledChildOfSampledParent() {
+    Span rootSpan =
+        SpanBuilderImpl.createWithParent(SPAN_NAME, null, spanBuilderOptions).startSpan();
+    Span childSpan =
+        SpanBuilderImpl.createWithParent(SPAN_NAME, rootSpan, spanBuilderOptions)
+            .setSampler(Samplers.neverSample())
+            .startSpan();
+    assertThat(childSpan).isInstanceOf(NoRecordEventsSpanImpl.class);
+    assertThat(childSpan.getContext().getTraceId()).isEqualTo(rootSpan.getContext().getTraceId());
+    assertThat(childSpan.getContext().getTraceOptions().isSampled()).isFalse();
+    assertThat(childSpan.getOptions()).isEmpty();
+  }
+
+  @Test
+  public void startChildSpan_RecordEventsChildOfNoRecordEventsParent() {
+    Span rootSpan =
+        SpanBuilderImpl.createWithParent(SPAN_NAME, null, spanBuilderOptions).startSpan();
+    Span childSpan =
+        SpanBuilderImpl.createWithParent(SPAN_NAME, rootSpan, spanBuilderOptions)
+            .setSampler(Samplers.neverSample())
+            .startSpan();
+    Span grandchildSpan =
+        SpanBuilderImpl.createWithParent(SPAN_NAME, childSpan, spanBuilderOptions)
+            .setSampler(Samplers.neverSample())
+            .setRecordEvents(true)
+            .startSpan();
+    assertThat(grandchildSpan.getOptions().contains(Options.RECORD_EVENTS)).isTrue();
+    assertThat(((SpanImpl) grandchildSpan).toSpanData().getParentSpanId())
+        .isEqualTo(childSpan.getContext().getSpanId());
+    // Events are recorded in the same time base as the other spans of the trace.
+    assertThat(((SpanImpl) grandchildSpan).getTimestampConverter())
+        .isEqualTo(((SpanImpl) rootSpan).getTimestampConverter());
+  }
+
+  @Test
+  public void startSpan_NoRecordEventsSpanLinksParentLinks() {
+    Span linkedSpan =
+        SpanBuilderImpl.createWithParent(SPAN_NAME, null, spanBuilderOptions).startSpan();
+    Span span =
+        SpanBuilderImpl.createWithParent(SPAN_NAME, null, spanBuilderOptions)
+            .setSampler(Samplers.neverSample())
+            .setParentLinks(Collections.singletonList(linkedSpan))
+            .startSpan();
+    assertThat(span).isInstanceOf(NoRecordEventsSpanImpl.class);
+    assertThat(((SpanImpl) linkedSpan).toSpanData().getLinks().getLinks())
+        .containsExactly(Link.fromSpanContext(span.getContext(), Type.CHILD_LINKED_SPAN));
+  }
+
   @Test
   public void startChildSpan() {
     Span rootSpan =
@@ -142,7 +207,8 @@ public class SpanBuilderImplTest {
   @Test
   public void startRemoteSpan_NullParent() {
     SpanImpl span =
-        SpanBuilderImpl.createWithRemoteParent(SPAN_NAME, null, spanBuilderOptions).startSpan();
+        (SpanImpl)
+            SpanBuilderImpl.createWithRemoteParent(SPAN_NAME, null, spanBuilderOptions).startSpan();
     assertThat(span.getContext().isValid()).isTrue();
     assertThat(span.getOptions().contains(Options.RECORD_EVENTS)).isTrue();
     assertThat(span.getContext().getTraceOptions().isSampled()).isTrue();
@@ -154,8 +220,10 @@ public class SpanBuilderImplTest {
   @Test
   public void startRemoteSpanInvalidParent() {
     SpanImpl span =
-        SpanBuilderImpl.createWithRemoteParent(SPAN_NAME, SpanContext.INVALID, spanBuilderOptions)
-            .startSpan();
+        (SpanImpl)
+            SpanBuilderImpl.createWithRemoteParent(
+                    SPAN_NAME, SpanContext.INVALID, spanBuilderOptions)
+                .startSpan();
     assertThat(span.getContext().isValid()).isTrue();
     assertThat(span.getOptions().contains(Options.RECORD_EVENTS)).isTrue();
     assertThat(span.getContext().getTraceOptions().isSampled()).isTrue();
@@ -172,8 +240,9 @@ public class SpanBuilderImplTest {
             SpanId.generateRandomId(randomHandler.current()),
             TraceOptions.DEFAULT);
     SpanImpl span =
-        SpanBuilderImpl.createWithRemoteParent(SPAN_NAME, spanContext, spanBuilderOptions)
-            .startSpan();
+        (SpanImpl)
+            SpanBuilderImpl.createWithRemoteParent(SPAN_NAME, spanContext, spanBuilderOptions)
+                .startSpan();
     assertThat(span.getContext().isValid()).isTrue();
     assertThat(span.getContext().getTraceId()).isEqualTo(spanContext.getTraceId());
     assertThat(span.getContext().getTraceOptions().isSampled()).isTrue();
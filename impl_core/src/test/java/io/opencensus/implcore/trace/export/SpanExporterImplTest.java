@@ -35,9 +35,12 @@ import io.opencensus.trace.TraceOptions;
 import io.opencensus.trace.config.TraceParams;
 import io.opencensus.trace.export.SpanData;
 import io.opencensus.trace.export.SpanExporter.Handler;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -233,4 +236,128 @@ public class SpanExporterImplTest {
 
     assertThat(exported).containsExactly(span2.toSpanData());
   }
+
+  @Test(timeout = 10000L)
+  public void shutdownWithTimeout_ExportsSpansToAllHandlers() {
+    SpanExporterImpl spanExporter = SpanExporterImpl.create(4, Duration.create(0, 0));
+    StartEndHandler startEndHandler =
+        new StartEndHandlerImpl(spanExporter, runningSpanStore, null, new SimpleEventQueue());
+
+    spanExporter.registerHandler("test.service", serviceHandler);
+    TestHandler serviceHandler2 = new TestHandler();
+    spanExporter.registerHandler("test.service2", serviceHandler2);
+
+    SpanImpl span1 = createSampledEndedSpan(startEndHandler, SPAN_NAME_1);
+    assertThat(spanExporter.shutdown(Duration.create(10, 0))).isEqualTo(0);
+    assertThat(serviceHandler.waitForExport(1)).containsExactly(span1.toSpanData());
+    assertThat(serviceHandler2.waitForExport(1)).containsExactly(span1.toSpanData());
+  }
+
+  @Test(timeout = 10000L)
+  public void shutdownWithTimeout_ReportsSpansNotExportedInTime() {
+    SpanExporterImpl spanExporter = SpanExporterImpl.create(4, Duration.create(0, 0));
+    StartEndHandler startEndHandler =
+        new StartEndHandlerImpl(spanExporter, runningSpanStore, null, new SimpleEventQueue());
+
+    final CountDownLatch released = new CountDownLatch(1);
+    spanExporter.registerHandler(
+        "blocking.service",
+        new Handler() {
+          @Override
+          public void export(Collection<SpanData> spanDataList) {
+            try {
+              released.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+        });
+    spanExporter.registerHandler("test.service", serviceHandler);
+
+    SpanImpl span1 = createSampledEndedSpan(startEndHandler, SPAN_NAME_1);
+    SpanImpl span2 = createSampledEndedSpan(startEndHandler, SPAN_NAME_2);
+    assertThat(spanExporter.shutdown(Duration.fromMillis(50))).isEqualTo(2);
+    // The blocking handler does not delay the other one.
+    assertThat(serviceHandler.waitForExport(2))
+        .containsExactly(span1.toSpanData(), span2.toSpanData());
+    released.countDown();
+  }
+
+  @Test
+  public void shutdownWithTimeout_WaitsForBatchInFlight() throws InterruptedException {
+    SpanExporterImpl spanExporter = SpanExporterImpl.create(1, Duration.create(0, 0));
+    StartEndHandler startEndHandler =
+        new StartEndHandlerImpl(spanExporter, runningSpanStore, null, new SimpleEventQueue());
+
+    final CountDownLatch exportStarted = new CountDownLatch(1);
+    final CountDownLatch released = new CountDownLatch(1);
+    final List<SpanData> exported = new ArrayList<SpanData>();
+    final boolean[] interrupted = new boolean[1];
+    spanExporter.registerHandler(
+        "slow.service",
+        new Handler() {
+          @Override
+          public void export(Collection<SpanData> spanDataList) {
+            exportStarted.countDown();
+            try {
+              released.await();
+              exported.addAll(spanDataList);
+            } catch (InterruptedException e) {
+              interrupted[0] = true;
+              Thread.currentThread().interrupt();
+            }
+          }
+        });
+
+    // The worker exports the two spans as one batch, and blocks in the slow handler.
+    SpanImpl span1 = createSampledEndedSpan(startEndHandler, SPAN_NAME_1);
+    SpanImpl span2 = createSampledEndedSpan(startEndHandler, SPAN_NAME_2);
+    exportStarted.await();
+    new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                try {
+                  Thread.sleep(50);
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+                released.countDown();
+              }
+            })
+        .start();
+    assertThat(spanExporter.shutdown(Duration.create(10, 0))).isEqualTo(0);
+    assertThat(interrupted[0]).isFalse();
+    assertThat(exported).containsExactly(span1.toSpanData(), span2.toSpanData());
+  }
+
+  @Test
+  public void shutdownWithTimeout_ReportsBatchInFlightNotExportedInTime()
+      throws InterruptedException {
+    SpanExporterImpl spanExporter = SpanExporterImpl.create(1, Duration.create(0, 0));
+    StartEndHandler startEndHandler =
+        new StartEndHandlerImpl(spanExporter, runningSpanStore, null, new SimpleEventQueue());
+
+    final CountDownLatch exportStarted = new CountDownLatch(1);
+    final CountDownLatch released = new CountDownLatch(1);
+    spanExporter.registerHandler(
+        "slow.service",
+        new Handler() {
+          @Override
+          public void export(Collection<SpanData> spanDataList) {
+            exportStarted.countDown();
+            try {
+              released.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+        });
+
+    createSampledEndedSpan(startEndHandler, SPAN_NAME_1);
+    createSampledEndedSpan(startEndHandler, SPAN_NAME_2);
+    exportStarted.await();
+    assertThat(spanExporter.shutdown(Duration.fromMillis(50))).isEqualTo(2);
+    released.countDown();
+  }
 }
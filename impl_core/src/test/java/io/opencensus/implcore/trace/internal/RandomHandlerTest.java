@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018, OpenCensus Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opencensus.implcore.trace.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import io.opencensus.implcore.trace.internal.RandomHandler.PerThreadRandomHandler;
+import io.opencensus.implcore.trace.internal.RandomHandler.SecureRandomHandler;
+import io.opencensus.trace.SpanId;
+import io.opencensus.trace.TraceId;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link RandomHandler}. */
+@RunWith(JUnit4.class)
+public class RandomHandlerTest {
+
+  @Test
+  public void generateIds_SecureRandomHandler() {
+    checkGeneratedIds(new SecureRandomHandler());
+  }
+
+  @Test
+  public void generateIds_PerThreadRandomHandler() {
+    checkGeneratedIds(new PerThreadRandomHandler());
+  }
+
+  @Test
+  public void generateIds_FromLongsOfCurrentRandom() {
+    RandomHandler randomHandler =
+        new RandomHandler() {
+          private final Random random = new Random(1234);
+
+          @Override
+          public Random current() {
+            return random;
+          }
+        };
+    Random expected = new Random(1234);
+    long idHi = expected.nextLong();
+    long idLo = expected.nextLong();
+    assertThat(randomHandler.generateTraceId()).isEqualTo(TraceId.fromLongs(idHi, idLo));
+    assertThat(randomHandler.generateSpanId()).isEqualTo(SpanId.fromLong(expected.nextLong()));
+  }
+
+  @Test
+  public void perThreadRandomHandler_OneRandomPerThread() throws InterruptedException {
+    final PerThreadRandomHandler randomHandler = new PerThreadRandomHandler();
+    Random random = randomHandler.current();
+    assertThat(randomHandler.current()).isSameAs(random);
+    final AtomicReference<Random> otherRandom = new AtomicReference<Random>();
+    Thread thread =
+        new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                otherRandom.set(randomHandler.current());
+              }
+            });
+    thread.start();
+    thread.join();
+    assertThat(otherRandom.get()).isNotNull();
+    assertThat(otherRandom.get()).isNotSameAs(random);
+  }
+
+  @Test
+  public void perThreadRandomHandler_BoundedValues() {
+    Random random = new PerThreadRandomHandler().current();
+    for (int i = 0; i < 1000; i++) {
+      int value = random.nextInt(10);
+      assertThat(value).isAtLeast(0);
+      assertThat(value).isLessThan(10);
+      double doubleValue = random.nextDouble();
+      assertThat(doubleValue).isAtLeast(0.0);
+      assertThat(doubleValue).isLessThan(1.0);
+    }
+  }
+
+  private static void checkGeneratedIds(RandomHandler randomHandler) {
+    Set<TraceId> traceIds = new HashSet<TraceId>();
+    Set<SpanId> spanIds = new HashSet<SpanId>();
+    for (int i = 0; i < 1000; i++) {
+      TraceId traceId = randomHandler.generateTraceId();
+      SpanId spanId = randomHandler.generateSpanId();
+      assertThat(traceId.isValid()).isTrue();
+      assertThat(spanId.isValid()).isTrue();
+      traceIds.add(traceId);
+      spanIds.add(spanId);
+    }
+    assertThat(traceIds).hasSize(1000);
+    assertThat(spanIds).hasSize(1000);
+  }
+}
@@ -18,8 +18,12 @@ package io.opencensus.impllite.trace;
 
 import io.opencensus.common.Clock;
 import io.opencensus.implcore.common.MillisClock;
+import io.opencensus.implcore.internal.BoundedEventQueue;
+import io.opencensus.implcore.internal.EventQueue;
 import io.opencensus.implcore.internal.SimpleEventQueue;
 import io.opencensus.implcore.trace.TraceComponentImplBase;
+import io.opencensus.implcore.trace.internal.RandomHandler;
+import io.opencensus.implcore.trace.internal.RandomHandler.PerThreadRandomHandler;
 import io.opencensus.implcore.trace.internal.RandomHandler.SecureRandomHandler;
 import io.opencensus.trace.TraceComponent;
 import io.opencensus.trace.Tracer;
@@ -29,13 +33,48 @@ import io.opencensus.trace.propagation.PropagationComponent;
 
 /** Android-compatible implementation of the {@link TraceComponent}. */
 public final class TraceComponentImplLite extends TraceComponent {
+
+  /**
+   * Name of the boolean property that moves the processing of span events, such as adding ended
+   * spans to the span stores and exporter, from the thread that ends the span to a background
+   * thread. Events are dropped when more than 1024 of them are waiting to be processed. The name is
+   * {@value}.
+   */
+  public static final String BACKGROUND_EVENT_QUEUE_PROPERTY_NAME =
+      "io.opencensus.impllite.trace.TraceComponentImplLite.backgroundEventQueue";
+
+  /**
+   * Name of the boolean property that generates trace and span ids with a random number generator
+   * per thread, seeded from a {@code SecureRandom}, instead of a single {@code SecureRandom} that
+   * all the threads contend on. The name is {@value}.
+   */
+  public static final String PER_THREAD_RANDOM_PROPERTY_NAME =
+      "io.opencensus.impllite.trace.TraceComponentImplLite.perThreadRandom";
+
+  private static final int BACKGROUND_EVENT_QUEUE_CAPACITY = 1024;
+
   private final TraceComponentImplBase traceComponentImplBase;
 
   /** Public constructor to be used with reflection loading. */
   public TraceComponentImplLite() {
     traceComponentImplBase =
         new TraceComponentImplBase(
-            MillisClock.getInstance(), new SecureRandomHandler(), new SimpleEventQueue());
+            MillisClock.getInstance(),
+            createRandomHandler(),
+            createEventQueue(),
+            /*supportInProcessStores=*/ false);
+  }
+
+  private static RandomHandler createRandomHandler() {
+    return Boolean.getBoolean(PER_THREAD_RANDOM_PROPERTY_NAME)
+        ? new PerThreadRandomHandler()
+        : new SecureRandomHandler();
+  }
+
+  private static EventQueue createEventQueue() {
+    return Boolean.getBoolean(BACKGROUND_EVENT_QUEUE_PROPERTY_NAME)
+        ? new BoundedEventQueue(BACKGROUND_EVENT_QUEUE_CAPACITY)
+        : new SimpleEventQueue();
   }
 
   @Override
@@ -21,8 +21,15 @@ import static com.google.common.truth.Truth.assertThat;
 import io.opencensus.implcore.common.MillisClock;
 import io.opencensus.implcore.trace.TracerImpl;
 import io.opencensus.implcore.trace.export.ExportComponentImpl;
+import io.opencensus.implcore.trace.export.InProcessRunningSpanStoreImpl;
 import io.opencensus.implcore.trace.propagation.PropagationComponentImpl;
 import io.opencensus.trace.Tracing;
+import io.opencensus.trace.export.SpanData;
+import io.opencensus.trace.export.SpanExporter.Handler;
+import io.opencensus.trace.samplers.Samplers;
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -49,4 +56,38 @@ public class TraceComponentImplLiteTest {
   public void implementationOfTraceExporter() {
     assertThat(Tracing.getExportComponent()).isInstanceOf(ExportComponentImpl.class);
   }
+
+  @Test
+  public void backgroundEventQueue_ExportsEndedSpans() throws InterruptedException {
+    System.setProperty(TraceComponentImplLite.BACKGROUND_EVENT_QUEUE_PROPERTY_NAME, "true");
+    TraceComponentImplLite traceComponent;
+    try {
+      traceComponent = new TraceComponentImplLite();
+    } finally {
+      System.clearProperty(TraceComponentImplLite.BACKGROUND_EVENT_QUEUE_PROPERTY_NAME);
+    }
+    final CountDownLatch exported = new CountDownLatch(1);
+    traceComponent
+        .getExportComponent()
+        .getSpanExporter()
+        .registerHandler(
+            "test",
+            new Handler() {
+              @Override
+              public void export(Collection<SpanData> spanDataList) {
+                exported.countDown();
+              }
+            });
+    traceComponent
+        .getTracer()
+        .spanBuilderWithExplicitParent("MySpan", null)
+        .setSampler(Samplers.alwaysSample())
+        .startSpan()
+        .end();
+    // The lite implementation does not keep the spans in memory for the in-process stores.
+    assertThat(traceComponent.getExportComponent().getRunningSpanStore())
+        .isNotInstanceOf(InProcessRunningSpanStoreImpl.class);
+    // The span is exported by the exporter thread within its 5 seconds schedule delay.
+    assertThat(exported.await(10, TimeUnit.SECONDS)).isTrue();
+  }
 }